@@ -0,0 +1,94 @@
+package com.totrackit.interceptor;
+
+import com.totrackit.service.MetricsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of HTTP request metrics: the previous path (regex path
+ * sanitizing, millisecond clock, building and registering both meters on
+ * every request) against the route-template path (router-provided
+ * template, nanosecond clock, cached meter handles).
+ *
+ * Run with {@code ./gradlew jmh}; add {@code -prof gc} through
+ * {@code jmh.profilers} to compare allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark-logback.xml")
+public class HttpMetricsBenchmark {
+
+    private static final String PATH = "/processes/nightly-export/run-20260101-0200";
+
+    private MeterRegistry legacyRegistry;
+    private MetricsService metricsService;
+    private HttpRequest<?> request;
+
+    @Setup
+    public void setUp() {
+        legacyRegistry = new SimpleMeterRegistry();
+        metricsService = new MetricsService(new SimpleMeterRegistry());
+        request = HttpRequest.GET(PATH).setAttribute(HttpAttributes.URI_TEMPLATE, "/processes/{name}/{id}");
+    }
+
+    @Benchmark
+    public void legacy() {
+        long startTime = System.currentTimeMillis();
+        String endpoint = legacySanitize(request.getPath());
+        long duration = System.currentTimeMillis() - startTime;
+        String method = request.getMethod().name();
+        Timer.builder("totrackit_http_request_duration_seconds")
+                .description("HTTP request duration in seconds")
+                .tag("method", method)
+                .tag("endpoint", endpoint)
+                .tag("status", String.valueOf(200))
+                .register(legacyRegistry)
+                .record(duration, TimeUnit.MILLISECONDS);
+        Counter.builder("totrackit_http_requests_total")
+                .description("Total number of HTTP requests")
+                .tag("method", method)
+                .tag("endpoint", endpoint)
+                .tag("status", String.valueOf(200))
+                .register(legacyRegistry)
+                .increment();
+    }
+
+    @Benchmark
+    public void routeTemplate() {
+        long startNanos = System.nanoTime();
+        metricsService.recordHttpRequestNanos(request.getMethodName(), MetricsInterceptor.routeTemplate(request),
+                200, System.nanoTime() - startNanos);
+    }
+
+    /** MetricsInterceptor.sanitizePath as it was before route templates. */
+    private static String legacySanitize(String path) {
+        String sanitized = path
+                .replaceAll("/v1/processes/[^/]+/[^/]+", "/v1/processes/{name}/{id}")
+                .replaceAll("/v1/processes/[^/]+", "/v1/processes/{name}")
+                .replaceAll("/swagger-ui/.*", "/swagger-ui/**")
+                .replaceAll("/swagger/.*", "/swagger/**");
+        if (sanitized.length() > 100) {
+            sanitized = sanitized.substring(0, 100) + "...";
+        }
+        return sanitized;
+    }
+}
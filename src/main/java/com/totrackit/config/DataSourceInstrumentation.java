@@ -0,0 +1,46 @@
+package com.totrackit.config;
+
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.SlowQueryLog;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.order.Ordered;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the pooled DataSource in an {@link InstrumentedDataSource} so
+ * connection acquire and hold times are recorded per call site and named
+ * statements are timed.
+ *
+ * Runs before Micronaut Data's contextual-connection wrapper, so the
+ * instrumented DataSource sits directly on the pool and only times real
+ * borrows, not connections reused within a transaction.
+ */
+@Singleton
+public class DataSourceInstrumentation implements BeanCreatedEventListener<DataSource>, Ordered {
+
+    private final BeanProvider<MetricsService> metricsService;
+    private final BeanProvider<SlowQueryLog> slowQueryLog;
+
+    @Inject
+    public DataSourceInstrumentation(BeanProvider<MetricsService> metricsService,
+                                     BeanProvider<SlowQueryLog> slowQueryLog) {
+        // Resolved on first use: the DataSource may be created before the meter registry.
+        this.metricsService = metricsService;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+        return new InstrumentedDataSource(event.getBean(), metricsService::get, slowQueryLog::get);
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -1,33 +1,66 @@
 package com.totrackit.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micronaut.context.annotation.Context;
+import io.micronaut.data.connection.jdbc.advice.DelegatingDataSource;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
+import java.util.function.ToIntFunction;
+
 /**
  * Configuration to enable database connection pool metrics.
- * Creates gauges for database connection pool monitoring.
+ * Exports the HikariCP pool's live state: connections in use, idle, open,
+ * the configured maximum and the threads waiting for a connection.
+ * Per-call-site acquire and hold times come from {@link InstrumentedDataSource}.
  */
 @Singleton
 @Context
 public class DatabaseMetricsConfiguration {
-    
+
     private static final Logger LOG = LoggerFactory.getLogger(DatabaseMetricsConfiguration.class);
-    
+
     @Inject
-    public DatabaseMetricsConfiguration(MeterRegistry meterRegistry) {
+    public DatabaseMetricsConfiguration(MeterRegistry meterRegistry, DataSource dataSource) {
         try {
-            // Register database connection pool gauges
-            meterRegistry.gauge("totrackit_database_connections_active", 0);
-            meterRegistry.gauge("totrackit_database_connections_idle", 0);
-            meterRegistry.gauge("totrackit_database_connections_total", 0);
-            
-            LOG.info("Configured database connection pool metrics");
+            DataSource pool = DelegatingDataSource.unwrapDataSource(dataSource);
+            if (!pool.isWrapperFor(HikariDataSource.class)) {
+                LOG.warn("DataSource is not a HikariCP pool; connection pool metrics disabled");
+                return;
+            }
+            HikariDataSource hikari = pool.unwrap(HikariDataSource.class);
+            registerPoolGauge(meterRegistry, hikari, "totrackit_database_connections_active",
+                    "Pooled connections currently borrowed", HikariPoolMXBean::getActiveConnections);
+            registerPoolGauge(meterRegistry, hikari, "totrackit_database_connections_idle",
+                    "Pooled connections open and idle", HikariPoolMXBean::getIdleConnections);
+            registerPoolGauge(meterRegistry, hikari, "totrackit_database_connections_total",
+                    "Pooled connections open, in use or idle", HikariPoolMXBean::getTotalConnections);
+            registerPoolGauge(meterRegistry, hikari, "totrackit_database_connections_pending",
+                    "Threads waiting for a pooled connection", HikariPoolMXBean::getThreadsAwaitingConnection);
+            Gauge.builder("totrackit_database_connections_max", hikari, HikariDataSource::getMaximumPoolSize)
+                    .description("Configured maximum pool size")
+                    .register(meterRegistry);
+
+            LOG.info("Configured database connection pool metrics for pool {}", hikari.getPoolName());
         } catch (Exception e) {
             LOG.warn("Failed to configure database metrics", e);
         }
     }
-}
\ No newline at end of file
+
+    private static void registerPoolGauge(MeterRegistry meterRegistry, HikariDataSource hikari, String name,
+                                          String description, ToIntFunction<HikariPoolMXBean> value) {
+        // The pool MXBean is null until the pool has started; read it at scrape time.
+        Gauge.builder(name, hikari, ds -> {
+                    HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+                    return pool != null ? value.applyAsInt(pool) : 0;
+                })
+                .description(description)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,193 @@
+package com.totrackit.config;
+
+import com.totrackit.interceptor.PoolCallSiteInterceptor;
+import com.totrackit.interceptor.TimedQueriesInterceptor;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.SlowQueryLog;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Pooled DataSource that times how long each borrow waits for a connection
+ * and how long the connection is held until it is returned, tagged with the
+ * {@link com.totrackit.interceptor.PoolCallSite} of the borrowing thread.
+ * Borrows that fail, such as those timing out on an exhausted pool, count
+ * their wait too and are counted as failed.
+ * Statements prepared on its connections inside a
+ * {@link com.totrackit.interceptor.TimedQueries} method are wrapped in a
+ * {@link TimedStatement}.
+ */
+class InstrumentedDataSource implements DataSource {
+
+    private final DataSource pool;
+    private final Supplier<MetricsService> metricsServiceProvider;
+    private final Supplier<SlowQueryLog> slowQueryLogProvider;
+    private volatile MetricsService metricsService;
+    private volatile SlowQueryLog slowQueryLog;
+
+    InstrumentedDataSource(DataSource pool, Supplier<MetricsService> metricsServiceProvider,
+                           Supplier<SlowQueryLog> slowQueryLogProvider) {
+        this.pool = pool;
+        this.metricsServiceProvider = metricsServiceProvider;
+        this.slowQueryLogProvider = slowQueryLogProvider;
+    }
+
+    private MetricsService metrics() {
+        MetricsService metrics = metricsService;
+        if (metrics == null) {
+            metrics = metricsServiceProvider.get();
+            metricsService = metrics;
+        }
+        return metrics;
+    }
+
+    private SlowQueryLog slowQueries() {
+        SlowQueryLog log = slowQueryLog;
+        if (log == null) {
+            log = slowQueryLogProvider.get();
+            slowQueryLog = log;
+        }
+        return log;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return track(pool.getConnection(), start);
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return track(pool.getConnection(username, password), start);
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    private void failed(long start) {
+        metrics().recordConnectionAcquireFailed(PoolCallSiteInterceptor.current(), System.nanoTime() - start);
+    }
+
+    private Connection track(Connection connection, long start) {
+        long acquiredAt = System.nanoTime();
+        String callSite = PoolCallSiteInterceptor.current();
+        metrics().recordConnectionAcquired(callSite, acquiredAt - start);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new HoldTimer(connection, callSite, acquiredAt));
+    }
+
+    /** Records the hold time when the borrowed connection is closed. */
+    private final class HoldTimer implements InvocationHandler {
+
+        private final Connection connection;
+        private final String callSite;
+        private final long acquiredAt;
+        private boolean closed;
+
+        private HoldTimer(Connection connection, String callSite, long acquiredAt) {
+            this.connection = connection;
+            this.callSite = callSite;
+            this.acquiredAt = acquiredAt;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (closed) {
+                        return null;
+                    }
+                    closed = true;
+                    metrics().recordConnectionReleased(callSite, System.nanoTime() - acquiredAt);
+                }
+                case "prepareStatement" -> {
+                    Object statement = delegate(method, args);
+                    String query = TimedQueriesInterceptor.current();
+                    return query != null && statement instanceof PreparedStatement prepared
+                            ? TimedStatement.wrap(prepared, query, (String) args[0], slowQueries())
+                            : statement;
+                }
+                case "isClosed" -> {
+                    if (closed) {
+                        return true;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "InstrumentedConnection[" + connection + "]";
+                }
+                default -> {
+                    // delegate below
+                }
+            }
+            return delegate(method, args);
+        }
+
+        private Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(pool) ? iface.cast(pool) : pool.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(pool) || pool.isWrapperFor(iface);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return pool.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        pool.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        pool.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return pool.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return pool.getParentLogger();
+    }
+}
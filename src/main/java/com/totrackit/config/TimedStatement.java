@@ -0,0 +1,101 @@
+package com.totrackit.config;
+
+import com.totrackit.service.SlowQueryLog;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+
+/**
+ * Times the executions of a named PreparedStatement and reports them to the
+ * {@link SlowQueryLog} along with the types of its bind parameters (and the
+ * values themselves only when EXPLAIN capture needs them).
+ */
+final class TimedStatement implements InvocationHandler {
+
+    private final PreparedStatement statement;
+    private final String query;
+    private final String sql;
+    private final SlowQueryLog slowQueryLog;
+    private final boolean captureValues;
+    private String[] bindTypes = new String[8];
+    private Object[] bindValues;
+    private int bindCount;
+
+    private TimedStatement(PreparedStatement statement, String query, String sql, SlowQueryLog slowQueryLog) {
+        this.statement = statement;
+        this.query = query;
+        this.sql = sql;
+        this.slowQueryLog = slowQueryLog;
+        this.captureValues = slowQueryLog.capturesBindValues();
+        this.bindValues = captureValues ? new Object[8] : null;
+    }
+
+    static PreparedStatement wrap(PreparedStatement statement, String query, String sql, SlowQueryLog slowQueryLog) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, new TimedStatement(statement, query, sql, slowQueryLog));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.startsWith("execute")) {
+            long start = System.nanoTime();
+            try {
+                return delegate(method, args);
+            } finally {
+                slowQueryLog.record(query, sql, Arrays.copyOf(bindTypes, bindCount),
+                        captureValues ? Arrays.copyOf(bindValues, bindCount) : null, System.nanoTime() - start);
+            }
+        }
+        // Parameter setters take the 1-based index first; statement settings take a single argument.
+        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+            bind(index, name, args[1]);
+        } else if (name.equals("clearParameters")) {
+            Arrays.fill(bindTypes, null);
+            if (captureValues) {
+                Arrays.fill(bindValues, null);
+            }
+            bindCount = 0;
+        } else if (name.equals("equals")) {
+            return proxy == args[0];
+        } else if (name.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        } else if (name.equals("toString")) {
+            return "TimedStatement[" + query + "]";
+        }
+        return delegate(method, args);
+    }
+
+    private void bind(int index, String setter, Object value) {
+        if (index < 1) {
+            return;
+        }
+        if (index > bindTypes.length) {
+            int size = Math.max(index, bindTypes.length * 2);
+            bindTypes = Arrays.copyOf(bindTypes, size);
+            if (captureValues) {
+                bindValues = Arrays.copyOf(bindValues, size);
+            }
+        }
+        boolean isNull = setter.equals("setNull") || value == null;
+        bindTypes[index - 1] = isNull ? "null"
+                : setter.equals("setObject") ? value.getClass().getSimpleName()
+                : setter.substring(3);
+        if (captureValues) {
+            bindValues[index - 1] = setter.equals("setNull") ? new SlowQueryLog.NullValue((Integer) value) : value;
+        }
+        bindCount = Math.max(bindCount, index);
+    }
+
+    private Object delegate(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
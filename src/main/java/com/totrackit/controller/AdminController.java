@@ -0,0 +1,43 @@
+package com.totrackit.controller;
+
+import com.totrackit.dto.SlowQueryResponse;
+import com.totrackit.service.SlowQueryLog;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+@Controller("/admin")
+@Tag(name = "Admin", description = "Operator diagnostics")
+public class AdminController {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @Inject
+    public AdminController(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Get("/slow-queries")
+    @Operation(
+        summary = "List recent slow queries",
+        description = "Named SQL statements that ran longer than totrackit.slow-query.threshold on this replica, "
+                + "newest first, at most totrackit.slow-query.capacity. With totrackit.slow-query.explain "
+                + "enabled, SELECTs carry their EXPLAIN (ANALYZE, BUFFERS) plan once captured."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Slow queries kept on this replica",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = SlowQueryResponse.class)))
+    )
+    public List<SlowQueryResponse> slowQueries() {
+        return slowQueryLog.recent().stream().map(SlowQueryResponse::from).toList();
+    }
+}
@@ -1,15 +1,24 @@
 package com.totrackit.controller;
 
+import com.totrackit.dto.ConcurrencyResponse;
 import com.totrackit.dto.NameRollupEntry;
 import com.totrackit.dto.PagedResult;
 import com.totrackit.dto.SummaryResponse;
+import com.totrackit.dto.TagCombinationResponse;
 import com.totrackit.dto.TagImpactResponse;
+import com.totrackit.model.NameRollupSort;
 import com.totrackit.service.AnalyticsService;
+import com.totrackit.service.AnalyticsSnapshotService;
+import com.totrackit.service.PromotedTagKeys;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.PathVariable;
 import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.http.exceptions.HttpStatusException;
 import io.micronaut.validation.Validated;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,9 +29,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Inject;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Supplier;
+
 @Controller("/analytics")
 @Validated
 @Tag(name = "Analytics", description = "Aggregated statistics across processes")
@@ -31,10 +44,12 @@ public class AnalyticsController {
     private static final Logger LOG = LoggerFactory.getLogger(AnalyticsController.class);
 
     private final AnalyticsService analyticsService;
+    private final AnalyticsSnapshotService snapshotService;
 
     @Inject
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService, AnalyticsSnapshotService snapshotService) {
         this.analyticsService = analyticsService;
+        this.snapshotService = snapshotService;
     }
 
     @Get("/tags")
@@ -49,7 +64,7 @@ public class AnalyticsController {
         description = "Per-tag impact breakdown",
         content = @Content(schema = @Schema(implementation = TagImpactResponse.class))
     )
-    public HttpResponse<TagImpactResponse> tagImpact(
+    public HttpResponse<?> tagImpact(
             @Parameter(description = "Filter by process name")
             @QueryValue @Nullable String name,
 
@@ -57,10 +72,72 @@ public class AnalyticsController {
                     + "Active processes are always included.")
             @QueryValue(value = "window_hours", defaultValue = "24") @Min(1) @Max(720) int windowHours) {
 
+        AnalyticsSnapshotService.Snapshot snapshot = snapshotService.current();
+        if (snapshot != null && name == null && windowHours == AnalyticsSnapshotService.DEFAULT_WINDOW_HOURS) {
+            return fromSnapshot(snapshot.getTagImpactJson());
+        }
         LOG.debug("Computing tag impact: name={}, windowHours={}", name, windowHours);
         return HttpResponse.ok(analyticsService.getTagImpact(name, windowHours));
     }
 
+    @Get("/tags/{key}")
+    @Operation(
+        summary = "Breakdown by one tag key",
+        description = "Aggregates deadline outcomes per value of a single tag key (e.g. country), covering "
+                + "every value instead of the top 100 pairs across all keys. Keys listed in "
+                + "totrackit.analytics.promoted-tag-keys are served from their own expression index."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Per-value impact breakdown for the key",
+        content = @Content(schema = @Schema(implementation = TagImpactResponse.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Invalid tag key")
+    public TagImpactResponse tagKeyBreakdown(
+            @Parameter(description = "Tag key to group by")
+            @PathVariable @Pattern(regexp = PromotedTagKeys.KEY_REGEX) String key,
+
+            @Parameter(description = "Filter by process name")
+            @QueryValue @Nullable String name,
+
+            @Parameter(description = "Include processes finished within the last N hours (1-720, default 24). "
+                    + "Active processes are always included.")
+            @QueryValue(value = "window_hours", defaultValue = "24") @Min(1) @Max(720) int windowHours) {
+
+        LOG.debug("Computing tag key breakdown: key={}, name={}, windowHours={}", key, name, windowHours);
+        return analyticsService.getTagKeyBreakdown(key, name, windowHours);
+    }
+
+    @Get("/tag-combinations")
+    @Operation(
+        summary = "Problem-heavy tag combinations",
+        description = "Top tag pairs (or triples) that overdue, late and failed processes concentrate on, "
+                + "e.g. country=DE AND carrier=X. Found in one bounded-memory streaming pass "
+                + "(Space-Saving + Count-Min), so counts are estimates with an explicit error bound."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Top problem tag combinations",
+        content = @Content(schema = @Schema(implementation = TagCombinationResponse.class))
+    )
+    public TagCombinationResponse tagCombinations(
+            @Parameter(description = "Filter by process name")
+            @QueryValue @Nullable String name,
+
+            @Parameter(description = "Include processes finished within the last N hours (1-720, default 24). "
+                    + "Active processes are always included.")
+            @QueryValue(value = "window_hours", defaultValue = "24") @Min(1) @Max(720) int windowHours,
+
+            @Parameter(description = "Tags per combination: 2 (pairs, default) or 3 (triples)")
+            @QueryValue(defaultValue = "2") @Min(2) @Max(3) int size,
+
+            @Parameter(description = "Maximum number of combinations (1-100)")
+            @QueryValue(defaultValue = "20") @Min(1) @Max(100) int limit) {
+
+        LOG.debug("Computing tag combinations: name={}, windowHours={}, size={}", name, windowHours, size);
+        return analyticsService.getTagCombinations(name, windowHours, size, limit);
+    }
+
     @Get("/summary")
     @Operation(
         summary = "Workspace summary",
@@ -72,14 +149,19 @@ public class AnalyticsController {
         description = "Workspace-wide summary counts",
         content = @Content(schema = @Schema(implementation = SummaryResponse.class))
     )
-    public HttpResponse<SummaryResponse> summary() {
+    public HttpResponse<?> summary() {
+        AnalyticsSnapshotService.Snapshot snapshot = snapshotService.current();
+        if (snapshot != null) {
+            return fromSnapshot(snapshot.getSummaryJson());
+        }
         return HttpResponse.ok(analyticsService.getSummary());
     }
 
     @Get("/names")
     @Operation(
         summary = "Per-name rollups",
-        description = "Aggregated run counts per process name (GROUP BY in SQL), busiest names first."
+        description = "Aggregated run counts per process name, read from the process-name registry. "
+                + "Busiest names first by default; pass next_cursor back as 'after' for keyset pagination."
     )
     @ApiResponse(
         responseCode = "200",
@@ -90,9 +172,71 @@ public class AnalyticsController {
             @Parameter(description = "Maximum number of names (1-100)")
             @QueryValue(defaultValue = "20") @Min(1) @Max(100) int limit,
 
-            @Parameter(description = "Number of names to skip")
-            @QueryValue(defaultValue = "0") @Min(0) int offset) {
+            @Parameter(description = "Number of names to skip (ignored when 'after' is set)")
+            @QueryValue(defaultValue = "0") @Min(0) int offset,
+
+            @Parameter(description = "Ordering: BUSIEST (default), OVERDUE, FAILURES, RECENT or NAME")
+            @QueryValue(defaultValue = "BUSIEST") NameRollupSort sort,
 
+            @Parameter(description = "Keyset cursor: the next_cursor of the previous page")
+            @QueryValue @Nullable String after) {
+
+        if (sort != NameRollupSort.BUSIEST || after != null) {
+            return HttpResponse.ok(badRequestOnInvalidArgument(
+                    () -> analyticsService.getNameRollups(sort, after, limit, offset)));
+        }
+        AnalyticsSnapshotService.Snapshot snapshot = snapshotService.current();
+        PagedResult<NameRollupEntry> page = snapshot != null ? snapshot.namePage(limit, offset) : null;
+        if (page != null) {
+            return HttpResponse.ok(page);
+        }
         return HttpResponse.ok(analyticsService.getNameRollups(limit, offset));
     }
+
+    @Get("/concurrency")
+    @Operation(
+        summary = "Concurrency timeline",
+        description = "How many runs of a process name were executing at the same time, as per-bucket "
+                + "peak and time-weighted average concurrency over the window. Computed with a sweep-line "
+                + "over start/completion events, for worker capacity planning."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Bucketed concurrency for the name",
+        content = @Content(schema = @Schema(implementation = ConcurrencyResponse.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Invalid name, window or bucket size")
+    public ConcurrencyResponse concurrency(
+            @Parameter(description = "Process name", required = true)
+            @QueryValue @NotBlank String name,
+
+            @Parameter(description = "Timeline length in hours, ending now (1-720, default 24)")
+            @QueryValue(value = "window_hours", defaultValue = "24") @Min(1) @Max(720) int windowHours,
+
+            @Parameter(description = "Bucket width in minutes (1-1440, default 60)")
+            @QueryValue(value = "bucket_minutes", defaultValue = "60") @Min(1) @Max(1440) int bucketMinutes) {
+
+        LOG.debug("Computing concurrency: name={}, windowHours={}, bucketMinutes={}", name, windowHours, bucketMinutes);
+        return badRequestOnInvalidArgument(() -> analyticsService.getConcurrency(name, windowHours, bucketMinutes));
+    }
+
+    /**
+     * Argument checks that depend on several parameters (bucket count, cursor
+     * decoding) live in the service; surface them as 400 rather than 500.
+     */
+    private static <T> T badRequestOnInvalidArgument(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (IllegalArgumentException e) {
+            throw new HttpStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a pre-serialized snapshot body as-is, skipping per-request
+     * aggregation and JSON encoding. Its generated_at is the snapshot's.
+     */
+    private HttpResponse<byte[]> fromSnapshot(byte[] body) {
+        return HttpResponse.ok(body).contentType(MediaType.APPLICATION_JSON_TYPE);
+    }
 }
@@ -0,0 +1,111 @@
+package com.totrackit.controller;
+
+import com.totrackit.dto.ExpectedScheduleRequest;
+import com.totrackit.dto.ExpectedScheduleResponse;
+import com.totrackit.service.ExpectedScheduleService;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Delete;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.annotation.Put;
+import io.micronaut.http.exceptions.HttpStatusException;
+import io.micronaut.validation.Validated;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+@Controller("/schedules")
+@Validated
+@Tag(name = "Schedules", description = "Expected-run schedules for detecting runs that never start")
+public class ExpectedScheduleController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExpectedScheduleController.class);
+
+    private final ExpectedScheduleService scheduleService;
+
+    @Inject
+    public ExpectedScheduleController(ExpectedScheduleService scheduleService) {
+        this.scheduleService = scheduleService;
+    }
+
+    @Get
+    @Operation(summary = "List expected-run schedules")
+    @ApiResponse(
+        responseCode = "200",
+        description = "All schedules, by process name",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = ExpectedScheduleResponse.class)))
+    )
+    public List<ExpectedScheduleResponse> list() {
+        return scheduleService.list().stream().map(ExpectedScheduleResponse::from).toList();
+    }
+
+    @Put("/{name}")
+    @Operation(
+        summary = "Create or replace the expected-run schedule of a process name",
+        description = "A run of the name should start within grace_seconds of every instant the cron expression "
+                + "fires at; a process.missing event is sent for each one that does not. Takes effect within "
+                + "totrackit.expected-runs.refresh-interval."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Schedule stored",
+            content = @Content(schema = @Schema(implementation = ExpectedScheduleResponse.class))
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid name, cron expression, time zone or grace")
+    })
+    public ExpectedScheduleResponse put(@Parameter(description = "Process name") @PathVariable String name,
+                                        @Body @Valid ExpectedScheduleRequest request) {
+        try {
+            return ExpectedScheduleResponse.from(scheduleService.put(name, request.getCron(),
+                    request.getTimeZone(), request.getGraceSeconds()));
+        } catch (IllegalArgumentException e) {
+            LOG.info("Rejected expected schedule for {}: {}", name, e.getMessage());
+            throw new HttpStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Get("/{name}")
+    @Operation(summary = "Get the expected-run schedule of a process name")
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Schedule found",
+            content = @Content(schema = @Schema(implementation = ExpectedScheduleResponse.class))
+        ),
+        @ApiResponse(responseCode = "404", description = "No schedule for this name")
+    })
+    public ExpectedScheduleResponse get(@Parameter(description = "Process name") @PathVariable String name) {
+        return scheduleService.find(name)
+                .map(ExpectedScheduleResponse::from)
+                .orElseThrow(() -> new HttpStatusException(HttpStatus.NOT_FOUND,
+                        "Expected schedule for " + name + " not found"));
+    }
+
+    @Delete("/{name}")
+    @Operation(summary = "Delete the expected-run schedule of a process name")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Schedule deleted"),
+        @ApiResponse(responseCode = "404", description = "No schedule for this name")
+    })
+    public HttpResponse<Void> delete(@Parameter(description = "Process name") @PathVariable String name) {
+        if (!scheduleService.delete(name)) {
+            throw new HttpStatusException(HttpStatus.NOT_FOUND, "Expected schedule for " + name + " not found");
+        }
+        return HttpResponse.noContent();
+    }
+}
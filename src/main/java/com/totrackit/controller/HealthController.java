@@ -1,5 +1,6 @@
 package com.totrackit.controller;
 
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
@@ -14,10 +15,16 @@ import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.totrackit.repository.LeaderLeaseRepository;
+import com.totrackit.service.CircuitBreaker;
 import com.totrackit.service.HealthService;
+import com.totrackit.service.LeaderElection;
+import com.totrackit.service.WebhookBreakers;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Health check controller providing comprehensive health status endpoints
@@ -30,10 +37,16 @@ public class HealthController {
     private static final Logger LOG = LoggerFactory.getLogger(HealthController.class);
     
     private final HealthService healthService;
+    @Nullable
+    private final LeaderElection leaderElection;
+    private final WebhookBreakers webhookBreakers;
     
     @Inject
-    public HealthController(HealthService healthService) {
+    public HealthController(HealthService healthService, @Nullable LeaderElection leaderElection,
+                            WebhookBreakers webhookBreakers) {
         this.healthService = healthService;
+        this.leaderElection = leaderElection;
+        this.webhookBreakers = webhookBreakers;
     }
     
     /**
@@ -171,8 +184,88 @@ public class HealthController {
         return isAlive ? HttpResponse.ok(liveness) : HttpResponse.serverError(liveness);
     }
     
+    /**
+     * Leader election status: which replica runs the scheduled background
+     * work and whether this one does
+     */
+    @Get("/health/leader")
+    @Operation(
+        summary = "Leader election status",
+        description = "Returns the leader election mode, the current lease holder and whether this instance leads"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Leader election status",
+            content = @Content(schema = @Schema(implementation = Map.class))
+        )
+    })
+    public HttpResponse<Map<String, Object>> leader() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("timestamp", Instant.now().toString());
+        if (leaderElection == null) {
+            // Every replica competes for a per-cycle advisory lock instead.
+            status.put("mode", "advisory-lock");
+            return HttpResponse.ok(status);
+        }
+
+        status.put("mode", "lease");
+        status.put("instance", leaderElection.getInstanceId());
+        status.put("isLeader", leaderElection.isLeader());
+        try {
+            Optional<LeaderLeaseRepository.Lease> lease = leaderElection.currentLease();
+            lease.ifPresent(current -> {
+                status.put("leader", current.holder());
+                status.put("leaderSince", current.acquiredAt().toString());
+                status.put("leaseExpiresAt", current.expiresAt().toString());
+                status.put("leaseExpired", current.expiresAt().isBefore(Instant.now()));
+            });
+        } catch (Exception e) {
+            LOG.warn("Failed to read the leader lease", e);
+            status.put("error", e.getMessage());
+        }
+        return HttpResponse.ok(status);
+    }
+
+    /**
+     * Circuit breaker state of every webhook target this replica has sent to
+     */
+    @Get("/health/webhooks")
+    @Operation(
+        summary = "Webhook target status",
+        description = "Returns the circuit breaker state of each webhook URL (origin plus a hash of the URL) on this "
+                + "instance. DEGRADED while any breaker is open."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Webhook target status",
+            content = @Content(schema = @Schema(implementation = Map.class))
+        )
+    })
+    public HttpResponse<Map<String, Object>> webhooks() {
+        Map<String, Object> targets = new LinkedHashMap<>();
+        boolean anyOpen = false;
+        for (Map.Entry<String, CircuitBreaker.Snapshot> entry : webhookBreakers.snapshots().entrySet()) {
+            CircuitBreaker.Snapshot snapshot = entry.getValue();
+            Map<String, Object> target = new HashMap<>();
+            target.put("state", snapshot.state().name());
+            target.put("consecutiveFailures", snapshot.consecutiveFailures());
+            target.put("trips", snapshot.trips());
+            if (snapshot.retryAt() != null) {
+                target.put("retryAt", snapshot.retryAt().toString());
+            }
+            targets.put(entry.getKey(), target);
+            anyOpen |= snapshot.state() != CircuitBreaker.State.CLOSED;
+        }
+        Map<String, Object> status = new HashMap<>();
+        status.put("timestamp", Instant.now().toString());
+        // Informational: a dead receiver does not make this instance unhealthy.
+        status.put("status", anyOpen ? "DEGRADED" : "UP");
+        status.put("targets", targets);
+        return HttpResponse.ok(status);
+    }
 
-    
     /**
      * Checks application health and responsiveness
      */
@@ -276,6 +276,34 @@ public class ProcessController {
         }
     }
     
+    @Put("/{name}/{id}/heartbeat")
+    @Operation(
+        summary = "Record a heartbeat",
+        description = "Signal that an active process is still making progress. Restarts its stall timeout, " +
+                "so a run that keeps sending heartbeats is never reported as stalled"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Heartbeat recorded",
+            content = @Content(schema = @Schema(implementation = ProcessResponse.class))
+        ),
+        @ApiResponse(responseCode = "404", description = "Process not found"),
+        @ApiResponse(responseCode = "409", description = "Process is no longer active")
+    })
+    public HttpResponse<ProcessResponse> heartbeat(
+            @Parameter(description = "Process name") @PathVariable
+            @NotBlank @Size(min = 1, max = 100) @Pattern(regexp = "^[a-zA-Z0-9_-]+$")
+            String name,
+
+            @Parameter(description = "Process ID") @PathVariable("id")
+            @NotBlank @Size(min = 1, max = 50)
+            String processId) {
+
+        LOG.debug("Heartbeat: name='{}', id='{}'", name, processId);
+        return HttpResponse.ok(processService.heartbeat(name, processId));
+    }
+
     @Delete("/{name}/{id}")
     @Operation(
         summary = "Delete a process",
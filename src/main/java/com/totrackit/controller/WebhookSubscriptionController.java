@@ -0,0 +1,112 @@
+package com.totrackit.controller;
+
+import com.totrackit.dto.WebhookSubscriptionRequest;
+import com.totrackit.dto.WebhookSubscriptionResponse;
+import com.totrackit.model.WebhookSubscription;
+import com.totrackit.service.WebhookSubscriptionService;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Delete;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.http.exceptions.HttpStatusException;
+import io.micronaut.validation.Validated;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+@Controller("/webhooks/subscriptions")
+@Validated
+@Tag(name = "Webhooks", description = "Webhook subscriptions for deadline and lifecycle events")
+public class WebhookSubscriptionController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebhookSubscriptionController.class);
+
+    private final WebhookSubscriptionService subscriptionService;
+
+    @Inject
+    public WebhookSubscriptionController(WebhookSubscriptionService subscriptionService) {
+        this.subscriptionService = subscriptionService;
+    }
+
+    @Get
+    @Operation(summary = "List webhook subscriptions")
+    @ApiResponse(
+        responseCode = "200",
+        description = "All subscriptions, oldest first",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = WebhookSubscriptionResponse.class)))
+    )
+    public List<WebhookSubscriptionResponse> list() {
+        return subscriptionService.list().stream().map(WebhookSubscriptionResponse::from).toList();
+    }
+
+    @Post
+    @Operation(
+        summary = "Create a webhook subscription",
+        description = "Events of the listed types for runs matching name_pattern (exact name or prefix ending "
+                + "in '*') and carrying all of the listed tags are posted to url. Takes effect on this replica "
+                + "immediately and on others within totrackit.webhook-subscriptions.refresh-interval."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "201",
+            description = "Subscription created",
+            content = @Content(schema = @Schema(implementation = WebhookSubscriptionResponse.class))
+        ),
+        @ApiResponse(responseCode = "400", description = "Invalid URL, name pattern, tags or event types")
+    })
+    public HttpResponse<WebhookSubscriptionResponse> create(@Body @Valid WebhookSubscriptionRequest request) {
+        try {
+            WebhookSubscription created = subscriptionService.create(request.getUrl(), request.getNamePattern(),
+                    request.getTags(), request.getEvents());
+            return HttpResponse.status(HttpStatus.CREATED).body(WebhookSubscriptionResponse.from(created));
+        } catch (IllegalArgumentException e) {
+            LOG.info("Rejected webhook subscription for {}: {}", request.getUrl(), e.getMessage());
+            throw new HttpStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Get("/{id}")
+    @Operation(summary = "Get a webhook subscription")
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Subscription found",
+            content = @Content(schema = @Schema(implementation = WebhookSubscriptionResponse.class))
+        ),
+        @ApiResponse(responseCode = "404", description = "Subscription not found")
+    })
+    public WebhookSubscriptionResponse get(@Parameter(description = "Subscription id") @PathVariable long id) {
+        return subscriptionService.find(id)
+                .map(WebhookSubscriptionResponse::from)
+                .orElseThrow(() -> new HttpStatusException(HttpStatus.NOT_FOUND,
+                        "Webhook subscription " + id + " not found"));
+    }
+
+    @Delete("/{id}")
+    @Operation(summary = "Delete a webhook subscription")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Subscription deleted"),
+        @ApiResponse(responseCode = "404", description = "Subscription not found")
+    })
+    public HttpResponse<Void> delete(@Parameter(description = "Subscription id") @PathVariable long id) {
+        if (!subscriptionService.delete(id)) {
+            throw new HttpStatusException(HttpStatus.NOT_FOUND, "Webhook subscription " + id + " not found");
+        }
+        return HttpResponse.noContent();
+    }
+}
@@ -0,0 +1,50 @@
+package com.totrackit.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.List;
+
+/**
+ * Envelope for the shared dashboard snapshot: every precomputed analytics
+ * response serialized together, so replicas load it in one row read.
+ */
+@Introspected
+@Serdeable
+public class AnalyticsSnapshotPayload {
+
+    @JsonProperty("generated_at")
+    private long generatedAt; // Unix timestamp in milliseconds
+
+    @JsonProperty("summary")
+    private SummaryResponse summary;
+
+    @JsonProperty("tag_impact")
+    private TagImpactResponse tagImpact;
+
+    /** Leading rows of the busiest-first name rollup. */
+    @JsonProperty("names")
+    private List<NameRollupEntry> names;
+
+    /** Distinct process names when the snapshot was taken. */
+    @JsonProperty("names_total")
+    private long namesTotal;
+
+    public AnalyticsSnapshotPayload() {}
+
+    public long getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(long generatedAt) { this.generatedAt = generatedAt; }
+
+    public SummaryResponse getSummary() { return summary; }
+    public void setSummary(SummaryResponse summary) { this.summary = summary; }
+
+    public TagImpactResponse getTagImpact() { return tagImpact; }
+    public void setTagImpact(TagImpactResponse tagImpact) { this.tagImpact = tagImpact; }
+
+    public List<NameRollupEntry> getNames() { return names; }
+    public void setNames(List<NameRollupEntry> names) { this.names = names; }
+
+    public long getNamesTotal() { return namesTotal; }
+    public void setNamesTotal(long namesTotal) { this.namesTotal = namesTotal; }
+}
@@ -0,0 +1,41 @@
+package com.totrackit.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Concurrency of one process name within a single time bucket.
+ */
+@Introspected
+@Serdeable
+public class ConcurrencyBucket {
+
+    @JsonProperty("start")
+    private long start; // Unix timestamp in seconds
+
+    /** Peak number of runs executing at the same time within the bucket. */
+    @JsonProperty("max")
+    private int max;
+
+    /** Time-weighted average number of runs executing during the bucket. */
+    @JsonProperty("avg")
+    private double avg;
+
+    public ConcurrencyBucket() {}
+
+    public ConcurrencyBucket(long start, int max, double avg) {
+        this.start = start;
+        this.max = max;
+        this.avg = avg;
+    }
+
+    public long getStart() { return start; }
+    public void setStart(long start) { this.start = start; }
+
+    public int getMax() { return max; }
+    public void setMax(int max) { this.max = max; }
+
+    public double getAvg() { return avg; }
+    public void setAvg(double avg) { this.avg = avg; }
+}
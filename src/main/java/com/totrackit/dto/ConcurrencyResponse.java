@@ -0,0 +1,55 @@
+package com.totrackit.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.List;
+
+/**
+ * Concurrency timeline for one process name: how many runs were executing at
+ * the same time, bucketed over the requested window.
+ */
+@Introspected
+@Serdeable
+public class ConcurrencyResponse {
+
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("from")
+    private long from; // Unix timestamp in seconds
+
+    @JsonProperty("to")
+    private long to; // Unix timestamp in seconds
+
+    @JsonProperty("bucket_minutes")
+    private int bucketMinutes;
+
+    /** Highest concurrency seen anywhere in the window. */
+    @JsonProperty("peak")
+    private int peak;
+
+    @JsonProperty("buckets")
+    private List<ConcurrencyBucket> buckets;
+
+    public ConcurrencyResponse() {}
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getFrom() { return from; }
+    public void setFrom(long from) { this.from = from; }
+
+    public long getTo() { return to; }
+    public void setTo(long to) { this.to = to; }
+
+    public int getBucketMinutes() { return bucketMinutes; }
+    public void setBucketMinutes(int bucketMinutes) { this.bucketMinutes = bucketMinutes; }
+
+    public int getPeak() { return peak; }
+    public void setPeak(int peak) { this.peak = peak; }
+
+    public List<ConcurrencyBucket> getBuckets() { return buckets; }
+    public void setBuckets(List<ConcurrencyBucket> buckets) { this.buckets = buckets; }
+}
@@ -0,0 +1,47 @@
+package com.totrackit.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Request DTO for creating or replacing the expected-run schedule of a
+ * process name. The cron expression and time zone are checked by the
+ * schedule service.
+ */
+@Introspected
+@Serdeable
+public class ExpectedScheduleRequest {
+
+    /** 5-field (minute first) or 6-field (second first) cron expression. */
+    @NotBlank(message = "cron is required")
+    @JsonProperty("cron")
+    private String cron;
+
+    /** Zone the cron expression is evaluated in; UTC when absent. */
+    @JsonProperty("time_zone")
+    private String timeZone;
+
+    /** How far a run may start from the expected instant, either way; 900 when absent. */
+    @JsonProperty("grace_seconds")
+    private Integer graceSeconds;
+
+    public ExpectedScheduleRequest() {}
+
+    public ExpectedScheduleRequest(String cron, String timeZone, Integer graceSeconds) {
+        this.cron = cron;
+        this.timeZone = timeZone;
+        this.graceSeconds = graceSeconds;
+    }
+
+    public String getCron() { return cron; }
+    public void setCron(String cron) { this.cron = cron; }
+
+    public String getTimeZone() { return timeZone; }
+    public void setTimeZone(String timeZone) { this.timeZone = timeZone; }
+
+    public Integer getGraceSeconds() { return graceSeconds; }
+    public void setGraceSeconds(Integer graceSeconds) { this.graceSeconds = graceSeconds; }
+}
@@ -0,0 +1,65 @@
+package com.totrackit.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.totrackit.model.ExpectedSchedule;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * A stored expected-run schedule.
+ */
+@Introspected
+@Serdeable
+public class ExpectedScheduleResponse {
+
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("cron")
+    private String cron;
+
+    @JsonProperty("time_zone")
+    private String timeZone;
+
+    @JsonProperty("grace_seconds")
+    private int graceSeconds;
+
+    /** Latest expected start already checked, Unix timestamp in seconds. */
+    @JsonProperty("checked_through")
+    private Long checkedThrough;
+
+    /** Unix timestamp in seconds. */
+    @JsonProperty("created_at")
+    private Long createdAt;
+
+    public ExpectedScheduleResponse() {}
+
+    public static ExpectedScheduleResponse from(ExpectedSchedule schedule) {
+        ExpectedScheduleResponse response = new ExpectedScheduleResponse();
+        response.name = schedule.name();
+        response.cron = schedule.cron();
+        response.timeZone = schedule.timeZone();
+        response.graceSeconds = schedule.graceSeconds();
+        response.checkedThrough = schedule.checkedThrough() != null ? schedule.checkedThrough().getEpochSecond() : null;
+        response.createdAt = schedule.createdAt() != null ? schedule.createdAt().getEpochSecond() : null;
+        return response;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getCron() { return cron; }
+    public void setCron(String cron) { this.cron = cron; }
+
+    public String getTimeZone() { return timeZone; }
+    public void setTimeZone(String timeZone) { this.timeZone = timeZone; }
+
+    public int getGraceSeconds() { return graceSeconds; }
+    public void setGraceSeconds(int graceSeconds) { this.graceSeconds = graceSeconds; }
+
+    public Long getCheckedThrough() { return checkedThrough; }
+    public void setCheckedThrough(Long checkedThrough) { this.checkedThrough = checkedThrough; }
+
+    public Long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Long createdAt) { this.createdAt = createdAt; }
+}
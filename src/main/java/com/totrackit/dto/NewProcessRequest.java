@@ -28,6 +28,10 @@ public class NewProcessRequest {
     @JsonProperty("deadline")
     private Long deadline; // Unix timestamp in seconds
     
+    @Min(value = 1, message = "Stall timeout must be at least 1 second")
+    @JsonProperty("stall_timeout")
+    private Integer stallTimeout; // Seconds without a heartbeat before the run counts as stalled
+    
     @Valid
     @JsonProperty("tags")
     private List<ProcessTag> tags;
@@ -60,6 +64,14 @@ public class NewProcessRequest {
         this.deadline = deadline;
     }
     
+    public Integer getStallTimeout() {
+        return stallTimeout;
+    }
+    
+    public void setStallTimeout(Integer stallTimeout) {
+        this.stallTimeout = stallTimeout;
+    }
+    
     public List<ProcessTag> getTags() {
         return tags;
     }
@@ -81,6 +93,7 @@ public class NewProcessRequest {
         return "NewProcessRequest{" +
                 "id='" + id + '\'' +
                 ", deadline=" + deadline +
+                ", stallTimeout=" + stallTimeout +
                 ", tags=" + tags +
                 ", context=" + context +
                 '}';
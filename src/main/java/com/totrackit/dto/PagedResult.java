@@ -27,6 +27,14 @@ public class PagedResult<T> {
     
     @JsonProperty("has_more")
     private boolean hasMore;
+
+    /** Keyset cursor for the next page, on endpoints that support one. */
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    /** When the page was computed (Unix seconds), on aggregate endpoints. */
+    @JsonProperty("generated_at")
+    private Long generatedAt;
     
     // Default constructor
     public PagedResult() {}
@@ -80,6 +88,22 @@ public class PagedResult<T> {
     public void setHasMore(boolean hasMore) {
         this.hasMore = hasMore;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(Long generatedAt) {
+        this.generatedAt = generatedAt;
+    }
     
     @Override
     public String toString() {
@@ -89,6 +113,8 @@ public class PagedResult<T> {
                 ", limit=" + limit +
                 ", offset=" + offset +
                 ", hasMore=" + hasMore +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", generatedAt=" + generatedAt +
                 '}';
     }
 }
\ No newline at end of file
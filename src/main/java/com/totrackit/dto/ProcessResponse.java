@@ -38,6 +38,15 @@ public class ProcessResponse {
     @JsonProperty("deadline")
     private Long deadline; // Unix timestamp in seconds
     
+    @JsonProperty("stall_timeout")
+    private Integer stallTimeout; // Seconds
+    
+    @JsonProperty("last_activity_at")
+    private Long lastActivityAt; // Unix timestamp in seconds
+    
+    @JsonProperty("failure_reason")
+    private String failureReason; // Set when the server failed the run
+    
     @JsonProperty("tags")
     private List<ProcessTag> tags;
     
@@ -114,6 +123,30 @@ public class ProcessResponse {
         this.deadline = deadline;
     }
     
+    public Integer getStallTimeout() {
+        return stallTimeout;
+    }
+    
+    public void setStallTimeout(Integer stallTimeout) {
+        this.stallTimeout = stallTimeout;
+    }
+    
+    public Long getLastActivityAt() {
+        return lastActivityAt;
+    }
+    
+    public void setLastActivityAt(Long lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+    
+    public String getFailureReason() {
+        return failureReason;
+    }
+    
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+    
     public List<ProcessTag> getTags() {
         return tags;
     }
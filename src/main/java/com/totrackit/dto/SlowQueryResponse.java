@@ -0,0 +1,79 @@
+package com.totrackit.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.totrackit.service.SlowQueryLog;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.List;
+
+/**
+ * One execution of a named SQL statement that exceeded the slow-query
+ * threshold.
+ */
+@Introspected
+@Serdeable
+public class SlowQueryResponse {
+
+    /** Query name, e.g. process_repository.findByNameAndProcessId. */
+    @JsonProperty("query")
+    private String query;
+
+    /** SQL with whitespace collapsed and expanded IN lists folded. */
+    @JsonProperty("sql")
+    private String sql;
+
+    /** Bind parameter types by position, repeats folded (e.g. "Long x3"); values are never kept. */
+    @JsonProperty("bind_types")
+    private List<String> bindTypes;
+
+    @JsonProperty("duration_ms")
+    private double durationMs;
+
+    /** Unix timestamp in milliseconds. */
+    @JsonProperty("captured_at")
+    private long capturedAt;
+
+    /** EXPLAIN (ANALYZE, BUFFERS) output, when plan capture is enabled and has finished. */
+    @JsonProperty("plan")
+    private String plan;
+
+    /** Why the plan could not be captured. */
+    @JsonProperty("plan_error")
+    private String planError;
+
+    public SlowQueryResponse() {}
+
+    public static SlowQueryResponse from(SlowQueryLog.Entry entry) {
+        SlowQueryResponse response = new SlowQueryResponse();
+        response.query = entry.getQuery();
+        response.sql = entry.getSql();
+        response.bindTypes = entry.getBindTypes();
+        response.durationMs = entry.getDurationMs();
+        response.capturedAt = entry.getCapturedAt().toEpochMilli();
+        response.plan = entry.getPlan();
+        response.planError = entry.getPlanError();
+        return response;
+    }
+
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+
+    public String getSql() { return sql; }
+    public void setSql(String sql) { this.sql = sql; }
+
+    public List<String> getBindTypes() { return bindTypes; }
+    public void setBindTypes(List<String> bindTypes) { this.bindTypes = bindTypes; }
+
+    public double getDurationMs() { return durationMs; }
+    public void setDurationMs(double durationMs) { this.durationMs = durationMs; }
+
+    public long getCapturedAt() { return capturedAt; }
+    public void setCapturedAt(long capturedAt) { this.capturedAt = capturedAt; }
+
+    public String getPlan() { return plan; }
+    public void setPlan(String plan) { this.plan = plan; }
+
+    public String getPlanError() { return planError; }
+    public void setPlanError(String planError) { this.planError = planError; }
+}
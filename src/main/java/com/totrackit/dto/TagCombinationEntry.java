@@ -0,0 +1,47 @@
+package com.totrackit.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.totrackit.model.ProcessTag;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.List;
+
+/**
+ * A tag combination (e.g. country=DE AND carrier=X) that problem processes
+ * concentrate on. Counts are streaming estimates, not exact totals.
+ */
+@Introspected
+@Serdeable
+public class TagCombinationEntry {
+
+    /** The combined tags, sorted by key. */
+    @JsonProperty("tags")
+    private List<ProcessTag> tags;
+
+    /** Problem processes (overdue, late, failed) carrying every tag; an upper bound. */
+    @JsonProperty("problems")
+    private long problems;
+
+    /** Maximum overestimation of problems; problems - problems_error is a guaranteed lower bound. */
+    @JsonProperty("problems_error")
+    private long problemsError;
+
+    /** Estimated processes carrying every tag in the window, problem or not; never an undercount. */
+    @JsonProperty("total_estimate")
+    private long totalEstimate;
+
+    public TagCombinationEntry() {}
+
+    public List<ProcessTag> getTags() { return tags; }
+    public void setTags(List<ProcessTag> tags) { this.tags = tags; }
+
+    public long getProblems() { return problems; }
+    public void setProblems(long problems) { this.problems = problems; }
+
+    public long getProblemsError() { return problemsError; }
+    public void setProblemsError(long problemsError) { this.problemsError = problemsError; }
+
+    public long getTotalEstimate() { return totalEstimate; }
+    public void setTotalEstimate(long totalEstimate) { this.totalEstimate = totalEstimate; }
+}
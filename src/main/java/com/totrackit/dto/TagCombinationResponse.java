@@ -0,0 +1,64 @@
+package com.totrackit.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.List;
+
+/**
+ * Response for the tag-combination analytics endpoint: the multi-tag segments
+ * that current problems concentrate on, found with a bounded-memory
+ * heavy-hitters pass over the window.
+ */
+@Introspected
+@Serdeable
+public class TagCombinationResponse {
+
+    @JsonProperty("window_hours")
+    private int windowHours;
+
+    @JsonProperty("generated_at")
+    private long generatedAt; // Unix timestamp in seconds
+
+    /** Tags per combination (2 or 3). */
+    @JsonProperty("size")
+    private int size;
+
+    /** Processes read from the window (only those with at least {@code size} tags). */
+    @JsonProperty("scanned_processes")
+    private long scannedProcesses;
+
+    @JsonProperty("problem_processes")
+    private long problemProcesses;
+
+    /** True when the work budget ran out before the whole window was read. */
+    @JsonProperty("truncated")
+    private boolean truncated;
+
+    @JsonProperty("combinations")
+    private List<TagCombinationEntry> combinations;
+
+    public TagCombinationResponse() {}
+
+    public int getWindowHours() { return windowHours; }
+    public void setWindowHours(int windowHours) { this.windowHours = windowHours; }
+
+    public long getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(long generatedAt) { this.generatedAt = generatedAt; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getScannedProcesses() { return scannedProcesses; }
+    public void setScannedProcesses(long scannedProcesses) { this.scannedProcesses = scannedProcesses; }
+
+    public long getProblemProcesses() { return problemProcesses; }
+    public void setProblemProcesses(long problemProcesses) { this.problemProcesses = problemProcesses; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+
+    public List<TagCombinationEntry> getCombinations() { return combinations; }
+    public void setCombinations(List<TagCombinationEntry> combinations) { this.combinations = combinations; }
+}
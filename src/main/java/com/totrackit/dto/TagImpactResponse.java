@@ -32,6 +32,14 @@ public class TagImpactResponse {
     @JsonProperty("duration")
     private DurationStats duration;
 
+    /** The broken-down tag key; only set by the single-key breakdown. */
+    @JsonProperty("key")
+    private String key;
+
+    /** Whether the key is promoted (served by its own expression index); single-key breakdown only. */
+    @JsonProperty("promoted")
+    private Boolean promoted;
+
     @JsonProperty("tags")
     private List<TagImpactEntry> tags;
 
@@ -52,6 +60,12 @@ public class TagImpactResponse {
     public long getProblemProcesses() { return problemProcesses; }
     public void setProblemProcesses(long problemProcesses) { this.problemProcesses = problemProcesses; }
 
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public Boolean getPromoted() { return promoted; }
+    public void setPromoted(Boolean promoted) { this.promoted = promoted; }
+
     public List<TagImpactEntry> getTags() { return tags; }
     public void setTags(List<TagImpactEntry> tags) { this.tags = tags; }
 }
@@ -0,0 +1,56 @@
+package com.totrackit.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+import jakarta.validation.constraints.NotBlank;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request DTO for creating a webhook subscription. Field rules beyond
+ * presence (URL scheme, name pattern, known event types) are checked by
+ * the subscription service.
+ */
+@Introspected
+@Serdeable
+public class WebhookSubscriptionRequest {
+
+    @NotBlank(message = "url is required")
+    @JsonProperty("url")
+    private String url;
+
+    /** Exact process name, a prefix ending in '*', or absent for any name. */
+    @JsonProperty("name_pattern")
+    private String namePattern;
+
+    /** Tags a run must all carry; absent or empty for any run. */
+    @JsonProperty("tags")
+    private Map<String, String> tags;
+
+    @JsonProperty("events")
+    private List<String> events;
+
+    public WebhookSubscriptionRequest() {}
+
+    public WebhookSubscriptionRequest(String url, String namePattern, Map<String, String> tags,
+                                      List<String> events) {
+        this.url = url;
+        this.namePattern = namePattern;
+        this.tags = tags;
+        this.events = events;
+    }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public String getNamePattern() { return namePattern; }
+    public void setNamePattern(String namePattern) { this.namePattern = namePattern; }
+
+    public Map<String, String> getTags() { return tags; }
+    public void setTags(Map<String, String> tags) { this.tags = tags; }
+
+    public List<String> getEvents() { return events; }
+    public void setEvents(List<String> events) { this.events = events; }
+}
@@ -0,0 +1,68 @@
+package com.totrackit.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.totrackit.model.WebhookSubscription;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stored webhook subscription.
+ */
+@Introspected
+@Serdeable
+public class WebhookSubscriptionResponse {
+
+    @JsonProperty("id")
+    private long id;
+
+    @JsonProperty("url")
+    private String url;
+
+    @JsonProperty("name_pattern")
+    private String namePattern;
+
+    @JsonProperty("tags")
+    private Map<String, String> tags;
+
+    @JsonProperty("events")
+    private List<String> events;
+
+    /** Unix timestamp in seconds. */
+    @JsonProperty("created_at")
+    private Long createdAt;
+
+    public WebhookSubscriptionResponse() {}
+
+    public static WebhookSubscriptionResponse from(WebhookSubscription subscription) {
+        WebhookSubscriptionResponse response = new WebhookSubscriptionResponse();
+        response.id = subscription.id();
+        response.url = subscription.url();
+        response.namePattern = subscription.namePattern();
+        response.tags = subscription.tags();
+        response.events = new ArrayList<>(subscription.events());
+        response.createdAt = subscription.createdAt() != null ? subscription.createdAt().getEpochSecond() : null;
+        return response;
+    }
+
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public String getNamePattern() { return namePattern; }
+    public void setNamePattern(String namePattern) { this.namePattern = namePattern; }
+
+    public Map<String, String> getTags() { return tags; }
+    public void setTags(Map<String, String> tags) { this.tags = tags; }
+
+    public List<String> getEvents() { return events; }
+    public void setEvents(List<String> events) { this.events = events; }
+
+    public Long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Long createdAt) { this.createdAt = createdAt; }
+}
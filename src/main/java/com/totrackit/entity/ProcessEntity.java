@@ -56,6 +56,30 @@ public class ProcessEntity {
     @MappedProperty("deadline_warned_at")
     private Instant deadlineWarnedAt;
 
+    @MappedProperty("deadline_warning_level")
+    private int deadlineWarningLevel;
+
+    @MappedProperty("stall_timeout_seconds")
+    private Integer stallTimeoutSeconds;
+
+    @MappedProperty("last_activity_at")
+    private Instant lastActivityAt;
+
+    @MappedProperty("stall_at")
+    private Instant stallAt;
+
+    @MappedProperty("stall_notified_at")
+    private Instant stallNotifiedAt;
+
+    @MappedProperty("subscription_due_at")
+    private Instant subscriptionDueAt;
+
+    @MappedProperty("next_warning_at")
+    private Instant nextWarningAt;
+
+    @MappedProperty("failure_reason")
+    private String failureReason;
+
     @MappedProperty("created_at")
     private Instant createdAt;
     
@@ -168,6 +192,70 @@ public class ProcessEntity {
         this.deadlineWarnedAt = deadlineWarnedAt;
     }
 
+    public int getDeadlineWarningLevel() {
+        return deadlineWarningLevel;
+    }
+
+    public void setDeadlineWarningLevel(int deadlineWarningLevel) {
+        this.deadlineWarningLevel = deadlineWarningLevel;
+    }
+
+    public Integer getStallTimeoutSeconds() {
+        return stallTimeoutSeconds;
+    }
+
+    public void setStallTimeoutSeconds(Integer stallTimeoutSeconds) {
+        this.stallTimeoutSeconds = stallTimeoutSeconds;
+    }
+
+    public Instant getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(Instant lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public Instant getStallAt() {
+        return stallAt;
+    }
+
+    public void setStallAt(Instant stallAt) {
+        this.stallAt = stallAt;
+    }
+
+    public Instant getStallNotifiedAt() {
+        return stallNotifiedAt;
+    }
+
+    public void setStallNotifiedAt(Instant stallNotifiedAt) {
+        this.stallNotifiedAt = stallNotifiedAt;
+    }
+
+    public Instant getSubscriptionDueAt() {
+        return subscriptionDueAt;
+    }
+
+    public void setSubscriptionDueAt(Instant subscriptionDueAt) {
+        this.subscriptionDueAt = subscriptionDueAt;
+    }
+
+    public Instant getNextWarningAt() {
+        return nextWarningAt;
+    }
+
+    public void setNextWarningAt(Instant nextWarningAt) {
+        this.nextWarningAt = nextWarningAt;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
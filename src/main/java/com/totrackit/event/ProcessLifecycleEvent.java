@@ -0,0 +1,38 @@
+package com.totrackit.event;
+
+import com.totrackit.entity.ProcessEntity;
+
+/**
+ * Published by ProcessService whenever a run starts, finishes or is deleted,
+ * and by RunawayProcessService when a run is failed for its max duration,
+ * so in-process components can react to state changes without polling the
+ * table. Listeners run synchronously on the caller's thread, inside its
+ * transaction; they must be cheap and must not throw. Listeners that must
+ * only see committed runs (webhooks) use {@code @TransactionalEventListener}.
+ */
+public class ProcessLifecycleEvent {
+
+    public enum Type {
+        STARTED,
+        COMPLETED,
+        FAILED,
+        DELETED
+    }
+
+    private final Type type;
+    private final ProcessEntity process;
+
+    public ProcessLifecycleEvent(Type type, ProcessEntity process) {
+        this.type = type;
+        this.process = process;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /** The run as persisted by the operation that raised the event. */
+    public ProcessEntity getProcess() {
+        return process;
+    }
+}
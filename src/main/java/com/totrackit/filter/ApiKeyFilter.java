@@ -23,8 +23,9 @@ import java.security.MessageDigest;
  *
  * Only active when the {@code totrackit.api-key} property (or the
  * {@code TOTRACKIT_API_KEY} environment variable) is set to a non-blank value.
- * When active, all /processes routes require a matching {@code X-API-KEY}
- * header. Health, metrics, and API documentation endpoints remain open.
+ * When active, all /processes, /webhooks, /schedules and /admin routes require a matching
+ * {@code X-API-KEY} header. Health, metrics, and API documentation endpoints
+ * remain open.
  *
  * This is intentionally a single shared key for self-hosted deployments, not a
  * user/tenant management system. Request-level auth lives in this filter layer
@@ -33,7 +34,7 @@ import java.security.MessageDigest;
 // NOTE: @Requires(property=...) without notEquals — notEquals is also satisfied
 // when the property is absent, which would activate this bean with an
 // unresolvable @Value placeholder. Blank values are handled in doFilter instead.
-@Filter("/processes/**")
+@Filter({"/processes/**", "/webhooks/**", "/schedules/**", "/admin/**"})
 @Requires(property = ApiKeyFilter.API_KEY_PROPERTY)
 public class ApiKeyFilter implements HttpServerFilter {
 
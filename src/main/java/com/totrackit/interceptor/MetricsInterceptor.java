@@ -1,6 +1,7 @@
 package com.totrackit.interceptor;
 
 import com.totrackit.service.MetricsService;
+import io.micronaut.http.HttpAttributes;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.Filter;
@@ -14,80 +15,54 @@ import reactor.core.publisher.Flux;
 
 /**
  * HTTP filter to record request metrics for all API endpoints.
- * Captures request method, path, status code, and duration.
+ * Captures request method, route template, status code, and duration.
+ *
+ * The endpoint label is the URI template of the route the request matched
+ * (e.g. {@code /processes/{name}/{id}}), which the router stores on the
+ * request, so it is bounded by the number of routes whatever the request
+ * paths are. Requests that match no route are labelled {@code UNMATCHED}.
  */
 @Filter("/**")
 public class MetricsInterceptor implements HttpServerFilter {
-    
+
     private static final Logger LOG = LoggerFactory.getLogger(MetricsInterceptor.class);
-    
+
+    /** Endpoint label of requests that matched no route (404s, rejected methods). */
+    static final String UNMATCHED = "UNMATCHED";
+
     private final MetricsService metricsService;
-    
+
     @Inject
     public MetricsInterceptor(MetricsService metricsService) {
         this.metricsService = metricsService;
     }
-    
+
     @Override
     public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
-        long startTime = System.currentTimeMillis();
-        
+        long startNanos = System.nanoTime();
+
         return Flux.from(chain.proceed(request))
-                .doOnNext(response -> {
-                    long duration = System.currentTimeMillis() - startTime;
-                    recordMetrics(request, response, duration);
-                })
-                .doOnError(throwable -> {
-                    long duration = System.currentTimeMillis() - startTime;
-                    recordErrorMetrics(request, throwable, duration);
-                });
+                .doOnNext(response -> record(request, response.getStatus().getCode(), startNanos))
+                // Default to 500 for unhandled errors
+                .doOnError(throwable -> record(request, 500, startNanos));
     }
-    
-    private void recordMetrics(HttpRequest<?> request, MutableHttpResponse<?> response, long duration) {
+
+    private void record(HttpRequest<?> request, int statusCode, long startNanos) {
+        long duration = System.nanoTime() - startNanos;
         try {
-            String method = request.getMethod().name();
-            String path = sanitizePath(request.getPath());
-            int statusCode = response.getStatus().getCode();
-            
-            metricsService.recordHttpRequest(method, path, statusCode, duration);
+            metricsService.recordHttpRequestNanos(request.getMethodName(), routeTemplate(request), statusCode,
+                    duration);
         } catch (Exception e) {
             LOG.warn("Failed to record HTTP request metrics", e);
         }
     }
-    
-    private void recordErrorMetrics(HttpRequest<?> request, Throwable throwable, long duration) {
-        try {
-            String method = request.getMethod().name();
-            String path = sanitizePath(request.getPath());
-            int statusCode = 500; // Default to 500 for unhandled errors
-            
-            metricsService.recordHttpRequest(method, path, statusCode, duration);
-        } catch (Exception e) {
-            LOG.warn("Failed to record HTTP error metrics", e);
-        }
-    }
-    
+
     /**
-     * Sanitizes the request path to avoid high cardinality metrics.
-     * Replaces dynamic path segments with placeholders.
+     * The URI template of the route the request matched, or
+     * {@link #UNMATCHED}.
      */
-    private String sanitizePath(String path) {
-        if (path == null) {
-            return "unknown";
-        }
-        
-        // Replace common dynamic segments with placeholders
-        String sanitized = path
-                .replaceAll("/v1/processes/[^/]+/[^/]+", "/v1/processes/{name}/{id}")
-                .replaceAll("/v1/processes/[^/]+", "/v1/processes/{name}")
-                .replaceAll("/swagger-ui/.*", "/swagger-ui/**")
-                .replaceAll("/swagger/.*", "/swagger/**");
-        
-        // Limit path length to prevent extremely long paths
-        if (sanitized.length() > 100) {
-            sanitized = sanitized.substring(0, 100) + "...";
-        }
-        
-        return sanitized;
+    static String routeTemplate(HttpRequest<?> request) {
+        Object template = request.getAttributes().getValue(HttpAttributes.URI_TEMPLATE.toString());
+        return template instanceof String uriTemplate ? uriTemplate : UNMATCHED;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.totrackit.interceptor;
+
+import io.micronaut.aop.Around;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the code path that borrows pooled database connections from the
+ * annotated bean or method. Connection acquire and hold times are recorded
+ * with this name as their {@code call_site} tag, so a saturated pool can be
+ * traced back to the path that holds it.
+ *
+ * The outermost call site on the stack wins: a scanner calling
+ * ProcessService is attributed to the scanner.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+public @interface PoolCallSite {
+
+    /** The call_site tag, e.g. "process_service". */
+    String value();
+}
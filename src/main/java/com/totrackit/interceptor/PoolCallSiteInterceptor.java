@@ -0,0 +1,49 @@
+package com.totrackit.interceptor;
+
+import io.micronaut.aop.InterceptPhase;
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import jakarta.inject.Singleton;
+
+/**
+ * Tracks the {@link PoolCallSite} the current thread is running in.
+ *
+ * Ordered outside the transaction interceptor, so the call site is already
+ * set when a {@code @Transactional} method borrows its connection.
+ */
+@Singleton
+@InterceptorBean(PoolCallSite.class)
+public class PoolCallSiteInterceptor implements MethodInterceptor<Object, Object> {
+
+    /** call_site tag of connections borrowed outside any annotated path. */
+    public static final String OTHER = "other";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public int getOrder() {
+        return InterceptPhase.TRANSACTION.getPosition() - 100;
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        if (CURRENT.get() != null) {
+            return context.proceed();
+        }
+        CURRENT.set(context.stringValue(PoolCallSite.class).orElse(OTHER));
+        try {
+            return context.proceed();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * The call site of the current thread, or {@link #OTHER}.
+     */
+    public static String current() {
+        String callSite = CURRENT.get();
+        return callSite != null ? callSite : OTHER;
+    }
+}
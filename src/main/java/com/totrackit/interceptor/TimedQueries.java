@@ -0,0 +1,28 @@
+package com.totrackit.interceptor;
+
+import io.micronaut.aop.Around;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the SQL statements run by the annotated bean's methods, as
+ * {@code <value>.<method>} (e.g. {@code process_repository.findByNameAndProcessId}).
+ * Named statements are timed per name and checked against the slow-query
+ * threshold; see {@link com.totrackit.service.SlowQueryLog}.
+ *
+ * The innermost name on the stack wins, so a repository called from an
+ * annotated service is timed under the repository method.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+public @interface TimedQueries {
+
+    /** Prefix of the query names, e.g. "process_repository". */
+    String value();
+}
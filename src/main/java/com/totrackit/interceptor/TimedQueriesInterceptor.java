@@ -0,0 +1,53 @@
+package com.totrackit.interceptor;
+
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.inject.ExecutableMethod;
+import jakarta.inject.Singleton;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the {@link TimedQueries} name of the method the current thread is
+ * running, so the statements it prepares can be timed under that name.
+ */
+@Singleton
+@InterceptorBean(TimedQueries.class)
+public class TimedQueriesInterceptor implements MethodInterceptor<Object, Object> {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final Map<ExecutableMethod<?, ?>, String> names = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        String name = names.get(context.getExecutableMethod());
+        if (name == null) {
+            name = names.computeIfAbsent(context.getExecutableMethod(), method ->
+                    context.stringValue(TimedQueries.class).orElse("query") + "." + method.getMethodName());
+        }
+        String previous = CURRENT.get();
+        CURRENT.set(name);
+        try {
+            return context.proceed();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * The query name of the current thread, or null outside any
+     * {@link TimedQueries} method.
+     */
+    @Nullable
+    public static String current() {
+        return CURRENT.get();
+    }
+}
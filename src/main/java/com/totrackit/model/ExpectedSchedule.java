@@ -0,0 +1,24 @@
+package com.totrackit.model;
+
+import java.time.Instant;
+
+/**
+ * An expected-run schedule: runs of the named process should start on the
+ * cron schedule, within the grace period either side of each expected
+ * start.
+ *
+ * @param cron 5-field (minute first) or 6-field (second first) cron expression
+ * @param timeZone the zone the cron expression is evaluated in
+ * @param checkedThrough the latest expected start already checked, or null
+ */
+public record ExpectedSchedule(String name, String cron, String timeZone, int graceSeconds,
+                               Instant checkedThrough, Instant createdAt) {
+
+    /** Whether the schedule fires at the same instants with the same grace. */
+    public boolean sameDefinition(ExpectedSchedule other) {
+        return other != null
+                && cron.equals(other.cron)
+                && timeZone.equals(other.timeZone)
+                && graceSeconds == other.graceSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.totrackit.model;
+
+/**
+ * Orderings for the per-name rollup, all served from the process-name
+ * registry. Every ordering is descending on its key with the name as
+ * ascending tiebreak, except {@link #NAME}.
+ */
+public enum NameRollupSort {
+    /** Most runs first (default). */
+    BUSIEST,
+    /** Most active runs currently past their deadline first. */
+    OVERDUE,
+    /** Most failed runs first. */
+    FAILURES,
+    /** Most recently started first. */
+    RECENT,
+    /** Alphabetical. */
+    NAME
+}
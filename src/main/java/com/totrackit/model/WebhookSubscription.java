@@ -0,0 +1,65 @@
+package com.totrackit.model;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A webhook subscription: events of the listed types for runs whose name
+ * matches the pattern and that carry all of the listed tags are posted to
+ * the URL.
+ *
+ * @param namePattern exact process name, a prefix ending in {@code *}, or
+ *                    null for any name
+ * @param tags tag key/value pairs a run must all carry; empty for any run
+ * @param events event types to deliver, e.g. "process.deadline_missed"
+ */
+public record WebhookSubscription(long id, String url, String namePattern, Map<String, String> tags,
+                                  Set<String> events, Instant createdAt) {
+
+    /** Whether the name pattern is a prefix pattern such as {@code billing-*}. */
+    public boolean hasPrefixPattern() {
+        return namePattern != null && namePattern.endsWith("*");
+    }
+
+    /** The name prefix of a prefix pattern. */
+    public String namePrefix() {
+        return namePattern.substring(0, namePattern.length() - 1);
+    }
+
+    /**
+     * Full match against one event, for reference and verification; the
+     * routing index avoids calling this for subscriptions that cannot match.
+     *
+     * @param tagPairs the run's tags as {@code key=value} strings
+     */
+    public boolean matches(String event, String name, Set<String> tagPairs) {
+        if (!events.contains(event)) {
+            return false;
+        }
+        if (namePattern != null) {
+            boolean nameMatches = hasPrefixPattern()
+                    ? name != null && name.startsWith(namePrefix())
+                    : namePattern.equals(name);
+            if (!nameMatches) {
+                return false;
+            }
+        }
+        return matchesTags(tagPairs);
+    }
+
+    /** Whether the run carries every tag of this subscription. */
+    public boolean matchesTags(Set<String> tagPairs) {
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (!tagPairs.contains(tagPair(tag.getKey(), tag.getValue()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Canonical {@code key=value} form used by the tag inverted index. */
+    public static String tagPair(String key, String value) {
+        return key + "=" + value;
+    }
+}
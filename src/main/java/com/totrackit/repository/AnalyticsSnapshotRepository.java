@@ -0,0 +1,71 @@
+package com.totrackit.repository;
+
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage for precomputed analytics snapshots shared between replicas. One
+ * row per snapshot key; the payload is the serialized JSON exactly as the
+ * computing replica produced it.
+ */
+@Singleton
+public class AnalyticsSnapshotRepository {
+
+    private final JdbcOperations jdbcOperations;
+
+    public AnalyticsSnapshotRepository(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    /**
+     * Inserts or replaces the snapshot stored under the given key.
+     */
+    @Transactional
+    public void save(String key, byte[] payload, Instant generatedAt) {
+        String sql = "INSERT INTO analytics_snapshots (snapshot_key, payload, generated_at) VALUES (?, ?, ?) " +
+                "ON CONFLICT (snapshot_key) DO UPDATE " +
+                "SET payload = EXCLUDED.payload, generated_at = EXCLUDED.generated_at";
+        jdbcOperations.prepareStatement(sql, statement -> {
+            statement.setString(1, key);
+            statement.setBytes(2, payload);
+            statement.setTimestamp(3, Timestamp.from(generatedAt));
+            return statement.executeUpdate();
+        });
+    }
+
+    /**
+     * Loads the stored snapshot, skipping the payload transfer when it is not
+     * newer than the copy the caller already holds.
+     *
+     * @param key the snapshot key
+     * @param newerThan only return a snapshot generated after this instant (nullable)
+     * @return the stored snapshot, or empty when absent or not newer
+     */
+    @Transactional
+    public Optional<StoredSnapshot> findNewerThan(String key, Instant newerThan) {
+        String sql = "SELECT payload, generated_at FROM analytics_snapshots " +
+                "WHERE snapshot_key = ? AND generated_at > ?";
+        return jdbcOperations.prepareStatement(sql, statement -> {
+            statement.setString(1, key);
+            statement.setTimestamp(2, Timestamp.from(newerThan != null ? newerThan : Instant.EPOCH));
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                return Optional.of(new StoredSnapshot(rs.getBytes("payload"),
+                        rs.getTimestamp("generated_at").toInstant()));
+            }
+        });
+    }
+
+    /**
+     * A serialized snapshot and the instant it was computed.
+     */
+    public record StoredSnapshot(byte[] payload, Instant generatedAt) {}
+}
@@ -0,0 +1,115 @@
+package com.totrackit.repository;
+
+import com.totrackit.entity.ProcessEntity;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Leases for parallel deadline scans (totrackit.deadline-scan=parallel).
+ *
+ * A claim is one set-based UPDATE that selects due, unleased runs with
+ * {@code FOR UPDATE SKIP LOCKED}, stamps deadline_claimed_until on them and
+ * returns them, committing at once. Other replicas skip leased runs, so the
+ * webhook can be called with no transaction open and no row lock held; a
+ * producer completing a claimed run is never blocked by the delivery.
+ */
+@Singleton
+public class DeadlineClaimRepository {
+
+    private static final String CLAIM = "UPDATE processes SET deadline_claimed_until = ? " +
+            "WHERE id IN (SELECT id FROM processes WHERE %s " +
+            "  AND (deadline_claimed_until IS NULL OR deadline_claimed_until <= ?) " +
+            "  ORDER BY deadline ASC LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *";
+
+    static final String CLAIM_OVERDUE = String.format(CLAIM,
+            "status = 'ACTIVE' AND deadline IS NOT NULL AND deadline < ? AND deadline_notified_at IS NULL");
+
+    static final String CLAIM_APPROACHING = String.format(CLAIM,
+            "status = 'ACTIVE' AND deadline IS NOT NULL AND deadline > ? AND deadline_warned_at IS NULL " +
+            "AND deadline > started_at " +
+            "AND ? >= started_at + (deadline - started_at) * (CAST(? AS float8[]))[deadline_warning_level + 1]");
+
+    private final JdbcOperations jdbcOperations;
+
+    public DeadlineClaimRepository(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    /**
+     * Leases up to {@code batch} overdue, unnotified runs, oldest deadline
+     * first.
+     *
+     * @param leaseUntil the claimed runs are skipped by other claims until then
+     * @return the claimed runs
+     */
+    @Transactional
+    public List<ProcessEntity> claimOverdue(Instant now, Instant leaseUntil, int batch) {
+        return jdbcOperations.prepareStatement(CLAIM_OVERDUE, statement -> {
+            Timestamp at = Timestamp.from(now);
+            statement.setTimestamp(1, Timestamp.from(leaseUntil));
+            statement.setTimestamp(2, at);
+            statement.setTimestamp(3, at);
+            statement.setInt(4, batch);
+            return read(statement.executeQuery());
+        });
+    }
+
+    /**
+     * Leases up to {@code batch} runs due a warning, soonest deadline first.
+     *
+     * @param levels warning thresholds, ascending, as a float8 array literal
+     * @param leaseUntil the claimed runs are skipped by other claims until then
+     * @return the claimed runs
+     */
+    @Transactional
+    public List<ProcessEntity> claimApproaching(Instant now, String levels, Instant leaseUntil, int batch) {
+        return jdbcOperations.prepareStatement(CLAIM_APPROACHING, statement -> {
+            Timestamp at = Timestamp.from(now);
+            statement.setTimestamp(1, Timestamp.from(leaseUntil));
+            statement.setTimestamp(2, at);
+            statement.setTimestamp(3, at);
+            statement.setString(4, levels);
+            statement.setTimestamp(5, at);
+            statement.setInt(6, batch);
+            return read(statement.executeQuery());
+        });
+    }
+
+    /**
+     * Ends the lease on claimed runs, so those left unmarked are due again
+     * for the next claim on any replica.
+     */
+    @Transactional
+    public void release(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcOperations.prepareStatement("UPDATE processes SET deadline_claimed_until = NULL WHERE id = ANY(?)",
+                statement -> {
+                    statement.setArray(1, statement.getConnection().createArrayOf("bigint", ids.toArray()));
+                    return statement.executeUpdate();
+                });
+    }
+
+    private List<ProcessEntity> read(ResultSet resultSet) throws SQLException {
+        List<ProcessEntity> claimed = new ArrayList<>();
+        try (ResultSet rs = resultSet) {
+            while (rs.next()) {
+                claimed.add(jdbcOperations.readEntity(rs, ProcessEntity.class));
+            }
+        }
+        // RETURNING has no order of its own.
+        claimed.sort(Comparator.comparing(ProcessEntity::getDeadline));
+        return claimed;
+    }
+}
@@ -0,0 +1,131 @@
+package com.totrackit.repository;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grouped deadline scan for digest mode (totrackit.notification-digest.enabled).
+ *
+ * One query per event type and cycle selects the due runs (same predicates
+ * as the per-run scan) and folds them into one row per process name, and per
+ * value of totrackit.notification-digest.tag-key when set: run count,
+ * deadline range, up to totrackit.notification-digest.sample-size process
+ * IDs, and the internal ids the scan marks once the digest is delivered. At
+ * most totrackit.notification-digest.max-runs runs are folded per cycle.
+ */
+@Singleton
+@Requires(property = "totrackit.notification-digest.enabled", value = "true")
+public class DeadlineDigestRepository {
+
+    private static final String GROUPED =
+            "WITH due AS (%s) " +
+            "SELECT name, tag_value, COUNT(*) AS runs, MIN(deadline) AS deadline_from, MAX(deadline) AS deadline_to, " +
+            "  (ARRAY_AGG(process_id ORDER BY deadline, id))[1:?::int] AS sample_ids, ARRAY_AGG(id) AS ids " +
+            "FROM (SELECT id, name, process_id, deadline, %s AS tag_value FROM due) d " +
+            "GROUP BY name, tag_value ORDER BY MIN(deadline), name";
+
+    private static final String TAG_VALUE =
+            "(jsonb_path_query_first(tags, '$[*] ? (@.key == $k).value', jsonb_build_object('k', ?::text)) #>> '{}')";
+
+    /** One digest: the due runs of one name (and tag value). */
+    public record DigestGroup(String name, String tagValue, int count, Instant deadlineFrom, Instant deadlineTo,
+                              List<String> sampleIds, List<Long> ids) {}
+
+    private final JdbcOperations jdbcOperations;
+    private final String tagKey;
+    private final int sampleSize;
+    private final int maxRuns;
+
+    public DeadlineDigestRepository(JdbcOperations jdbcOperations,
+                                    @Value("${totrackit.notification-digest.tag-key:}") String tagKey,
+                                    @Value("${totrackit.notification-digest.sample-size:10}") int sampleSize,
+                                    @Value("${totrackit.notification-digest.max-runs:10000}") int maxRuns) {
+        this.jdbcOperations = jdbcOperations;
+        this.tagKey = tagKey != null && !tagKey.isBlank() ? tagKey.trim() : null;
+        this.sampleSize = Math.max(1, sampleSize);
+        this.maxRuns = Math.max(1, maxRuns);
+    }
+
+    /** The tag key digests are split by, or null to group by name only. */
+    public String tagKey() {
+        return tagKey;
+    }
+
+    /**
+     * Groups the overdue runs not yet notified, oldest deadline first.
+     */
+    @Transactional
+    public List<DigestGroup> overdueGroups(Instant now) {
+        String due = "SELECT id, name, process_id, deadline, tags FROM processes WHERE status = 'ACTIVE' " +
+                "AND deadline IS NOT NULL AND deadline < ? AND deadline_notified_at IS NULL " +
+                "ORDER BY deadline ASC LIMIT ?";
+        return jdbcOperations.prepareStatement(grouped(due), statement -> {
+            statement.setTimestamp(1, Timestamp.from(now));
+            statement.setInt(2, maxRuns);
+            return bindAndRead(statement, 3);
+        });
+    }
+
+    /**
+     * Groups the runs past the threshold of their next unfired warning
+     * level, soonest deadline first.
+     *
+     * @param levels warning thresholds, ascending, as a float8 array literal
+     */
+    @Transactional
+    public List<DigestGroup> warningGroups(Instant now, String levels) {
+        String due = "SELECT id, name, process_id, deadline, tags FROM processes WHERE status = 'ACTIVE' " +
+                "AND deadline IS NOT NULL AND deadline > ? AND deadline_warned_at IS NULL AND deadline > started_at " +
+                "AND ? >= started_at + (deadline - started_at) * (CAST(? AS float8[]))[deadline_warning_level + 1] " +
+                "ORDER BY deadline ASC LIMIT ?";
+        return jdbcOperations.prepareStatement(grouped(due), statement -> {
+            Timestamp at = Timestamp.from(now);
+            statement.setTimestamp(1, at);
+            statement.setTimestamp(2, at);
+            statement.setString(3, levels);
+            statement.setInt(4, maxRuns);
+            return bindAndRead(statement, 5);
+        });
+    }
+
+    private String grouped(String due) {
+        return String.format(GROUPED, due, tagKey != null ? TAG_VALUE : "CAST(NULL AS text)");
+    }
+
+    private List<DigestGroup> bindAndRead(PreparedStatement statement, int index) throws SQLException {
+        statement.setInt(index, sampleSize);
+        if (tagKey != null) {
+            statement.setString(index + 1, tagKey);
+        }
+        List<DigestGroup> groups = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                groups.add(new DigestGroup(rs.getString("name"), rs.getString("tag_value"), rs.getInt("runs"),
+                        rs.getTimestamp("deadline_from").toInstant(), rs.getTimestamp("deadline_to").toInstant(),
+                        List.of((String[]) readArray(rs.getArray("sample_ids"))),
+                        List.of((Long[]) readArray(rs.getArray("ids")))));
+            }
+        }
+        return groups;
+    }
+
+    private static Object readArray(Array array) throws SQLException {
+        try {
+            return array.getArray();
+        } finally {
+            array.free();
+        }
+    }
+}
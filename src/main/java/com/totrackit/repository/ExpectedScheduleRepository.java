@@ -0,0 +1,189 @@
+package com.totrackit.repository;
+
+import com.totrackit.model.ExpectedSchedule;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Storage for expected-run schedules, and the two statements a missing-run
+ * check runs for every expected start that came due in one pass: which of
+ * them have no matching run, and recording that they were checked.
+ *
+ * The due starts are bound as two parallel arrays (names and epoch seconds)
+ * and unnested, so a pass costs two round trips however many schedules came
+ * due. The existence check per start is a range probe on
+ * idx_processes_name_started_at.
+ */
+@Singleton
+public class ExpectedScheduleRepository {
+
+    private static final String COLUMNS = "name, cron, time_zone, grace_seconds, checked_through, created_at";
+
+    /** Expected starts not yet checked that no run started within grace of. */
+    static final String FIND_MISSING = "SELECT d.name, d.expected_at " +
+            "FROM unnest(?, ?) AS d(name, expected_at) " +
+            "JOIN expected_schedules s ON s.name = d.name " +
+            "WHERE (s.checked_through IS NULL OR s.checked_through < to_timestamp(d.expected_at)) " +
+            "AND NOT EXISTS (SELECT 1 FROM processes p WHERE p.name = d.name " +
+            "AND p.started_at >= to_timestamp(d.expected_at) - make_interval(secs => s.grace_seconds) " +
+            "AND p.started_at <= to_timestamp(d.expected_at) + make_interval(secs => s.grace_seconds))";
+
+    private static final String MARK_CHECKED = "UPDATE expected_schedules s " +
+            "SET checked_through = to_timestamp(d.expected_at) " +
+            "FROM unnest(?, ?) AS d(name, expected_at) " +
+            "WHERE s.name = d.name " +
+            "AND (s.checked_through IS NULL OR s.checked_through < to_timestamp(d.expected_at))";
+
+    /**
+     * One expected start of a schedule.
+     *
+     * @param expectedAt the instant the cron expression fired at
+     */
+    public record ExpectedRun(String name, Instant expectedAt, int graceSeconds) {}
+
+    private final JdbcOperations jdbcOperations;
+
+    public ExpectedScheduleRepository(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    @Transactional
+    public List<ExpectedSchedule> findAll() {
+        return jdbcOperations.prepareStatement("SELECT " + COLUMNS + " FROM expected_schedules ORDER BY name",
+                statement -> {
+                    List<ExpectedSchedule> schedules = new ArrayList<>();
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            schedules.add(read(rs));
+                        }
+                    }
+                    return schedules;
+                });
+    }
+
+    @Transactional
+    public Optional<ExpectedSchedule> findByName(String name) {
+        return jdbcOperations.prepareStatement("SELECT " + COLUMNS + " FROM expected_schedules WHERE name = ?",
+                statement -> {
+                    statement.setString(1, name);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        return rs.next() ? Optional.of(read(rs)) : Optional.empty();
+                    }
+                });
+    }
+
+    /**
+     * Creates or replaces the schedule of a name. A replaced schedule keeps
+     * its creation time and checked-through instant, so starts already
+     * checked are not reported again.
+     *
+     * @return the stored schedule
+     */
+    @Transactional
+    public ExpectedSchedule upsert(String name, String cron, String timeZone, int graceSeconds) {
+        String sql = "INSERT INTO expected_schedules (name, cron, time_zone, grace_seconds) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT (name) DO UPDATE SET cron = EXCLUDED.cron, time_zone = EXCLUDED.time_zone, " +
+                "grace_seconds = EXCLUDED.grace_seconds RETURNING " + COLUMNS;
+        return jdbcOperations.prepareStatement(sql, statement -> {
+            statement.setString(1, name);
+            statement.setString(2, cron);
+            statement.setString(3, timeZone);
+            statement.setInt(4, graceSeconds);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return read(rs);
+            }
+        });
+    }
+
+    /**
+     * @return true if the schedule existed
+     */
+    @Transactional
+    public boolean delete(String name) {
+        return jdbcOperations.prepareStatement("DELETE FROM expected_schedules WHERE name = ?", statement -> {
+            statement.setString(1, name);
+            return statement.executeUpdate() > 0;
+        });
+    }
+
+    /**
+     * The expected starts no run of their name started within grace of,
+     * leaving out starts already checked (by another replica, or before a
+     * leader change).
+     */
+    @Transactional
+    public List<ExpectedRun> findMissing(List<ExpectedRun> due) {
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        Set<String> missing = jdbcOperations.prepareStatement(FIND_MISSING, statement -> {
+            bindRuns(statement, due);
+            Set<String> keys = new HashSet<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    keys.add(key(rs.getString(1), rs.getLong(2)));
+                }
+            }
+            return keys;
+        });
+        List<ExpectedRun> result = new ArrayList<>(missing.size());
+        for (ExpectedRun run : due) {
+            if (missing.contains(key(run.name(), run.expectedAt().getEpochSecond()))) {
+                result.add(run);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records the expected starts as checked. checked_through only moves
+     * forward.
+     *
+     * @return number of schedules updated
+     */
+    @Transactional
+    public int markChecked(List<ExpectedRun> runs) {
+        if (runs.isEmpty()) {
+            return 0;
+        }
+        return jdbcOperations.prepareStatement(MARK_CHECKED, statement -> {
+            bindRuns(statement, runs);
+            return statement.executeUpdate();
+        });
+    }
+
+    private static void bindRuns(PreparedStatement statement, List<ExpectedRun> runs) throws SQLException {
+        Object[] names = new Object[runs.size()];
+        Object[] expectedAt = new Object[runs.size()];
+        for (int i = 0; i < runs.size(); i++) {
+            names[i] = runs.get(i).name();
+            expectedAt[i] = runs.get(i).expectedAt().getEpochSecond();
+        }
+        statement.setArray(1, statement.getConnection().createArrayOf("text", names));
+        statement.setArray(2, statement.getConnection().createArrayOf("bigint", expectedAt));
+    }
+
+    private static String key(String name, long expectedAtSeconds) {
+        return name + "@" + expectedAtSeconds;
+    }
+
+    private static ExpectedSchedule read(ResultSet rs) throws SQLException {
+        Timestamp checkedThrough = rs.getTimestamp("checked_through");
+        return new ExpectedSchedule(rs.getString("name"), rs.getString("cron"), rs.getString("time_zone"),
+                rs.getInt("grace_seconds"), checkedThrough != null ? checkedThrough.toInstant() : null,
+                rs.getTimestamp("created_at").toInstant());
+    }
+}
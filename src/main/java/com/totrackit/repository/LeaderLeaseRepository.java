@@ -0,0 +1,91 @@
+package com.totrackit.repository;
+
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage for leader leases. Acquire, renew and take-over are one upsert that
+ * only succeeds for the current holder or once the lease has expired, judged
+ * by the database clock.
+ */
+@Singleton
+public class LeaderLeaseRepository {
+
+    private final JdbcOperations jdbcOperations;
+
+    public LeaderLeaseRepository(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    /**
+     * Acquires or renews the lease for {@code holder}.
+     *
+     * @param ttl how long the lease stays valid from now without renewal
+     * @return the lease when {@code holder} holds it after the call, empty
+     *         when another holder's lease is still valid
+     */
+    @Transactional
+    public Optional<Lease> tryAcquire(String name, String holder, Duration ttl) {
+        String sql = "INSERT INTO leader_leases (name, holder, acquired_at, renewed_at, expires_at) " +
+                "VALUES (?, ?, clock_timestamp(), clock_timestamp(), clock_timestamp() + ? * INTERVAL '1 millisecond') " +
+                "ON CONFLICT (name) DO UPDATE SET holder = EXCLUDED.holder, " +
+                "  acquired_at = CASE WHEN leader_leases.holder = EXCLUDED.holder " +
+                "                     THEN leader_leases.acquired_at ELSE EXCLUDED.acquired_at END, " +
+                "  renewed_at = EXCLUDED.renewed_at, expires_at = EXCLUDED.expires_at " +
+                "WHERE leader_leases.holder = EXCLUDED.holder OR leader_leases.expires_at < clock_timestamp() " +
+                "RETURNING holder, acquired_at, expires_at";
+        return jdbcOperations.prepareStatement(sql, statement -> {
+            statement.setString(1, name);
+            statement.setString(2, holder);
+            statement.setLong(3, ttl.toMillis());
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? Optional.of(read(rs)) : Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * The lease as currently stored, expired or not.
+     */
+    @Transactional
+    public Optional<Lease> find(String name) {
+        String sql = "SELECT holder, acquired_at, expires_at FROM leader_leases WHERE name = ?";
+        return jdbcOperations.prepareStatement(sql, statement -> {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? Optional.of(read(rs)) : Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Gives the lease up if {@code holder} still holds it, so another replica
+     * can take over on its next heartbeat instead of waiting for expiry.
+     */
+    @Transactional
+    public void release(String name, String holder) {
+        String sql = "DELETE FROM leader_leases WHERE name = ? AND holder = ?";
+        jdbcOperations.prepareStatement(sql, statement -> {
+            statement.setString(1, name);
+            statement.setString(2, holder);
+            return statement.executeUpdate();
+        });
+    }
+
+    private static Lease read(ResultSet rs) throws SQLException {
+        return new Lease(rs.getString("holder"), rs.getTimestamp("acquired_at").toInstant(),
+                rs.getTimestamp("expires_at").toInstant());
+    }
+
+    /**
+     * A lease row: who holds it, since when, and until when it is valid.
+     */
+    public record Lease(String holder, Instant acquiredAt, Instant expiresAt) {}
+}
@@ -0,0 +1,238 @@
+package com.totrackit.repository;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Storage for the webhook event outbox (totrackit.notification-delivery=outbox).
+ *
+ * Events are enqueued by the deadline scan in the same statement that marks
+ * the run, so an event exists exactly when its deadline_notified_at column is
+ * set or its deadline_warning_level advanced. The due runs are selected with FOR UPDATE
+ * SKIP LOCKED, so scans on several replicas enqueue disjoint sets.
+ * Dispatchers on any replica claim due rows the same way; a claim bumps the
+ * attempt count and leases the row by pushing next_attempt_at out, so a
+ * replica that dies mid-delivery only delays the event until the lease
+ * expires.
+ */
+@Singleton
+@Requires(property = "totrackit.notification-delivery", value = "outbox")
+public class NotificationOutboxRepository {
+
+    private static final String ENQUEUE =
+            "WITH due AS (%s), " +
+            "marked AS (UPDATE processes p SET %s FROM due WHERE p.id = due.id RETURNING p.id, p.name), " +
+            "queued AS (INSERT INTO notification_outbox (process_id, event_type, next_attempt_at, created_at) " +
+            "  SELECT id, ?, ?, ? FROM marked) " +
+            "SELECT name FROM marked";
+
+    private final JdbcOperations jdbcOperations;
+
+    public NotificationOutboxRepository(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    /**
+     * Marks up to {@code batch} overdue, unnotified runs as notified and
+     * enqueues one event per run, atomically.
+     *
+     * @return the process names of the runs enqueued (one entry per run)
+     */
+    @Transactional
+    public List<String> enqueueMissedDeadlines(Instant now, String eventType, int batch) {
+        String due = "SELECT id FROM processes WHERE status = 'ACTIVE' AND deadline IS NOT NULL AND deadline < ? " +
+                "AND deadline_notified_at IS NULL ORDER BY deadline ASC LIMIT ? FOR UPDATE SKIP LOCKED";
+        String mark = "deadline_notified_at = ?, next_warning_at = NULL";
+        return jdbcOperations.prepareStatement(String.format(ENQUEUE, due, mark), statement -> {
+            Timestamp at = Timestamp.from(now);
+            statement.setTimestamp(1, at);
+            statement.setInt(2, batch);
+            statement.setTimestamp(3, at);
+            return bindEnqueue(statement, 4, at, eventType);
+        });
+    }
+
+    /**
+     * Records a warning for up to {@code batch} runs past the threshold of
+     * their next unfired warning level and enqueues one event per run,
+     * atomically. Each run's level becomes the number of levels it has
+     * crossed and its next_warning_at the instant of the level after that;
+     * runs past the last level are marked warned.
+     *
+     * @param levels warning thresholds, ascending, as a float8 array literal
+     * @return the process names of the runs enqueued (one entry per run)
+     */
+    @Transactional
+    public List<String> enqueueDeadlineWarnings(Instant now, String levels, String eventType, int batch) {
+        String due = "SELECT id, (SELECT COUNT(*) FROM unnest(CAST(? AS float8[])) AS l(threshold) " +
+                "  WHERE ? >= started_at + (deadline - started_at) * l.threshold) AS crossed " +
+                "FROM processes WHERE status = 'ACTIVE' AND deadline IS NOT NULL AND deadline > ? " +
+                "AND deadline_warned_at IS NULL AND deadline > started_at " +
+                "AND ? >= started_at + (deadline - started_at) * (CAST(? AS float8[]))[deadline_warning_level + 1] " +
+                "ORDER BY deadline ASC LIMIT ? FOR UPDATE SKIP LOCKED";
+        String mark = "deadline_warning_level = GREATEST(p.deadline_warning_level, due.crossed), " +
+                "deadline_warned_at = CASE WHEN due.crossed >= cardinality(CAST(? AS float8[])) " +
+                "  THEN ? ELSE p.deadline_warned_at END, " +
+                "next_warning_at = CASE WHEN due.crossed >= cardinality(CAST(? AS float8[])) THEN NULL " +
+                "  ELSE p.started_at + (p.deadline - p.started_at) " +
+                "    * (CAST(? AS float8[]))[GREATEST(p.deadline_warning_level, due.crossed) + 1] END";
+        return jdbcOperations.prepareStatement(String.format(ENQUEUE, due, mark), statement -> {
+            Timestamp at = Timestamp.from(now);
+            statement.setString(1, levels);
+            statement.setTimestamp(2, at);
+            statement.setTimestamp(3, at);
+            statement.setTimestamp(4, at);
+            statement.setString(5, levels);
+            statement.setInt(6, batch);
+            statement.setString(7, levels);
+            statement.setTimestamp(8, at);
+            statement.setString(9, levels);
+            statement.setString(10, levels);
+            return bindEnqueue(statement, 11, at, eventType);
+        });
+    }
+
+    private static List<String> bindEnqueue(PreparedStatement statement, int index, Timestamp at, String eventType)
+            throws SQLException {
+        statement.setString(index, eventType);
+        statement.setTimestamp(index + 1, at);
+        statement.setTimestamp(index + 2, at);
+        List<String> names = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Claims up to {@code limit} pending events due at {@code now}, oldest
+     * first. Rows locked by another dispatcher are skipped, not waited for.
+     *
+     * @param leaseUntil claimed rows are not due again before this instant
+     * @return the claimed events, attempts already counting this one
+     */
+    @Transactional
+    public List<OutboxEvent> claimDue(Instant now, Instant leaseUntil, int limit) {
+        String sql = "UPDATE notification_outbox o SET attempts = o.attempts + 1, next_attempt_at = ? " +
+                "FROM (SELECT id FROM notification_outbox WHERE status = 'PENDING' AND next_attempt_at <= ? " +
+                "      ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) due " +
+                "WHERE o.id = due.id " +
+                "RETURNING o.id, o.process_id, o.event_type, o.attempts";
+        return jdbcOperations.prepareStatement(sql, statement -> {
+            statement.setTimestamp(1, Timestamp.from(leaseUntil));
+            statement.setTimestamp(2, Timestamp.from(now));
+            statement.setInt(3, limit);
+            List<OutboxEvent> events = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    events.add(new OutboxEvent(rs.getLong("id"), rs.getLong("process_id"),
+                            rs.getString("event_type"), rs.getInt("attempts")));
+                }
+            }
+            return events;
+        });
+    }
+
+    @Transactional
+    public void markDelivered(List<Long> ids, Instant deliveredAt) {
+        update("UPDATE notification_outbox SET status = 'DELIVERED', delivered_at = ? WHERE id = ANY(?)",
+                ids, Timestamp.from(deliveredAt));
+    }
+
+    /**
+     * Puts failed events back in the queue, due again at {@code nextAttemptAt}.
+     */
+    @Transactional
+    public void reschedule(List<Long> ids, Instant nextAttemptAt) {
+        update("UPDATE notification_outbox SET next_attempt_at = ? WHERE id = ANY(?)",
+                ids, Timestamp.from(nextAttemptAt));
+    }
+
+    /**
+     * Returns claimed events that were never sent (the pass was aborted or
+     * the webhook's circuit opened first) to the queue, due at
+     * {@code now}, and takes back the attempt the claim counted.
+     */
+    @Transactional
+    public void release(List<Long> ids, Instant now) {
+        update("UPDATE notification_outbox SET attempts = attempts - 1, next_attempt_at = ? WHERE id = ANY(?)",
+                ids, Timestamp.from(now));
+    }
+
+    /**
+     * Moves events to the dead-letter state; they are never claimed again.
+     */
+    @Transactional
+    public void deadLetter(List<Long> ids) {
+        update("UPDATE notification_outbox SET status = 'DEAD' WHERE id = ANY(?)", ids, null);
+    }
+
+    private void update(String sql, List<Long> ids, Timestamp at) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcOperations.prepareStatement(sql, statement -> {
+            int index = 1;
+            if (at != null) {
+                statement.setTimestamp(index++, at);
+            }
+            Array array = statement.getConnection().createArrayOf("bigint", ids.toArray());
+            statement.setArray(index, array);
+            return statement.executeUpdate();
+        });
+    }
+
+    /**
+     * Deletes delivered events older than the retention cutoff.
+     *
+     * @return number of rows removed
+     */
+    @Transactional
+    public int purgeDelivered(Instant before) {
+        String sql = "DELETE FROM notification_outbox WHERE status = 'DELIVERED' AND delivered_at < ?";
+        return jdbcOperations.prepareStatement(sql, statement -> {
+            statement.setTimestamp(1, Timestamp.from(before));
+            return statement.executeUpdate();
+        });
+    }
+
+    /**
+     * Counts events still waiting for delivery and events given up on.
+     */
+    @Transactional
+    public Depth depth() {
+        String sql = "SELECT COUNT(*) FILTER (WHERE status = 'PENDING'), COUNT(*) FILTER (WHERE status = 'DEAD') " +
+                "FROM notification_outbox WHERE status IN ('PENDING', 'DEAD')";
+        return jdbcOperations.prepareStatement(sql, statement -> {
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return new Depth(rs.getLong(1), rs.getLong(2));
+            }
+        });
+    }
+
+    /**
+     * A claimed outbox row.
+     *
+     * @param attempts delivery attempts including the current one
+     */
+    public record OutboxEvent(long id, long processId, String eventType, int attempts) {}
+
+    /**
+     * Pending and dead-lettered event counts.
+     */
+    public record Depth(long pending, long dead) {}
+}
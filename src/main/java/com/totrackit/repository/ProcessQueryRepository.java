@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.totrackit.dto.Pageable;
 import com.totrackit.dto.ProcessFilter;
 import com.totrackit.entity.ProcessEntity;
+import com.totrackit.interceptor.TimedQueries;
 import com.totrackit.model.DeadlineStatus;
 import io.micronaut.data.jdbc.runtime.JdbcOperations;
 import io.micronaut.transaction.annotation.Transactional;
@@ -29,6 +30,7 @@ import java.util.stream.Collectors;
  * pagination into SQL rather than loading the table into memory.
  */
 @Singleton
+@TimedQueries("process_query_repository")
 public class ProcessQueryRepository {
 
     /** Whitelisted sort keys mapped to ORDER BY expressions. Never interpolate user input. */
@@ -1,6 +1,7 @@
 package com.totrackit.repository;
 
 import com.totrackit.entity.ProcessEntity;
+import com.totrackit.interceptor.TimedQueries;
 import com.totrackit.model.ProcessStatus;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.data.annotation.Query;
@@ -19,6 +20,7 @@ import java.util.Optional;
  * query here is either point-lookup or bounded by an explicit batch limit.
  */
 @JdbcRepository(dialect = Dialect.POSTGRES)
+@TimedQueries("process_repository")
 public interface ProcessRepository extends CrudRepository<ProcessEntity, Long> {
 
     /**
@@ -41,6 +43,15 @@ public interface ProcessRepository extends CrudRepository<ProcessEntity, Long> {
     @Query("SELECT COUNT(*) > 0 FROM processes WHERE name = :name AND process_id = :processId AND status = 'ACTIVE'")
     boolean existsActiveProcess(String name, String processId);
 
+    /**
+     * Loads several processes by internal ID in one query.
+     *
+     * @param ids the internal process IDs
+     * @return the processes found, in no particular order
+     */
+    @Query("SELECT * FROM processes WHERE id IN (:ids)")
+    List<ProcessEntity> findByIdIn(List<Long> ids);
+
     /**
      * Finds overdue active processes that have not yet had a deadline-breach
      * notification sent, oldest deadline first, bounded per scan cycle.
@@ -54,22 +65,42 @@ public interface ProcessRepository extends CrudRepository<ProcessEntity, Long> {
     List<ProcessEntity> findOverdueUnnotified(Instant currentTime, int batch);
 
     /**
-     * Finds active processes that have crossed the pre-deadline warning
-     * threshold (fraction of the started_at→deadline budget) and have not yet
-     * been warned. The threshold math runs in SQL against the partial index on
-     * unwarned future deadlines, so the scan never loads rows that are not
-     * actionable this cycle.
+     * Finds active processes that have crossed the threshold of their next
+     * unfired warning level (a fraction of the started_at→deadline budget).
+     * The threshold math runs in SQL against the partial index on future
+     * deadlines with warnings left, so the scan never loads rows that are not
+     * actionable this cycle, however many levels there are.
      *
      * @param currentTime the current timestamp to compare against
-     * @param threshold warning threshold as a fraction of the deadline budget (0..1)
+     * @param levels warning thresholds, ascending, as a float8 array literal
+     *               ({@link com.totrackit.service.WarningLevels#sqlArray()})
      * @param batch maximum rows to process in one cycle
      * @return list of processes due a warning, soonest deadline first
      */
     @Query("SELECT * FROM processes WHERE status = 'ACTIVE' AND deadline IS NOT NULL AND deadline > :currentTime " +
            "AND deadline_warned_at IS NULL AND deadline > started_at " +
-           "AND :currentTime >= started_at + (deadline - started_at) * :threshold " +
+           "AND :currentTime >= started_at + (deadline - started_at) * (CAST(:levels AS float8[]))[deadline_warning_level + 1] " +
+           "ORDER BY deadline ASC LIMIT :batch")
+    List<ProcessEntity> findApproachingUnwarned(Instant currentTime, String levels, int batch);
+
+    /**
+     * Finds active runs with a deadline event still to come within the
+     * horizon: either the deadline itself (not yet notified) or the instant
+     * of the next unfired warning level. Used to load the in-memory deadline
+     * timer wheel; soonest deadline first, bounded by the limit.
+     *
+     * @param currentTime the current timestamp to compare against
+     * @param until end of the loading horizon
+     * @param levels warning thresholds, ascending, as a float8 array literal
+     * @param batch maximum rows to load
+     * @return list of runs with an upcoming deadline event
+     */
+    @Query("SELECT * FROM processes WHERE status = 'ACTIVE' AND deadline IS NOT NULL AND deadline > :currentTime " +
+           "AND ((deadline_notified_at IS NULL AND deadline <= :until) " +
+           "  OR (deadline_warned_at IS NULL AND deadline > started_at " +
+           "      AND started_at + (deadline - started_at) * (CAST(:levels AS float8[]))[deadline_warning_level + 1] <= :until)) " +
            "ORDER BY deadline ASC LIMIT :batch")
-    List<ProcessEntity> findApproachingUnwarned(Instant currentTime, double threshold, int batch);
+    List<ProcessEntity> findUpcomingDeadlineEvents(Instant currentTime, Instant until, String levels, int batch);
 
     /**
      * Counts the missed-deadline notification backlog (overdue, unnotified).
@@ -82,16 +113,37 @@ public interface ProcessRepository extends CrudRepository<ProcessEntity, Long> {
     long countOverdueUnnotified(Instant currentTime);
 
     /**
-     * Counts the warning backlog (past the warning threshold, unwarned).
+     * Counts the warning backlog (past the next unfired warning level).
      *
      * @param currentTime the current timestamp to compare against
-     * @param threshold warning threshold as a fraction of the deadline budget (0..1)
+     * @param levels warning thresholds, ascending, as a float8 array literal
      * @return number of at-risk processes still awaiting processing
      */
     @Query("SELECT COUNT(*) FROM processes WHERE status = 'ACTIVE' AND deadline IS NOT NULL AND deadline > :currentTime " +
            "AND deadline_warned_at IS NULL AND deadline > started_at " +
-           "AND :currentTime >= started_at + (deadline - started_at) * :threshold")
-    long countApproachingUnwarned(Instant currentTime, double threshold);
+           "AND :currentTime >= started_at + (deadline - started_at) * (CAST(:levels AS float8[]))[deadline_warning_level + 1]")
+    long countApproachingUnwarned(Instant currentTime, String levels);
+
+    /**
+     * Earliest deadline after {@code after} of an active run not yet
+     * notified. Reads one entry of idx_processes_deadline_unnotified.
+     *
+     * @param after lower bound (exclusive); {@link Instant#EPOCH} for past deadlines too
+     * @return the earliest unnotified deadline, empty when there is none
+     */
+    @Query("SELECT MIN(deadline) FROM processes WHERE status = 'ACTIVE' AND deadline IS NOT NULL " +
+           "AND deadline_notified_at IS NULL AND deadline > :after")
+    Optional<Instant> findNextUnnotifiedDeadline(Instant after);
+
+    /**
+     * Earliest instant after {@code after} of an active run's next unfired
+     * warning level. Reads one entry of idx_processes_next_warning.
+     *
+     * @param after lower bound (exclusive); {@link Instant#EPOCH} for past instants too
+     * @return the earliest warning instant, empty when there is none
+     */
+    @Query("SELECT MIN(next_warning_at) FROM processes WHERE status = 'ACTIVE' AND next_warning_at > :after")
+    Optional<Instant> findNextWarningInstant(Instant after);
 
     /**
      * Marks a process as having been notified about its missed deadline.
@@ -99,7 +151,7 @@ public interface ProcessRepository extends CrudRepository<ProcessEntity, Long> {
      * @param id the internal process ID
      * @param notifiedAt when the notification was sent
      */
-    @Query("UPDATE processes SET deadline_notified_at = :notifiedAt WHERE id = :id")
+    @Query("UPDATE processes SET deadline_notified_at = :notifiedAt, next_warning_at = NULL WHERE id = :id")
     void markDeadlineNotified(Long id, Instant notifiedAt);
 
     /**
@@ -108,26 +160,76 @@ public interface ProcessRepository extends CrudRepository<ProcessEntity, Long> {
      * @param ids the internal process IDs
      * @param notifiedAt when the notifications were sent
      */
-    @Query("UPDATE processes SET deadline_notified_at = :notifiedAt WHERE id IN (:ids)")
+    @Query("UPDATE processes SET deadline_notified_at = :notifiedAt, next_warning_at = NULL WHERE id IN (:ids)")
     void markDeadlineNotifiedBatch(List<Long> ids, Instant notifiedAt);
 
     /**
-     * Marks a process as having had its pre-deadline warning processed.
+     * Marks a process as having had all its pre-deadline warnings processed.
      *
      * @param id the internal process ID
      * @param warnedAt when the warning was processed
      */
-    @Query("UPDATE processes SET deadline_warned_at = :warnedAt WHERE id = :id")
+    @Query("UPDATE processes SET deadline_warned_at = :warnedAt, next_warning_at = NULL WHERE id = :id")
     void markDeadlineWarned(Long id, Instant warnedAt);
 
     /**
-     * Marks a batch of processes as warned in one round trip.
+     * Records the warnings sent for a batch of processes in one round trip:
+     * each run's level becomes the number of levels it has crossed at
+     * {@code warnedAt}, its next_warning_at the instant of the level after
+     * that, and runs past the last level are marked warned.
+     *
+     * @param ids the internal process IDs
+     * @param warnedAt the instant the warnings were selected at
+     * @param levels warning thresholds, ascending, as a float8 array literal
+     */
+    @Query("UPDATE processes p SET deadline_warning_level = GREATEST(p.deadline_warning_level, c.crossed), " +
+           "deadline_warned_at = CASE WHEN c.crossed >= cardinality(CAST(:levels AS float8[])) " +
+           "  THEN :warnedAt ELSE p.deadline_warned_at END, " +
+           "next_warning_at = CASE WHEN c.crossed >= cardinality(CAST(:levels AS float8[])) THEN NULL " +
+           "  ELSE p.started_at + (p.deadline - p.started_at) " +
+           "    * (CAST(:levels AS float8[]))[GREATEST(p.deadline_warning_level, c.crossed) + 1] END " +
+           "FROM (SELECT id, (SELECT COUNT(*) FROM unnest(CAST(:levels AS float8[])) AS l(threshold) " +
+           "        WHERE :warnedAt >= started_at + (deadline - started_at) * l.threshold) AS crossed " +
+           "      FROM processes WHERE id IN (:ids)) c " +
+           "WHERE p.id = c.id")
+    void markDeadlineWarnedBatch(List<Long> ids, Instant warnedAt, String levels);
+
+    /**
+     * Finds active runs past their stall instant (last activity plus stall
+     * timeout) that have not been reported as stalled since their last
+     * heartbeat, longest-stalled first. Reads idx_processes_stall_unnotified.
+     *
+     * @param currentTime the current timestamp to compare against
+     * @param batch maximum rows to process in one cycle
+     * @return list of stalled, unnotified processes
+     */
+    @Query("SELECT * FROM processes WHERE status = 'ACTIVE' AND stall_at IS NOT NULL AND stall_at < :currentTime " +
+           "AND stall_notified_at IS NULL ORDER BY stall_at ASC LIMIT :batch")
+    List<ProcessEntity> findStalledUnnotified(Instant currentTime, int batch);
+
+    /**
+     * Marks a batch of processes as reported stalled in one round trip. Runs
+     * whose stall instant a heartbeat has since moved past the scan instant
+     * are left armed.
      *
      * @param ids the internal process IDs
-     * @param warnedAt when the warnings were processed
+     * @param notifiedAt the scan instant the stalls were found at
+     */
+    @Query("UPDATE processes SET stall_notified_at = :notifiedAt WHERE id IN (:ids) AND stall_at < :notifiedAt")
+    void markStallNotifiedBatch(List<Long> ids, Instant notifiedAt);
+
+    /**
+     * Records a heartbeat on an active run: moves its last activity and stall
+     * instant forward and re-arms stall reporting.
+     *
+     * @param id the internal process ID
+     * @param activityAt when the heartbeat arrived
+     * @param stallAt the new stall instant, null when the run has no stall timeout
+     * @return 1 if the run was still active, 0 otherwise
      */
-    @Query("UPDATE processes SET deadline_warned_at = :warnedAt WHERE id IN (:ids)")
-    void markDeadlineWarnedBatch(List<Long> ids, Instant warnedAt);
+    @Query("UPDATE processes SET last_activity_at = :activityAt, updated_at = :activityAt, stall_at = :stallAt, " +
+           "stall_notified_at = NULL WHERE id = :id AND status = 'ACTIVE'")
+    int recordHeartbeat(Long id, Instant activityAt, @Nullable Instant stallAt);
 
     /**
      * Counts processes by status.
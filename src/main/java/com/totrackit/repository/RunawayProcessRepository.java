@@ -0,0 +1,78 @@
+package com.totrackit.repository;
+
+import com.totrackit.entity.ProcessEntity;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fails active runs older than their max duration, one chunk per statement.
+ *
+ * Each chunk is a single set-based UPDATE over the oldest expired runs of a
+ * name (or of every name without its own limit), which returns the rows it
+ * failed. Rows are claimed with {@code FOR UPDATE SKIP LOCKED}, so a run its
+ * producer is completing at the same time is left to the producer, and a
+ * chunk never holds more than {@code limit} row locks. The candidates are
+ * read from idx_processes_name_started_at for a named limit and from
+ * idx_processes_status_started_at for the default.
+ */
+@Singleton
+public class RunawayProcessRepository {
+
+    private static final String FAIL = "UPDATE processes SET status = 'FAILED', completed_at = ?, failure_reason = ? " +
+            "WHERE id IN (SELECT id FROM processes WHERE status = 'ACTIVE' AND %s AND started_at < ? " +
+            "  ORDER BY started_at ASC LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *";
+
+    /** Expired runs of one name. */
+    static final String FAIL_NAMED = String.format(FAIL, "name = ?");
+
+    /** Expired runs of every name without a limit of its own. */
+    static final String FAIL_OTHERS = String.format(FAIL, "NOT (name = ANY(?))");
+
+    private final JdbcOperations jdbcOperations;
+
+    public RunawayProcessRepository(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    /**
+     * Fails up to {@code limit} active runs started before
+     * {@code startedBefore}, oldest first.
+     *
+     * @param name the process name, or null for every name not in {@code excluded}
+     * @param excluded the names with a limit of their own; ignored when {@code name} is set
+     * @param failedAt the completion time to record
+     * @param reason the failure reason to record
+     * @return the failed runs, as updated
+     */
+    @Transactional
+    public List<ProcessEntity> failExpired(@Nullable String name, List<String> excluded, Instant startedBefore,
+                                           Instant failedAt, String reason, int limit) {
+        return jdbcOperations.prepareStatement(name != null ? FAIL_NAMED : FAIL_OTHERS, statement -> {
+            statement.setTimestamp(1, Timestamp.from(failedAt));
+            statement.setString(2, reason);
+            if (name != null) {
+                statement.setString(3, name);
+            } else {
+                statement.setArray(3, statement.getConnection().createArrayOf("text", excluded.toArray()));
+            }
+            statement.setTimestamp(4, Timestamp.from(startedBefore));
+            statement.setInt(5, limit);
+            List<ProcessEntity> failed = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    failed.add(jdbcOperations.readEntity(rs, ProcessEntity.class));
+                }
+            }
+            return failed;
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.totrackit.repository;
+
+import com.totrackit.entity.ProcessEntity;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The subscription_due_at marker: when a run's next deadline event falls
+ * due for webhook subscriptions, independently of the operator webhook's
+ * deadline_notified_at / deadline_warning_level markers.
+ *
+ * One set-based UPDATE takes the due runs with {@code FOR UPDATE SKIP
+ * LOCKED}, moves each marker on to the run's next warning level instant
+ * after {@code now} (or its deadline), or clears it once the deadline has
+ * passed, and returns the runs. Routing is best effort like the rest of
+ * subscription delivery, so the marker moves as the events are taken, and
+ * replicas scanning side by side never take the same event twice.
+ *
+ * Markers are only kept while at least one subscription exists (see
+ * {@link com.totrackit.service.WebhookSubscriptionService}); {@link #start}
+ * sets them for the active runs when routing begins.
+ */
+@Singleton
+public class SubscriptionDeadlineRepository {
+
+    /** The run's next event instant after the first parameter: (now, levels, now). */
+    private static final String NEXT_EVENT = "CASE " +
+            "  WHEN p.deadline <= ? THEN NULL " +
+            "  ELSE COALESCE((SELECT MIN(p.started_at + (p.deadline - p.started_at) * l.threshold) " +
+            "                 FROM unnest(CAST(? AS float8[])) AS l(threshold) " +
+            "                 WHERE p.deadline > p.started_at " +
+            "                   AND p.started_at + (p.deadline - p.started_at) * l.threshold > ?), p.deadline) END ";
+
+    static final String TAKE_DUE = "UPDATE processes p SET subscription_due_at = " + NEXT_EVENT +
+            "FROM (SELECT id FROM processes WHERE status = 'ACTIVE' AND subscription_due_at IS NOT NULL " +
+            "      AND subscription_due_at <= ? ORDER BY subscription_due_at ASC LIMIT ? FOR UPDATE SKIP LOCKED) due " +
+            "WHERE p.id = due.id " +
+            "RETURNING p.*, (SELECT COUNT(*) FROM unnest(CAST(? AS float8[])) AS l(threshold) " +
+            "  WHERE ? >= p.started_at + (p.deadline - p.started_at) * l.threshold) AS crossed";
+
+    static final String RESTART = "UPDATE processes p SET subscription_due_at = " + NEXT_EVENT +
+            "WHERE p.status = 'ACTIVE' AND p.deadline IS NOT NULL " +
+            "AND (p.deadline > ? OR p.subscription_due_at IS NOT NULL)";
+
+    static final String FILL = "UPDATE processes p SET subscription_due_at = " + NEXT_EVENT +
+            "WHERE p.status = 'ACTIVE' AND p.deadline > ? AND p.subscription_due_at IS NULL";
+
+    private final JdbcOperations jdbcOperations;
+
+    public SubscriptionDeadlineRepository(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    /**
+     * Takes up to {@code batch} runs with a subscription deadline event due
+     * at {@code now}, earliest deadline first, and advances their markers. A
+     * returned run whose marker was cleared is due its missed event; any
+     * other one a warning at the returned run's deadline_warning_level,
+     * which is set to the number of levels crossed at {@code now}.
+     *
+     * @param levels warning thresholds, ascending, as a float8 array literal
+     * @return the runs, as updated
+     */
+    @Transactional
+    public List<ProcessEntity> takeDue(Instant now, String levels, int batch) {
+        return jdbcOperations.prepareStatement(TAKE_DUE, statement -> {
+            Timestamp at = Timestamp.from(now);
+            statement.setTimestamp(1, at);
+            statement.setString(2, levels);
+            statement.setTimestamp(3, at);
+            statement.setTimestamp(4, at);
+            statement.setInt(5, batch);
+            statement.setString(6, levels);
+            statement.setTimestamp(7, at);
+            List<ProcessEntity> due = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ProcessEntity process = jdbcOperations.readEntity(rs, ProcessEntity.class);
+                    process.setDeadlineWarningLevel(rs.getInt("crossed"));
+                    due.add(process);
+                }
+            }
+            // RETURNING has no order of its own.
+            due.sort(Comparator.comparing(ProcessEntity::getDeadline));
+            return due;
+        });
+    }
+
+    /**
+     * Points the markers of active runs with a deadline at their next event
+     * after {@code now}, so routing starts from the present rather than
+     * replaying events that fell due while nothing was subscribed.
+     *
+     * @param levels warning thresholds, ascending, as a float8 array literal
+     * @param restart true to also move markers left over from earlier
+     *                subscriptions; false to only set missing ones
+     * @return the number of runs updated
+     */
+    @Transactional
+    public int start(Instant now, String levels, boolean restart) {
+        return jdbcOperations.prepareStatement(restart ? RESTART : FILL, statement -> {
+            Timestamp at = Timestamp.from(now);
+            statement.setTimestamp(1, at);
+            statement.setString(2, levels);
+            statement.setTimestamp(3, at);
+            statement.setTimestamp(4, at);
+            return statement.executeUpdate();
+        });
+    }
+}
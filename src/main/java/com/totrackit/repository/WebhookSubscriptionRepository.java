@@ -0,0 +1,131 @@
+package com.totrackit.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.totrackit.model.WebhookSubscription;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Storage for webhook subscriptions. The table is small and read whole into
+ * the routing index, so there is no query by filter here.
+ */
+@Singleton
+public class WebhookSubscriptionRepository {
+
+    private static final String COLUMNS = "id, url, name_pattern, tags, events, created_at";
+
+    private final JdbcOperations jdbcOperations;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public WebhookSubscriptionRepository(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    @Transactional
+    public List<WebhookSubscription> findAll() {
+        return jdbcOperations.prepareStatement("SELECT " + COLUMNS + " FROM webhook_subscriptions ORDER BY id",
+                statement -> {
+                    List<WebhookSubscription> subscriptions = new ArrayList<>();
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            subscriptions.add(read(rs));
+                        }
+                    }
+                    return subscriptions;
+                });
+    }
+
+    @Transactional
+    public Optional<WebhookSubscription> findById(long id) {
+        return jdbcOperations.prepareStatement("SELECT " + COLUMNS + " FROM webhook_subscriptions WHERE id = ?",
+                statement -> {
+                    statement.setLong(1, id);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        return rs.next() ? Optional.of(read(rs)) : Optional.empty();
+                    }
+                });
+    }
+
+    /**
+     * Stores a new subscription.
+     *
+     * @return the stored subscription with its id and creation time
+     */
+    @Transactional
+    public WebhookSubscription insert(String url, String namePattern, Map<String, String> tags, Set<String> events) {
+        String sql = "INSERT INTO webhook_subscriptions (url, name_pattern, tags, events) VALUES (?, ?, ?, ?) " +
+                "RETURNING " + COLUMNS;
+        return jdbcOperations.prepareStatement(sql, statement -> {
+            statement.setString(1, url);
+            if (namePattern != null) {
+                statement.setString(2, namePattern);
+            } else {
+                statement.setNull(2, Types.VARCHAR);
+            }
+            statement.setString(3, writeTags(tags));
+            statement.setString(4, String.join(",", events));
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return read(rs);
+            }
+        });
+    }
+
+    /**
+     * @return true if the subscription existed
+     */
+    @Transactional
+    public boolean delete(long id) {
+        return jdbcOperations.prepareStatement("DELETE FROM webhook_subscriptions WHERE id = ?", statement -> {
+            statement.setLong(1, id);
+            return statement.executeUpdate() > 0;
+        });
+    }
+
+    private WebhookSubscription read(ResultSet rs) throws SQLException {
+        Set<String> events = Arrays.stream(rs.getString("events").split(","))
+                .map(String::trim)
+                .filter(event -> !event.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return new WebhookSubscription(rs.getLong("id"), rs.getString("url"), rs.getString("name_pattern"),
+                readTags(rs.getString("tags")), Collections.unmodifiableSet(events),
+                rs.getTimestamp("created_at").toInstant());
+    }
+
+    private Map<String, String> readTags(String json) throws SQLException {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return Collections.unmodifiableMap(
+                    objectMapper.readValue(json, new TypeReference<LinkedHashMap<String, String>>() {}));
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Unreadable webhook subscription tags: " + json, e);
+        }
+    }
+
+    private String writeTags(Map<String, String> tags) {
+        try {
+            return objectMapper.writeValueAsString(tags);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable tags", e);
+        }
+    }
+}
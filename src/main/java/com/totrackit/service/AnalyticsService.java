@@ -1,11 +1,24 @@
 package com.totrackit.service;
 
+import com.totrackit.dto.ConcurrencyBucket;
+import com.totrackit.dto.ConcurrencyResponse;
 import com.totrackit.dto.DurationStats;
 import com.totrackit.dto.NameRollupEntry;
 import com.totrackit.dto.PagedResult;
 import com.totrackit.dto.SummaryResponse;
+import com.totrackit.dto.TagCombinationEntry;
+import com.totrackit.dto.TagCombinationResponse;
 import com.totrackit.dto.TagImpactEntry;
 import com.totrackit.dto.TagImpactResponse;
+import com.totrackit.interceptor.PoolCallSite;
+import com.totrackit.interceptor.TimedQueries;
+import com.totrackit.model.NameRollupSort;
+import com.totrackit.model.ProcessTag;
+import com.totrackit.util.ConcurrencySweep;
+import com.totrackit.util.CountMinSketch;
+import com.totrackit.util.KeysetCursor;
+import com.totrackit.util.SpaceSaving;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.data.jdbc.runtime.JdbcOperations;
 import io.micronaut.transaction.annotation.Transactional;
@@ -20,8 +33,11 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Aggregated statistics across processes, keyed by tag. Answers "where are the
@@ -33,10 +49,33 @@ import java.util.List;
  * back as one row per tag instead of the whole table.
  */
 @Singleton
+@PoolCallSite("analytics_service")
+@TimedQueries("analytics_service")
 public class AnalyticsService {
 
     private static final Logger LOG = LoggerFactory.getLogger(AnalyticsService.class);
     private static final int MAX_TAG_ROWS = 100;
+    /** Safety cap for single-key breakdowns; far above any realistic value cardinality. */
+    static final int MAX_KEY_VALUE_ROWS = 10_000;
+    static final int MAX_CONCURRENCY_BUCKETS = 2_000;
+    private static final int CONCURRENCY_FETCH_SIZE = 1_000;
+    private static final int COMBINATION_FETCH_SIZE = 1_000;
+    private static final int MIN_COMBINATION_CAPACITY = 1_000;
+    private static final char PAIR_SEPARATOR = '\u001f';
+    private static final String COMBINATION_SEPARATOR = "\u001e";
+
+    /**
+     * Registry orderings mapped to a BIGINT sort key over process_names (r)
+     * and the overdue CTE (o); sorted descending with the name as tiebreak.
+     * Never interpolate user input.
+     */
+    private static final Map<NameRollupSort, String> NAME_SORT_KEYS = Map.of(
+            NameRollupSort.BUSIEST, "r.total",
+            NameRollupSort.OVERDUE, "COALESCE(o.overdue, 0)",
+            NameRollupSort.FAILURES, "r.failed",
+            NameRollupSort.RECENT, "COALESCE((EXTRACT(EPOCH FROM r.last_started_at) * 1000000)::bigint, -1)",
+            NameRollupSort.NAME, "0"
+    );
 
     /**
      * Classifies every in-window process exactly like the former Java
@@ -60,11 +99,33 @@ public class AnalyticsService {
             "  FROM processes" +
             "  WHERE (status = 'ACTIVE' OR (completed_at IS NOT NULL AND completed_at >= ?))";
 
+    private static final String OUTCOME_AGGREGATES =
+            "  COUNT(*) AS total," +
+            "  COUNT(*) FILTER (WHERE outcome = 'OVERDUE') AS overdue," +
+            "  COUNT(*) FILTER (WHERE outcome = 'ON_TRACK') AS on_track," +
+            "  COUNT(*) FILTER (WHERE outcome = 'COMPLETED_LATE') AS completed_late," +
+            "  COUNT(*) FILTER (WHERE outcome = 'COMPLETED_ON_TIME') AS completed_on_time," +
+            "  COUNT(*) FILTER (WHERE outcome = 'FAILED') AS failed," +
+            "  COUNT(*) FILTER (WHERE outcome IN ('OVERDUE','COMPLETED_LATE','FAILED')) AS problems," +
+            "  COUNT(duration_s) AS dur_count," +
+            "  AVG(duration_s) AS avg_s," +
+            "  percentile_cont(0.5) WITHIN GROUP (ORDER BY duration_s) AS p50_s," +
+            "  percentile_cont(0.9) WITHIN GROUP (ORDER BY duration_s) AS p90_s," +
+            "  percentile_cont(0.99) WITHIN GROUP (ORDER BY duration_s) AS p99_s ";
+
     private final JdbcOperations jdbcOperations;
+    private final ProcessNameRegistry processNameRegistry;
+    private final PromotedTagKeys promotedTagKeys;
+    private final long combinationBudget;
 
     @Inject
-    public AnalyticsService(JdbcOperations jdbcOperations) {
+    public AnalyticsService(JdbcOperations jdbcOperations, ProcessNameRegistry processNameRegistry,
+                            PromotedTagKeys promotedTagKeys,
+                            @Value("${totrackit.analytics.combination-budget:2000000}") long combinationBudget) {
         this.jdbcOperations = jdbcOperations;
+        this.processNameRegistry = processNameRegistry;
+        this.promotedTagKeys = promotedTagKeys;
+        this.combinationBudget = combinationBudget;
     }
 
     /**
@@ -82,13 +143,57 @@ public class AnalyticsService {
         TagImpactResponse response = new TagImpactResponse();
         response.setWindowHours(windowHours);
         response.setGeneratedAt(now.getEpochSecond());
-        loadTotals(response, name, now, since);
+        loadTotals(response, name, null, now, since);
         response.setTags(loadTagRollup(name, now, since));
         return response;
     }
 
-    private void loadTotals(TagImpactResponse response, @Nullable String name, Instant now, Instant since) {
-        String sql = scopedCte(name) +
+    /**
+     * Computes deadline outcomes per value of a single tag key, covering only
+     * processes that carry the key. Promoted keys are grouped through their
+     * expression index; any other key is pre-filtered with GIN containment.
+     *
+     * @param key         the tag key to break down
+     * @param name        optional process name filter
+     * @param windowHours how far back to include finished processes
+     * @return per-value breakdown, most problematic values first
+     */
+    @Transactional
+    public TagImpactResponse getTagKeyBreakdown(String key, @Nullable String name, int windowHours) {
+        if (!PromotedTagKeys.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid tag key: " + key);
+        }
+        Instant now = Instant.now();
+        Instant since = now.minus(Duration.ofHours(windowHours));
+        boolean promoted = promotedTagKeys.isPromoted(key);
+        KeyScope scope = promoted
+                ? new KeyScope(PromotedTagKeys.valueExpression("tags", key) + " IS NOT NULL", null,
+                        PromotedTagKeys.valueExpression("s.tags", key))
+                : new KeyScope("tags @> jsonb_build_array(jsonb_build_object('key', ?::text))", key,
+                        "(jsonb_path_query_first(s.tags, '$[*] ? (@.key == $k).value', "
+                                + "jsonb_build_object('k', ?::text)) #>> '{}')");
+
+        TagImpactResponse response = new TagImpactResponse();
+        response.setWindowHours(windowHours);
+        response.setGeneratedAt(now.getEpochSecond());
+        response.setKey(key);
+        response.setPromoted(promoted);
+        loadTotals(response, name, scope, now, since);
+        response.setTags(loadKeyRollup(key, name, scope, now, since));
+        return response;
+    }
+
+    /**
+     * Narrows the scoped CTE to processes carrying one tag key. filterParam is
+     * bound after the scope parameters; the value expression, used in the outer
+     * query, binds the key again when it is not promoted.
+     */
+    private record KeyScope(String filter, @Nullable String filterParam, String valueExpression) {
+    }
+
+    private void loadTotals(TagImpactResponse response, @Nullable String name, @Nullable KeyScope keyScope,
+                            Instant now, Instant since) {
+        String sql = scopedCte(name, keyScope) +
                 "SELECT COUNT(*) AS total," +
                 "  COUNT(*) FILTER (WHERE outcome IN ('OVERDUE','COMPLETED_LATE','FAILED')) AS problems," +
                 "  COUNT(duration_s) AS dur_count," +
@@ -99,7 +204,7 @@ public class AnalyticsService {
                 "FROM scoped";
 
         jdbcOperations.prepareStatement(sql, statement -> {
-            bindScope(statement, name, now, since);
+            bindScope(statement, name, keyScope, now, since);
             try (ResultSet rs = statement.executeQuery()) {
                 rs.next();
                 response.setTotalProcesses(rs.getLong("total"));
@@ -113,18 +218,7 @@ public class AnalyticsService {
     private List<TagImpactEntry> loadTagRollup(@Nullable String name, Instant now, Instant since) {
         String sql = scopedCte(name) +
                 "SELECT t.elem->>'key' AS tag_key, t.elem->>'value' AS tag_value," +
-                "  COUNT(*) AS total," +
-                "  COUNT(*) FILTER (WHERE outcome = 'OVERDUE') AS overdue," +
-                "  COUNT(*) FILTER (WHERE outcome = 'ON_TRACK') AS on_track," +
-                "  COUNT(*) FILTER (WHERE outcome = 'COMPLETED_LATE') AS completed_late," +
-                "  COUNT(*) FILTER (WHERE outcome = 'COMPLETED_ON_TIME') AS completed_on_time," +
-                "  COUNT(*) FILTER (WHERE outcome = 'FAILED') AS failed," +
-                "  COUNT(*) FILTER (WHERE outcome IN ('OVERDUE','COMPLETED_LATE','FAILED')) AS problems," +
-                "  COUNT(duration_s) AS dur_count," +
-                "  AVG(duration_s) AS avg_s," +
-                "  percentile_cont(0.5) WITHIN GROUP (ORDER BY duration_s) AS p50_s," +
-                "  percentile_cont(0.9) WITHIN GROUP (ORDER BY duration_s) AS p90_s," +
-                "  percentile_cont(0.99) WITHIN GROUP (ORDER BY duration_s) AS p99_s " +
+                OUTCOME_AGGREGATES +
                 "FROM scoped s " +
                 "CROSS JOIN LATERAL jsonb_array_elements(s.tags) AS t(elem) " +
                 "WHERE jsonb_typeof(s.tags) = 'array' " +
@@ -134,25 +228,50 @@ public class AnalyticsService {
 
         return jdbcOperations.prepareStatement(sql, statement -> {
             bindScope(statement, name, now, since);
-            List<TagImpactEntry> rows = new ArrayList<>();
-            try (ResultSet rs = statement.executeQuery()) {
-                while (rs.next()) {
-                    TagImpactEntry entry = new TagImpactEntry(rs.getString("tag_key"), rs.getString("tag_value"));
-                    entry.setTotal(rs.getLong("total"));
-                    entry.setOverdue(rs.getLong("overdue"));
-                    entry.setOnTrack(rs.getLong("on_track"));
-                    entry.setCompletedLate(rs.getLong("completed_late"));
-                    entry.setCompletedOnTime(rs.getLong("completed_on_time"));
-                    entry.setFailed(rs.getLong("failed"));
-                    entry.setProblems(rs.getLong("problems"));
-                    entry.setDuration(readDurationStats(rs));
-                    rows.add(entry);
-                }
+            return readTagEntries(statement);
+        });
+    }
+
+    private List<TagImpactEntry> loadKeyRollup(String key, @Nullable String name, KeyScope scope,
+                                               Instant now, Instant since) {
+        String sql = scopedCte(name, scope) +
+                "SELECT ?::text AS tag_key, v.tag_value," +
+                OUTCOME_AGGREGATES +
+                "FROM (SELECT " + scope.valueExpression() + " AS tag_value, outcome, duration_s FROM scoped s) v " +
+                "WHERE v.tag_value IS NOT NULL " +
+                "GROUP BY v.tag_value " +
+                "ORDER BY problems DESC, total DESC, tag_value ASC " +
+                "LIMIT " + MAX_KEY_VALUE_ROWS;
+
+        return jdbcOperations.prepareStatement(sql, statement -> {
+            int index = bindScope(statement, name, scope, now, since);
+            statement.setString(index++, key);
+            if (scope.filterParam() != null) {
+                statement.setString(index, key);
             }
-            return rows;
+            return readTagEntries(statement);
         });
     }
 
+    private List<TagImpactEntry> readTagEntries(PreparedStatement statement) throws SQLException {
+        List<TagImpactEntry> rows = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                TagImpactEntry entry = new TagImpactEntry(rs.getString("tag_key"), rs.getString("tag_value"));
+                entry.setTotal(rs.getLong("total"));
+                entry.setOverdue(rs.getLong("overdue"));
+                entry.setOnTrack(rs.getLong("on_track"));
+                entry.setCompletedLate(rs.getLong("completed_late"));
+                entry.setCompletedOnTime(rs.getLong("completed_on_time"));
+                entry.setFailed(rs.getLong("failed"));
+                entry.setProblems(rs.getLong("problems"));
+                entry.setDuration(readDurationStats(rs));
+                rows.add(entry);
+            }
+        }
+        return rows;
+    }
+
     /**
      * Workspace-wide headline counts in a single aggregate pass: status
      * totals, deadline outcomes, and last-24h completion stats.
@@ -201,29 +320,79 @@ public class AnalyticsService {
     }
 
     /**
-     * Per-name run rollups (GROUP BY name), busiest names first, paginated.
+     * Per-name run rollups, busiest names first, paginated by offset.
      */
     @Transactional
     public PagedResult<NameRollupEntry> getNameRollups(int limit, int offset) {
+        return getNameRollups(NameRollupSort.BUSIEST, null, limit, offset);
+    }
+
+    /**
+     * Per-name run rollups read from the process-name registry, so a page
+     * costs the registry sort plus one indexed overdue count per returned
+     * name, never a GROUP BY over the processes table. The total comes from
+     * the registry's cached name count.
+     *
+     * @param sort   ordering of the names
+     * @param after  keyset cursor from a previous page's next_cursor; when
+     *               present the offset is ignored
+     * @param limit  maximum names to return
+     * @param offset names to skip (offset pagination)
+     * @return one page of rollups with a cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort
+     */
+    @Transactional
+    public PagedResult<NameRollupEntry> getNameRollups(NameRollupSort sort, @Nullable String after,
+                                                       int limit, int offset) {
         Instant now = Instant.now();
-        String sql = "SELECT name, COUNT(*) AS total," +
-                "  COUNT(*) FILTER (WHERE status = 'ACTIVE') AS active," +
-                "  COUNT(*) FILTER (WHERE status = 'FAILED') AS failed," +
-                "  COUNT(*) FILTER (WHERE status = 'ACTIVE' AND deadline IS NOT NULL AND deadline < ?) AS overdue," +
-                "  COUNT(*) FILTER (WHERE status = 'COMPLETED') AS completed," +
-                "  COUNT(*) FILTER (WHERE status = 'COMPLETED' AND deadline IS NOT NULL AND completed_at <= deadline) AS completed_on_time," +
-                "  COUNT(*) FILTER (WHERE status = 'COMPLETED' AND deadline IS NOT NULL AND completed_at > deadline) AS completed_late," +
-                "  MAX(started_at) AS last_started_at " +
-                "FROM processes GROUP BY name " +
-                "ORDER BY COUNT(*) DESC, name ASC LIMIT ? OFFSET ?";
+        KeysetCursor cursor = after != null ? KeysetCursor.decode(after) : null;
+        if (cursor != null && !cursor.getOrdering().equals(sort.name())) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + cursor.getOrdering()
+                    + ", not " + sort.name());
+        }
+        int effectiveOffset = cursor != null ? 0 : offset;
+        String sortKey = NAME_SORT_KEYS.get(sort);
 
-        List<NameRollupEntry> rows = jdbcOperations.prepareStatement(sql, statement -> {
-            statement.setTimestamp(1, Timestamp.from(now));
-            statement.setInt(2, limit);
-            statement.setInt(3, offset);
+        StringBuilder sql = new StringBuilder("WITH ");
+        if (sort == NameRollupSort.OVERDUE) {
+            sql.append("overdue AS (SELECT name, COUNT(*) AS overdue FROM processes " +
+                    "WHERE status = 'ACTIVE' AND deadline IS NOT NULL AND deadline < ? GROUP BY name), ");
+        }
+        sql.append("page AS (SELECT r.name, r.total, r.active, r.failed, r.completed, r.completed_on_time," +
+                " r.completed_late, r.last_started_at, ").append(sortKey).append(" AS sort_value " +
+                "FROM process_names r ");
+        if (sort == NameRollupSort.OVERDUE) {
+            sql.append("LEFT JOIN overdue o ON o.name = r.name ");
+        }
+        sql.append("WHERE r.total > 0");
+        if (cursor != null) {
+            sql.append(" AND (").append(sortKey).append(" < ? OR (")
+                    .append(sortKey).append(" = ? AND r.name > ?))");
+        }
+        sql.append(" ORDER BY sort_value DESC, r.name ASC LIMIT ? OFFSET ?) " +
+                "SELECT page.*, (SELECT COUNT(*) FROM processes p WHERE p.name = page.name" +
+                " AND p.status = 'ACTIVE' AND p.deadline IS NOT NULL AND p.deadline < ?) AS overdue " +
+                "FROM page ORDER BY sort_value DESC, name ASC");
+
+        KeysetCursor[] last = new KeysetCursor[1];
+        boolean[] hasMore = new boolean[1];
+        List<NameRollupEntry> rows = jdbcOperations.prepareStatement(sql.toString(), statement -> {
+            int index = 1;
+            if (sort == NameRollupSort.OVERDUE) {
+                statement.setTimestamp(index++, Timestamp.from(now));
+            }
+            if (cursor != null) {
+                statement.setLong(index++, cursor.getSortValue());
+                statement.setLong(index++, cursor.getSortValue());
+                statement.setString(index++, cursor.getName());
+            }
+            statement.setInt(index++, limit + 1); // one extra row tells whether another page exists
+            statement.setInt(index++, effectiveOffset);
+            statement.setTimestamp(index, Timestamp.from(now));
             List<NameRollupEntry> entries = new ArrayList<>();
             try (ResultSet rs = statement.executeQuery()) {
-                while (rs.next()) {
+                boolean more = rs.next();
+                while (more && entries.size() < limit) {
                     NameRollupEntry entry = new NameRollupEntry();
                     entry.setName(rs.getString("name"));
                     entry.setTotal(rs.getLong("total"));
@@ -236,36 +405,266 @@ public class AnalyticsService {
                     Timestamp lastStarted = rs.getTimestamp("last_started_at");
                     entry.setLastStartedAt(lastStarted != null ? lastStarted.toInstant().getEpochSecond() : null);
                     entries.add(entry);
+                    last[0] = new KeysetCursor(sort.name(), rs.getLong("sort_value"), entry.getName());
+                    more = rs.next();
                 }
+                // Forward-only result sets need not support isAfterLast(); a row left unread means more.
+                hasMore[0] = more;
             }
             return entries;
         });
 
-        long totalNames = jdbcOperations.prepareStatement("SELECT COUNT(DISTINCT name) FROM processes", statement -> {
+        PagedResult<NameRollupEntry> result =
+                new PagedResult<>(rows, processNameRegistry.totalNames(), limit, effectiveOffset);
+        // The cached total is approximate; the probe row is exact.
+        result.setHasMore(hasMore[0]);
+        result.setGeneratedAt(now.getEpochSecond());
+        if (hasMore[0]) {
+            result.setNextCursor(last[0].encode());
+        }
+        return result;
+    }
+
+    /**
+     * Finds the tag combinations (pairs or triples) that problem processes
+     * concentrate on. The window is read once through a server-side cursor:
+     * problem rows feed a Space-Saving summary (the heavy-hitter candidates),
+     * and every row feeds a Count-Min sketch (total occurrences per
+     * combination). Memory stays fixed no matter how many distinct
+     * combinations exist. Work is bounded by the combination budget: once it
+     * is spent the scan stops and the response is marked truncated.
+     *
+     * @param name        optional process name filter
+     * @param windowHours how far back to include finished processes
+     * @param size        tags per combination (2 or 3)
+     * @param limit       combinations to return
+     * @return top combinations by problem count, largest first
+     */
+    @Transactional
+    public TagCombinationResponse getTagCombinations(@Nullable String name, int windowHours, int size, int limit) {
+        if (size < 2 || size > 3) {
+            throw new IllegalArgumentException("Combination size must be 2 or 3");
+        }
+        Instant now = Instant.now();
+        Instant since = now.minus(Duration.ofHours(windowHours));
+        // Keys and values are joined with ASCII unit/record separators, which tag text never carries in practice.
+        String sql = scopedCte(name) +
+                "SELECT outcome IN ('OVERDUE','COMPLETED_LATE','FAILED') AS problem," +
+                "  ARRAY(SELECT (e->>'key') || chr(31) || (e->>'value') FROM jsonb_array_elements(s.tags) e" +
+                "        WHERE e->>'key' IS NOT NULL AND e->>'value' IS NOT NULL ORDER BY 1) AS tag_pairs " +
+                "FROM scoped s " +
+                "WHERE jsonb_typeof(s.tags) = 'array' AND jsonb_array_length(s.tags) >= ?";
+
+        SpaceSaving<String> heavyHitters = new SpaceSaving<>(Math.max(MIN_COMBINATION_CAPACITY, limit * 50));
+        CountMinSketch occurrences = new CountMinSketch(4, 4096);
+        TagCombinationResponse response = new TagCombinationResponse();
+
+        jdbcOperations.prepareStatement(sql, statement -> {
+            int index = bindScope(statement, name, null, now, since);
+            statement.setInt(index, size);
+            statement.setFetchSize(COMBINATION_FETCH_SIZE);
+            long updates = 0;
+            long scanned = 0;
+            long problems = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    if (updates >= combinationBudget) {
+                        response.setTruncated(true);
+                        break;
+                    }
+                    boolean problem = rs.getBoolean("problem");
+                    String[] pairs = (String[]) rs.getArray("tag_pairs").getArray();
+                    scanned++;
+                    if (problem) {
+                        problems++;
+                    }
+                    updates += forEachCombination(pairs, size, combination -> {
+                        occurrences.add(combination);
+                        if (problem) {
+                            heavyHitters.offer(combination);
+                        }
+                    });
+                }
+            }
+            response.setScannedProcesses(scanned);
+            response.setProblemProcesses(problems);
+            return null;
+        });
+
+        List<TagCombinationEntry> combinations = new ArrayList<>();
+        for (SpaceSaving.Counter<String> counter : heavyHitters.top(limit)) {
+            TagCombinationEntry entry = new TagCombinationEntry();
+            List<ProcessTag> tags = new ArrayList<>(size);
+            for (String pair : counter.getItem().split(COMBINATION_SEPARATOR)) {
+                int split = pair.indexOf(PAIR_SEPARATOR);
+                tags.add(new ProcessTag(pair.substring(0, split), pair.substring(split + 1)));
+            }
+            entry.setTags(tags);
+            entry.setProblems(counter.getCount());
+            entry.setProblemsError(counter.getError());
+            entry.setTotalEstimate(occurrences.estimate(counter.getItem()));
+            combinations.add(entry);
+        }
+        response.setWindowHours(windowHours);
+        response.setGeneratedAt(now.getEpochSecond());
+        response.setSize(size);
+        response.setCombinations(combinations);
+        return response;
+    }
+
+    /**
+     * Emits every combination of {@code size} sorted "key\u001fvalue" pairs
+     * whose keys are distinct, as one separator-joined string.
+     *
+     * @return number of combinations emitted
+     */
+    static int forEachCombination(String[] pairs, int size, Consumer<String> sink) {
+        int emitted = 0;
+        int n = pairs.length;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (sameKey(pairs[i], pairs[j])) {
+                    continue;
+                }
+                if (size == 2) {
+                    sink.accept(pairs[i] + COMBINATION_SEPARATOR + pairs[j]);
+                    emitted++;
+                    continue;
+                }
+                for (int k = j + 1; k < n; k++) {
+                    if (sameKey(pairs[i], pairs[k]) || sameKey(pairs[j], pairs[k])) {
+                        continue;
+                    }
+                    sink.accept(pairs[i] + COMBINATION_SEPARATOR + pairs[j] + COMBINATION_SEPARATOR + pairs[k]);
+                    emitted++;
+                }
+            }
+        }
+        return emitted;
+    }
+
+    private static boolean sameKey(String a, String b) {
+        int split = a.indexOf(PAIR_SEPARATOR);
+        return split == b.indexOf(PAIR_SEPARATOR) && a.regionMatches(0, b, 0, split);
+    }
+
+    /**
+     * Concurrency timeline for one process name: a sweep-line over run start
+     * (+1) and completion (-1) events. The two event streams come off the
+     * per-name started_at/completed_at indexes already merged in time order
+     * and are read with a fetch size, so only the buckets are held in memory.
+     *
+     * @param name          process name
+     * @param windowHours   how far back from now the timeline starts
+     * @param bucketMinutes bucket width
+     * @return per-bucket max and time-weighted average concurrency
+     */
+    @Transactional
+    public ConcurrencyResponse getConcurrency(String name, int windowHours, int bucketMinutes) {
+        if ((long) windowHours * 60 / bucketMinutes > MAX_CONCURRENCY_BUCKETS) {
+            throw new IllegalArgumentException("Too many buckets: use a bucket of at least "
+                    + Math.ceilDiv(windowHours * 60, MAX_CONCURRENCY_BUCKETS) + " minutes for this window");
+        }
+        Instant to = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Instant from = to.minus(Duration.ofHours(windowHours));
+
+        // Runs already executing when the window opens.
+        String initialSql = "SELECT COUNT(*) FROM processes WHERE name = ? AND started_at < ? " +
+                "AND (completed_at >= ? OR (completed_at IS NULL AND status = 'ACTIVE'))";
+        int initial = jdbcOperations.prepareStatement(initialSql, statement -> {
+            statement.setString(1, name);
+            statement.setTimestamp(2, Timestamp.from(from));
+            statement.setTimestamp(3, Timestamp.from(from));
             try (ResultSet rs = statement.executeQuery()) {
                 rs.next();
-                return rs.getLong(1);
+                return rs.getInt(1);
             }
         });
 
-        return new PagedResult<>(rows, totalNames, limit, offset);
+        ConcurrencySweep sweep = new ConcurrencySweep(from, to, Duration.ofMinutes(bucketMinutes), initial);
+        // Completions sort before starts at the same instant so a hand-over
+        // from one run to the next is not counted as overlap. Zero-length runs
+        // are left out of both sides: their -1 would sort before their own +1,
+        // be clamped at zero, and leave a phantom run for the rest of the window.
+        String eventSql = "SELECT ts, delta FROM (" +
+                "  SELECT started_at AS ts, 1 AS delta FROM processes" +
+                "  WHERE name = ? AND started_at >= ? AND started_at < ?" +
+                "    AND (status = 'ACTIVE' OR completed_at > started_at)" +
+                "  UNION ALL" +
+                "  SELECT completed_at AS ts, -1 AS delta FROM processes" +
+                "  WHERE name = ? AND completed_at >= ? AND completed_at < ? AND started_at < completed_at" +
+                ") e ORDER BY ts, delta";
+        jdbcOperations.prepareStatement(eventSql, statement -> {
+            statement.setFetchSize(CONCURRENCY_FETCH_SIZE);
+            for (int offset : new int[] {0, 3}) {
+                statement.setString(offset + 1, name);
+                statement.setTimestamp(offset + 2, Timestamp.from(from));
+                statement.setTimestamp(offset + 3, Timestamp.from(to));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Instant at = rs.getTimestamp("ts").toInstant();
+                    if (rs.getInt("delta") > 0) {
+                        sweep.start(at);
+                    } else {
+                        sweep.end(at);
+                    }
+                }
+            }
+            return null;
+        });
+        sweep.finish();
+
+        List<ConcurrencyBucket> buckets = new ArrayList<>(sweep.getBucketCount());
+        int peak = 0;
+        for (int i = 0; i < sweep.getBucketCount(); i++) {
+            buckets.add(new ConcurrencyBucket(sweep.getBucketStart(i).getEpochSecond(),
+                    sweep.getMax(i), Math.round(sweep.getAverage(i) * 100.0) / 100.0));
+            peak = Math.max(peak, sweep.getMax(i));
+        }
+        ConcurrencyResponse response = new ConcurrencyResponse();
+        response.setName(name);
+        response.setFrom(from.getEpochSecond());
+        response.setTo(to.getEpochSecond());
+        response.setBucketMinutes(bucketMinutes);
+        response.setPeak(peak);
+        response.setBuckets(buckets);
+        return response;
     }
 
     private String scopedCte(@Nullable String name) {
+        return scopedCte(name, null);
+    }
+
+    private String scopedCte(@Nullable String name, @Nullable KeyScope keyScope) {
         StringBuilder cte = new StringBuilder(SCOPED_CTE_PREFIX);
         if (name != null) {
             cte.append(" AND name = ?");
         }
+        if (keyScope != null) {
+            cte.append(" AND ").append(keyScope.filter());
+        }
         return cte.append(") ").toString();
     }
 
     private void bindScope(PreparedStatement statement, @Nullable String name, Instant now, Instant since)
             throws SQLException {
-        statement.setTimestamp(1, Timestamp.from(now));
-        statement.setTimestamp(2, Timestamp.from(since));
+        bindScope(statement, name, null, now, since);
+    }
+
+    /** Binds the scoped CTE parameters and returns the next free parameter index. */
+    private int bindScope(PreparedStatement statement, @Nullable String name, @Nullable KeyScope keyScope,
+                          Instant now, Instant since) throws SQLException {
+        int index = 1;
+        statement.setTimestamp(index++, Timestamp.from(now));
+        statement.setTimestamp(index++, Timestamp.from(since));
         if (name != null) {
-            statement.setString(3, name);
+            statement.setString(index++, name);
+        }
+        if (keyScope != null && keyScope.filterParam() != null) {
+            statement.setString(index++, keyScope.filterParam());
         }
+        return index;
     }
 
     /**
@@ -0,0 +1,215 @@
+package com.totrackit.service;
+
+import com.totrackit.dto.AnalyticsSnapshotPayload;
+import com.totrackit.dto.NameRollupEntry;
+import com.totrackit.dto.PagedResult;
+import com.totrackit.interceptor.PoolCallSite;
+import com.totrackit.model.NameRollupSort;
+import com.totrackit.repository.AnalyticsSnapshotRepository;
+import com.totrackit.util.KeysetCursor;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.type.Argument;
+import io.micronaut.json.JsonMapper;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Precomputed, immutable in-memory snapshot of the dashboard analytics
+ * (summary, busiest-first name rollups, default-window tag impact).
+ *
+ * When enabled ({@code totrackit.analytics-snapshot.enabled}), a background
+ * task refreshes the snapshot every interval. The replica that wins the
+ * snapshot advisory lock runs the aggregate queries and publishes the result
+ * to the analytics_snapshots table; the others only load that row when it is
+ * newer than their copy. Requests are then answered from pre-serialized bytes
+ * without touching the database. With totrackit.leader-election=lease the
+ * leader computes instead of the lock winner. A snapshot older than
+ * {@code totrackit.analytics-snapshot.max-age} is ignored, so a stalled
+ * refresher degrades to live queries instead of serving stale numbers.
+ */
+@Singleton
+@PoolCallSite("analytics_service")
+public class AnalyticsSnapshotService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnalyticsSnapshotService.class);
+
+    /** Tag-impact window served from the snapshot (the endpoint default). */
+    public static final int DEFAULT_WINDOW_HOURS = 24;
+
+    /** Leading busiest-first name rollup rows kept in the snapshot. */
+    static final int SNAPSHOT_NAME_ROWS = 1000;
+
+    /** Cluster-wide advisory lock key for the snapshot refresh ("TTSNAPSH"). */
+    private static final long SNAPSHOT_LOCK_KEY = 0x5454534E41505348L;
+
+    private static final String SNAPSHOT_KEY = "dashboard";
+
+    private final AnalyticsService analyticsService;
+    private final AnalyticsSnapshotRepository snapshotRepository;
+    private final AdvisoryLockService advisoryLockService;
+    @Nullable
+    private final LeaderElection leaderElection;
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final Duration maxAge;
+
+    private volatile Snapshot current;
+
+    @Inject
+    public AnalyticsSnapshotService(AnalyticsService analyticsService,
+                                    AnalyticsSnapshotRepository snapshotRepository,
+                                    AdvisoryLockService advisoryLockService,
+                                    @Nullable LeaderElection leaderElection,
+                                    JsonMapper jsonMapper,
+                                    @Value("${totrackit.analytics-snapshot.enabled:false}") boolean enabled,
+                                    @Value("${totrackit.analytics-snapshot.max-age:2m}") Duration maxAge) {
+        this.analyticsService = analyticsService;
+        this.snapshotRepository = snapshotRepository;
+        this.advisoryLockService = advisoryLockService;
+        this.leaderElection = leaderElection;
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Recomputes and publishes the snapshot when this replica wins the
+     * refresh lock (or is the leader); otherwise loads the shared copy if it
+     * is newer.
+     */
+    public void refresh() {
+        boolean computed;
+        if (leaderElection != null) {
+            computed = leaderElection.isLeader();
+            if (computed) {
+                computeAndPublish();
+            }
+        } else {
+            computed = advisoryLockService.runExclusive(SNAPSHOT_LOCK_KEY, this::computeAndPublish);
+        }
+        if (!computed) {
+            loadShared();
+        }
+    }
+
+    /**
+     * The current snapshot, or null when disabled, not yet loaded, or older
+     * than the configured max age (callers then compute live).
+     */
+    @Nullable
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        if (!enabled || snapshot == null) {
+            return null;
+        }
+        if (snapshot.getGeneratedAt().plus(maxAge).isBefore(Instant.now())) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    private void computeAndPublish() {
+        Instant generatedAt = Instant.now();
+        AnalyticsSnapshotPayload payload = new AnalyticsSnapshotPayload();
+        payload.setGeneratedAt(generatedAt.toEpochMilli());
+        payload.setSummary(analyticsService.getSummary());
+        payload.setTagImpact(analyticsService.getTagImpact(null, DEFAULT_WINDOW_HOURS));
+        PagedResult<NameRollupEntry> names = analyticsService.getNameRollups(SNAPSHOT_NAME_ROWS, 0);
+        payload.setNames(names.getData());
+        payload.setNamesTotal(names.getTotal());
+
+        try {
+            byte[] bytes = jsonMapper.writeValueAsBytes(payload);
+            snapshotRepository.save(SNAPSHOT_KEY, bytes, generatedAt);
+            install(payload, generatedAt);
+            LOG.debug("Published analytics snapshot ({} bytes, {} names)", bytes.length, payload.getNames().size());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize analytics snapshot", e);
+        }
+    }
+
+    private void loadShared() {
+        Snapshot held = current;
+        snapshotRepository.findNewerThan(SNAPSHOT_KEY, held != null ? held.getGeneratedAt() : null)
+                .ifPresent(stored -> {
+                    try {
+                        AnalyticsSnapshotPayload payload =
+                                jsonMapper.readValue(stored.payload(), Argument.of(AnalyticsSnapshotPayload.class));
+                        install(payload, stored.generatedAt());
+                        LOG.debug("Loaded shared analytics snapshot generated at {}", stored.generatedAt());
+                    } catch (IOException e) {
+                        LOG.warn("Ignoring unreadable shared analytics snapshot", e);
+                    }
+                });
+    }
+
+    private void install(AnalyticsSnapshotPayload payload, Instant generatedAt) throws IOException {
+        List<NameRollupEntry> names = payload.getNames() != null ? List.copyOf(payload.getNames()) : List.of();
+        current = new Snapshot(generatedAt,
+                jsonMapper.writeValueAsBytes(payload.getSummary()),
+                jsonMapper.writeValueAsBytes(payload.getTagImpact()),
+                names,
+                payload.getNamesTotal());
+    }
+
+    /**
+     * Immutable view of one refresh. Responses are kept pre-serialized so a
+     * read is a reference hand-off; callers must not mutate the arrays.
+     */
+    public static final class Snapshot {
+
+        private final Instant generatedAt;
+        private final byte[] summaryJson;
+        private final byte[] tagImpactJson;
+        private final List<NameRollupEntry> names;
+        private final long namesTotal;
+
+        Snapshot(Instant generatedAt, byte[] summaryJson, byte[] tagImpactJson,
+                 List<NameRollupEntry> names, long namesTotal) {
+            this.generatedAt = generatedAt;
+            this.summaryJson = summaryJson;
+            this.tagImpactJson = tagImpactJson;
+            this.names = names;
+            this.namesTotal = namesTotal;
+        }
+
+        public Instant getGeneratedAt() { return generatedAt; }
+        public byte[] getSummaryJson() { return summaryJson; }
+        public byte[] getTagImpactJson() { return tagImpactJson; }
+
+        /**
+         * A busiest-first rollup page, or null when the page reaches past the
+         * rows kept in the snapshot (callers then compute live). Like a live
+         * page, it carries a keyset cursor after its last row when more follow.
+         */
+        @Nullable
+        public PagedResult<NameRollupEntry> namePage(int limit, int offset) {
+            boolean complete = names.size() >= namesTotal;
+            if (!complete && offset + limit > names.size()) {
+                return null;
+            }
+            int from = Math.min(offset, names.size());
+            int to = Math.min(offset + limit, names.size());
+            PagedResult<NameRollupEntry> page = new PagedResult<>(names.subList(from, to), namesTotal, limit, offset);
+            page.setGeneratedAt(generatedAt.getEpochSecond());
+            if (page.isHasMore() && to > from) {
+                NameRollupEntry last = names.get(to - 1);
+                page.setNextCursor(new KeysetCursor(NameRollupSort.BUSIEST.name(), last.getTotal(), last.getName())
+                        .encode());
+            }
+            return page;
+        }
+    }
+}
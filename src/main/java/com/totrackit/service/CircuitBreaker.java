@@ -0,0 +1,133 @@
+package com.totrackit.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for one webhook target.
+ *
+ * CLOSED lets every request through and opens after
+ * {@code failureThreshold} consecutive failures. OPEN rejects requests
+ * without sending them until its open period has passed, then becomes
+ * HALF_OPEN and lets exactly one probe request through: success closes the
+ * breaker, failure re-opens it for twice the previous period, up to
+ * {@code maxOpenDuration}. Timing uses a monotonic clock, so wall-clock
+ * jumps neither extend nor cut short an open period.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Point-in-time view of a breaker, for health and logs. */
+    public record Snapshot(State state, int consecutiveFailures, long trips, Instant retryAt) {}
+
+    private final int failureThreshold;
+    private final long baseOpenNanos;
+    private final long maxOpenNanos;
+    private final LongSupplier nanoClock;
+    private final BiConsumer<State, State> onTransition;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long trips;
+    private long openNanos;
+    private long retryAtNanos;
+    private boolean probeInFlight;
+
+    /**
+     * @param onTransition called with (from, to) on every state change, under
+     *                     the breaker's lock; keep it cheap
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Duration maxOpenDuration,
+                          LongSupplier nanoClock, BiConsumer<State, State> onTransition) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseOpenNanos = Math.max(1, openDuration.toNanos());
+        this.maxOpenNanos = Math.max(baseOpenNanos, maxOpenDuration.toNanos());
+        this.nanoClock = nanoClock;
+        this.onTransition = onTransition;
+    }
+
+    /**
+     * Asks to send one request. A true answer must be followed by
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     *
+     * @return false if the request must not be sent
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - retryAtNanos < 0) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Whether a request sent now could go through, without claiming the
+     * probe. Callers use it to skip a whole pass while the target is known
+     * to be down.
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> nanoClock.getAsLong() - retryAtNanos >= 0;
+            case HALF_OPEN -> !probeInFlight;
+        };
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        openNanos = 0;
+        if (state != State.CLOSED) {
+            transition(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            open(Math.min(maxOpenNanos, openNanos * 2));
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open(baseOpenNanos);
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized Snapshot snapshot() {
+        Instant retryAt = state == State.OPEN
+                ? Instant.now().plusNanos(Math.max(0, retryAtNanos - nanoClock.getAsLong()))
+                : null;
+        return new Snapshot(state, consecutiveFailures, trips, retryAt);
+    }
+
+    private void open(long nanos) {
+        openNanos = nanos;
+        retryAtNanos = nanoClock.getAsLong() + nanos;
+        trips++;
+        transition(State.OPEN);
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        onTransition.accept(from, to);
+    }
+}
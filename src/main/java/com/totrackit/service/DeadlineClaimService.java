@@ -0,0 +1,115 @@
+package com.totrackit.service;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.repository.DeadlineClaimRepository;
+import com.totrackit.repository.ProcessRepository;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Row-claiming for parallel deadline scans (totrackit.deadline-scan=parallel).
+ *
+ * Instead of one replica holding the scan advisory lock, every replica claims
+ * its own chunk of due runs in three steps, none of which holds a transaction
+ * open across the webhook call:
+ * <ol>
+ *   <li>a short transaction selects due runs with SELECT ... FOR UPDATE SKIP
+ *       LOCKED and leases them for totrackit.deadline-scan.lease (default 2m);
+ *       other replicas skip leased runs;</li>
+ *   <li>the handler delivers them outside any transaction;</li>
+ *   <li>the processed runs are marked, then every claimed run's lease is
+ *       released, so runs left unmarked (failed deliveries) can be claimed
+ *       again next cycle.</li>
+ * </ol>
+ * A replica that dies mid-delivery only delays its runs until their lease
+ * runs out. The lease must outlast a delivery pass, or another replica may
+ * deliver the same events again.
+ */
+@Singleton
+@Requires(property = "totrackit.deadline-scan", value = "parallel")
+public class DeadlineClaimService {
+
+    private final DeadlineClaimRepository claimRepository;
+    private final ProcessRepository processRepository;
+    private final Duration lease;
+
+    @Inject
+    public DeadlineClaimService(DeadlineClaimRepository claimRepository, ProcessRepository processRepository,
+                                @Value("${totrackit.deadline-scan.lease:2m}") Duration lease) {
+        this.claimRepository = claimRepository;
+        this.processRepository = processRepository;
+        this.lease = lease;
+    }
+
+    /**
+     * Claims up to {@code batch} overdue, unnotified runs, hands them to the
+     * handler and marks the runs it returns as notified.
+     *
+     * @param handler processes the claimed runs and returns those to mark
+     * @return the claimed and the processed runs
+     */
+    public Claim processOverdue(Instant now, int batch, UnaryOperator<List<ProcessEntity>> handler) {
+        List<ProcessEntity> claimed = claimRepository.claimOverdue(now, now.plus(lease), batch);
+        if (claimed.isEmpty()) {
+            return new Claim(0, claimed);
+        }
+        List<ProcessEntity> processed = List.of();
+        try {
+            processed = handler.apply(claimed);
+            if (!processed.isEmpty()) {
+                processRepository.markDeadlineNotifiedBatch(ids(processed), Instant.now());
+            }
+        } finally {
+            claimRepository.release(ids(claimed));
+        }
+        return new Claim(claimed.size(), processed);
+    }
+
+    /**
+     * Claims up to {@code batch} runs due a warning, hands them to the handler
+     * and records the level each run it returns was warned at.
+     *
+     * @param levels warning thresholds, ascending, as a float8 array literal
+     * @param handler processes the claimed runs and returns those to mark
+     * @return the claimed and the processed runs
+     */
+    public Claim processApproaching(Instant now, String levels, int batch,
+                                    UnaryOperator<List<ProcessEntity>> handler) {
+        List<ProcessEntity> claimed = claimRepository.claimApproaching(now, levels, now.plus(lease), batch);
+        if (claimed.isEmpty()) {
+            return new Claim(0, claimed);
+        }
+        List<ProcessEntity> processed = List.of();
+        try {
+            processed = handler.apply(claimed);
+            if (!processed.isEmpty()) {
+                processRepository.markDeadlineWarnedBatch(ids(processed), now, levels);
+            }
+        } finally {
+            claimRepository.release(ids(claimed));
+        }
+        return new Claim(claimed.size(), processed);
+    }
+
+    private static List<Long> ids(List<ProcessEntity> processes) {
+        List<Long> ids = new ArrayList<>(processes.size());
+        for (ProcessEntity process : processes) {
+            ids.add(process.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Outcome of one claim: how many runs this replica claimed and which of
+     * them were processed and marked.
+     */
+    public record Claim(int claimed, List<ProcessEntity> processed) {}
+}
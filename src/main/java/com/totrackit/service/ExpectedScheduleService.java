@@ -0,0 +1,120 @@
+package com.totrackit.service;
+
+import com.totrackit.model.ExpectedSchedule;
+import com.totrackit.repository.ExpectedScheduleRepository;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.scheduling.cron.CronExpression;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Expected-run schedules: validation and storage. The missing-run check
+ * picks changes up within {@code totrackit.expected-runs.refresh-interval}
+ * (default 30s) on whichever replica runs it.
+ */
+@Singleton
+public class ExpectedScheduleService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExpectedScheduleService.class);
+
+    static final int DEFAULT_GRACE_SECONDS = 900;
+    static final int MAX_GRACE_SECONDS = 7 * 24 * 3600;
+
+    private static final Pattern NAME = Pattern.compile("^[a-zA-Z0-9_-]{1,100}$");
+
+    private final ExpectedScheduleRepository repository;
+
+    @Inject
+    public ExpectedScheduleService(ExpectedScheduleRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Validates and stores the schedule of a process name, replacing any
+     * previous one.
+     *
+     * @param timeZone the cron expression's zone, UTC when absent
+     * @param graceSeconds how far a run may start from the expected instant,
+     *                     {@value #DEFAULT_GRACE_SECONDS} when absent
+     * @throws IllegalArgumentException if a field is invalid
+     */
+    public ExpectedSchedule put(String name, String cron, @Nullable String timeZone, @Nullable Integer graceSeconds) {
+        ExpectedSchedule stored = repository.upsert(validateName(name), validateCron(cron),
+                validateTimeZone(timeZone), validateGrace(graceSeconds));
+        LOG.info("Stored expected schedule for {}: '{}' ({}, grace {}s)", stored.name(), stored.cron(),
+                stored.timeZone(), stored.graceSeconds());
+        return stored;
+    }
+
+    public List<ExpectedSchedule> list() {
+        return repository.findAll();
+    }
+
+    public Optional<ExpectedSchedule> find(String name) {
+        return repository.findByName(name);
+    }
+
+    /**
+     * @return true if the schedule existed
+     */
+    public boolean delete(String name) {
+        boolean deleted = repository.delete(name);
+        if (deleted) {
+            LOG.info("Deleted expected schedule for {}", name);
+        }
+        return deleted;
+    }
+
+    private static String validateName(String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException(
+                    "Process name can only contain letters, numbers, underscores, and hyphens");
+        }
+        return name;
+    }
+
+    private static String validateCron(String cron) {
+        if (cron == null || cron.isBlank()) {
+            throw new IllegalArgumentException("cron is required");
+        }
+        String trimmed = cron.trim();
+        if (trimmed.length() > 100) {
+            throw new IllegalArgumentException("cron must be at most 100 characters");
+        }
+        try {
+            CronExpression.create(trimmed);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cron expression '" + trimmed + "': " + e.getMessage());
+        }
+        return trimmed;
+    }
+
+    private static String validateTimeZone(String timeZone) {
+        if (timeZone == null || timeZone.isBlank()) {
+            return "UTC";
+        }
+        try {
+            return ZoneId.of(timeZone.trim()).getId();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone '" + timeZone + "'");
+        }
+    }
+
+    private static int validateGrace(Integer graceSeconds) {
+        if (graceSeconds == null) {
+            return DEFAULT_GRACE_SECONDS;
+        }
+        if (graceSeconds < 0 || graceSeconds > MAX_GRACE_SECONDS) {
+            throw new IllegalArgumentException("grace_seconds must be between 0 and " + MAX_GRACE_SECONDS);
+        }
+        return graceSeconds;
+    }
+}
@@ -1,5 +1,6 @@
 package com.totrackit.service;
 
+import com.totrackit.interceptor.PoolCallSite;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
@@ -16,6 +17,7 @@ import java.util.Map;
  * Service for performing health checks
  */
 @Singleton
+@PoolCallSite("health")
 public class HealthService {
 
     private static final Logger LOG = LoggerFactory.getLogger(HealthService.class);
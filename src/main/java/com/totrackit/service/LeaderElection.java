@@ -0,0 +1,159 @@
+package com.totrackit.service;
+
+import com.totrackit.repository.LeaderLeaseRepository;
+import com.totrackit.repository.LeaderLeaseRepository.Lease;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Lease-based leader election for scheduled background work
+ * (totrackit.leader-election=lease).
+ *
+ * Every replica heartbeats the single row in leader_leases: the holder renews
+ * it, the others take it over once it expires. Scheduled tasks that should
+ * run on one replica only ask {@link #isLeader()} instead of taking an
+ * advisory lock per cycle, so the same replica keeps the work (and its warm
+ * state) between cycles and the current leader is visible in the database.
+ *
+ * Leadership is also bounded by the local monotonic clock: a replica whose
+ * heartbeat stalls (GC pause, lost database) stops acting as leader once its
+ * lease would have run out, whether or not it has heard of a successor.
+ */
+@Singleton
+@Requires(property = "totrackit.leader-election", value = "lease")
+public class LeaderElection {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaderElection.class);
+
+    /** The lease shared by all scheduled work. */
+    static final String LEASE_NAME = "scheduler";
+
+    private final LeaderLeaseRepository leases;
+    private final MetricsService metricsService;
+    private final String instanceId;
+    private final Duration lease;
+
+    private volatile boolean leader;
+    private volatile long validUntilNanos;
+    private volatile Lease heldLease;
+
+    @Inject
+    public LeaderElection(LeaderLeaseRepository leases,
+                          MetricsService metricsService,
+                          @Value("${totrackit.leader-election.instance-id:}") String instanceId,
+                          @Value("${totrackit.leader-election.lease:30s}") Duration lease,
+                          @Value("${totrackit.leader-election.heartbeat:10s}") Duration heartbeat) {
+        this.leases = leases;
+        this.metricsService = metricsService;
+        this.instanceId = instanceId == null || instanceId.isBlank() ? defaultInstanceId() : instanceId;
+        this.lease = lease;
+        if (heartbeat.compareTo(lease) >= 0) {
+            LOG.warn("Leader election heartbeat ({}) is not shorter than the lease ({}); leadership will flap",
+                    heartbeat, lease);
+        }
+    }
+
+    /**
+     * Acquires or renews the lease. Runs on every replica; followers take
+     * over as soon as the leader's lease has expired.
+     */
+    @Scheduled(fixedDelay = "${totrackit.leader-election.heartbeat:10s}")
+    public synchronized void heartbeat() {
+        long started = System.nanoTime();
+        Optional<Lease> acquired;
+        try {
+            acquired = leases.tryAcquire(LEASE_NAME, instanceId, lease);
+        } catch (Exception e) {
+            // Can't tell whether we still hold it; stop acting as leader now
+            // rather than risk two leaders once the lease expires.
+            LOG.warn("Leader lease heartbeat failed", e);
+            acquired = Optional.empty();
+        }
+
+        boolean wasLeader = leader;
+        if (acquired.isPresent()) {
+            heldLease = acquired.get();
+            validUntilNanos = started + lease.toNanos();
+            leader = true;
+        } else {
+            heldLease = null;
+            leader = false;
+        }
+
+        if (leader && !wasLeader) {
+            LOG.info("Instance {} acquired the leader lease", instanceId);
+            metricsService.recordLeaderTransition("acquired");
+        } else if (!leader && wasLeader) {
+            LOG.warn("Instance {} lost the leader lease", instanceId);
+            metricsService.recordLeaderTransition("lost");
+        }
+        metricsService.updateLeaderLease(leader, leader ? heldLease.expiresAt() : null);
+    }
+
+    /**
+     * Whether this replica currently leads: it holds the lease and the lease
+     * has not run out since it was last renewed.
+     */
+    public boolean isLeader() {
+        return leader && System.nanoTime() - validUntilNanos < 0;
+    }
+
+    /**
+     * The lease as stored in the database, whichever replica holds it.
+     */
+    public Optional<Lease> currentLease() {
+        return leases.find(LEASE_NAME);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Hands the lease over on shutdown so a follower takes over on its next
+     * heartbeat instead of after the lease expires.
+     */
+    @PreDestroy
+    public synchronized void release() {
+        if (!leader) {
+            return;
+        }
+        leader = false;
+        heldLease = null;
+        metricsService.updateLeaderLease(false, null);
+        try {
+            leases.release(LEASE_NAME, instanceId);
+            LOG.info("Instance {} released the leader lease", instanceId);
+        } catch (Exception e) {
+            LOG.warn("Failed to release the leader lease; it will expire on its own", e);
+        }
+    }
+
+    @Nullable
+    Lease heldLease() {
+        return heldLease;
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        // Suffix keeps ids unique when several replicas share a host name.
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
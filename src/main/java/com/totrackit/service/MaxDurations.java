@@ -0,0 +1,90 @@
+package com.totrackit.service;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-name maximum run durations.
+ *
+ * {@code totrackit.max-durations} takes the same {@code name=duration} list
+ * as {@code totrackit.stall-timeouts}, e.g. {@code nightly-export=6h,*=24h},
+ * with {@code *} as the limit for every other name. An active run older than
+ * its name's limit is failed by the server. Unlike a stall timeout the limit
+ * is not fixed when a run starts, so a changed policy applies to the runs
+ * already active.
+ */
+@Singleton
+public class MaxDurations {
+
+    private static final String ANY_NAME = "*";
+
+    /**
+     * One limit: a process name's, or the default for every name without
+     * its own when {@code name} is null.
+     */
+    public record Policy(@Nullable String name, Duration maxDuration) {
+
+        /** The failure reason stored on runs failed under this limit. */
+        public String reason() {
+            return "Exceeded max duration of " + format(maxDuration);
+        }
+    }
+
+    private final List<Policy> policies;
+    private final List<String> names;
+
+    @Inject
+    public MaxDurations(@Value("${totrackit.max-durations:}") String maxDurations) {
+        Map<String, Duration> parsed = StallTimeouts.parse(maxDurations, "max duration");
+        List<Policy> policies = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        parsed.forEach((name, maxDuration) -> {
+            if (!ANY_NAME.equals(name)) {
+                policies.add(new Policy(name, maxDuration));
+                names.add(name);
+            }
+        });
+        if (parsed.containsKey(ANY_NAME)) {
+            policies.add(new Policy(null, parsed.get(ANY_NAME)));
+        }
+        this.policies = Collections.unmodifiableList(policies);
+        this.names = Collections.unmodifiableList(names);
+    }
+
+    /** Every limit, the named ones first and the default, if any, last. */
+    public List<Policy> policies() {
+        return policies;
+    }
+
+    /** The names with a limit of their own, which the default does not cover. */
+    public List<String> names() {
+        return names;
+    }
+
+    public boolean isEmpty() {
+        return policies.isEmpty();
+    }
+
+    /** A duration in the largest of d, h, m or s that divides it, e.g. 6h or 90m. */
+    static String format(Duration duration) {
+        long seconds = duration.getSeconds();
+        if (seconds % 86_400 == 0) {
+            return seconds / 86_400 + "d";
+        }
+        if (seconds % 3_600 == 0) {
+            return seconds / 3_600 + "h";
+        }
+        if (seconds % 60 == 0) {
+            return seconds / 60 + "m";
+        }
+        return seconds + "s";
+    }
+}
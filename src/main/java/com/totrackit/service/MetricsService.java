@@ -2,10 +2,12 @@ package com.totrackit.service;
 
 import com.totrackit.entity.ProcessEntity;
 import com.totrackit.model.ProcessStatus;
+import com.totrackit.service.ProcessNameMeters.NameMeter;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.annotation.Value;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
@@ -13,6 +15,8 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -38,11 +42,51 @@ public class MetricsService {
     private final AtomicLong activeProcesses = new AtomicLong();
     private final AtomicLong missedNotificationBacklog = new AtomicLong();
     private final AtomicLong warningNotificationBacklog = new AtomicLong();
+    private final AtomicLong outboxPending = new AtomicLong();
+    private final AtomicLong outboxDead = new AtomicLong();
+    private final AtomicLong leader = new AtomicLong();
+    private final AtomicLong leaderLeaseExpiresAtMillis = new AtomicLong();
     private final ConcurrentHashMap<String, AtomicLong> overdueByName = new ConcurrentHashMap<>();
 
-    @Inject
+    /** One HTTP request series. */
+    private record HttpMeterKey(String endpoint, String method, int status) {}
+
+    /** The meters of one HTTP request series, registered once. */
+    private record HttpMeters(Timer duration, Counter requests) {}
+
+    private final ConcurrentHashMap<HttpMeterKey, HttpMeters> httpMeters = new ConcurrentHashMap<>();
+
+    /** Default cap on process names with series of their own. */
+    static final int DEFAULT_MAX_PROCESS_NAMES = 200;
+
+    /** Meters labelled with process_name, capped in cardinality. */
+    private final ProcessNameMeters processNameMeters;
+
+    /** One database operation series. */
+    private record DatabaseOperationKey(String operation, String table, boolean success) {}
+
+    private final ConcurrentHashMap<DatabaseOperationKey, Counter> databaseOperations = new ConcurrentHashMap<>();
+
+    /** The connection pool timers of one call site, registered once. */
+    private record ConnectionMeters(Timer acquire, Timer hold, Counter acquireFailures) {}
+
+    private final ConcurrentHashMap<String, ConnectionMeters> connectionMeters = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Timer> queryTimers = new ConcurrentHashMap<>();
+
     public MetricsService(MeterRegistry meterRegistry) {
+        this(meterRegistry, DEFAULT_MAX_PROCESS_NAMES);
+    }
+
+    /**
+     * @param maxProcessNames how many process names get series of their own;
+     *                        the rest are recorded as {@code process_name="other"}
+     */
+    @Inject
+    public MetricsService(MeterRegistry meterRegistry,
+                          @Value("${totrackit.metrics.max-process-names:200}") int maxProcessNames) {
         this.meterRegistry = meterRegistry;
+        this.processNameMeters = new ProcessNameMeters(meterRegistry, maxProcessNames);
         Gauge.builder("totrackit_active_processes_current", activeProcesses, AtomicLong::get)
                 .description("Current number of active processes")
                 .register(meterRegistry);
@@ -54,6 +98,21 @@ public class MetricsService {
                 .description("Deadline events not yet processed (e.g. webhook deliveries still failing)")
                 .tag("event", "deadline_warning")
                 .register(meterRegistry);
+        Gauge.builder("totrackit_notification_outbox", outboxPending, AtomicLong::get)
+                .description("Webhook events in the notification outbox (outbox delivery mode)")
+                .tag("status", "pending")
+                .register(meterRegistry);
+        Gauge.builder("totrackit_notification_outbox", outboxDead, AtomicLong::get)
+                .description("Webhook events in the notification outbox (outbox delivery mode)")
+                .tag("status", "dead")
+                .register(meterRegistry);
+        Gauge.builder("totrackit_leader", leader, AtomicLong::get)
+                .description("1 while this replica holds the leader lease (leader election mode)")
+                .register(meterRegistry);
+        Gauge.builder("totrackit_leader_lease_remaining_seconds", leaderLeaseExpiresAtMillis,
+                        expiresAt -> Math.max(0, expiresAt.get() - System.currentTimeMillis()) / 1000.0)
+                .description("Time until this replica's leader lease expires without renewal")
+                .register(meterRegistry);
     }
     
     /**
@@ -63,12 +122,10 @@ public class MetricsService {
      */
     public void recordProcessCreated(String processName) {
         try {
-            Counter.builder("totrackit_processes_created_total")
-                    .description("Total number of processes created")
-                    .tag("process_name", processName != null ? processName : "unknown")
-                    .register(meterRegistry)
-                    .increment();
-            LOG.debug("Recorded process created metric for: {}", processName);
+            processNameMeters.forName(processName).counter(NameMeter.CREATED).increment();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Recorded process created metric for: {}", processName);
+            }
         } catch (Exception e) {
             LOG.warn("Failed to record process created metric", e);
         }
@@ -85,54 +142,31 @@ public class MetricsService {
         }
         
         try {
-            String processName = entity.getName() != null ? entity.getName() : "unknown";
-            String status = entity.getStatus() != null ? entity.getStatus().toString() : "unknown";
-            
-            if (entity.getStatus() == ProcessStatus.COMPLETED) {
-                Counter.builder("totrackit_processes_completed_total")
-                        .description("Total number of processes completed successfully")
-                        .tag("process_name", processName)
-                        .tag("status", status)
-                        .register(meterRegistry)
-                        .increment();
-            } else if (entity.getStatus() == ProcessStatus.FAILED) {
-                Counter.builder("totrackit_processes_failed_total")
-                        .description("Total number of processes that failed")
-                        .tag("process_name", processName)
-                        .tag("status", status)
-                        .register(meterRegistry)
-                        .increment();
+            boolean completed = entity.getStatus() == ProcessStatus.COMPLETED;
+            if (!completed && entity.getStatus() != ProcessStatus.FAILED) {
+                return;
             }
+            ProcessNameMeters.MeterSet meters = processNameMeters.forName(entity.getName());
+            meters.counter(completed ? NameMeter.COMPLETED : NameMeter.FAILED).increment();
             
             // Record deadline outcome for completed processes that had a deadline.
             // These counters let external monitors (Prometheus alerts, Datadog SLOs)
             // compute on-time rates without querying the API.
-            if (entity.getStatus() == ProcessStatus.COMPLETED
-                    && entity.getDeadline() != null && entity.getCompletedAt() != null) {
+            if (completed && entity.getDeadline() != null && entity.getCompletedAt() != null) {
                 boolean onTime = !entity.getCompletedAt().isAfter(entity.getDeadline());
-                Counter.builder(onTime
-                                ? "totrackit_processes_completed_on_time_total"
-                                : "totrackit_processes_completed_late_total")
-                        .description(onTime
-                                ? "Total number of processes completed before their deadline"
-                                : "Total number of processes completed after their deadline")
-                        .tag("process_name", processName)
-                        .register(meterRegistry)
-                        .increment();
+                meters.counter(onTime ? NameMeter.COMPLETED_ON_TIME : NameMeter.COMPLETED_LATE).increment();
             }
 
             // Record process duration if we have both start and completion times
             if (entity.getStartedAt() != null && entity.getCompletedAt() != null) {
                 Duration duration = Duration.between(entity.getStartedAt(), entity.getCompletedAt());
-                Timer.builder("totrackit_process_duration_seconds")
-                        .description("Duration of completed processes in seconds")
-                        .tag("process_name", processName)
-                        .tag("status", status)
-                        .register(meterRegistry)
+                meters.timer(completed ? NameMeter.DURATION_COMPLETED : NameMeter.DURATION_FAILED)
                         .record(duration.toMillis(), TimeUnit.MILLISECONDS);
-                
-                LOG.debug("Recorded process completion metric for: {} (duration: {}ms)", 
-                         processName, duration.toMillis());
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Recorded process completion metric for: {} (duration: {}ms)",
+                            entity.getName(), duration.toMillis());
+                }
             }
             
         } catch (Exception e) {
@@ -141,7 +175,8 @@ public class MetricsService {
     }
     
     /**
-     * Records a database operation event.
+     * Records a database operation event. The counter of each series is
+     * registered on first use and looked up from a cache afterwards.
      * 
      * @param operation the type of database operation (create, read, update, delete)
      * @param table the table name
@@ -149,16 +184,24 @@ public class MetricsService {
      */
     public void recordDatabaseOperation(String operation, String table, boolean success) {
         try {
-            Counter.builder("totrackit_database_operations_total")
-                    .description("Total number of database operations")
-                    .tag("operation", operation != null ? operation : "unknown")
-                    .tag("table", table != null ? table : "unknown")
-                    .tag("success", String.valueOf(success))
-                    .register(meterRegistry)
-                    .increment();
-                    
-            LOG.debug("Recorded database operation metric: {} on {} (success: {})", 
-                     operation, table, success);
+            DatabaseOperationKey key = new DatabaseOperationKey(operation != null ? operation : "unknown",
+                    table != null ? table : "unknown", success);
+            Counter counter = databaseOperations.get(key);
+            if (counter == null) {
+                counter = databaseOperations.computeIfAbsent(key, k ->
+                        Counter.builder("totrackit_database_operations_total")
+                                .description("Total number of database operations")
+                                .tag("operation", k.operation())
+                                .tag("table", k.table())
+                                .tag("success", String.valueOf(k.success()))
+                                .register(meterRegistry));
+            }
+            counter.increment();
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Recorded database operation metric: {} on {} (success: {})",
+                        operation, table, success);
+            }
         } catch (Exception e) {
             LOG.warn("Failed to record database operation metric", e);
         }
@@ -174,30 +217,172 @@ public class MetricsService {
      * @param duration the request duration in milliseconds
      */
     public void recordHttpRequest(String method, String endpoint, int statusCode, long duration) {
+        recordHttpRequestNanos(method, endpoint, statusCode, TimeUnit.MILLISECONDS.toNanos(duration));
+    }
+
+    /**
+     * Records HTTP request metrics with labels, on the per-request path.
+     * The timer and counter of each (endpoint, method, status) series are
+     * registered on first use and looked up from a cache afterwards, so a
+     * request costs one map lookup instead of building and registering two
+     * meters. {@code endpoint} must come from a bounded set, such as the
+     * route template.
+     *
+     * @param method the HTTP method
+     * @param endpoint the route template
+     * @param statusCode the response status code
+     * @param durationNanos the request duration in nanoseconds
+     */
+    public void recordHttpRequestNanos(String method, String endpoint, int statusCode, long durationNanos) {
         try {
-            Timer.builder("totrackit_http_request_duration_seconds")
-                    .description("HTTP request duration in seconds")
-                    .tag("method", method != null ? method : "unknown")
-                    .tag("endpoint", endpoint != null ? endpoint : "unknown")
-                    .tag("status", String.valueOf(statusCode))
-                    .register(meterRegistry)
-                    .record(duration, TimeUnit.MILLISECONDS);
-                    
-            Counter.builder("totrackit_http_requests_total")
-                    .description("Total number of HTTP requests")
-                    .tag("method", method != null ? method : "unknown")
-                    .tag("endpoint", endpoint != null ? endpoint : "unknown")
-                    .tag("status", String.valueOf(statusCode))
-                    .register(meterRegistry)
-                    .increment();
-                    
-            LOG.debug("Recorded HTTP request metric: {} {} -> {} ({}ms)", 
-                     method, endpoint, statusCode, duration);
+            HttpMeterKey key = new HttpMeterKey(endpoint != null ? endpoint : "unknown",
+                    method != null ? method : "unknown", statusCode);
+            HttpMeters meters = httpMeters.get(key);
+            if (meters == null) {
+                meters = httpMeters.computeIfAbsent(key, this::registerHttpMeters);
+            }
+            meters.duration().record(durationNanos, TimeUnit.NANOSECONDS);
+            meters.requests().increment();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Recorded HTTP request metric: {} {} -> {} ({}ns)",
+                        method, endpoint, statusCode, durationNanos);
+            }
         } catch (Exception e) {
             LOG.warn("Failed to record HTTP request metric", e);
         }
     }
+
+    private HttpMeters registerHttpMeters(HttpMeterKey key) {
+        String status = String.valueOf(key.status());
+        return new HttpMeters(
+                Timer.builder("totrackit_http_request_duration_seconds")
+                        .description("HTTP request duration in seconds")
+                        .tag("method", key.method())
+                        .tag("endpoint", key.endpoint())
+                        .tag("status", status)
+                        .register(meterRegistry),
+                Counter.builder("totrackit_http_requests_total")
+                        .description("Total number of HTTP requests")
+                        .tag("method", key.method())
+                        .tag("endpoint", key.endpoint())
+                        .tag("status", status)
+                        .register(meterRegistry));
+    }
     
+    /**
+     * Records how long a call site waited for a pooled database connection.
+     *
+     * @param callSite the borrowing code path, e.g. "process_service"
+     * @param waitNanos time spent in the pool's getConnection
+     */
+    public void recordConnectionAcquired(String callSite, long waitNanos) {
+        try {
+            connectionMetersFor(callSite).acquire().record(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            LOG.warn("Failed to record connection acquire metric", e);
+        }
+    }
+
+    /**
+     * Records a borrow that got no connection, typically because it timed
+     * out on an exhausted pool. The wait counts towards the acquire time.
+     *
+     * @param callSite the borrowing code path, e.g. "process_service"
+     * @param waitNanos time spent in the pool's getConnection before it failed
+     */
+    public void recordConnectionAcquireFailed(String callSite, long waitNanos) {
+        try {
+            ConnectionMeters meters = connectionMetersFor(callSite);
+            meters.acquire().record(waitNanos, TimeUnit.NANOSECONDS);
+            meters.acquireFailures().increment();
+        } catch (Exception e) {
+            LOG.warn("Failed to record connection acquire failure metric", e);
+        }
+    }
+
+    /**
+     * Records how long a call site held a pooled database connection, from
+     * borrowing it to returning it to the pool.
+     *
+     * @param callSite the borrowing code path, e.g. "process_service"
+     * @param heldNanos time the connection was out of the pool
+     */
+    public void recordConnectionReleased(String callSite, long heldNanos) {
+        try {
+            connectionMetersFor(callSite).hold().record(heldNanos, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            LOG.warn("Failed to record connection hold metric", e);
+        }
+    }
+
+    /**
+     * Records one execution of a named SQL statement. The timer of each
+     * query name is registered on first use and looked up from a cache
+     * afterwards; names come from method names, so they are bounded.
+     *
+     * @param query the query name, e.g. "process_repository.findByNameAndProcessId"
+     * @param durationNanos execution time
+     */
+    public void recordQuery(String query, long durationNanos) {
+        try {
+            Timer timer = queryTimers.get(query);
+            if (timer == null) {
+                timer = queryTimers.computeIfAbsent(query, name ->
+                        Timer.builder("totrackit_database_query_seconds")
+                                .description("Execution time of named SQL statements")
+                                .tag("query", name)
+                                .register(meterRegistry));
+            }
+            timer.record(durationNanos, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            LOG.warn("Failed to record query metric", e);
+        }
+    }
+
+    /**
+     * Records a named SQL statement that ran longer than the slow-query
+     * threshold.
+     *
+     * @param query the query name
+     */
+    public void recordSlowQuery(String query) {
+        try {
+            Counter.builder("totrackit_database_slow_queries_total")
+                    .description("Executions of named SQL statements above the slow-query threshold")
+                    .tag("query", query)
+                    .register(meterRegistry)
+                    .increment();
+        } catch (Exception e) {
+            LOG.warn("Failed to record slow query metric", e);
+        }
+    }
+
+    private ConnectionMeters connectionMetersFor(String callSite) {
+        ConnectionMeters meters = connectionMeters.get(callSite);
+        if (meters == null) {
+            meters = connectionMeters.computeIfAbsent(callSite, site -> new ConnectionMeters(
+                    Timer.builder("totrackit_database_connection_acquire_seconds")
+                            .description("Time spent waiting for a pooled database connection")
+                            .tag("call_site", site)
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(Duration.ofNanos(100_000))
+                            .maximumExpectedValue(Duration.ofSeconds(30))
+                            .register(meterRegistry),
+                    Timer.builder("totrackit_database_connection_hold_seconds")
+                            .description("Time a pooled database connection is held before it is returned")
+                            .tag("call_site", site)
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(Duration.ofNanos(100_000))
+                            .maximumExpectedValue(Duration.ofMinutes(5))
+                            .register(meterRegistry),
+                    Counter.builder("totrackit_database_connection_acquire_failures_total")
+                            .description("Borrows that got no pooled database connection, e.g. timed out")
+                            .tag("call_site", site)
+                            .register(meterRegistry)));
+        }
+        return meters;
+    }
+
     /**
      * Records current active processes count as a gauge.
      * This should be called periodically to update the gauge value.
@@ -209,6 +394,48 @@ public class MetricsService {
         LOG.debug("Updated active processes gauge: {}", count);
     }
 
+    /**
+     * Records that an active process went longer than its stall timeout
+     * without a heartbeat. Incremented once per stall: a heartbeat re-arms it.
+     *
+     * @param processName the name of the stalled process
+     */
+    public void recordProcessStalled(String processName) {
+        try {
+            processNameMeters.forName(processName).counter(NameMeter.STALLED).increment();
+        } catch (Exception e) {
+            LOG.warn("Failed to record process stalled metric", e);
+        }
+    }
+
+    /**
+     * Records that no run of a scheduled process started within the grace
+     * period of an expected start. Incremented once per expected start.
+     *
+     * @param processName the name of the scheduled process
+     */
+    public void recordProcessMissing(String processName) {
+        try {
+            processNameMeters.forName(processName).counter(NameMeter.MISSING).increment();
+        } catch (Exception e) {
+            LOG.warn("Failed to record process missing metric", e);
+        }
+    }
+
+    /**
+     * Records that the server failed an active process that ran past its max
+     * duration. The run also counts in totrackit_processes_failed_total.
+     *
+     * @param processName the name of the failed process
+     */
+    public void recordProcessTimedOut(String processName) {
+        try {
+            processNameMeters.forName(processName).counter(NameMeter.TIMED_OUT).increment();
+        } catch (Exception e) {
+            LOG.warn("Failed to record process timed out metric", e);
+        }
+    }
+
     /**
      * Records that a process missed its deadline. Incremented once per process,
      * when the deadline scanner first processes the breach.
@@ -216,12 +443,16 @@ public class MetricsService {
      * @param processName the name of the process that missed its deadline
      */
     public void recordDeadlineMissed(String processName) {
+        recordDeadlineMissed(processName, 1);
+    }
+
+    /**
+     * Counts {@code count} runs of one process at once, as digest mode
+     * processes them.
+     */
+    public void recordDeadlineMissed(String processName, long count) {
         try {
-            Counter.builder("totrackit_processes_deadline_missed_total")
-                    .description("Total number of processes that missed their deadline")
-                    .tag("process_name", processName != null ? processName : "unknown")
-                    .register(meterRegistry)
-                    .increment();
+            processNameMeters.forName(processName).counter(NameMeter.DEADLINE_MISSED).increment(count);
         } catch (Exception e) {
             LOG.warn("Failed to record deadline missed metric", e);
         }
@@ -234,17 +465,47 @@ public class MetricsService {
      * @param processName the name of the at-risk process
      */
     public void recordDeadlineWarning(String processName) {
+        recordDeadlineWarning(processName, 1);
+    }
+
+    /**
+     * Counts {@code count} runs of one process at once, as digest mode
+     * processes them.
+     */
+    public void recordDeadlineWarning(String processName, long count) {
         try {
-            Counter.builder("totrackit_processes_deadline_warning_total")
-                    .description("Total number of processes that crossed the pre-deadline warning threshold")
-                    .tag("process_name", processName != null ? processName : "unknown")
-                    .register(meterRegistry)
-                    .increment();
+            processNameMeters.forName(processName).counter(NameMeter.DEADLINE_WARNING).increment(count);
         } catch (Exception e) {
             LOG.warn("Failed to record deadline warning metric", e);
         }
     }
 
+    /**
+     * Records one deadline scan pass on this replica: how many due runs it
+     * picked up and how long the pass took. Summed over replicas, the claim
+     * counter shows how scan work is spread in parallel scan mode.
+     *
+     * @param event the pass ("deadline_missed" or "deadline_warning")
+     * @param claimed due runs picked up by this pass
+     * @param durationNanos wall-clock duration of the pass
+     */
+    public void recordDeadlineScanPass(String event, int claimed, long durationNanos) {
+        try {
+            Counter.builder("totrackit_deadline_scan_claimed_total")
+                    .description("Due deadline events picked up by this replica's scan passes")
+                    .tag("event", event)
+                    .register(meterRegistry)
+                    .increment(claimed);
+            Timer.builder("totrackit_deadline_scan_pass_seconds")
+                    .description("Duration of deadline scan passes on this replica")
+                    .tag("event", event)
+                    .register(meterRegistry)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            LOG.warn("Failed to record deadline scan metric", e);
+        }
+    }
+
     /**
      * Updates the per-process-name gauge of active processes currently past
      * their deadline. Names missing from the snapshot are reset to zero so a
@@ -294,6 +555,152 @@ public class MetricsService {
         warningNotificationBacklog.set(warningBacklog);
     }
 
+    /**
+     * Updates the notification outbox gauges, published once per dispatch
+     * cycle in outbox delivery mode.
+     *
+     * @param pending events waiting for (re)delivery
+     * @param dead events given up on after the maximum number of attempts
+     */
+    public void updateOutboxDepth(long pending, long dead) {
+        outboxPending.set(pending);
+        outboxDead.set(dead);
+    }
+
+    /**
+     * Updates the leader gauges after a leader election heartbeat.
+     *
+     * @param isLeader whether this replica holds the lease
+     * @param leaseExpiresAt when the held lease expires, or null when not leader
+     */
+    public void updateLeaderLease(boolean isLeader, Instant leaseExpiresAt) {
+        leader.set(isLeader ? 1 : 0);
+        leaderLeaseExpiresAtMillis.set(isLeader && leaseExpiresAt != null ? leaseExpiresAt.toEpochMilli() : 0);
+    }
+
+    /**
+     * Records this replica gaining or losing leadership.
+     *
+     * @param change "acquired" or "lost"
+     */
+    public void recordLeaderTransition(String change) {
+        try {
+            Counter.builder("totrackit_leader_transitions_total")
+                    .description("Leadership changes on this replica")
+                    .tag("change", change)
+                    .register(meterRegistry)
+                    .increment();
+        } catch (Exception e) {
+            LOG.warn("Failed to record leader transition metric", e);
+        }
+    }
+
+    /**
+     * Records the outcome of lifecycle webhook events: "delivered", "failed"
+     * (the receiver rejected them or was unreachable) or "dropped" (the
+     * in-process queue was full).
+     *
+     * @param event the lifecycle event type, e.g. "process.completed"
+     * @param outcome delivered, failed or dropped
+     * @param count number of events with this outcome
+     */
+    public void recordLifecycleWebhooks(String event, String outcome, int count) {
+        if (count <= 0) {
+            return;
+        }
+        try {
+            Counter.builder("totrackit_lifecycle_webhooks_total")
+                    .description("Lifecycle webhook events by outcome")
+                    .tag("event", event)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .increment(count);
+        } catch (Exception e) {
+            LOG.warn("Failed to record lifecycle webhook metric", e);
+        }
+    }
+
+    /**
+     * Exports the depth of the lifecycle webhook queue. The gauge reads the
+     * queue's size at scrape time; the caller keeps the queue referenced.
+     *
+     * @param queue the in-process lifecycle event queue
+     */
+    public void monitorLifecycleWebhookQueue(Collection<?> queue) {
+        Gauge.builder("totrackit_lifecycle_webhook_queue", queue, Collection::size)
+                .description("Lifecycle webhook events waiting for delivery on this replica")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the outcome of events routed to a webhook subscription:
+     * "delivered", "failed" or "dropped" (the subscription's queue was full).
+     *
+     * @param subscriptionId the subscription's id
+     * @param event the event type, e.g. "deadline.missed"
+     * @param outcome delivered, failed or dropped
+     * @param count number of events with this outcome
+     */
+    public void recordSubscriptionEvents(long subscriptionId, String event, String outcome, int count) {
+        if (count <= 0) {
+            return;
+        }
+        try {
+            Counter.builder("totrackit_webhook_subscription_events_total")
+                    .description("Webhook subscription events by outcome")
+                    .tag("subscription", Long.toString(subscriptionId))
+                    .tag("event", event)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .increment(count);
+        } catch (Exception e) {
+            LOG.warn("Failed to record webhook subscription metric", e);
+        }
+    }
+
+    /**
+     * Exports a webhook target's circuit breaker state: 0 closed, 1 half-open,
+     * 2 open. The gauge reads the breaker at scrape time.
+     *
+     * @param target the target's origin, e.g. "https://hooks.example.com"
+     */
+    public void monitorWebhookBreaker(String target, CircuitBreaker breaker) {
+        Gauge.builder("totrackit_webhook_breaker_state", breaker, b -> switch (b.state()) {
+                    case CLOSED -> 0;
+                    case HALF_OPEN -> 1;
+                    case OPEN -> 2;
+                })
+                .description("Webhook circuit breaker state per target (0 closed, 1 half-open, 2 open)")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a webhook target's circuit breaker entering a state.
+     *
+     * @param state "closed", "open" or "half_open"
+     */
+    public void recordWebhookBreakerTransition(String target, String state) {
+        try {
+            Counter.builder("totrackit_webhook_breaker_transitions_total")
+                    .description("Webhook circuit breaker state changes per target")
+                    .tag("target", target)
+                    .tag("state", state)
+                    .register(meterRegistry)
+                    .increment();
+        } catch (Exception e) {
+            LOG.warn("Failed to record webhook breaker metric", e);
+        }
+    }
+
+    /**
+     * Process names that currently have series of their own; every other
+     * name is recorded as {@code process_name="other"}.
+     */
+    public List<String> trackedProcessNames() {
+        return processNameMeters.names();
+    }
+
     private AtomicLong overdueGaugeFor(String processName) {
         return overdueByName.computeIfAbsent(processName, name -> {
             AtomicLong holder = new AtomicLong();
@@ -0,0 +1,233 @@
+package com.totrackit.service;
+
+import com.totrackit.util.SpaceSaving;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Meter handles for the metrics labelled with {@code process_name}, with a
+ * cap on how many names get series of their own.
+ *
+ * The first {@code maxNames} names seen get their own series. Later names
+ * are recorded under {@code process_name="other"} and counted in a
+ * Space-Saving summary of at most {@code maxNames} entries. At the first
+ * tail event after each {@link #WINDOW}, the tail is compared with the event
+ * counts of the named series over the same window: a tail name whose
+ * guaranteed count (its Space-Saving count minus error) is at least
+ * {@link #MARGIN} times the quietest named series' count, and at least
+ * {@link #MARGIN}, takes its place, and the evicted name's meters are
+ * removed from the registry. Busy names therefore end up with their own
+ * series whatever order they arrived in, while the number of series, the
+ * memory held and the scrape size stay bounded however many names clients
+ * send. The window and the margin keep names of similar volume from
+ * trading places: a name's series changes at most once per window, and only
+ * for one clearly busier.
+ *
+ * Recording for a name that has its series is one map lookup and an
+ * increment; only the tail path takes a lock.
+ */
+final class ProcessNameMeters {
+
+    /** Label of every name without series of its own. */
+    static final String OTHER = "other";
+
+    /** How long the tail and the named series are counted before they are compared. */
+    static final Duration WINDOW = Duration.ofMinutes(10);
+
+    /** How many times busier than the quietest named series a tail name must be to replace it. */
+    static final long MARGIN = 2;
+
+    /** A metric labelled with process_name. */
+    enum NameMeter {
+        CREATED("totrackit_processes_created_total", "Total number of processes created"),
+        COMPLETED("totrackit_processes_completed_total", "Total number of processes completed successfully",
+                "status", "COMPLETED"),
+        FAILED("totrackit_processes_failed_total", "Total number of processes that failed", "status", "FAILED"),
+        COMPLETED_ON_TIME("totrackit_processes_completed_on_time_total",
+                "Total number of processes completed before their deadline"),
+        COMPLETED_LATE("totrackit_processes_completed_late_total",
+                "Total number of processes completed after their deadline"),
+        DURATION_COMPLETED("totrackit_process_duration_seconds", "Duration of completed processes in seconds",
+                "status", "COMPLETED"),
+        DURATION_FAILED("totrackit_process_duration_seconds", "Duration of completed processes in seconds",
+                "status", "FAILED"),
+        DEADLINE_MISSED("totrackit_processes_deadline_missed_total",
+                "Total number of processes that missed their deadline"),
+        DEADLINE_WARNING("totrackit_processes_deadline_warning_total",
+                "Total number of processes that crossed the pre-deadline warning threshold"),
+        STALLED("totrackit_processes_stalled_total",
+                "Total number of active processes that stopped sending heartbeats"),
+        MISSING("totrackit_processes_missing_total", "Total number of expected scheduled runs that never started"),
+        TIMED_OUT("totrackit_processes_timed_out_total",
+                "Total number of active processes failed for exceeding their max duration");
+
+        private final String metric;
+        private final String description;
+        private final String[] tags;
+
+        NameMeter(String metric, String description, String... tags) {
+            this.metric = metric;
+            this.description = description;
+            this.tags = tags;
+        }
+
+        boolean isTimer() {
+            return this == DURATION_COMPLETED || this == DURATION_FAILED;
+        }
+    }
+
+    /**
+     * The meters of one label value, registered on first use, and the
+     * events recorded for it since the last rebalance.
+     */
+    final class MeterSet {
+
+        private final String label;
+        private final AtomicReferenceArray<Meter> meters = new AtomicReferenceArray<>(NameMeter.values().length);
+        private final LongAdder events = new LongAdder();
+        private volatile boolean evicted;
+
+        private MeterSet(String label) {
+            this.label = label;
+        }
+
+        Counter counter(NameMeter meter) {
+            return (Counter) meter(meter);
+        }
+
+        Timer timer(NameMeter meter) {
+            return (Timer) meter(meter);
+        }
+
+        private Meter meter(NameMeter meter) {
+            if (evicted) {
+                // A recorder that looked this set up just before eviction must not re-register its series.
+                return other.meter(meter);
+            }
+            Meter registered = meters.get(meter.ordinal());
+            if (registered == null) {
+                // Registration is idempotent, so a lost race yields the same meter.
+                registered = meter.isTimer()
+                        ? Timer.builder(meter.metric).description(meter.description)
+                                .tag("process_name", label).tags(meter.tags).register(registry)
+                        : Counter.builder(meter.metric).description(meter.description)
+                                .tag("process_name", label).tags(meter.tags).register(registry);
+                meters.set(meter.ordinal(), registered);
+            }
+            return registered;
+        }
+
+        private void remove() {
+            evicted = true;
+            for (int i = 0; i < meters.length(); i++) {
+                Meter meter = meters.getAndSet(i, null);
+                if (meter != null) {
+                    registry.remove(meter);
+                }
+            }
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final int maxNames;
+    private final Map<String, MeterSet> byName = new ConcurrentHashMap<>();
+    private final MeterSet other;
+    private final LongSupplier nanoClock;
+    private final long windowNanos;
+    private SpaceSaving<String> tail;
+    /** When the current comparison window started; guarded by this. */
+    private long windowStartNanos;
+
+    ProcessNameMeters(MeterRegistry registry, int maxNames) {
+        this(registry, maxNames, WINDOW, System::nanoTime);
+    }
+
+    ProcessNameMeters(MeterRegistry registry, int maxNames, Duration window, LongSupplier nanoClock) {
+        if (maxNames < 1) {
+            throw new IllegalArgumentException("totrackit.metrics.max-process-names must be positive");
+        }
+        this.registry = registry;
+        this.maxNames = maxNames;
+        this.other = new MeterSet(OTHER);
+        this.nanoClock = nanoClock;
+        this.windowNanos = window.toNanos();
+        this.tail = new SpaceSaving<>(maxNames);
+        this.windowStartNanos = nanoClock.getAsLong();
+    }
+
+    /** The meters to record an event of {@code processName} on. */
+    MeterSet forName(String processName) {
+        String name = processName != null ? processName : "unknown";
+        MeterSet meters = byName.get(name);
+        if (meters == null) {
+            meters = admit(name);
+        }
+        meters.events.increment();
+        return meters;
+    }
+
+    /** Names with series of their own (tests). */
+    List<String> names() {
+        return List.copyOf(byName.keySet());
+    }
+
+    private synchronized MeterSet admit(String name) {
+        MeterSet meters = byName.get(name);
+        if (meters != null) {
+            return meters;
+        }
+        if (byName.size() < maxNames) {
+            meters = new MeterSet(name);
+            byName.put(name, meters);
+            return meters;
+        }
+        tail.offer(name);
+        long now = nanoClock.getAsLong();
+        if (now - windowStartNanos >= windowNanos) {
+            rebalance();
+            windowStartNanos = now;
+        }
+        return other;
+    }
+
+    /**
+     * Swaps the tail's heavy hitters in for the quietest named series they
+     * clearly beat, then starts a new comparison window.
+     */
+    private void rebalance() {
+        List<Map.Entry<String, Long>> named = new ArrayList<>(byName.size());
+        byName.forEach((name, meters) -> named.add(Map.entry(name, meters.events.sumThenReset())));
+        named.sort(Map.Entry.comparingByValue());
+        List<SpaceSaving.Counter<String>> heavy = new ArrayList<>(tail.top(maxNames));
+        heavy.sort(Comparator.comparingLong(ProcessNameMeters::guaranteed).reversed());
+        int weakest = 0;
+        for (SpaceSaving.Counter<String> candidate : heavy) {
+            if (weakest == named.size()
+                    || guaranteed(candidate) < MARGIN * Math.max(1, named.get(weakest).getValue())) {
+                break;
+            }
+            MeterSet evicted = byName.remove(named.get(weakest++).getKey());
+            if (evicted != null) {
+                evicted.remove();
+            }
+            byName.put(candidate.getItem(), new MeterSet(candidate.getItem()));
+        }
+        tail = new SpaceSaving<>(maxNames);
+    }
+
+    private static long guaranteed(SpaceSaving.Counter<String> counter) {
+        return counter.getCount() - counter.getError();
+    }
+}
@@ -0,0 +1,61 @@
+package com.totrackit.service;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+
+/**
+ * Read side of the process-name registry (the trigger-maintained
+ * process_names table). Keeps the distinct-name total cached in memory, so
+ * paging name rollups never runs COUNT(DISTINCT name) over the processes
+ * table. The total is approximate within
+ * {@code totrackit.name-registry.refresh-interval} (default 30s).
+ */
+@Singleton
+public class ProcessNameRegistry {
+
+    private final JdbcOperations jdbcOperations;
+    private final long refreshIntervalNanos;
+
+    private volatile long totalNames;
+    private volatile long refreshedAtNanos;
+    private volatile boolean loaded;
+
+    @Inject
+    public ProcessNameRegistry(JdbcOperations jdbcOperations,
+                               @Value("${totrackit.name-registry.refresh-interval:30s}") Duration refreshInterval) {
+        this.jdbcOperations = jdbcOperations;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Number of names with at least one run, from the in-memory cache;
+     * refreshed from the registry table at most once per refresh interval.
+     * A refresh runs on the caller's transaction.
+     */
+    public long totalNames() {
+        if (!loaded || System.nanoTime() - refreshedAtNanos > refreshIntervalNanos) {
+            synchronized (this) {
+                if (!loaded || System.nanoTime() - refreshedAtNanos > refreshIntervalNanos) {
+                    totalNames = countNames();
+                    refreshedAtNanos = System.nanoTime();
+                    loaded = true;
+                }
+            }
+        }
+        return totalNames;
+    }
+
+    private long countNames() {
+        return jdbcOperations.prepareStatement("SELECT COUNT(*) FROM process_names WHERE total > 0", statement -> {
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+    }
+}
@@ -5,15 +5,18 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.totrackit.dto.*;
 import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
 import com.totrackit.exception.ProcessAlreadyCompletedException;
 import com.totrackit.exception.ProcessAlreadyExistsException;
 import com.totrackit.exception.ProcessNotFoundException;
+import com.totrackit.interceptor.PoolCallSite;
 import com.totrackit.model.DeadlineStatus;
 import com.totrackit.model.ProcessStatus;
 import com.totrackit.model.ProcessTag;
 import com.totrackit.repository.ProcessQueryRepository;
 import com.totrackit.repository.ProcessRepository;
 import com.totrackit.util.ProcessMapper;
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.transaction.annotation.Transactional;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
@@ -30,6 +33,7 @@ import java.util.stream.Collectors;
  * Handles business logic, validation, and coordination between repository and controllers.
  */
 @Singleton
+@PoolCallSite("process_service")
 public class ProcessService {
     
     private static final Logger LOG = LoggerFactory.getLogger(ProcessService.class);
@@ -38,14 +42,25 @@ public class ProcessService {
     private final ProcessQueryRepository processQueryRepository;
     private final ProcessMapper processMapper;
     private final MetricsService metricsService;
+    private final ApplicationEventPublisher<ProcessLifecycleEvent> lifecycleEvents;
+    private final StallTimeouts stallTimeouts;
+    private final WarningLevels warningLevels;
+    private final WebhookSubscriptionService subscriptions;
 
     @Inject
     public ProcessService(ProcessRepository processRepository, ProcessQueryRepository processQueryRepository,
-                          ProcessMapper processMapper, MetricsService metricsService) {
+                          ProcessMapper processMapper, MetricsService metricsService,
+                          ApplicationEventPublisher<ProcessLifecycleEvent> lifecycleEvents,
+                          StallTimeouts stallTimeouts, WarningLevels warningLevels,
+                          WebhookSubscriptionService subscriptions) {
         this.processRepository = processRepository;
         this.processQueryRepository = processQueryRepository;
         this.processMapper = processMapper;
         this.metricsService = metricsService;
+        this.lifecycleEvents = lifecycleEvents;
+        this.stallTimeouts = stallTimeouts;
+        this.warningLevels = warningLevels;
+        this.subscriptions = subscriptions;
     }
     
     /**
@@ -70,6 +85,18 @@ public class ProcessService {
         // Set optional fields
         if (request.getDeadline() != null) {
             entity.setDeadline(Instant.ofEpochSecond(request.getDeadline()));
+            // Webhook subscriptions get deadline events on their own marker.
+            if (subscriptions.hasSubscriptions()) {
+                entity.setSubscriptionDueAt(warningLevels.nextEventAt(entity));
+            }
+            entity.setNextWarningAt(warningLevels.nextWarningAt(entity));
+        }
+        
+        entity.setLastActivityAt(entity.getStartedAt());
+        Integer stallTimeout = stallTimeouts.resolve(name, request.getStallTimeout());
+        if (stallTimeout != null) {
+            entity.setStallTimeoutSeconds(stallTimeout);
+            entity.setStallAt(entity.getStartedAt().plusSeconds(stallTimeout));
         }
         
         if (request.getTags() != null && !request.getTags().isEmpty()) {
@@ -87,6 +114,7 @@ public class ProcessService {
             // Record metrics for successful process creation
             metricsService.recordProcessCreated(name);
             metricsService.recordDatabaseOperation("create", "processes", true);
+            lifecycleEvents.publishEvent(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED, savedEntity));
             
             LOG.info("Created process: name='{}', id='{}', dbId={}", name, request.getId(), savedEntity.getId());
             
@@ -171,6 +199,8 @@ public class ProcessService {
             // Record metrics for process completion
             metricsService.recordProcessCompleted(savedEntity);
             metricsService.recordDatabaseOperation("update", "processes", true);
+            lifecycleEvents.publishEvent(new ProcessLifecycleEvent(status == ProcessStatus.FAILED
+                    ? ProcessLifecycleEvent.Type.FAILED : ProcessLifecycleEvent.Type.COMPLETED, savedEntity));
             
             LOG.info("Completed process: name='{}', id='{}', status={}, duration={}s", 
                     name, processId, status, calculateDuration(savedEntity));
@@ -183,6 +213,42 @@ public class ProcessService {
         }
     }
     
+    /**
+     * Records a heartbeat: the run is alive, so its last activity and stall
+     * instant move forward, and a run already reported stalled can be
+     * reported again if it stalls anew.
+     *
+     * @param name the process name
+     * @param processId the process ID
+     * @return the updated process response
+     * @throws ProcessNotFoundException if the process is not found
+     * @throws ProcessAlreadyCompletedException if the process is no longer active
+     */
+    @Transactional
+    public ProcessResponse heartbeat(String name, String processId) {
+        LOG.debug("Heartbeat: name='{}', id='{}'", name, processId);
+        ProcessEntity entity = processRepository.findByNameAndProcessId(name, processId)
+                .orElseThrow(() -> new ProcessNotFoundException(name, processId));
+        if (entity.getStatus() != ProcessStatus.ACTIVE) {
+            throw new ProcessAlreadyCompletedException(name, processId);
+        }
+        
+        Instant now = Instant.now();
+        Instant stallAt = entity.getStallTimeoutSeconds() != null
+                ? now.plusSeconds(entity.getStallTimeoutSeconds())
+                : null;
+        // Conditional update, so a completion racing the heartbeat wins.
+        if (processRepository.recordHeartbeat(entity.getId(), now, stallAt) == 0) {
+            throw new ProcessAlreadyCompletedException(name, processId);
+        }
+        metricsService.recordDatabaseOperation("update", "processes", true);
+        entity.setLastActivityAt(now);
+        entity.setUpdatedAt(now);
+        entity.setStallAt(stallAt);
+        entity.setStallNotifiedAt(null);
+        return processMapper.toResponse(entity);
+    }
+    
     /**
      * Deletes a process by name and process ID.
      *
@@ -197,6 +263,7 @@ public class ProcessService {
                 .orElseThrow(() -> new ProcessNotFoundException(name, processId));
         processRepository.delete(entity);
         metricsService.recordDatabaseOperation("delete", "processes", true);
+        lifecycleEvents.publishEvent(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.DELETED, entity));
         LOG.info("Deleted process: name='{}', id='{}'", name, processId);
     }
 
@@ -0,0 +1,186 @@
+package com.totrackit.service;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.data.connection.jdbc.advice.DelegatingDataSource;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.annotation.Async;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Tag keys that are broken down often enough to deserve their own index.
+ *
+ * For each key in {@code totrackit.analytics.promoted-tag-keys} (comma
+ * separated) a partial B-tree expression index over the key's value is built
+ * at startup, so per-key breakdowns read the index instead of unnesting every
+ * tags array. Expression indexes rather than generated columns: keys can be
+ * promoted or dropped by configuration alone, without rewriting the table.
+ * Indexes are built CONCURRENTLY so startup never blocks writers, under a
+ * cluster-wide advisory lock so one replica never drops an index another is
+ * still building, and without the pool's statement timeout, which would
+ * cancel a long build and leave an INVALID index behind.
+ */
+@Singleton
+public class PromotedTagKeys {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PromotedTagKeys.class);
+
+    /** Keys are interpolated into SQL literals, so only this alphabet is accepted. */
+    public static final String KEY_REGEX = "^[A-Za-z0-9_.-]{1,50}$";
+    private static final Pattern KEY_PATTERN = Pattern.compile(KEY_REGEX);
+    private static final int MAX_INDEX_SUFFIX = 36;
+    private static final long INDEX_LOCK_KEY = 0x5454544147494458L;
+    /** Bounds waits for the table lock; the build itself runs without a statement timeout. */
+    private static final String BUILD_LOCK_TIMEOUT = "1min";
+
+    private final DataSource dataSource;
+    private final AdvisoryLockService advisoryLockService;
+    private final Set<String> keys;
+
+    @Inject
+    public PromotedTagKeys(DataSource dataSource, AdvisoryLockService advisoryLockService,
+                           @Value("${totrackit.analytics.promoted-tag-keys:}") String promotedKeys) {
+        // DDL runs on its own autocommit connection: CREATE INDEX CONCURRENTLY
+        // refuses to run inside a transaction block.
+        this.dataSource = DelegatingDataSource.unwrapDataSource(dataSource);
+        this.advisoryLockService = advisoryLockService;
+        this.keys = parse(promotedKeys);
+    }
+
+    static Set<String> parse(String promotedKeys) {
+        if (promotedKeys == null || promotedKeys.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> parsed = Arrays.stream(promotedKeys.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String key : parsed) {
+            if (!isValidKey(key)) {
+                throw new IllegalArgumentException("Invalid promoted tag key '" + key
+                        + "': only letters, digits, '_', '.' and '-' are allowed (max 50)");
+            }
+        }
+        return Collections.unmodifiableSet(parsed);
+    }
+
+    public static boolean isValidKey(String key) {
+        return key != null && KEY_PATTERN.matcher(key).matches();
+    }
+
+    public Set<String> getKeys() {
+        return keys;
+    }
+
+    public boolean isPromoted(String key) {
+        return keys.contains(key);
+    }
+
+    /**
+     * The indexed expression for a promoted key's value. Queries must use this
+     * exact text over the processes.tags column for the planner to match the
+     * index.
+     */
+    static String valueExpression(String column, String key) {
+        return "(jsonb_path_query_first(" + column + ", '$[*] ? (@.key == \"" + key + "\").value') #>> '{}')";
+    }
+
+    static String indexName(String key) {
+        String sanitized = key.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "_");
+        if (sanitized.length() > MAX_INDEX_SUFFIX) {
+            sanitized = sanitized.substring(0, MAX_INDEX_SUFFIX);
+        }
+        // The hash keeps keys that only differ in case or punctuation apart.
+        return "idx_processes_tag_" + sanitized + "_" + Integer.toHexString(key.hashCode());
+    }
+
+    @EventListener
+    @Async
+    void onStartup(StartupEvent event) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            boolean ran = advisoryLockService.runExclusive(INDEX_LOCK_KEY, this::ensureIndexes);
+            if (!ran) {
+                LOG.info("Another replica is building promoted tag key indexes, skipping");
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not build promoted tag key indexes; breakdowns fall back to the GIN index", e);
+        }
+    }
+
+    private void ensureIndexes() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET statement_timeout = 0");
+                statement.execute("SET lock_timeout = '" + BUILD_LOCK_TIMEOUT + "'");
+            }
+            try {
+                for (String key : keys) {
+                    ensureIndex(connection, key);
+                }
+            } finally {
+                // Back to the pool's connection defaults before the connection is reused.
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("RESET statement_timeout");
+                    statement.execute("RESET lock_timeout");
+                }
+            }
+        } catch (SQLException e) {
+            LOG.warn("Could not build promoted tag key indexes; breakdowns fall back to the GIN index", e);
+        }
+    }
+
+    private void ensureIndex(Connection connection, String key) {
+        String index = indexName(key);
+        try {
+            Boolean valid = indexValidity(connection, index);
+            if (Boolean.TRUE.equals(valid)) {
+                return;
+            }
+            try (Statement statement = connection.createStatement()) {
+                if (valid != null) {
+                    // A failed concurrent build leaves an INVALID index behind; IF NOT EXISTS would keep it.
+                    statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+                }
+                String expression = valueExpression("tags", key);
+                LOG.info("Building index {} for promoted tag key '{}'", index, key);
+                statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index
+                        + " ON processes (" + expression + ") WHERE " + expression + " IS NOT NULL");
+            }
+        } catch (SQLException e) {
+            LOG.warn("Failed to build index {} for promoted tag key '{}'", index, key, e);
+        }
+    }
+
+    /** null when the index does not exist, otherwise pg_index.indisvalid. */
+    private Boolean indexValidity(Connection connection, String index) throws SQLException {
+        String sql = "SELECT i.indisvalid FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid " +
+                "WHERE c.relname = ? AND pg_table_is_visible(c.oid)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, index);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getBoolean(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.totrackit.service;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
+import com.totrackit.repository.RunawayProcessRepository;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Fails one chunk of runs past their max duration and publishes a FAILED
+ * lifecycle event for each, in the chunk's transaction. Like the events
+ * ProcessService publishes, they reach the {@code @TransactionalEventListener}s
+ * (lifecycle webhooks, subscriptions) once the chunk commits, and not at all
+ * if it rolls back.
+ */
+@Singleton
+public class RunawayProcessService {
+
+    private final RunawayProcessRepository repository;
+    private final ApplicationEventPublisher<ProcessLifecycleEvent> lifecycleEvents;
+
+    public RunawayProcessService(RunawayProcessRepository repository,
+                                 ApplicationEventPublisher<ProcessLifecycleEvent> lifecycleEvents) {
+        this.repository = repository;
+        this.lifecycleEvents = lifecycleEvents;
+    }
+
+    /**
+     * Fails up to {@code limit} active runs started before
+     * {@code startedBefore}, oldest first.
+     *
+     * @param name the process name, or null for every name not in {@code excluded}
+     * @param excluded the names with a limit of their own; ignored when {@code name} is set
+     * @param failedAt the completion time to record
+     * @param reason the failure reason to record
+     * @return the failed runs, as updated
+     */
+    @Transactional
+    public List<ProcessEntity> failExpired(@Nullable String name, List<String> excluded, Instant startedBefore,
+                                           Instant failedAt, String reason, int limit) {
+        List<ProcessEntity> failed = repository.failExpired(name, excluded, startedBefore, failedAt, reason, limit);
+        for (ProcessEntity process : failed) {
+            lifecycleEvents.publishEvent(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.FAILED, process));
+        }
+        return failed;
+    }
+}
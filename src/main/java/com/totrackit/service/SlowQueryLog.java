@@ -0,0 +1,237 @@
+package com.totrackit.service;
+
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.connection.jdbc.advice.DelegatingDataSource;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Times named SQL statements and keeps the slow ones.
+ *
+ * Every statement prepared inside a {@link com.totrackit.interceptor.TimedQueries}
+ * method is timed under its query name. Executions slower than
+ * {@code totrackit.slow-query.threshold} are logged with their SQL shape
+ * (whitespace collapsed, expanded IN lists folded) and bind parameter types,
+ * never the bound values, and kept in a ring of the last
+ * {@code totrackit.slow-query.capacity} entries served at
+ * {@code /admin/slow-queries}.
+ *
+ * With {@code totrackit.slow-query.explain} enabled, slow SELECTs are re-run
+ * under {@code EXPLAIN (ANALYZE, BUFFERS)} on a background thread, in a
+ * read-only transaction that is rolled back, and the plan is attached to
+ * the entry. Plans are captured one at a time; slow queries arriving while
+ * the small backlog is full are kept without a plan.
+ */
+@Singleton
+public class SlowQueryLog {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?){2,}");
+    private static final int MAX_SHAPE_LENGTH = 2000;
+    private static final int EXPLAIN_BACKLOG = 8;
+    private static final int EXPLAIN_TIMEOUT_SECONDS = 30;
+
+    /** A bind parameter set to SQL NULL, replayed with its type under EXPLAIN. */
+    public record NullValue(int sqlType) {}
+
+    /** One slow execution. The plan is filled in later when EXPLAIN capture is on. */
+    public static final class Entry {
+
+        private final String query;
+        private final String sql;
+        private final List<String> bindTypes;
+        private final double durationMs;
+        private final Instant capturedAt;
+        private volatile String plan;
+        private volatile String planError;
+
+        Entry(String query, String sql, List<String> bindTypes, double durationMs, Instant capturedAt) {
+            this.query = query;
+            this.sql = sql;
+            this.bindTypes = bindTypes;
+            this.durationMs = durationMs;
+            this.capturedAt = capturedAt;
+        }
+
+        public String getQuery() { return query; }
+        public String getSql() { return sql; }
+        public List<String> getBindTypes() { return bindTypes; }
+        public double getDurationMs() { return durationMs; }
+        public Instant getCapturedAt() { return capturedAt; }
+        @Nullable public String getPlan() { return plan; }
+        @Nullable public String getPlanError() { return planError; }
+    }
+
+    private final MetricsService metricsService;
+    private final BeanProvider<DataSource> dataSource;
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final int capacity;
+    private final ArrayDeque<Entry> recent;
+    @Nullable
+    private final ThreadPoolExecutor explainExecutor;
+
+    @Inject
+    public SlowQueryLog(MetricsService metricsService, BeanProvider<DataSource> dataSource,
+                        @Value("${totrackit.slow-query.threshold:500ms}") Duration threshold,
+                        @Value("${totrackit.slow-query.explain:false}") boolean explain,
+                        @Value("${totrackit.slow-query.capacity:50}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("totrackit.slow-query.capacity must be positive");
+        }
+        this.metricsService = metricsService;
+        this.dataSource = dataSource;
+        this.thresholdNanos = threshold.toNanos();
+        this.explain = explain;
+        this.capacity = capacity;
+        this.recent = new ArrayDeque<>(capacity);
+        this.explainExecutor = explain
+                ? new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(EXPLAIN_BACKLOG),
+                        Thread.ofPlatform().name("slow-query-explain").daemon().factory(),
+                        new ThreadPoolExecutor.DiscardPolicy())
+                : null;
+    }
+
+    /**
+     * Whether statements must keep their bound values for EXPLAIN replay.
+     */
+    public boolean capturesBindValues() {
+        return explain;
+    }
+
+    /**
+     * Records one execution of a named statement.
+     *
+     * @param query the query name, e.g. "process_repository.findByNameAndProcessId"
+     * @param sql the statement's SQL
+     * @param bindTypes type of each bind parameter, by position (may contain nulls for unset positions)
+     * @param bindValues bound values by position when {@link #capturesBindValues()}, otherwise null
+     * @param durationNanos execution time
+     */
+    public void record(String query, String sql, String[] bindTypes, @Nullable Object[] bindValues,
+                       long durationNanos) {
+        metricsService.recordQuery(query, durationNanos);
+        if (durationNanos < thresholdNanos) {
+            return;
+        }
+        try {
+            Entry entry = new Entry(query, shape(sql), describeBindTypes(bindTypes),
+                    durationNanos / 1_000_000.0, Instant.now());
+            LOG.warn("Slow query {} took {} ms: {} binds {}", query, Math.round(entry.getDurationMs()),
+                    entry.getSql(), entry.getBindTypes());
+            metricsService.recordSlowQuery(query);
+            synchronized (recent) {
+                if (recent.size() == capacity) {
+                    recent.removeLast();
+                }
+                recent.addFirst(entry);
+            }
+            if (explainExecutor != null && bindValues != null && isExplainable(sql)) {
+                explainExecutor.execute(() -> explain(entry, sql, bindValues));
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to record slow query {}", query, e);
+        }
+    }
+
+    /**
+     * The slow queries kept, newest first.
+     */
+    public List<Entry> recent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    private void explain(Entry entry, String sql, Object[] bindValues) {
+        DataSource pool = DelegatingDataSource.unwrapDataSource(dataSource.get());
+        try (Connection connection = pool.getConnection()) {
+            connection.setReadOnly(true);
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                statement.setQueryTimeout(EXPLAIN_TIMEOUT_SECONDS);
+                for (int i = 0; i < bindValues.length; i++) {
+                    if (bindValues[i] instanceof NullValue nullValue) {
+                        statement.setNull(i + 1, nullValue.sqlType());
+                    } else {
+                        statement.setObject(i + 1, bindValues[i]);
+                    }
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                entry.plan = plan.toString();
+            } finally {
+                connection.rollback();
+            }
+        } catch (Exception e) {
+            entry.planError = e.getMessage();
+            LOG.debug("EXPLAIN of slow query {} failed", entry.getQuery(), e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (explainExecutor != null) {
+            explainExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * The SQL with whitespace collapsed and runs of three or more
+     * placeholders (expanded IN lists) folded to {@code ?, ...}.
+     */
+    static String shape(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = PLACEHOLDER_LIST.matcher(shape).replaceAll("?, ...");
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+    }
+
+    /**
+     * Bind types by position, with repeats folded, e.g. {@code [String, Long x3]}.
+     */
+    static List<String> describeBindTypes(String[] bindTypes) {
+        List<String> described = new ArrayList<>();
+        int i = 0;
+        while (i < bindTypes.length) {
+            String type = bindTypes[i] != null ? bindTypes[i] : "unset";
+            int run = 1;
+            while (i + run < bindTypes.length && type.equals(bindTypes[i + run] != null ? bindTypes[i + run] : "unset")) {
+                run++;
+            }
+            described.add(run > 1 ? type + " x" + run : type);
+            i += run;
+        }
+        return described;
+    }
+
+    private static boolean isExplainable(String sql) {
+        String head = sql.stripLeading().toUpperCase(Locale.ROOT);
+        return head.startsWith("SELECT") || head.startsWith("WITH");
+    }
+}
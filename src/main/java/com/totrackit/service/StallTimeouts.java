@@ -0,0 +1,104 @@
+package com.totrackit.service;
+
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Per-name default stall timeouts.
+ *
+ * {@code totrackit.stall-timeouts} is a comma-separated list of
+ * {@code name=duration} pairs, e.g. {@code nightly-export=30m,sync=2h}, with
+ * {@code *} as the default for every other name. Durations take an s, m, h
+ * or d suffix, or ISO-8601 ({@code PT90M}). A run's own {@code stall_timeout}
+ * overrides its name's; the timeout is resolved when the run starts.
+ */
+@Singleton
+public class StallTimeouts {
+
+    private static final String ANY_NAME = "*";
+    private static final Pattern SIMPLE_DURATION = Pattern.compile("^(\\d+)([smhd])$");
+
+    private final Map<String, Duration> timeouts;
+
+    @Inject
+    public StallTimeouts(@Value("${totrackit.stall-timeouts:}") String timeouts) {
+        this.timeouts = parse(timeouts);
+    }
+
+    static Map<String, Duration> parse(String timeouts) {
+        return parse(timeouts, "stall timeout");
+    }
+
+    /**
+     * Parses a comma-separated list of {@code name=duration} pairs.
+     *
+     * @param setting what the durations are, for error messages
+     * @throws IllegalArgumentException if an entry is malformed or shorter than 1s
+     */
+    static Map<String, Duration> parse(String value, String setting) {
+        if (value == null || value.isBlank()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Duration> parsed = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid " + setting + " '" + trimmed + "': expected name=duration");
+            }
+            String name = trimmed.substring(0, separator).trim();
+            Duration duration = parseDuration(trimmed.substring(separator + 1).trim());
+            if (duration == null || duration.getSeconds() < 1) {
+                throw new IllegalArgumentException("Invalid " + setting + " for '" + name
+                        + "': expected a duration of at least 1s such as 90s, 30m, 2h or PT90M");
+            }
+            parsed.put(name, duration);
+        }
+        return Collections.unmodifiableMap(parsed);
+    }
+
+    private static Duration parseDuration(String value) {
+        Matcher matcher = SIMPLE_DURATION.matcher(value);
+        if (matcher.matches()) {
+            long amount = Long.parseLong(matcher.group(1));
+            return switch (matcher.group(2)) {
+                case "s" -> Duration.ofSeconds(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                case "h" -> Duration.ofHours(amount);
+                default -> Duration.ofDays(amount);
+            };
+        }
+        try {
+            return Duration.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The stall timeout in seconds for a new run.
+     *
+     * @param name the process name
+     * @param requested the run's own stall_timeout, or null
+     * @return the timeout, or null when the run is not watched for stalls
+     */
+    public Integer resolve(String name, Integer requested) {
+        if (requested != null) {
+            return requested;
+        }
+        Duration timeout = timeouts.getOrDefault(name, timeouts.get(ANY_NAME));
+        return timeout != null ? (int) Math.min(Integer.MAX_VALUE, timeout.getSeconds()) : null;
+    }
+}
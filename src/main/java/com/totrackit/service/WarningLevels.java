@@ -0,0 +1,174 @@
+package com.totrackit.service;
+
+import com.totrackit.entity.ProcessEntity;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-deadline warning levels: fractions of a run's deadline budget
+ * (started_at to deadline) at which a process.deadline_warning fires.
+ *
+ * {@code totrackit.warning-thresholds} lists them comma separated, e.g.
+ * {@code 0.5,0.75,0.9} for escalating warnings; when unset, the single
+ * {@code totrackit.warning-threshold} (default 0.75) is the only level, and a
+ * value outside (0,1) disables warnings.
+ *
+ * Each run stores how many levels have fired in deadline_warning_level, and
+ * deadline_warned_at once the last one has; next_warning_at holds the instant
+ * of the next unfired level for schedulers. The scans select runs past the
+ * threshold of their next unfired level by subscripting the levels, bound as
+ * one float8 array parameter ({@link #sqlArray()}), with deadline_warning_level. A run
+ * that crossed several levels between scans fires once, at the highest.
+ */
+@Singleton
+public class WarningLevels {
+
+    private final double[] thresholds;
+    private final String sqlArray;
+
+    @Inject
+    public WarningLevels(@Value("${totrackit.warning-thresholds:}") String thresholds,
+                         @Value("${totrackit.warning-threshold:0.75}") double threshold) {
+        this(thresholds == null || thresholds.isBlank() ? single(threshold) : parse(thresholds));
+    }
+
+    private WarningLevels(double[] thresholds) {
+        this.thresholds = thresholds;
+        this.sqlArray = Arrays.stream(thresholds).mapToObj(Double::toString)
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    /**
+     * Levels from literal thresholds; values outside (0,1) are ignored.
+     */
+    public static WarningLevels of(double... thresholds) {
+        return new WarningLevels(Arrays.stream(thresholds).filter(t -> t > 0 && t < 1).sorted().distinct().toArray());
+    }
+
+    private static double[] single(double threshold) {
+        return threshold > 0 && threshold < 1 ? new double[] {threshold} : new double[0];
+    }
+
+    static double[] parse(String thresholds) {
+        return Arrays.stream(thresholds.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .mapToDouble(value -> {
+                    double threshold;
+                    try {
+                        threshold = Double.parseDouble(value);
+                    } catch (NumberFormatException e) {
+                        threshold = Double.NaN;
+                    }
+                    if (!(threshold > 0 && threshold < 1)) {
+                        throw new IllegalArgumentException("Invalid warning threshold '" + value
+                                + "': expected a fraction between 0 and 1 exclusive");
+                    }
+                    return threshold;
+                })
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    public boolean enabled() {
+        return thresholds.length > 0;
+    }
+
+    public int count() {
+        return thresholds.length;
+    }
+
+    /**
+     * The threshold of a level, 1 being the first.
+     */
+    public double threshold(int level) {
+        return thresholds[level - 1];
+    }
+
+    public List<Double> thresholds() {
+        return Arrays.stream(thresholds).boxed().toList();
+    }
+
+    /**
+     * The levels as a PostgreSQL float8 array literal, e.g. {@code {0.5,0.75,0.9}},
+     * for the {@code levels} parameter of the warning queries.
+     */
+    public String sqlArray() {
+        return sqlArray;
+    }
+
+    /**
+     * How many levels a run has crossed at {@code now}: the level a warning
+     * sent now fires at, 0 if none.
+     */
+    public int crossed(ProcessEntity process, Instant now) {
+        if (process.getStartedAt() == null || process.getDeadline() == null
+                || !process.getDeadline().isAfter(process.getStartedAt())) {
+            return 0;
+        }
+        long start = process.getStartedAt().toEpochMilli();
+        long budget = process.getDeadline().toEpochMilli() - start;
+        int level = 0;
+        while (level < thresholds.length
+                && now.toEpochMilli() >= start + (long) Math.ceil(budget * thresholds[level])) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Sets each run's warning level to the level a warning sent now fires
+     * at, as the warning queries' mark does in the database, so payloads
+     * built from the entities carry it.
+     */
+    public void advance(List<ProcessEntity> processes, Instant now) {
+        for (ProcessEntity process : processes) {
+            process.setDeadlineWarningLevel(Math.max(process.getDeadlineWarningLevel(), crossed(process, now)));
+        }
+    }
+
+    /**
+     * The instant of a run's next deadline event: its first unfired warning
+     * level, or its deadline once none is left; null without a deadline.
+     */
+    public Instant nextEventAt(ProcessEntity process) {
+        if (process.getDeadline() == null) {
+            return null;
+        }
+        Instant warning = nextWarningAt(process);
+        return warning != null ? warning : process.getDeadline();
+    }
+
+    /**
+     * The instant of a run's first unfired warning level, or null when none
+     * is left.
+     */
+    public Instant nextWarningAt(ProcessEntity process) {
+        long[] pending = pendingInstants(process);
+        return pending.length > 0 ? Instant.ofEpochMilli(pending[0]) : null;
+    }
+
+    /**
+     * The instants, in epoch millis, of the levels a run has not fired yet.
+     */
+    public long[] pendingInstants(ProcessEntity process) {
+        if (process.getStartedAt() == null || process.getDeadline() == null
+                || process.getDeadlineWarnedAt() != null
+                || !process.getDeadline().isAfter(process.getStartedAt())) {
+            return new long[0];
+        }
+        long start = process.getStartedAt().toEpochMilli();
+        long budget = process.getDeadline().toEpochMilli() - start;
+        return Arrays.stream(thresholds, Math.min(process.getDeadlineWarningLevel(), thresholds.length),
+                        thresholds.length)
+                .mapToLong(threshold -> start + (long) Math.ceil(budget * threshold))
+                .toArray();
+    }
+}
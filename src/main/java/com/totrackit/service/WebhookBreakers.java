@@ -0,0 +1,93 @@
+package com.totrackit.service;
+
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The circuit breakers of all webhook targets on this replica, one per URL,
+ * so a subscription whose endpoint is broken does not take down the
+ * operator webhook or other subscriptions on the same host. Breakers live
+ * for the lifetime of the replica, so an open breaker keeps later scans from
+ * retrying a dead target until its backoff has passed.
+ *
+ * Configured by totrackit.webhook-breaker.failure-threshold (consecutive
+ * failures that open it, default 5), .open-duration (first open period,
+ * default 30s) and .max-open-duration (cap for the doubling, default 10m).
+ */
+@Singleton
+public class WebhookBreakers {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebhookBreakers.class);
+
+    private final MetricsService metricsService;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Duration maxOpenDuration;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    @Inject
+    public WebhookBreakers(MetricsService metricsService,
+                           @Value("${totrackit.webhook-breaker.failure-threshold:5}") int failureThreshold,
+                           @Value("${totrackit.webhook-breaker.open-duration:30s}") Duration openDuration,
+                           @Value("${totrackit.webhook-breaker.max-open-duration:10m}") Duration maxOpenDuration) {
+        this.metricsService = metricsService;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.maxOpenDuration = maxOpenDuration;
+    }
+
+    /**
+     * The breaker for {@code url}, created on first use.
+     */
+    public CircuitBreaker forUrl(String url) {
+        String target = target(url);
+        return breakers.computeIfAbsent(target, t -> {
+            CircuitBreaker breaker = new CircuitBreaker(failureThreshold, openDuration, maxOpenDuration,
+                    System::nanoTime, (from, to) -> onTransition(t, from, to));
+            metricsService.monitorWebhookBreaker(t, breaker);
+            return breaker;
+        });
+    }
+
+    /** Snapshots of every target's breaker, by target. */
+    public Map<String, CircuitBreaker.Snapshot> snapshots() {
+        Map<String, CircuitBreaker.Snapshot> snapshots = new TreeMap<>();
+        breakers.forEach((target, breaker) -> snapshots.put(target, breaker.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * A URL's breaker key and metric label: its origin plus a hash of the
+     * whole URL. The path and query string are left out, since they may
+     * carry secrets; the hash keeps URLs on one origin apart.
+     */
+    static String target(String url) {
+        URI uri = URI.create(url);
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "http";
+        String host = uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : "unknown";
+        String origin = uri.getPort() >= 0 ? scheme + "://" + host + ":" + uri.getPort() : scheme + "://" + host;
+        return origin + "#" + Integer.toHexString(url.hashCode());
+    }
+
+    private void onTransition(String target, CircuitBreaker.State from, CircuitBreaker.State to) {
+        if (to == CircuitBreaker.State.OPEN) {
+            LOG.warn("Webhook circuit breaker for {} opened ({}); requests are skipped until it half-opens",
+                    target, from == CircuitBreaker.State.HALF_OPEN ? "probe failed" : "consecutive failures");
+        } else if (to == CircuitBreaker.State.CLOSED) {
+            LOG.info("Webhook circuit breaker for {} closed; target is reachable again", target);
+        } else {
+            LOG.info("Webhook circuit breaker for {} half-open; sending a probe request", target);
+        }
+        metricsService.recordWebhookBreakerTransition(target, to.name().toLowerCase(Locale.ROOT));
+    }
+}
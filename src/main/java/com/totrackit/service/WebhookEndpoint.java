@@ -0,0 +1,97 @@
+package com.totrackit.service;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * One webhook receiver URL and its HTTP client. A POST counts as delivered
+ * on any 2xx response; failures are logged and reported as false, never
+ * thrown. Requests go through the URL's {@link CircuitBreaker}: while it
+ * is open they are reported as failed without being sent. Only answers that
+ * say the receiver is down or overloaded count against the breaker: connect
+ * errors, timeouts, 5xx and 429. Any other answer, such as a 400 for one
+ * payload, shows the receiver is up.
+ */
+public class WebhookEndpoint implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebhookEndpoint.class);
+
+    private final String url;
+    private final HttpClient httpClient;
+    private final CircuitBreaker breaker;
+
+    public WebhookEndpoint(String url, CircuitBreaker breaker) throws MalformedURLException {
+        this.url = url;
+        this.httpClient = HttpClient.create(new URL(url));
+        this.breaker = breaker;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Whether a request sent now would go out, i.e. the target's breaker is
+     * not open. Callers skip whole passes while it is not.
+     */
+    public boolean isAvailable() {
+        return breaker.isCallPermitted();
+    }
+
+    /**
+     * Posts one JSON payload (an event object or an array of them).
+     *
+     * @param event event type, for log messages
+     * @param subject what the payload is about, for log messages
+     * @return true if the receiver answered 2xx
+     */
+    public boolean post(Object payload, String event, String subject) {
+        if (!breaker.tryAcquire()) {
+            LOG.debug("Circuit open for {}; not sending {} notification for {}", url, event, subject);
+            return false;
+        }
+        int status;
+        try {
+            HttpResponse<?> response = httpClient.toBlocking().exchange(
+                    HttpRequest.POST(url, payload).contentType(MediaType.APPLICATION_JSON_TYPE));
+            status = response.getStatus().getCode();
+        } catch (HttpClientResponseException e) {
+            status = e.getStatus().getCode();
+        } catch (Exception e) {
+            LOG.warn("Failed to deliver {} notification for {} to {}: {}", event, subject, url, e.getMessage());
+            breaker.onFailure();
+            return false;
+        }
+        boolean delivered = status >= 200 && status < 300;
+        if (!delivered) {
+            LOG.warn("Webhook {} returned non-success status {} for {}", url, status, subject);
+        }
+        if (!delivered && isTargetFailure(status)) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+        return delivered;
+    }
+
+    /**
+     * Whether a status says the receiver is failing or shedding load, rather
+     * than rejecting this one request.
+     */
+    static boolean isTargetFailure(int status) {
+        return status >= 500 || status == 429;
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+}
@@ -1,23 +1,18 @@
 package com.totrackit.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.totrackit.entity.ProcessEntity;
+import com.totrackit.repository.DeadlineDigestRepository.DigestGroup;
+import com.totrackit.repository.ExpectedScheduleRepository.ExpectedRun;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.context.annotation.Value;
-import io.micronaut.http.HttpRequest;
-import io.micronaut.http.HttpResponse;
-import io.micronaut.http.MediaType;
-import io.micronaut.http.client.HttpClient;
 import jakarta.annotation.PreDestroy;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.net.URL;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.util.LinkedHashMap;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -25,7 +20,8 @@ import java.util.Map;
  *
  * Only active when the {@code totrackit.webhook-url} property (or the
  * {@code TOTRACKIT_WEBHOOK_URL} environment variable) is set. The webhook
- * receives a JSON POST for each event; any 2xx response counts as delivered.
+ * receives a JSON POST for each event, or a JSON array of events of one type
+ * when the batch methods are used; any 2xx response counts as delivered.
  */
 // NOTE: @Requires(property=...) without notEquals — notEquals is also satisfied
 // when the property is absent, which would activate this bean with an
@@ -37,25 +33,29 @@ public class WebhookNotificationService {
     public static final String WEBHOOK_URL_PROPERTY = "totrackit.webhook-url";
     public static final String PUBLIC_URL_PROPERTY = "totrackit.public-url";
 
+    public static final String DEADLINE_MISSED = "process.deadline_missed";
+    public static final String DEADLINE_WARNING = "process.deadline_warning";
+    public static final String PROCESS_CREATED = "process.created";
+    public static final String PROCESS_COMPLETED = "process.completed";
+    public static final String PROCESS_FAILED = "process.failed";
+    public static final String PROCESS_STALLED = "process.stalled";
+    public static final String PROCESS_MISSING = "process.missing";
+
     private static final Logger LOG = LoggerFactory.getLogger(WebhookNotificationService.class);
 
-    private final String webhookUrl;
-    private final String publicUrl;
-    private final HttpClient httpClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WebhookPayloads payloads;
+    private final WebhookEndpoint endpoint;
 
     public WebhookNotificationService(
             @Value("${" + WEBHOOK_URL_PROPERTY + "}") String webhookUrl,
-            @Value("${" + PUBLIC_URL_PROPERTY + ":}") String publicUrl) throws Exception {
-        this.webhookUrl = webhookUrl;
-        this.publicUrl = publicUrl != null && !publicUrl.isBlank()
-                ? publicUrl.replaceAll("/+$", "")
-                : null;
+            WebhookPayloads payloads,
+            WebhookBreakers breakers) throws Exception {
+        this.payloads = payloads;
         if (webhookUrl == null || webhookUrl.isBlank()) {
-            this.httpClient = null;
+            this.endpoint = null;
             LOG.warn("{} is set but blank - webhook notifications are DISABLED", WEBHOOK_URL_PROPERTY);
         } else {
-            this.httpClient = HttpClient.create(new URL(webhookUrl));
+            this.endpoint = new WebhookEndpoint(webhookUrl, breakers.forUrl(webhookUrl));
             LOG.info("Webhook notifications enabled, target: {}", webhookUrl);
         }
     }
@@ -64,7 +64,16 @@ public class WebhookNotificationService {
      * Whether a usable webhook URL is configured.
      */
     public boolean isEnabled() {
-        return httpClient != null;
+        return endpoint != null;
+    }
+
+    /**
+     * Whether the webhook is enabled and its circuit breaker lets requests
+     * through. While it does not, delivery passes should be skipped: their
+     * events stay due and are retried once the breaker half-opens.
+     */
+    public boolean isAvailable() {
+        return endpoint != null && endpoint.isAvailable();
     }
 
     /**
@@ -74,7 +83,7 @@ public class WebhookNotificationService {
      * @return true if the webhook accepted the notification (2xx response)
      */
     public boolean sendDeadlineMissed(ProcessEntity process) {
-        return send("process.deadline_missed", process, null);
+        return send(DEADLINE_MISSED, process, null);
     }
 
     /**
@@ -86,75 +95,161 @@ public class WebhookNotificationService {
      * @return true if the webhook accepted the notification (2xx response)
      */
     public boolean sendDeadlineWarning(ProcessEntity process, long secondsRemaining) {
-        return send("process.deadline_warning", process, secondsRemaining);
+        return send(DEADLINE_WARNING, process, secondsRemaining);
     }
 
-    private boolean send(String event, ProcessEntity process, Long secondsRemaining) {
-        if (!isEnabled()) {
-            return false;
+    /**
+     * Notifies the webhook about several missed deadlines in one request. The
+     * body is a JSON array of the same objects {@link #sendDeadlineMissed}
+     * posts, and delivery is all-or-nothing: one 2xx accepts every event.
+     *
+     * @param processes the overdue processes
+     * @return true if the webhook accepted the batch (2xx response)
+     */
+    public boolean sendDeadlineMissedBatch(List<ProcessEntity> processes) {
+        List<Map<String, Object>> payload = new ArrayList<>(processes.size());
+        for (ProcessEntity process : processes) {
+            payload.add(payloads.deadlineEvent(DEADLINE_MISSED, process, null));
         }
-        Map<String, Object> payload = new LinkedHashMap<>();
-        payload.put("event", event);
-        payload.put("name", process.getName());
-        payload.put("id", process.getProcessId());
-        payload.put("started_at", process.getStartedAt() != null ? process.getStartedAt().getEpochSecond() : null);
-        payload.put("deadline", process.getDeadline() != null ? process.getDeadline().getEpochSecond() : null);
-        if (secondsRemaining != null) {
-            payload.put("seconds_remaining", secondsRemaining);
+        return post(payload, DEADLINE_MISSED, processes.size() + " processes");
+    }
+
+    /**
+     * Batch variant of {@link #sendDeadlineWarning}; seconds remaining are
+     * computed per process against {@code now}.
+     *
+     * @param processes the at-risk processes
+     * @param now the instant the warning pass runs at
+     * @return true if the webhook accepted the batch (2xx response)
+     */
+    public boolean sendDeadlineWarningBatch(List<ProcessEntity> processes, Instant now) {
+        List<Map<String, Object>> payload = new ArrayList<>(processes.size());
+        for (ProcessEntity process : processes) {
+            long secondsRemaining = process.getDeadline().getEpochSecond() - now.getEpochSecond();
+            payload.add(payloads.deadlineEvent(DEADLINE_WARNING, process, secondsRemaining));
         }
-        payload.put("tags", parseJsonQuietly(process.getTags()));
-        payload.put("context", parseJsonQuietly(process.getContext()));
-        String processUrl = buildProcessUrl(process);
-        if (processUrl != null) {
-            payload.put("url", processUrl);
+        return post(payload, DEADLINE_WARNING, processes.size() + " processes");
+    }
+
+    /**
+     * Notifies the webhook about a group of deadline events of one type as a
+     * single digest object (totrackit.notification-digest.enabled).
+     *
+     * @param event process.deadline_missed or process.deadline_warning
+     * @param group the due runs of one name (and tag value)
+     * @param tagKey the key digests are split by, or null
+     * @return true if the webhook accepted the digest (2xx response)
+     */
+    public boolean sendDigest(String event, DigestGroup group, String tagKey) {
+        return post(payloads.digestEvent(event, group, tagKey), event,
+                "digest " + group.name() + " (" + group.count() + " processes)");
+    }
+
+    /**
+     * Batch variant of {@link #sendDigest}: one JSON array of digests of the
+     * same type, accepted or rejected as a whole.
+     */
+    public boolean sendDigestBatch(String event, List<DigestGroup> groups, String tagKey) {
+        List<Map<String, Object>> payload = new ArrayList<>(groups.size());
+        for (DigestGroup group : groups) {
+            payload.add(payloads.digestEvent(event, group, tagKey));
         }
+        return post(payload, event, groups.size() + " digests");
+    }
 
-        try {
-            HttpResponse<?> response = httpClient.toBlocking().exchange(
-                    HttpRequest.POST(webhookUrl, payload).contentType(MediaType.APPLICATION_JSON_TYPE));
-            boolean delivered = response.getStatus().getCode() >= 200 && response.getStatus().getCode() < 300;
-            if (!delivered) {
-                LOG.warn("Webhook returned non-success status {} for process {}/{}",
-                        response.getStatus().getCode(), process.getName(), process.getProcessId());
-            }
-            return delivered;
-        } catch (Exception e) {
-            LOG.warn("Failed to deliver {} notification for process {}/{}: {}",
-                    event, process.getName(), process.getProcessId(), e.getMessage());
-            return false;
+    /**
+     * Notifies the webhook about a run lifecycle change (created, completed
+     * or failed). The payload is the deadline event object plus the run's
+     * status and, once finished, its completion time and duration.
+     *
+     * @param event one of the process.created / completed / failed types
+     * @param process the run as committed
+     * @return true if the webhook accepted the notification (2xx response)
+     */
+    public boolean sendLifecycleEvent(String event, ProcessEntity process) {
+        return post(payloads.lifecycleEvent(event, process), event,
+                "process " + process.getName() + "/" + process.getProcessId());
+    }
+
+    /**
+     * Batch variant of {@link #sendLifecycleEvent}: one JSON array of events
+     * of the same type, accepted or rejected as a whole.
+     *
+     * @param event one of the process.created / completed / failed types
+     * @param processes the runs as committed
+     * @return true if the webhook accepted the batch (2xx response)
+     */
+    public boolean sendLifecycleBatch(String event, List<ProcessEntity> processes) {
+        List<Map<String, Object>> payload = new ArrayList<>(processes.size());
+        for (ProcessEntity process : processes) {
+            payload.add(payloads.lifecycleEvent(event, process));
         }
+        return post(payload, event, processes.size() + " processes");
     }
 
     /**
-     * Deep link to the process in the dashboard, so alert receivers (Slack,
-     * Datadog events, pagers) can jump straight to the impacted process.
-     * Only present when {@code totrackit.public-url} is configured.
+     * Notifies the webhook that an active run has gone longer than its stall
+     * timeout without a heartbeat.
+     *
+     * @param process the stalled process
+     * @return true if the webhook accepted the notification (2xx response)
      */
-    private String buildProcessUrl(ProcessEntity process) {
-        if (publicUrl == null || process.getName() == null || process.getProcessId() == null) {
-            return null;
+    public boolean sendStalled(ProcessEntity process) {
+        return post(payloads.stalledEvent(process), PROCESS_STALLED,
+                "process " + process.getName() + "/" + process.getProcessId());
+    }
+
+    /**
+     * Batch variant of {@link #sendStalled}: one JSON array of events,
+     * accepted or rejected as a whole.
+     */
+    public boolean sendStalledBatch(List<ProcessEntity> processes) {
+        List<Map<String, Object>> payload = new ArrayList<>(processes.size());
+        for (ProcessEntity process : processes) {
+            payload.add(payloads.stalledEvent(process));
         }
-        return publicUrl + "/?process="
-                + URLEncoder.encode(process.getName(), StandardCharsets.UTF_8)
-                + "/"
-                + URLEncoder.encode(process.getProcessId(), StandardCharsets.UTF_8);
+        return post(payload, PROCESS_STALLED, processes.size() + " processes");
+    }
+
+    /**
+     * Notifies the webhook that no run of a scheduled process started within
+     * the grace period of an expected start.
+     *
+     * @param run the expected start that was missed
+     * @return true if the webhook accepted the notification (2xx response)
+     */
+    public boolean sendMissing(ExpectedRun run) {
+        return post(payloads.missingEvent(run), PROCESS_MISSING, "schedule " + run.name());
     }
 
-    private Object parseJsonQuietly(String json) {
-        if (json == null || json.isBlank()) {
-            return null;
+    /**
+     * Batch variant of {@link #sendMissing}: one JSON array of events,
+     * accepted or rejected as a whole.
+     */
+    public boolean sendMissingBatch(List<ExpectedRun> runs) {
+        List<Map<String, Object>> payload = new ArrayList<>(runs.size());
+        for (ExpectedRun run : runs) {
+            payload.add(payloads.missingEvent(run));
         }
-        try {
-            return objectMapper.readValue(json, new TypeReference<Object>() {});
-        } catch (Exception e) {
-            return json;
+        return post(payload, PROCESS_MISSING, runs.size() + " schedules");
+    }
+
+    private boolean send(String event, ProcessEntity process, Long secondsRemaining) {
+        return post(payloads.deadlineEvent(event, process, secondsRemaining), event,
+                "process " + process.getName() + "/" + process.getProcessId());
+    }
+
+    private boolean post(Object payload, String event, String subject) {
+        if (!isEnabled()) {
+            return false;
         }
+        return endpoint.post(payload, event, subject);
     }
 
     @PreDestroy
     void close() {
-        if (httpClient != null) {
-            httpClient.close();
+        if (endpoint != null) {
+            endpoint.close();
         }
     }
 }
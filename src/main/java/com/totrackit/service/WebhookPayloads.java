@@ -0,0 +1,164 @@
+package com.totrackit.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.repository.DeadlineDigestRepository.DigestGroup;
+import com.totrackit.repository.ExpectedScheduleRepository.ExpectedRun;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds webhook event objects, shared by the operator webhook and webhook
+ * subscriptions so every receiver sees the same payload shape.
+ */
+@Singleton
+public class WebhookPayloads {
+
+    private final String publicUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public WebhookPayloads(@Value("${" + WebhookNotificationService.PUBLIC_URL_PROPERTY + ":}") String publicUrl) {
+        this.publicUrl = publicUrl != null && !publicUrl.isBlank()
+                ? publicUrl.replaceAll("/+$", "")
+                : null;
+    }
+
+    /**
+     * The event object for a deadline event.
+     *
+     * Warnings also carry warning_level, the 1-based warning level the run
+     * has reached.
+     *
+     * @param secondsRemaining seconds left until the deadline, warnings only
+     */
+    public Map<String, Object> deadlineEvent(String event, ProcessEntity process, Long secondsRemaining) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("event", event);
+        payload.put("name", process.getName());
+        payload.put("id", process.getProcessId());
+        payload.put("started_at", process.getStartedAt() != null ? process.getStartedAt().getEpochSecond() : null);
+        payload.put("deadline", process.getDeadline() != null ? process.getDeadline().getEpochSecond() : null);
+        if (secondsRemaining != null) {
+            payload.put("seconds_remaining", secondsRemaining);
+            if (process.getDeadlineWarningLevel() > 0) {
+                payload.put("warning_level", process.getDeadlineWarningLevel());
+            }
+        }
+        payload.put("tags", parseJsonQuietly(process.getTags()));
+        payload.put("context", parseJsonQuietly(process.getContext()));
+        String processUrl = buildProcessUrl(process);
+        if (processUrl != null) {
+            payload.put("url", processUrl);
+        }
+        return payload;
+    }
+
+    /**
+     * The event object for a lifecycle event: the deadline event object plus
+     * the run's status and, once finished, its completion time and duration,
+     * and the reason when the server failed it.
+     */
+    public Map<String, Object> lifecycleEvent(String event, ProcessEntity process) {
+        Map<String, Object> payload = deadlineEvent(event, process, null);
+        payload.put("status", process.getStatus() != null ? process.getStatus().name() : null);
+        if (process.getCompletedAt() != null) {
+            payload.put("completed_at", process.getCompletedAt().getEpochSecond());
+            if (process.getStartedAt() != null) {
+                payload.put("duration_seconds",
+                        process.getCompletedAt().getEpochSecond() - process.getStartedAt().getEpochSecond());
+            }
+        }
+        if (process.getFailureReason() != null) {
+            payload.put("failure_reason", process.getFailureReason());
+        }
+        return payload;
+    }
+
+    /**
+     * The event object for a stalled run: the lifecycle event object plus
+     * its last activity, stall timeout and the instant it counted as stalled.
+     */
+    public Map<String, Object> stalledEvent(ProcessEntity process) {
+        Map<String, Object> payload = lifecycleEvent(WebhookNotificationService.PROCESS_STALLED, process);
+        payload.put("last_activity_at",
+                process.getLastActivityAt() != null ? process.getLastActivityAt().getEpochSecond() : null);
+        payload.put("stall_timeout_seconds", process.getStallTimeoutSeconds());
+        payload.put("stalled_at", process.getStallAt() != null ? process.getStallAt().getEpochSecond() : null);
+        return payload;
+    }
+
+    /**
+     * The event object for a missed expected start: the schedule's name, the
+     * expected start and the grace period no run started within.
+     */
+    public Map<String, Object> missingEvent(ExpectedRun run) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("event", WebhookNotificationService.PROCESS_MISSING);
+        payload.put("name", run.name());
+        payload.put("expected_at", run.expectedAt().getEpochSecond());
+        payload.put("grace_seconds", run.graceSeconds());
+        if (publicUrl != null) {
+            payload.put("url", publicUrl + "/?name=" + URLEncoder.encode(run.name(), StandardCharsets.UTF_8));
+        }
+        return payload;
+    }
+
+    /**
+     * The event object for a digest: every due run of one name (and tag
+     * value) folded into counts, the deadline range and sample process IDs.
+     *
+     * @param tagKey the key digests are split by, or null
+     */
+    public Map<String, Object> digestEvent(String event, DigestGroup group, String tagKey) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("event", event);
+        payload.put("digest", true);
+        payload.put("name", group.name());
+        if (tagKey != null) {
+            Map<String, Object> tag = new LinkedHashMap<>();
+            tag.put("key", tagKey);
+            tag.put("value", group.tagValue());
+            payload.put("tag", tag);
+        }
+        payload.put("count", group.count());
+        payload.put("deadline_from", group.deadlineFrom().getEpochSecond());
+        payload.put("deadline_to", group.deadlineTo().getEpochSecond());
+        payload.put("sample_ids", group.sampleIds());
+        if (publicUrl != null && group.name() != null) {
+            payload.put("url", publicUrl + "/?name=" + URLEncoder.encode(group.name(), StandardCharsets.UTF_8));
+        }
+        return payload;
+    }
+
+    /**
+     * Deep link to the process in the dashboard, so alert receivers (Slack,
+     * Datadog events, pagers) can jump straight to the impacted process.
+     * Only present when {@code totrackit.public-url} is configured.
+     */
+    private String buildProcessUrl(ProcessEntity process) {
+        if (publicUrl == null || process.getName() == null || process.getProcessId() == null) {
+            return null;
+        }
+        return publicUrl + "/?process="
+                + URLEncoder.encode(process.getName(), StandardCharsets.UTF_8)
+                + "/"
+                + URLEncoder.encode(process.getProcessId(), StandardCharsets.UTF_8);
+    }
+
+    private Object parseJsonQuietly(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Object>() {});
+        } catch (Exception e) {
+            return json;
+        }
+    }
+}
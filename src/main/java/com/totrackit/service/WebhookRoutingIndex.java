@@ -0,0 +1,132 @@
+package com.totrackit.service;
+
+import com.totrackit.model.WebhookSubscription;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable in-memory index from an event to the webhook subscriptions it
+ * must be delivered to.
+ *
+ * Per event type, every subscription is filed under exactly one primary key:
+ * its exact name, its name prefix, one of its tags (tag-only subscriptions)
+ * or the catch-all list (no filters). Matching an event looks up its name,
+ * each distinct registered prefix length of its name and each of its tags,
+ * then checks the remaining tag filters of the candidates found. The cost is
+ * proportional to the event's name and tags plus the candidates, not to the
+ * number of subscriptions; a subscription filed under a key the event does
+ * not carry is never looked at.
+ */
+public final class WebhookRoutingIndex {
+
+    public static final WebhookRoutingIndex EMPTY = build(List.of());
+
+    private final Map<String, Route> routes;
+    private final Set<Long> ids;
+
+    private WebhookRoutingIndex(Map<String, Route> routes, Set<Long> ids) {
+        this.routes = routes;
+        this.ids = ids;
+    }
+
+    public static WebhookRoutingIndex build(Collection<WebhookSubscription> subscriptions) {
+        Map<String, Route> routes = new HashMap<>();
+        Set<Long> ids = new HashSet<>();
+        for (WebhookSubscription subscription : subscriptions) {
+            ids.add(subscription.id());
+            for (String event : subscription.events()) {
+                routes.computeIfAbsent(event, e -> new Route()).add(subscription);
+            }
+        }
+        routes.values().forEach(Route::freeze);
+        return new WebhookRoutingIndex(routes, Set.copyOf(ids));
+    }
+
+    /** Number of subscriptions indexed. */
+    public int size() {
+        return ids.size();
+    }
+
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
+    /** Ids of the subscriptions indexed. */
+    public Set<Long> ids() {
+        return ids;
+    }
+
+    /**
+     * The subscriptions an event must be delivered to, each at most once.
+     *
+     * @param tagPairs the run's tags as {@link WebhookSubscription#tagPair} strings
+     */
+    public List<WebhookSubscription> match(String event, String name, Set<String> tagPairs) {
+        Route route = routes.get(event);
+        if (route == null) {
+            return List.of();
+        }
+        List<WebhookSubscription> matched = new ArrayList<>(route.any);
+        if (name != null) {
+            addMatching(matched, route.byName.get(name), tagPairs);
+            for (int length : route.prefixLengths) {
+                if (length > name.length()) {
+                    break;
+                }
+                addMatching(matched, route.byPrefix.get(name.substring(0, length)), tagPairs);
+            }
+        }
+        for (String tagPair : tagPairs) {
+            addMatching(matched, route.byTag.get(tagPair), tagPairs);
+        }
+        return matched;
+    }
+
+    private static void addMatching(List<WebhookSubscription> matched, List<WebhookSubscription> candidates,
+                                    Set<String> tagPairs) {
+        if (candidates == null) {
+            return;
+        }
+        for (WebhookSubscription candidate : candidates) {
+            if (candidate.matchesTags(tagPairs)) {
+                matched.add(candidate);
+            }
+        }
+    }
+
+    private static final class Route {
+        final Map<String, List<WebhookSubscription>> byName = new HashMap<>();
+        final Map<String, List<WebhookSubscription>> byPrefix = new HashMap<>();
+        final Map<String, List<WebhookSubscription>> byTag = new HashMap<>();
+        final List<WebhookSubscription> any = new ArrayList<>();
+        int[] prefixLengths = new int[0];
+
+        void add(WebhookSubscription subscription) {
+            String pattern = subscription.namePattern();
+            if (pattern != null && subscription.hasPrefixPattern() && !subscription.namePrefix().isEmpty()) {
+                byPrefix.computeIfAbsent(subscription.namePrefix(), p -> new ArrayList<>()).add(subscription);
+            } else if (pattern != null && !subscription.hasPrefixPattern()) {
+                byName.computeIfAbsent(pattern, n -> new ArrayList<>()).add(subscription);
+            } else if (!subscription.tags().isEmpty()) {
+                Map.Entry<String, String> tag = subscription.tags().entrySet().iterator().next();
+                byTag.computeIfAbsent(WebhookSubscription.tagPair(tag.getKey(), tag.getValue()),
+                        t -> new ArrayList<>()).add(subscription);
+            } else {
+                any.add(subscription);
+            }
+        }
+
+        void freeze() {
+            TreeSet<Integer> lengths = new TreeSet<>();
+            byPrefix.keySet().forEach(prefix -> lengths.add(prefix.length()));
+            prefixLengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.totrackit.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ProcessTag;
+import com.totrackit.model.WebhookSubscription;
+import com.totrackit.repository.SubscriptionDeadlineRepository;
+import com.totrackit.repository.WebhookSubscriptionRepository;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Webhook subscriptions: validation and storage of subscriptions, and the
+ * routing index that resolves which subscriptions an event goes to.
+ *
+ * Every replica keeps the whole subscription table in an immutable
+ * {@link WebhookRoutingIndex}. Changes made through this replica rebuild it
+ * immediately; changes made elsewhere are picked up within
+ * {@code totrackit.webhook-subscriptions.refresh-interval} (default 30s).
+ *
+ * Runs only carry a subscription deadline marker while subscriptions exist,
+ * so deployments without any pay nothing for them. When the first
+ * subscription is created, the markers of all active runs restart at their
+ * next event; a replica that picks subscriptions up on refresh sets the
+ * markers its own new runs lack, since it created them without one.
+ */
+@Singleton
+public class WebhookSubscriptionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebhookSubscriptionService.class);
+
+    /** Event types a subscription can ask for. */
+    public static final Set<String> EVENT_TYPES = Set.of(
+            WebhookNotificationService.DEADLINE_MISSED,
+            WebhookNotificationService.DEADLINE_WARNING,
+            WebhookNotificationService.PROCESS_CREATED,
+            WebhookNotificationService.PROCESS_COMPLETED,
+            WebhookNotificationService.PROCESS_FAILED,
+            WebhookNotificationService.PROCESS_STALLED,
+            WebhookNotificationService.PROCESS_MISSING);
+
+    static final int MAX_TAGS = 10;
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("^[a-zA-Z0-9_-]{1,100}\\*?$");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final WebhookSubscriptionRepository repository;
+    private final SubscriptionDeadlineRepository deadlineMarkers;
+    private final WarningLevels warningLevels;
+
+    private volatile WebhookRoutingIndex index = WebhookRoutingIndex.EMPTY;
+
+    @Inject
+    public WebhookSubscriptionService(WebhookSubscriptionRepository repository,
+                                      SubscriptionDeadlineRepository deadlineMarkers,
+                                      WarningLevels warningLevels) {
+        this.repository = repository;
+        this.deadlineMarkers = deadlineMarkers;
+        this.warningLevels = warningLevels;
+    }
+
+    /**
+     * Validates and stores a subscription, then rebuilds this replica's index.
+     *
+     * @throws IllegalArgumentException if a field is invalid
+     */
+    public WebhookSubscription create(String url, @Nullable String namePattern, @Nullable Map<String, String> tags,
+                                      @Nullable List<String> events) {
+        WebhookSubscription created = repository.insert(validateUrl(url), normalizeNamePattern(namePattern),
+                validateTags(tags), validateEvents(events));
+        LOG.info("Created webhook subscription {} for {} ({})", created.id(), created.url(), created.events());
+        reload(true);
+        return created;
+    }
+
+    public List<WebhookSubscription> list() {
+        return repository.findAll();
+    }
+
+    public Optional<WebhookSubscription> find(long id) {
+        return repository.findById(id);
+    }
+
+    /**
+     * @return true if the subscription existed
+     */
+    public boolean delete(long id) {
+        boolean deleted = repository.delete(id);
+        if (deleted) {
+            LOG.info("Deleted webhook subscription {}", id);
+            refresh();
+        }
+        return deleted;
+    }
+
+    /**
+     * Reloads the routing index from the table. Failures keep the previous
+     * index, so a database hiccup never drops routing.
+     */
+    @Scheduled(fixedDelay = "${totrackit.webhook-subscriptions.refresh-interval:30s}")
+    public void refresh() {
+        reload(false);
+    }
+
+    private void reload(boolean created) {
+        try {
+            List<WebhookSubscription> all = repository.findAll();
+            if (index.isEmpty() && !all.isEmpty()) {
+                boolean first = created && all.size() == 1;
+                int started = deadlineMarkers.start(Instant.now(), warningLevels.sqlArray(), first);
+                LOG.info("Webhook subscriptions active; set the deadline markers of {} runs", started);
+            }
+            index = WebhookRoutingIndex.build(all);
+        } catch (Exception e) {
+            LOG.warn("Failed to reload webhook subscriptions; keeping the previous routing index", e);
+        }
+    }
+
+    /** The current routing index. */
+    public WebhookRoutingIndex index() {
+        return index;
+    }
+
+    /** Whether this replica routes to any subscription. */
+    public boolean hasSubscriptions() {
+        return !index.isEmpty();
+    }
+
+    /**
+     * The subscriptions an event about {@code process} goes to.
+     */
+    public List<WebhookSubscription> match(String event, ProcessEntity process) {
+        WebhookRoutingIndex current = index;
+        if (current.isEmpty()) {
+            return List.of();
+        }
+        return current.match(event, process.getName(), tagPairs(process.getTags()));
+    }
+
+    /**
+     * A run's tags in {@link WebhookSubscription#tagPair} form.
+     */
+    static Set<String> tagPairs(@Nullable String tagsJson) {
+        if (tagsJson == null || tagsJson.isBlank()) {
+            return Set.of();
+        }
+        try {
+            List<ProcessTag> tags = OBJECT_MAPPER.readValue(tagsJson, new TypeReference<List<ProcessTag>>() {});
+            Set<String> pairs = new HashSet<>();
+            for (ProcessTag tag : tags) {
+                pairs.add(WebhookSubscription.tagPair(tag.getKey(), tag.getValue()));
+            }
+            return pairs;
+        } catch (Exception e) {
+            return Set.of();
+        }
+    }
+
+    private static String validateUrl(String url) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("url is required");
+        }
+        if (url.length() > 2000) {
+            throw new IllegalArgumentException("url must be at most 2000 characters");
+        }
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("url must be an absolute http(s) URL");
+        }
+        boolean http = "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+        if (!http || uri.getHost() == null) {
+            throw new IllegalArgumentException("url must be an absolute http(s) URL");
+        }
+        return url;
+    }
+
+    private static String normalizeNamePattern(String namePattern) {
+        if (namePattern == null || namePattern.isBlank() || namePattern.equals("*")) {
+            return null;
+        }
+        if (!NAME_PATTERN.matcher(namePattern).matches()) {
+            throw new IllegalArgumentException("name_pattern must be a process name, optionally ending in '*'");
+        }
+        return namePattern;
+    }
+
+    private static Map<String, String> validateTags(Map<String, String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return Map.of();
+        }
+        if (tags.size() > MAX_TAGS) {
+            throw new IllegalArgumentException("At most " + MAX_TAGS + " tags can be matched");
+        }
+        Map<String, String> validated = new LinkedHashMap<>();
+        tags.forEach((key, value) -> {
+            if (key == null || key.isBlank() || key.length() > 50) {
+                throw new IllegalArgumentException("Tag keys must be 1-50 characters");
+            }
+            if (value == null || value.isBlank() || value.length() > 100) {
+                throw new IllegalArgumentException("Tag values must be 1-100 characters");
+            }
+            validated.put(key, value);
+        });
+        return validated;
+    }
+
+    private static Set<String> validateEvents(List<String> events) {
+        if (events == null || events.isEmpty()) {
+            throw new IllegalArgumentException("events must list at least one of " + EVENT_TYPES);
+        }
+        Set<String> validated = new LinkedHashSet<>();
+        for (String event : events) {
+            if (!EVENT_TYPES.contains(event)) {
+                throw new IllegalArgumentException("Unknown event '" + event + "': expected one of " + EVENT_TYPES);
+            }
+            validated.add(event);
+        }
+        return validated;
+    }
+}
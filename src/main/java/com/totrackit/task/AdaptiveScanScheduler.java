@@ -0,0 +1,213 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
+import com.totrackit.interceptor.PoolCallSite;
+import com.totrackit.repository.ProcessRepository;
+import com.totrackit.service.WarningLevels;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Adaptive deadline scan scheduling (totrackit.deadline-scheduler=adaptive).
+ *
+ * Replaces the fixed notification-scan-interval poll: after each
+ * {@link DeadlineNotificationTask} pass, the earliest unnotified deadline
+ * and next unfired warning-level instant (next_warning_at) are read from
+ * their partial indexes, and the next pass runs at that instant, no sooner than
+ * totrackit.adaptive-scan.min-interval (default 1s) and no later than
+ * totrackit.adaptive-scan.max-interval (default 60s) after the last one. A
+ * run started on this replica whose deadline event comes before the planned
+ * pass brings it forward. Idle deployments scan once per max interval;
+ * busy ones scan right when events come due.
+ *
+ * Past-due events only bring the next pass forward while passes make
+ * progress: after a pass that processed nothing (the webhook keeps failing,
+ * or a run's warning instant predates the next_warning_at column), the next
+ * one is planned on future events alone. A replica whose pass was skipped
+ * because another one holds the scan lock or the leader lease waits the max
+ * interval and ignores its own starts, so followers do not poll.
+ *
+ * Runs started on other replicas are only seen by the next pass's query, so
+ * the max interval bounds their alert latency, as the poll interval does.
+ */
+@Singleton
+@PoolCallSite("scanner")
+@Requires(property = "totrackit.deadline-scheduler", value = "adaptive")
+public class AdaptiveScanScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveScanScheduler.class);
+
+    /** First pass after startup, like the fixed scan's initial delay. */
+    private static final long INITIAL_DELAY_MILLIS = 30_000;
+
+    private final DeadlineNotificationTask notificationTask;
+    private final ProcessRepository processRepository;
+    private final WarningLevels warningLevels;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+
+    private final Object monitor = new Object();
+    /** When the next pass runs; guarded by monitor. */
+    private long wakeAtMillis;
+    /** No pass runs before this, min-interval after the last one; guarded by monitor. */
+    private long earliestMillis;
+    /** Whether the last pass was skipped for another replica's; guarded by monitor. */
+    private boolean following;
+    private volatile boolean running;
+    private Thread worker;
+
+    @Inject
+    public AdaptiveScanScheduler(DeadlineNotificationTask notificationTask,
+                                 ProcessRepository processRepository,
+                                 WarningLevels warningLevels,
+                                 @Value("${totrackit.adaptive-scan.min-interval:1s}") Duration minInterval,
+                                 @Value("${totrackit.adaptive-scan.max-interval:60s}") Duration maxInterval) {
+        this.notificationTask = notificationTask;
+        this.processRepository = processRepository;
+        this.warningLevels = warningLevels;
+        this.minIntervalMillis = Math.max(1, minInterval.toMillis());
+        this.maxIntervalMillis = Math.max(minIntervalMillis, maxInterval.toMillis());
+        long now = System.currentTimeMillis();
+        this.wakeAtMillis = now + Math.min(INITIAL_DELAY_MILLIS, maxIntervalMillis);
+        this.earliestMillis = now;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("adaptive-deadline-scan").daemon().start(this::run);
+        LOG.info("Adaptive deadline scan scheduling enabled (interval {}ms to {}ms)",
+                minIntervalMillis, maxIntervalMillis);
+    }
+
+    /**
+     * Brings the next pass forward when a run started on this replica comes
+     * due before it.
+     */
+    @EventListener
+    public void onLifecycle(ProcessLifecycleEvent event) {
+        ProcessEntity process = event.getProcess();
+        if (event.getType() != ProcessLifecycleEvent.Type.STARTED || process.getDeadline() == null) {
+            return;
+        }
+        long due = firstDueInstant(process);
+        synchronized (monitor) {
+            if (following) {
+                return;
+            }
+            long target = Math.max(due, earliestMillis);
+            if (target < wakeAtMillis) {
+                wakeAtMillis = target;
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Runs one deadline pass and plans the next one.
+     *
+     * @param nowMillis when the pass starts
+     */
+    void scanAndPlan(long nowMillis) {
+        synchronized (monitor) {
+            // Starts during the pass may bring the next one forward.
+            wakeAtMillis = Long.MAX_VALUE;
+            earliestMillis = nowMillis + minIntervalMillis;
+        }
+        DeadlineNotificationTask.Outcome outcome = notificationTask.notifyMissedDeadlines();
+        long target;
+        if (outcome == DeadlineNotificationTask.Outcome.SKIPPED) {
+            target = nowMillis + maxIntervalMillis;
+        } else {
+            // Events a pass could not process are not retried any sooner.
+            Instant after = outcome == DeadlineNotificationTask.Outcome.PROGRESSED
+                    ? Instant.EPOCH
+                    : Instant.ofEpochMilli(nowMillis);
+            target = clamp(nextDueMillis(after), nowMillis);
+        }
+        synchronized (monitor) {
+            following = outcome == DeadlineNotificationTask.Outcome.SKIPPED;
+            wakeAtMillis = Math.min(wakeAtMillis, target);
+            LOG.debug("Next deadline scan in {}ms", wakeAtMillis - nowMillis);
+        }
+    }
+
+    long wakeAtMillis() {
+        synchronized (monitor) {
+            return wakeAtMillis;
+        }
+    }
+
+    /** Earliest pending deadline event after {@code after} in epoch millis, or Long.MAX_VALUE. */
+    private long nextDueMillis(Instant after) {
+        try {
+            long next = processRepository.findNextUnnotifiedDeadline(after).map(Instant::toEpochMilli)
+                    .orElse(Long.MAX_VALUE);
+            if (warningLevels.enabled()) {
+                Optional<Instant> warning = processRepository.findNextWarningInstant(after);
+                if (warning.isPresent()) {
+                    next = Math.min(next, warning.get().toEpochMilli());
+                }
+            }
+            return next;
+        } catch (Exception e) {
+            LOG.warn("Failed to look up the next deadline event; scanning again after the max interval", e);
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private long clamp(long dueMillis, long nowMillis) {
+        return Math.min(Math.max(dueMillis, nowMillis + minIntervalMillis), nowMillis + maxIntervalMillis);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                awaitWake();
+                if (running) {
+                    scanAndPlan(System.currentTimeMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOG.warn("Adaptive deadline scan failed", e);
+            }
+        }
+    }
+
+    private void awaitWake() throws InterruptedException {
+        synchronized (monitor) {
+            long remaining;
+            while (running && (remaining = wakeAtMillis - System.currentTimeMillis()) > 0) {
+                monitor.wait(remaining);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /** First warning-level instant when warnings are enabled, else the deadline, in epoch millis. */
+    private long firstDueInstant(ProcessEntity process) {
+        long[] warnings = warningLevels.pendingInstants(process);
+        return warnings.length > 0 ? warnings[0] : process.getDeadline().toEpochMilli();
+    }
+}
@@ -0,0 +1,37 @@
+package com.totrackit.task;
+
+import com.totrackit.service.AnalyticsSnapshotService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduled refresh of the precomputed analytics snapshot. Only registered
+ * when {@code totrackit.analytics-snapshot.enabled} is true; see
+ * {@link AnalyticsSnapshotService} for the leader/follower behavior.
+ */
+@Singleton
+@Requires(property = "totrackit.analytics-snapshot.enabled", value = "true")
+public class AnalyticsSnapshotTask {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnalyticsSnapshotTask.class);
+
+    private final AnalyticsSnapshotService snapshotService;
+
+    @Inject
+    public AnalyticsSnapshotTask(AnalyticsSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    @Scheduled(fixedDelay = "${totrackit.analytics-snapshot.interval:30s}", initialDelay = "5s")
+    public void refreshSnapshot() {
+        try {
+            snapshotService.refresh();
+        } catch (Exception e) {
+            LOG.warn("Analytics snapshot refresh failed", e);
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.totrackit.task;
 
 import com.totrackit.entity.ProcessEntity;
+import com.totrackit.interceptor.PoolCallSite;
+import com.totrackit.repository.DeadlineDigestRepository;
+import com.totrackit.repository.DeadlineDigestRepository.DigestGroup;
+import com.totrackit.repository.DeadlineScanRepository;
+import com.totrackit.repository.DeadlineScanRepository.DeadlineScan;
+import com.totrackit.repository.NotificationOutboxRepository;
 import com.totrackit.repository.ProcessRepository;
 import com.totrackit.service.AdvisoryLockService;
+import com.totrackit.service.DeadlineClaimService;
+import com.totrackit.service.LeaderElection;
 import com.totrackit.service.MetricsService;
+import com.totrackit.service.WarningLevels;
 import com.totrackit.service.WebhookNotificationService;
 import io.micronaut.context.annotation.Value;
 import io.micronaut.core.annotation.Nullable;
@@ -13,31 +22,76 @@ import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Scheduled scanner for deadline events. Each event is processed at most once
- * per process (tracked via the deadline_notified_at / deadline_warned_at
- * columns): the corresponding metric is recorded and, when a webhook is
- * configured, a notification is sent.
+ * per process and warning level (tracked via the deadline_notified_at /
+ * deadline_warning_level columns): the corresponding metric is recorded and,
+ * when a webhook is configured, a notification is sent.
  *
  * Two events:
- * - process.deadline_warning: an active run crossed the warning threshold
- *   (fraction of its deadline budget, totrackit.warning-threshold, default
- *   0.75; values outside (0,1) disable warnings)
+ * - process.deadline_warning: an active run crossed the threshold of its next
+ *   warning level (fractions of its deadline budget, see {@link WarningLevels};
+ *   one level at 0.75 by default)
  * - process.deadline_missed: an active run passed its deadline
  *
+ * By default both events and the backlog totals come from one statement
+ * per cycle ({@link DeadlineScanRepository}). The backlog gauges are then
+ * derived from what the pass found and marked; the totals are only counted
+ * when a batch comes back full, at most once per
+ * totrackit.notification-backlog.recount-interval, and carried forward
+ * in between.
+ *
  * The scanner always runs; webhook delivery is optional. When a webhook is
  * configured, a process is only marked processed after successful delivery,
  * so failed deliveries are retried on the next scan. Each pass is bounded by
- * totrackit.notification-batch-size and aborts early after consecutive
- * delivery failures, so one slow or dead webhook endpoint cannot pin a scan
- * cycle to the size of the backlog. A cluster-wide advisory lock ensures at
+ * totrackit.notification-batch-size, delivers up to totrackit.webhook-concurrency
+ * requests in parallel (each carrying up to totrackit.webhook-batch-size events
+ * of one type) and aborts early after consecutive delivery failures, so
+ * one slow or dead webhook endpoint cannot pin a scan cycle to the size of
+ * the backlog. Across passes, the webhook target's circuit breaker
+ * remembers that it is down: while it is open, cycles skip delivery entirely
+ * and finish in milliseconds, until the breaker lets a probe through after
+ * its exponential backoff. A cluster-wide advisory lock ensures at
  * most one replica scans at a time (webhooks would otherwise double-fire).
+ * With totrackit.deadline-scan=parallel every replica scans instead, each
+ * claiming a disjoint chunk of due rows through {@link DeadlineClaimService}.
+ * With totrackit.leader-election=lease only the replica holding the leader
+ * lease scans, and the per-cycle advisory lock is skipped. Within a
+ * replica, passes never overlap: a cycle that finds one running (the wheel
+ * firing during a fixed-interval scan, say) is skipped. With
+ * totrackit.deadline-scheduler=adaptive, {@link AdaptiveScanScheduler}
+ * replaces the fixed scan interval and scans when the next event is due.
+ *
+ * With totrackit.notification-delivery=outbox the scan does not deliver at
+ * all: it marks the due runs and inserts their events into the
+ * notification_outbox table in one statement, and
+ * {@link NotificationOutboxDispatcher} delivers and retries from there.
+ *
+ * With totrackit.notification-digest.enabled=true the webhook gets one
+ * digest per process name (and per value of
+ * totrackit.notification-digest.tag-key when set) and cycle instead of one
+ * event per run: {@link DeadlineDigestRepository} folds the due runs into
+ * counts, deadline ranges and sample process IDs in one grouped query, so
+ * webhook volume during an incident is bounded by the number of names. The
+ * runs of a digest are marked once it is delivered. Digests take precedence
+ * over parallel scanning (the scan lock or leader lease keeps replicas from
+ * sending the same digest); the outbox takes precedence over digests.
+ *
+ * Every pass, in every mode, first hands the deadline events due for
+ * webhook subscriptions, if there are any, to
+ * {@link WebhookSubscriptionDispatcher}. Those are
+ * tracked on their own marker (subscription_due_at), so subscriptions get
+ * them when they fall due, whether or not the operator webhook accepted
+ * them, is circuit-broken or delivers through the outbox.
  */
 @Singleton
+@PoolCallSite("scanner")
 public class DeadlineNotificationTask {
 
     private static final Logger LOG = LoggerFactory.getLogger(DeadlineNotificationTask.class);
@@ -45,107 +99,394 @@ public class DeadlineNotificationTask {
     /** Cluster-wide advisory lock key for the deadline scan ("TOTRACKI"). */
     private static final long SCAN_LOCK_KEY = 0x544F545241434B49L;
 
-    /** Abort the current pass after this many consecutive failed deliveries. */
-    private static final int MAX_CONSECUTIVE_DELIVERY_FAILURES = 5;
-
     private final ProcessRepository processRepository;
+    private final DeadlineScanRepository scanRepository;
     private final MetricsService metricsService;
     private final AdvisoryLockService advisoryLockService;
     @Nullable
     private final WebhookNotificationService notificationService;
-    private final double warningThreshold;
+    @Nullable
+    private final NotificationOutboxRepository outbox;
+    @Nullable
+    private final DeadlineClaimService claims;
+    @Nullable
+    private final LeaderElection leaderElection;
+    @Nullable
+    private final WebhookSubscriptionDispatcher subscriptions;
+    @Nullable
+    private final DeadlineDigestRepository digest;
+    private final WarningLevels warningLevels;
     private final int batchSize;
+    private final WebhookDelivery delivery;
+    private final boolean fixedInterval;
+    private final long recountIntervalNanos;
+    /**
+     * One pass at a time per replica: the fixed-interval scan, the wheel and
+     * the adaptive scheduler run on different threads, and neither the leader
+     * lease nor row claims keep a replica from racing itself. Also guards
+     * the backlog fields below.
+     */
+    private final ReentrantLock passLock = new ReentrantLock();
+    private long nextRecountNanos = System.nanoTime();
+    private long missedBacklog;
+    private long warningBacklog;
 
     @Inject
     public DeadlineNotificationTask(ProcessRepository processRepository,
+                                    DeadlineScanRepository scanRepository,
                                     MetricsService metricsService,
                                     AdvisoryLockService advisoryLockService,
                                     @Nullable WebhookNotificationService notificationService,
-                                    @Value("${totrackit.warning-threshold:0.75}") double warningThreshold,
-                                    @Value("${totrackit.notification-batch-size:500}") int batchSize) {
+                                    @Nullable NotificationOutboxRepository outbox,
+                                    @Nullable DeadlineClaimService claims,
+                                    @Nullable LeaderElection leaderElection,
+                                    @Nullable WebhookSubscriptionDispatcher subscriptions,
+                                    @Nullable DeadlineDigestRepository digest,
+                                    WarningLevels warningLevels,
+                                    @Value("${totrackit.notification-batch-size:500}") int batchSize,
+                                    @Value("${totrackit.webhook-concurrency:8}") int webhookConcurrency,
+                                    @Value("${totrackit.webhook-batch-size:1}") int webhookBatchSize,
+                                    @Value("${totrackit.deadline-scheduler:poll}") String scheduler,
+                                    @Value("${totrackit.notification-backlog.recount-interval:5m}") Duration recountInterval) {
         this.processRepository = processRepository;
+        this.scanRepository = scanRepository;
         this.metricsService = metricsService;
         this.advisoryLockService = advisoryLockService;
         this.notificationService = notificationService;
-        this.warningThreshold = warningThreshold;
+        this.outbox = outbox;
+        this.claims = claims;
+        this.leaderElection = leaderElection;
+        this.subscriptions = subscriptions;
+        this.digest = digest;
+        this.warningLevels = warningLevels;
         this.batchSize = batchSize;
+        this.delivery = new WebhookDelivery(webhookConcurrency, webhookBatchSize);
+        this.fixedInterval = !"adaptive".equalsIgnoreCase(scheduler);
+        this.recountIntervalNanos = recountInterval.toNanos();
+    }
+
+    /**
+     * Runs the scan every notification-scan-interval, except in adaptive
+     * mode, where {@link AdaptiveScanScheduler} decides when to scan.
+     */
+    @Scheduled(fixedDelay = "${totrackit.notification-scan-interval:60s}", initialDelay = "30s")
+    public void scheduledScan() {
+        if (fixedInterval) {
+            notifyMissedDeadlines();
+        }
+    }
+
+    /**
+     * What a deadline pass did, for schedulers that plan the next one.
+     */
+    public enum Outcome {
+        /**
+         * Another replica holds the scan lock or the leader lease, or another
+         * pass is running on this one; nothing was scanned.
+         */
+        SKIPPED,
+        /** The pass ran and processed no deadline event. */
+        IDLE,
+        /** The pass processed at least one deadline event. */
+        PROGRESSED
     }
 
     /**
      * Scans for unprocessed deadline events; records metrics and notifies the
      * webhook when one is configured.
+     *
+     * @return whether the pass ran here and processed anything
      */
-    @Scheduled(fixedDelay = "${totrackit.notification-scan-interval:60s}", initialDelay = "30s")
-    public void notifyMissedDeadlines() {
+    public Outcome notifyMissedDeadlines() {
+        if (!passLock.tryLock()) {
+            LOG.debug("A deadline pass is already running on this replica; skipping this cycle");
+            return Outcome.SKIPPED;
+        }
+        try {
+            return notifyMissedDeadlinesExclusively();
+        } finally {
+            passLock.unlock();
+        }
+    }
+
+    private Outcome notifyMissedDeadlinesExclusively() {
         boolean webhookActive = notificationService != null && notificationService.isEnabled();
         try {
-            boolean ran = advisoryLockService.runExclusive(SCAN_LOCK_KEY, () -> {
-                warnApproachingDeadlines(webhookActive);
-                processMissedDeadlines(webhookActive);
-                updateBacklogGauges();
-            });
+            if (claims != null && digest == null) {
+                // Parallel mode: row claims keep replicas apart, no scan lock.
+                return outcome(runPasses(webhookActive));
+            }
+            if (leaderElection != null) {
+                if (leaderElection.isLeader()) {
+                    return outcome(runPasses(webhookActive));
+                }
+                LOG.debug("Not the leader; skipping this deadline scan cycle");
+                // The leader publishes the backlog; a former leader's count would be stale.
+                metricsService.updateNotificationBacklog(0, 0);
+                return Outcome.SKIPPED;
+            }
+            int[] processed = new int[1];
+            boolean ran = advisoryLockService.runExclusive(SCAN_LOCK_KEY,
+                    () -> processed[0] = runPasses(webhookActive));
             if (!ran) {
                 LOG.debug("Deadline scan lock held by another replica; skipping this cycle");
+                return Outcome.SKIPPED;
             }
+            return outcome(processed[0]);
         } catch (Exception e) {
             LOG.warn("Deadline notification scan failed", e);
+            return Outcome.IDLE;
         }
     }
 
-    private void processMissedDeadlines(boolean webhookActive) {
-        List<ProcessEntity> overdue = processRepository.findOverdueUnnotified(Instant.now(), batchSize);
-        if (overdue.isEmpty()) {
-            return;
-        }
-        LOG.debug("Processing {} overdue processes awaiting deadline events", overdue.size());
-        List<Long> processedIds = new ArrayList<>();
-        int consecutiveFailures = 0;
-        for (ProcessEntity process : overdue) {
-            if (webhookActive && !notificationService.sendDeadlineMissed(process)) {
-                if (++consecutiveFailures >= MAX_CONSECUTIVE_DELIVERY_FAILURES) {
-                    LOG.warn("Aborting missed-deadline pass after {} consecutive delivery failures; "
-                            + "remaining rows retry next scan", consecutiveFailures);
-                    break;
-                }
-                continue; // delivery failed; retried on the next scan
+    private static Outcome outcome(int processed) {
+        return processed > 0 ? Outcome.PROGRESSED : Outcome.IDLE;
+    }
+
+    /**
+     * @return the number of deadline events processed
+     */
+    private int runPasses(boolean webhookActive) {
+        int routed = routeSubscriptionDeadlines();
+        if (webhookActive && outbox == null && !notificationService.isAvailable()) {
+            // The webhook's circuit is open: nothing could be delivered, and
+            // undelivered events stay due, so only refresh the gauges when due.
+            LOG.debug("Webhook circuit open; skipping this cycle's deadline delivery");
+            if (recountDue()) {
+                updateBacklogGauges();
             }
-            consecutiveFailures = 0;
-            processedIds.add(process.getId());
-            metricsService.recordDeadlineMissed(process.getName());
+            return routed;
         }
-        if (!processedIds.isEmpty()) {
-            processRepository.markDeadlineNotifiedBatch(processedIds, Instant.now());
+        if (claims == null && !(webhookActive && (outbox != null || digest != null))) {
+            return routed + runSingleScan(webhookActive);
         }
+        int processed = routed + warnApproachingDeadlines(webhookActive) + processMissedDeadlines(webhookActive);
+        updateBacklogGauges();
+        return processed;
     }
 
-    private void warnApproachingDeadlines(boolean webhookActive) {
-        if (warningThreshold <= 0 || warningThreshold >= 1) {
-            return;
+    private int processMissedDeadlines(boolean webhookActive) {
+        long startNanos = System.nanoTime();
+        Instant now = Instant.now();
+        int claimed;
+        int processed;
+        if (webhookActive && outbox != null) {
+            List<String> names = outbox.enqueueMissedDeadlines(now, WebhookNotificationService.DEADLINE_MISSED,
+                    batchSize);
+            names.forEach(metricsService::recordDeadlineMissed);
+            claimed = names.size();
+            processed = claimed;
+        } else if (webhookActive && digest != null) {
+            List<DigestGroup> groups = digest.overdueGroups(now);
+            claimed = runs(groups);
+            processed = deliverDigests(WebhookNotificationService.DEADLINE_MISSED, groups, now);
+        } else {
+            DeadlineClaimService.Claim claim = claims.processOverdue(now, batchSize,
+                    overdue -> deliverMissed(overdue, webhookActive));
+            claim.processed().forEach(process -> metricsService.recordDeadlineMissed(process.getName()));
+            claimed = claim.claimed();
+            processed = claim.processed().size();
         }
+        metricsService.recordDeadlineScanPass("deadline_missed", claimed, System.nanoTime() - startNanos);
+        return processed;
+    }
+
+    /**
+     * Default path: one statement selects both events' due runs (and the
+     * backlog totals when they need counting), then warnings and missed
+     * deadlines are delivered and marked in turn.
+     *
+     * @return the number of deadline events processed
+     */
+    private int runSingleScan(boolean webhookActive) {
+        long startNanos = System.nanoTime();
         Instant now = Instant.now();
-        List<ProcessEntity> approaching = processRepository.findApproachingUnwarned(now, warningThreshold, batchSize);
-        if (approaching.isEmpty()) {
-            return;
-        }
-        List<Long> processedIds = new ArrayList<>();
-        int consecutiveFailures = 0;
-        for (ProcessEntity process : approaching) {
-            long secondsRemaining = process.getDeadline().getEpochSecond() - now.getEpochSecond();
-            if (webhookActive && !notificationService.sendDeadlineWarning(process, secondsRemaining)) {
-                if (++consecutiveFailures >= MAX_CONSECUTIVE_DELIVERY_FAILURES) {
-                    LOG.warn("Aborting deadline-warning pass after {} consecutive delivery failures; "
-                            + "remaining rows retry next scan", consecutiveFailures);
-                    break;
-                }
-                continue; // delivery failed; retried on the next scan
+        boolean recount = recountDue();
+        DeadlineScan scan = scanRepository.scan(now, warningsEnabled() ? warningLevels.sqlArray() : null,
+                batchSize, recount);
+        if (scan.missedBacklog() != null || scan.warningBacklog() != null) {
+            nextRecountNanos = System.nanoTime() + recountIntervalNanos;
+        }
+
+        List<ProcessEntity> warned = markWarnings(scan.approaching(), now, webhookActive);
+        if (warningsEnabled()) {
+            metricsService.recordDeadlineScanPass("deadline_warning", scan.approaching().size(),
+                    System.nanoTime() - startNanos);
+        }
+        long missedStartNanos = System.nanoTime();
+        List<ProcessEntity> notified = markMissed(scan.overdue(), webhookActive);
+        metricsService.recordDeadlineScanPass("deadline_missed", scan.overdue().size(),
+                System.nanoTime() - missedStartNanos);
+
+        missedBacklog = backlogAfter(scan.overdue(), scan.missedBacklog(), missedBacklog, notified.size());
+        warningBacklog = warningsEnabled()
+                ? backlogAfter(scan.approaching(), scan.warningBacklog(), warningBacklog, warned.size())
+                : 0;
+        metricsService.updateNotificationBacklog(missedBacklog, warningBacklog);
+        return warned.size() + notified.size();
+    }
+
+    private List<ProcessEntity> markMissed(List<ProcessEntity> overdue, boolean webhookActive) {
+        List<ProcessEntity> processed = overdue.isEmpty() ? overdue : deliverMissed(overdue, webhookActive);
+        processed.forEach(process -> metricsService.recordDeadlineMissed(process.getName()));
+        if (!processed.isEmpty()) {
+            processRepository.markDeadlineNotifiedBatch(ids(processed), Instant.now());
+        }
+        return processed;
+    }
+
+    private List<ProcessEntity> markWarnings(List<ProcessEntity> approaching, Instant now, boolean webhookActive) {
+        List<ProcessEntity> processed = approaching.isEmpty()
+                ? approaching
+                : deliverWarnings(approaching, now, webhookActive);
+        processed.forEach(process -> metricsService.recordDeadlineWarning(process.getName()));
+        if (!processed.isEmpty()) {
+            processRepository.markDeadlineWarnedBatch(ids(processed), now, warningLevels.sqlArray());
+        }
+        return processed;
+    }
+
+    /**
+     * The backlog left after a pass. A batch that is not full was the whole
+     * backlog; a full one needs the counted total, or, between recounts, the
+     * previous estimate carried forward. Runs that came due since the last
+     * recount are only picked up by the next one.
+     */
+    private long backlogAfter(List<ProcessEntity> due, Long counted, long previous, int processed) {
+        long total;
+        if (due.size() < batchSize) {
+            total = due.size();
+        } else if (counted != null) {
+            total = counted;
+        } else {
+            total = Math.max(previous, due.size());
+        }
+        return Math.max(0, total - processed);
+    }
+
+    private boolean recountDue() {
+        return System.nanoTime() - nextRecountNanos >= 0;
+    }
+
+    private boolean warningsEnabled() {
+        return warningLevels.enabled();
+    }
+
+    private List<ProcessEntity> deliverMissed(List<ProcessEntity> overdue, boolean webhookActive) {
+        LOG.debug("Processing {} overdue processes awaiting deadline events", overdue.size());
+        if (!webhookActive) {
+            return overdue;
+        }
+        return delivery.deliver(overdue, request -> delivery.batched()
+                ? notificationService.sendDeadlineMissedBatch(request)
+                : notificationService.sendDeadlineMissed(request.get(0)), "missed-deadline");
+    }
+
+    private int warnApproachingDeadlines(boolean webhookActive) {
+        if (!warningsEnabled()) {
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        Instant now = Instant.now();
+        int claimed;
+        int processed;
+        if (webhookActive && outbox != null) {
+            List<String> names = outbox.enqueueDeadlineWarnings(now, warningLevels.sqlArray(),
+                    WebhookNotificationService.DEADLINE_WARNING, batchSize);
+            names.forEach(metricsService::recordDeadlineWarning);
+            claimed = names.size();
+            processed = claimed;
+        } else if (webhookActive && digest != null) {
+            List<DigestGroup> groups = digest.warningGroups(now, warningLevels.sqlArray());
+            claimed = runs(groups);
+            processed = deliverDigests(WebhookNotificationService.DEADLINE_WARNING, groups, now);
+        } else {
+            DeadlineClaimService.Claim claim = claims.processApproaching(now, warningLevels.sqlArray(), batchSize,
+                    approaching -> deliverWarnings(approaching, now, webhookActive));
+            claim.processed().forEach(process -> metricsService.recordDeadlineWarning(process.getName()));
+            claimed = claim.claimed();
+            processed = claim.processed().size();
+        }
+        metricsService.recordDeadlineScanPass("deadline_warning", claimed, System.nanoTime() - startNanos);
+        return processed;
+    }
+
+    private List<ProcessEntity> deliverWarnings(List<ProcessEntity> approaching, Instant now, boolean webhookActive) {
+        // The level each warning fires at, as the mark records it.
+        warningLevels.advance(approaching, now);
+        if (!webhookActive) {
+            return approaching;
+        }
+        return delivery.deliver(approaching, request -> delivery.batched()
+                ? notificationService.sendDeadlineWarningBatch(request, now)
+                : notificationService.sendDeadlineWarning(request.get(0),
+                        request.get(0).getDeadline().getEpochSecond() - now.getEpochSecond()),
+                "deadline-warning");
+    }
+
+    /**
+     * Delivers one digest per group and marks the runs of the delivered
+     * ones; undelivered groups stay due and are regrouped next cycle.
+     *
+     * @return the number of runs marked
+     */
+    private int deliverDigests(String event, List<DigestGroup> groups, Instant now) {
+        if (groups.isEmpty()) {
+            return 0;
+        }
+        String tagKey = digest.tagKey();
+        List<DigestGroup> delivered = delivery.deliver(groups, request -> delivery.batched()
+                ? notificationService.sendDigestBatch(event, request, tagKey)
+                : notificationService.sendDigest(event, request.get(0), tagKey), "digest");
+        boolean missed = WebhookNotificationService.DEADLINE_MISSED.equals(event);
+        List<Long> ids = new ArrayList<>();
+        for (DigestGroup group : delivered) {
+            ids.addAll(group.ids());
+            if (missed) {
+                metricsService.recordDeadlineMissed(group.name(), group.count());
+            } else {
+                metricsService.recordDeadlineWarning(group.name(), group.count());
+            }
+        }
+        if (!ids.isEmpty()) {
+            if (missed) {
+                processRepository.markDeadlineNotifiedBatch(ids, Instant.now());
+            } else {
+                processRepository.markDeadlineWarnedBatch(ids, now, warningLevels.sqlArray());
             }
-            consecutiveFailures = 0;
-            processedIds.add(process.getId());
-            metricsService.recordDeadlineWarning(process.getName());
         }
-        if (!processedIds.isEmpty()) {
-            processRepository.markDeadlineWarnedBatch(processedIds, now);
+        return ids.size();
+    }
+
+    private static int runs(List<DigestGroup> groups) {
+        return groups.stream().mapToInt(DigestGroup::count).sum();
+    }
+
+    /**
+     * Routes the deadline events due for webhook subscriptions. Their
+     * delivery is queued per subscription and never holds up the scan, and a
+     * failure here does not keep the operator webhook's events from going out.
+     *
+     * @return the number of runs routed
+     */
+    private int routeSubscriptionDeadlines() {
+        if (subscriptions == null) {
+            return 0;
+        }
+        try {
+            return subscriptions.routeDueDeadlineEvents(Instant.now());
+        } catch (RuntimeException e) {
+            LOG.warn("Routing deadline events to webhook subscriptions failed", e);
+            return 0;
+        }
+    }
+
+    private static List<Long> ids(List<ProcessEntity> processes) {
+        List<Long> ids = new ArrayList<>(processes.size());
+        for (ProcessEntity process : processes) {
+            ids.add(process.getId());
         }
+        return ids;
     }
 
     /**
@@ -154,10 +495,11 @@ public class DeadlineNotificationTask {
      */
     private void updateBacklogGauges() {
         Instant now = Instant.now();
-        long missedBacklog = processRepository.countOverdueUnnotified(now);
-        long warningBacklog = (warningThreshold > 0 && warningThreshold < 1)
-                ? processRepository.countApproachingUnwarned(now, warningThreshold)
+        missedBacklog = processRepository.countOverdueUnnotified(now);
+        warningBacklog = warningsEnabled()
+                ? processRepository.countApproachingUnwarned(now, warningLevels.sqlArray())
                 : 0;
         metricsService.updateNotificationBacklog(missedBacklog, warningBacklog);
+        nextRecountNanos = System.nanoTime() + recountIntervalNanos;
     }
 }
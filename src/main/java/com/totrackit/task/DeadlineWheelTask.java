@@ -0,0 +1,160 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
+import com.totrackit.interceptor.PoolCallSite;
+import com.totrackit.repository.ProcessRepository;
+import com.totrackit.service.WarningLevels;
+import com.totrackit.util.HashedTimerWheel;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Timer-wheel deadline scheduling (totrackit.deadline-scheduler=wheel).
+ *
+ * Instead of waiting for the next notification-scan-interval, every upcoming
+ * deadline and warning-level instant is kept in an in-memory hashed timer
+ * wheel with one-second ticks. When a timer comes due, the regular
+ * {@link DeadlineNotificationTask} pass runs immediately. That pass is an
+ * index-backed query under the cluster-wide advisory lock, so the wheel only
+ * decides when to look, never what to send, and a stale wheel entry costs at
+ * most one cheap empty scan.
+ *
+ * The wheel is filled from two sides: runs started or finished through
+ * ProcessService on this replica (via {@link ProcessLifecycleEvent}), and a
+ * periodic reload from the database, which covers runs created on other
+ * replicas and after restarts. Both only schedule instants within the
+ * horizon, so the wheel never holds a timer per active run. The
+ * periodic scan keeps running as a reconciliation sweep, so its interval can
+ * be raised in this mode.
+ */
+@Singleton
+@PoolCallSite("scanner")
+@Requires(property = "totrackit.deadline-scheduler", value = "wheel")
+public class DeadlineWheelTask {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeadlineWheelTask.class);
+
+    private static final long TICK_MILLIS = 1_000;
+    /** 4096 one-second slots: about 68 minutes per rotation. */
+    private static final int SLOTS = 4_096;
+
+    private final DeadlineNotificationTask notificationTask;
+    private final ProcessRepository processRepository;
+    private final WarningLevels warningLevels;
+    private final Duration horizon;
+    private final int loadLimit;
+    private final HashedTimerWheel wheel;
+
+    @Inject
+    public DeadlineWheelTask(DeadlineNotificationTask notificationTask,
+                             ProcessRepository processRepository,
+                             WarningLevels warningLevels,
+                             @Value("${totrackit.deadline-wheel.horizon:15m}") Duration horizon,
+                             @Value("${totrackit.deadline-wheel.load-limit:10000}") int loadLimit) {
+        this.notificationTask = notificationTask;
+        this.processRepository = processRepository;
+        this.warningLevels = warningLevels;
+        this.horizon = horizon;
+        this.loadLimit = loadLimit;
+        this.wheel = new HashedTimerWheel(TICK_MILLIS, SLOTS, System.currentTimeMillis());
+    }
+
+    /**
+     * Loads deadline events due within the horizon. Entries already in the
+     * wheel are replaced rather than duplicated.
+     */
+    @Scheduled(fixedDelay = "${totrackit.deadline-wheel.reload-interval:5m}", initialDelay = "5s")
+    public void reload() {
+        try {
+            Instant now = Instant.now();
+            List<ProcessEntity> upcoming = processRepository.findUpcomingDeadlineEvents(
+                    now, now.plus(horizon), warningLevels.sqlArray(), loadLimit);
+            synchronized (wheel) {
+                for (ProcessEntity process : upcoming) {
+                    for (long due : dueInstants(process)) {
+                        if (due <= now.toEpochMilli()) {
+                            continue; // already due: the scan picks it up (or already has)
+                        }
+                        wheel.cancel(process.getId(), due);
+                        wheel.schedule(process.getId(), due);
+                    }
+                }
+            }
+            if (upcoming.size() == loadLimit) {
+                LOG.warn("Deadline wheel reload hit the load limit ({}); later events wait for the reconciliation scan",
+                        loadLimit);
+            }
+            LOG.debug("Deadline wheel reloaded {} runs; {} timers pending", upcoming.size(), pending());
+        } catch (Exception e) {
+            LOG.warn("Deadline wheel reload failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelay = "${totrackit.deadline-wheel.tick:1s}")
+    public void tick() {
+        tick(System.currentTimeMillis());
+    }
+
+    void tick(long nowMillis) {
+        int fired;
+        synchronized (wheel) {
+            fired = wheel.advance(nowMillis, id -> { });
+        }
+        if (fired > 0) {
+            LOG.debug("{} deadline timers due; running the deadline pass now", fired);
+            notificationTask.notifyMissedDeadlines();
+        }
+    }
+
+    /**
+     * Schedules a started run's instants within the horizon and cancels a
+     * finished run's timers. Later instants are left to the periodic reload,
+     * so the wheel stays bounded by what falls due within the horizon rather
+     * than by the number of active runs.
+     */
+    @EventListener
+    public void onLifecycle(ProcessLifecycleEvent event) {
+        ProcessEntity process = event.getProcess();
+        if (process.getId() == null || process.getDeadline() == null) {
+            return;
+        }
+        long horizonEnd = System.currentTimeMillis() + horizon.toMillis();
+        synchronized (wheel) {
+            for (long due : dueInstants(process)) {
+                if (event.getType() == ProcessLifecycleEvent.Type.STARTED) {
+                    if (due <= horizonEnd) {
+                        wheel.schedule(process.getId(), due);
+                    }
+                } else {
+                    wheel.cancel(process.getId(), due);
+                }
+            }
+        }
+    }
+
+    int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /** Unfired warning-level instants and the deadline of a run, in epoch millis. */
+    private long[] dueInstants(ProcessEntity process) {
+        long[] warnings = warningLevels.pendingInstants(process);
+        long[] due = Arrays.copyOf(warnings, warnings.length + 1);
+        due[warnings.length] = process.getDeadline().toEpochMilli();
+        return due;
+    }
+}
@@ -0,0 +1,208 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.WebhookNotificationService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.transaction.annotation.TransactionalEventListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers process.created / process.completed / process.failed webhooks
+ * (totrackit.lifecycle-webhooks.events lists the types to send).
+ *
+ * Events are taken from {@link ProcessLifecycleEvent} only after the
+ * publishing transaction commits, so receivers never hear about a run that
+ * was rolled back. The listener just offers the event to a bounded in-process
+ * queue (totrackit.lifecycle-webhooks.queue-capacity) and returns; a single
+ * worker thread drains the queue and delivers through the same concurrent,
+ * optionally batched path as deadline events. API latency therefore never
+ * depends on the receiver: when the queue is full, new events are dropped
+ * and counted instead of blocking the request.
+ *
+ * Delivery is best effort. Events still queued when the replica stops, and
+ * events the receiver rejects, are not retried; they are counted in
+ * totrackit_lifecycle_webhooks_total by outcome. While the webhook's circuit
+ * breaker is open the worker leaves the queue alone, so events wait (or are
+ * dropped once the queue fills) instead of failing one by one.
+ */
+@Singleton
+@Requires(property = "totrackit.lifecycle-webhooks.events")
+@Requires(beans = WebhookNotificationService.class)
+public class LifecycleWebhookDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LifecycleWebhookDispatcher.class);
+
+    /** Lifecycle event types that can be subscribed to. */
+    static final Set<String> EVENT_TYPES = Set.of(WebhookNotificationService.PROCESS_CREATED,
+            WebhookNotificationService.PROCESS_COMPLETED, WebhookNotificationService.PROCESS_FAILED);
+
+    private static final long POLL_MILLIS = 1_000;
+
+    private final WebhookNotificationService notificationService;
+    private final MetricsService metricsService;
+    private final Set<String> events;
+    private final BlockingQueue<QueuedEvent> queue;
+    private final int drainLimit;
+    private final WebhookDelivery delivery;
+    private final AtomicBoolean dropping = new AtomicBoolean();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Inject
+    public LifecycleWebhookDispatcher(WebhookNotificationService notificationService,
+                                      MetricsService metricsService,
+                                      @Value("${totrackit.lifecycle-webhooks.events}") String events,
+                                      @Value("${totrackit.lifecycle-webhooks.queue-capacity:10000}") int queueCapacity,
+                                      @Value("${totrackit.notification-batch-size:500}") int drainLimit,
+                                      @Value("${totrackit.webhook-concurrency:8}") int webhookConcurrency,
+                                      @Value("${totrackit.webhook-batch-size:1}") int webhookBatchSize) {
+        this.notificationService = notificationService;
+        this.metricsService = metricsService;
+        this.events = parse(events);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.drainLimit = Math.max(1, drainLimit);
+        this.delivery = new WebhookDelivery(webhookConcurrency, webhookBatchSize);
+        metricsService.monitorLifecycleWebhookQueue(queue);
+    }
+
+    static Set<String> parse(String events) {
+        if (events == null || events.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> parsed = Arrays.stream(events.split(","))
+                .map(String::trim)
+                .filter(event -> !event.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String event : parsed) {
+            if (!EVENT_TYPES.contains(event)) {
+                throw new IllegalArgumentException("Unknown lifecycle webhook event '" + event
+                        + "': expected one of " + EVENT_TYPES);
+            }
+        }
+        return Collections.unmodifiableSet(parsed);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("lifecycle-webhooks").daemon().start(this::run);
+        LOG.info("Lifecycle webhooks enabled for {}", events);
+    }
+
+    /**
+     * Queues the event for delivery once the run's transaction has committed.
+     * Never blocks: a full queue drops the event.
+     */
+    @TransactionalEventListener
+    public void onLifecycle(ProcessLifecycleEvent event) {
+        String type = eventType(event.getType());
+        if (type == null || !events.contains(type)) {
+            return;
+        }
+        if (queue.offer(new QueuedEvent(type, event.getProcess()))) {
+            dropping.set(false);
+            return;
+        }
+        metricsService.recordLifecycleWebhooks(type, "dropped", 1);
+        if (dropping.compareAndSet(false, true)) {
+            LOG.warn("Lifecycle webhook queue is full ({} events); dropping new events until it drains",
+                    queue.size());
+        }
+    }
+
+    /**
+     * Waits up to {@code waitMillis} for queued events, then delivers
+     * everything queued (up to the drain limit), one pass per event type.
+     *
+     * @return number of events taken from the queue
+     */
+    int dispatchPending(long waitMillis) throws InterruptedException {
+        QueuedEvent first = queue.poll(waitMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return 0;
+        }
+        List<QueuedEvent> pending = new ArrayList<>();
+        pending.add(first);
+        queue.drainTo(pending, drainLimit - 1);
+
+        Map<String, List<ProcessEntity>> byType = new LinkedHashMap<>();
+        for (QueuedEvent queued : pending) {
+            byType.computeIfAbsent(queued.type(), type -> new ArrayList<>()).add(queued.process());
+        }
+        byType.forEach((type, processes) -> {
+            List<ProcessEntity> delivered = delivery.deliver(processes, request -> delivery.batched()
+                    ? notificationService.sendLifecycleBatch(type, request)
+                    : notificationService.sendLifecycleEvent(type, request.get(0)), type);
+            metricsService.recordLifecycleWebhooks(type, "delivered", delivered.size());
+            metricsService.recordLifecycleWebhooks(type, "failed", processes.size() - delivered.size());
+        });
+        return pending.size();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (notificationService.isEnabled() && !notificationService.isAvailable()) {
+                    // Circuit open: leave events queued until the webhook may be back.
+                    Thread.sleep(POLL_MILLIS);
+                    continue;
+                }
+                dispatchPending(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOG.warn("Lifecycle webhook dispatch failed", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+        if (!queue.isEmpty()) {
+            LOG.warn("Discarding {} undelivered lifecycle webhook events on shutdown", queue.size());
+        }
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    private static String eventType(ProcessLifecycleEvent.Type type) {
+        return switch (type) {
+            case STARTED -> WebhookNotificationService.PROCESS_CREATED;
+            case COMPLETED -> WebhookNotificationService.PROCESS_COMPLETED;
+            case FAILED -> WebhookNotificationService.PROCESS_FAILED;
+            case DELETED -> null;
+        };
+    }
+
+    private record QueuedEvent(String type, ProcessEntity process) {}
+}
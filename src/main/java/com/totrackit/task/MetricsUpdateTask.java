@@ -3,7 +3,9 @@ package com.totrackit.task;
 import com.totrackit.model.ProcessStatus;
 import com.totrackit.repository.ProcessQueryRepository;
 import com.totrackit.repository.ProcessRepository;
+import com.totrackit.service.LeaderElection;
 import com.totrackit.service.MetricsService;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.scheduling.annotation.Scheduled;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
@@ -16,6 +18,10 @@ import java.util.Map;
 /**
  * Scheduled task to update gauge metrics that need periodic refresh.
  * Updates metrics like active process count, database connection pool status, etc.
+ * With totrackit.leader-election=lease only the leader runs the count
+ * queries; followers publish zero, so a replica that lost leadership does
+ * not keep exporting stale counts and dashboards aggregate these gauges
+ * across replicas with sum().
  */
 @Singleton
 public class MetricsUpdateTask {
@@ -28,14 +34,18 @@ public class MetricsUpdateTask {
     private final ProcessRepository processRepository;
     private final ProcessQueryRepository processQueryRepository;
     private final MetricsService metricsService;
+    @Nullable
+    private final LeaderElection leaderElection;
 
     @Inject
     public MetricsUpdateTask(ProcessRepository processRepository,
                              ProcessQueryRepository processQueryRepository,
-                             MetricsService metricsService) {
+                             MetricsService metricsService,
+                             @Nullable LeaderElection leaderElection) {
         this.processRepository = processRepository;
         this.processQueryRepository = processQueryRepository;
         this.metricsService = metricsService;
+        this.leaderElection = leaderElection;
     }
 
     /**
@@ -44,6 +54,12 @@ public class MetricsUpdateTask {
      */
     @Scheduled(fixedDelay = "30s", initialDelay = "10s")
     public void updateGaugeMetrics() {
+        if (leaderElection != null && !leaderElection.isLeader()) {
+            // Only the leader's counts are current; sum() across replicas stays right.
+            metricsService.recordActiveProcessesCount(0);
+            metricsService.updateOverdueProcessCounts(Map.of());
+            return;
+        }
         try {
             // Update active processes count
             long activeProcessCount = processRepository.countByStatus(ProcessStatus.ACTIVE);
@@ -0,0 +1,277 @@
+package com.totrackit.task;
+
+import com.totrackit.interceptor.PoolCallSite;
+import com.totrackit.model.ExpectedSchedule;
+import com.totrackit.repository.ExpectedScheduleRepository;
+import com.totrackit.repository.ExpectedScheduleRepository.ExpectedRun;
+import com.totrackit.service.AdvisoryLockService;
+import com.totrackit.service.LeaderElection;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.WebhookNotificationService;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.micronaut.scheduling.cron.CronExpression;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Reports scheduled processes that never started.
+ *
+ * Every expected-run schedule sits in an in-memory priority queue ordered by
+ * the instant its next expected start runs out of grace. Each
+ * totrackit.expected-runs.check-interval (default 15s) the entries that
+ * have come due are taken off the queue and checked together in one
+ * statement against idx_processes_name_started_at; a pass where nothing is
+ * due does not touch the database, however many schedules there are. Each
+ * expected start with no run within grace either side gets one
+ * process.missing event and a totrackit_processes_missing_total increment,
+ * and the schedule moves on to its next expected start.
+ *
+ * The schedule table is reloaded every totrackit.expected-runs.refresh-interval
+ * (default 30s). Checked starts are recorded per schedule (checked_through),
+ * so a replica taking over resumes where the previous one stopped and never
+ * reports a start twice. After downtime only the most recent expected start
+ * of each schedule is checked.
+ *
+ * Like the stall scan, the webhook is optional, undelivered events are
+ * retried on the next pass, and one replica checks at a time.
+ */
+@Singleton
+@PoolCallSite("scanner")
+public class MissingRunDetectionTask {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MissingRunDetectionTask.class);
+
+    /** Cluster-wide advisory lock key for the missing-run check ("TTMISSNG"). */
+    private static final long MISSING_LOCK_KEY = 0x54544D4953534E47L;
+
+    /** Upper bound on expected starts skipped when catching up after downtime. */
+    static final int MAX_CATCH_UP_STEPS = 10_000;
+
+    private final ExpectedScheduleRepository repository;
+    private final MetricsService metricsService;
+    private final AdvisoryLockService advisoryLockService;
+    @Nullable
+    private final WebhookNotificationService notificationService;
+    @Nullable
+    private final LeaderElection leaderElection;
+    @Nullable
+    private final WebhookSubscriptionDispatcher subscriptions;
+    private final Duration refreshInterval;
+    private final WebhookDelivery delivery;
+
+    private final PriorityQueue<Expected> queue = new PriorityQueue<>(Comparator.comparing(Expected::dueAt));
+    private final Map<String, Expected> entries = new HashMap<>();
+    private Instant loadedAt;
+
+    @Inject
+    public MissingRunDetectionTask(ExpectedScheduleRepository repository,
+                                   MetricsService metricsService,
+                                   AdvisoryLockService advisoryLockService,
+                                   @Nullable WebhookNotificationService notificationService,
+                                   @Nullable LeaderElection leaderElection,
+                                   @Nullable WebhookSubscriptionDispatcher subscriptions,
+                                   @Value("${totrackit.expected-runs.refresh-interval:30s}") Duration refreshInterval,
+                                   @Value("${totrackit.webhook-concurrency:8}") int webhookConcurrency,
+                                   @Value("${totrackit.webhook-batch-size:1}") int webhookBatchSize) {
+        this.repository = repository;
+        this.metricsService = metricsService;
+        this.advisoryLockService = advisoryLockService;
+        this.notificationService = notificationService;
+        this.leaderElection = leaderElection;
+        this.subscriptions = subscriptions;
+        this.refreshInterval = refreshInterval;
+        this.delivery = new WebhookDelivery(webhookConcurrency, webhookBatchSize);
+    }
+
+    @Scheduled(fixedDelay = "${totrackit.expected-runs.check-interval:15s}", initialDelay = "30s")
+    public void detectMissingRuns() {
+        try {
+            if (leaderElection != null) {
+                if (leaderElection.isLeader()) {
+                    check(Instant.now());
+                } else {
+                    LOG.debug("Not the leader; skipping this missing-run check");
+                }
+                return;
+            }
+            boolean ran = advisoryLockService.runExclusive(MISSING_LOCK_KEY, () -> check(Instant.now()));
+            if (!ran) {
+                LOG.debug("Missing-run lock held by another replica; skipping this cycle");
+            }
+        } catch (Exception e) {
+            LOG.warn("Missing-run check failed", e);
+        }
+    }
+
+    /** One pass at {@code now}. */
+    synchronized void check(Instant now) {
+        if (loadedAt == null || !now.isBefore(loadedAt.plus(refreshInterval))) {
+            reload(now);
+        }
+        boolean webhookActive = notificationService != null && notificationService.isEnabled();
+        if (webhookActive && !notificationService.isAvailable()) {
+            LOG.debug("Webhook circuit open; skipping this cycle's missing-run delivery");
+            return;
+        }
+        List<Expected> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().dueAt().isAfter(now)) {
+            due.add(queue.poll());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        Set<ExpectedRun> retry = new HashSet<>();
+        try {
+            List<ExpectedRun> runs = due.stream().map(Expected::run).toList();
+            List<ExpectedRun> missing = repository.findMissing(runs);
+            List<ExpectedRun> processed = missing.isEmpty() || !webhookActive
+                    ? missing
+                    : delivery.deliver(missing, request -> delivery.batched()
+                            ? notificationService.sendMissingBatch(request)
+                            : notificationService.sendMissing(request.get(0)), "missing-run");
+            retry.addAll(missing);
+            processed.forEach(retry::remove);
+            repository.markChecked(runs.stream().filter(run -> !retry.contains(run)).toList());
+            processed.forEach(run -> metricsService.recordProcessMissing(run.name()));
+            if (!processed.isEmpty()) {
+                if (subscriptions != null) {
+                    subscriptions.routeMissingRuns(processed);
+                }
+                LOG.info("Reported {} missing scheduled runs", processed.size());
+            }
+        } catch (RuntimeException e) {
+            due.forEach(queue::add);
+            throw e;
+        }
+        for (Expected expected : due) {
+            // Undelivered starts stay due and are retried on the next pass.
+            Expected next = retry.contains(expected.run()) ? expected : expected.following(now);
+            if (next != null) {
+                queue.add(next);
+                entries.put(next.schedule().name(), next);
+            } else {
+                entries.remove(expected.schedule().name());
+            }
+        }
+        metricsService.recordDeadlineScanPass("process_missing", due.size(), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Reloads the schedule table. Entries of unchanged schedules keep their
+     * place; new and changed ones, and ones another replica has checked past,
+     * are rescheduled from their stored position.
+     */
+    private void reload(Instant now) {
+        List<ExpectedSchedule> schedules;
+        try {
+            schedules = repository.findAll();
+        } catch (Exception e) {
+            LOG.warn("Failed to reload expected schedules; keeping the previous queue", e);
+            return;
+        }
+        loadedAt = now;
+        Map<String, Expected> reloaded = new HashMap<>();
+        boolean changed = schedules.size() != entries.size();
+        for (ExpectedSchedule schedule : schedules) {
+            Expected current = entries.get(schedule.name());
+            boolean keep = current != null
+                    && current.schedule().sameDefinition(schedule)
+                    && (schedule.checkedThrough() == null || current.expectedAt().isAfter(schedule.checkedThrough()));
+            Expected entry = keep ? current : first(schedule, now);
+            changed |= entry != current;
+            if (entry != null) {
+                reloaded.put(schedule.name(), entry);
+            }
+        }
+        if (changed) {
+            entries.clear();
+            entries.putAll(reloaded);
+            queue.clear();
+            queue.addAll(reloaded.values());
+        }
+    }
+
+    /** Number of schedules queued (tests). */
+    synchronized int pending() {
+        return queue.size();
+    }
+
+    /**
+     * The first expected start of a schedule still to check: the next one
+     * after the last checked start (or after the schedule was created),
+     * skipping ahead to the latest one already out of grace.
+     */
+    static Expected first(ExpectedSchedule schedule, Instant now) {
+        try {
+            CronExpression cron = CronExpression.create(schedule.cron());
+            ZoneId zone = ZoneId.of(schedule.timeZone());
+            Instant from = schedule.checkedThrough() != null ? schedule.checkedThrough() : schedule.createdAt();
+            Expected entry = new Expected(schedule, cron, zone, from).following(now);
+            if (entry == null) {
+                LOG.warn("Expected schedule for {} ('{}') never fires", schedule.name(), schedule.cron());
+            }
+            return entry;
+        } catch (RuntimeException e) {
+            LOG.warn("Skipping unusable expected schedule for {} ('{}'): {}", schedule.name(), schedule.cron(),
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * One schedule's place in the queue: its next expected start.
+     */
+    record Expected(ExpectedSchedule schedule, CronExpression cron, ZoneId zone, Instant expectedAt) {
+
+        Instant dueAt() {
+            return expectedAt.plusSeconds(schedule.graceSeconds());
+        }
+
+        ExpectedRun run() {
+            return new ExpectedRun(schedule.name(), expectedAt, schedule.graceSeconds());
+        }
+
+        /**
+         * The next expected start, or the latest one already out of grace at
+         * {@code now} when several are; null if the expression never fires
+         * again.
+         */
+        Expected following(Instant now) {
+            ZonedDateTime next = nextAfter(expectedAt);
+            for (int i = 0; next != null && i < MAX_CATCH_UP_STEPS; i++) {
+                ZonedDateTime after = nextAfter(next.toInstant());
+                if (after == null || after.toInstant().plusSeconds(schedule.graceSeconds()).isAfter(now)) {
+                    break;
+                }
+                next = after;
+            }
+            return next != null ? new Expected(schedule, cron, zone, next.toInstant()) : null;
+        }
+
+        private ZonedDateTime nextAfter(Instant instant) {
+            try {
+                return cron.nextTimeAfter(instant.atZone(zone));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
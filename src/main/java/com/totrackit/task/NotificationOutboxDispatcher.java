@@ -0,0 +1,245 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.repository.NotificationOutboxRepository;
+import com.totrackit.repository.NotificationOutboxRepository.OutboxEvent;
+import com.totrackit.repository.ProcessRepository;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.WebhookNotificationService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Delivers webhook events from the notification_outbox table
+ * (totrackit.notification-delivery=outbox).
+ *
+ * Every dispatch cycle claims the due pending events with FOR UPDATE SKIP
+ * LOCKED, so any number of replicas can dispatch side by side without an
+ * advisory lock, and delivers them through the same concurrent, optionally
+ * batched path as the direct scan. Delivered events are marked DELIVERED.
+ * Failed ones are rescheduled with exponential backoff
+ * (totrackit.outbox.backoff, doubling per attempt up to
+ * totrackit.outbox.max-backoff) and moved to DEAD once
+ * totrackit.outbox.max-attempts is reached. Only events actually sent count
+ * as an attempt: those a pass never got to, because it aborted after
+ * consecutive failures or the webhook's circuit opened, are released as
+ * they were. Delivered rows are purged after
+ * totrackit.outbox.retention.
+ *
+ * Webhook subscriptions do not read the outbox: the deadline scan routes
+ * their events from their own marker (see {@link WebhookSubscriptionDispatcher}).
+ */
+@Singleton
+@Requires(property = "totrackit.notification-delivery", value = "outbox")
+@Requires(beans = WebhookNotificationService.class)
+public class NotificationOutboxDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+
+    private final NotificationOutboxRepository outbox;
+    private final ProcessRepository processRepository;
+    private final WebhookNotificationService notificationService;
+    private final MetricsService metricsService;
+    private final WebhookDelivery delivery;
+    private final int claimSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+
+    @Inject
+    public NotificationOutboxDispatcher(NotificationOutboxRepository outbox,
+                                        ProcessRepository processRepository,
+                                        WebhookNotificationService notificationService,
+                                        MetricsService metricsService,
+                                        @Value("${totrackit.notification-batch-size:500}") int claimSize,
+                                        @Value("${totrackit.webhook-concurrency:8}") int webhookConcurrency,
+                                        @Value("${totrackit.webhook-batch-size:1}") int webhookBatchSize,
+                                        @Value("${totrackit.outbox.lease:2m}") Duration lease,
+                                        @Value("${totrackit.outbox.max-attempts:10}") int maxAttempts,
+                                        @Value("${totrackit.outbox.backoff:10s}") Duration backoff,
+                                        @Value("${totrackit.outbox.max-backoff:1h}") Duration maxBackoff,
+                                        @Value("${totrackit.outbox.retention:7d}") Duration retention) {
+        this.outbox = outbox;
+        this.processRepository = processRepository;
+        this.notificationService = notificationService;
+        this.metricsService = metricsService;
+        this.delivery = new WebhookDelivery(webhookConcurrency, webhookBatchSize);
+        this.claimSize = claimSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelay = "${totrackit.outbox.dispatch-interval:5s}", initialDelay = "10s")
+    public void dispatch() {
+        if (!notificationService.isEnabled()) {
+            return;
+        }
+        try {
+            // While the webhook's circuit is open, claiming would only burn attempts.
+            if (notificationService.isAvailable()) {
+                Instant now = Instant.now();
+                List<OutboxEvent> claimed = outbox.claimDue(now, now.plus(lease), claimSize);
+                if (!claimed.isEmpty()) {
+                    deliver(claimed);
+                }
+            }
+            NotificationOutboxRepository.Depth depth = outbox.depth();
+            metricsService.updateOutboxDepth(depth.pending(), depth.dead());
+        } catch (Exception e) {
+            LOG.warn("Notification outbox dispatch failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelay = "1h", initialDelay = "5m")
+    public void purge() {
+        try {
+            int purged = outbox.purgeDelivered(Instant.now().minus(retention));
+            if (purged > 0) {
+                LOG.debug("Purged {} delivered outbox events", purged);
+            }
+        } catch (Exception e) {
+            LOG.warn("Notification outbox purge failed", e);
+        }
+    }
+
+    private void deliver(List<OutboxEvent> claimed) {
+        Map<Long, ProcessEntity> processes = new HashMap<>();
+        for (ProcessEntity process : processRepository.findByIdIn(
+                claimed.stream().map(OutboxEvent::processId).distinct().toList())) {
+            processes.put(process.getId(), process);
+        }
+        Map<String, List<OutboxEvent>> byType = new LinkedHashMap<>();
+        List<Long> undeliverable = new ArrayList<>();
+        for (OutboxEvent event : claimed) {
+            if (processes.containsKey(event.processId()) && sender(event.eventType(), processes) != null) {
+                byType.computeIfAbsent(event.eventType(), type -> new ArrayList<>()).add(event);
+            } else {
+                LOG.warn("Dead-lettering outbox event {} ({}): process gone or event type unknown",
+                        event.id(), event.eventType());
+                undeliverable.add(event.id());
+            }
+        }
+        outbox.deadLetter(undeliverable);
+
+        List<Long> delivered = new ArrayList<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        List<Long> unsent = new ArrayList<>();
+        Set<OutboxEvent> sent = ConcurrentHashMap.newKeySet();
+        for (Map.Entry<String, List<OutboxEvent>> group : byType.entrySet()) {
+            Set<OutboxEvent> accepted = new HashSet<>(delivery.deliver(group.getValue(),
+                    attempted(sender(group.getKey(), processes), sent), group.getKey()));
+            for (OutboxEvent event : group.getValue()) {
+                if (accepted.contains(event)) {
+                    delivered.add(event.id());
+                } else if (sent.contains(event)) {
+                    failed.add(event);
+                } else {
+                    unsent.add(event.id());
+                }
+            }
+        }
+        Instant finishedAt = Instant.now();
+        outbox.markDelivered(delivered, finishedAt);
+        retryLater(failed, finishedAt);
+        outbox.release(unsent, finishedAt);
+    }
+
+    /**
+     * Records the events of every request actually sent. A request is not
+     * sent while the webhook's circuit is open, so a breaker that opens
+     * mid-pass does not charge the rest of the claim an attempt.
+     */
+    private Predicate<List<OutboxEvent>> attempted(Predicate<List<OutboxEvent>> send, Set<OutboxEvent> sent) {
+        return request -> {
+            if (!notificationService.isAvailable()) {
+                return false;
+            }
+            sent.addAll(request);
+            return send.test(request);
+        };
+    }
+
+    /**
+     * Reschedules failed events, grouped by attempt count so each backoff
+     * step is one statement, and dead-letters those out of attempts.
+     */
+    private void retryLater(List<OutboxEvent> failed, Instant now) {
+        List<Long> exhausted = new ArrayList<>();
+        Map<Integer, List<Long>> byAttempts = new TreeMap<>();
+        for (OutboxEvent event : failed) {
+            if (event.attempts() >= maxAttempts) {
+                exhausted.add(event.id());
+            } else {
+                byAttempts.computeIfAbsent(event.attempts(), attempts -> new ArrayList<>()).add(event.id());
+            }
+        }
+        byAttempts.forEach((attempts, ids) ->
+                outbox.reschedule(ids, now.plus(backoffAfter(attempts, backoff, maxBackoff))));
+        if (!exhausted.isEmpty()) {
+            LOG.warn("Dead-lettering {} outbox events after {} delivery attempts", exhausted.size(), maxAttempts);
+            outbox.deadLetter(exhausted);
+        }
+    }
+
+    /**
+     * Delay before the next attempt: {@code base * 2^(attempts - 1)}, capped.
+     */
+    static Duration backoffAfter(int attempts, Duration base, Duration cap) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = base.multipliedBy(1L << doublings);
+        return delay.compareTo(cap) > 0 ? cap : delay;
+    }
+
+    /**
+     * Sends one request for events of the given type, or null for a type
+     * this dispatcher does not know.
+     */
+    private Predicate<List<OutboxEvent>> sender(String eventType, Map<Long, ProcessEntity> processes) {
+        return switch (eventType) {
+            case WebhookNotificationService.DEADLINE_MISSED -> request -> delivery.batched()
+                    ? notificationService.sendDeadlineMissedBatch(resolve(request, processes))
+                    : notificationService.sendDeadlineMissed(processes.get(request.get(0).processId()));
+            case WebhookNotificationService.DEADLINE_WARNING -> request -> {
+                Instant sentAt = Instant.now();
+                if (delivery.batched()) {
+                    return notificationService.sendDeadlineWarningBatch(resolve(request, processes), sentAt);
+                }
+                ProcessEntity process = processes.get(request.get(0).processId());
+                return notificationService.sendDeadlineWarning(process,
+                        process.getDeadline().getEpochSecond() - sentAt.getEpochSecond());
+            };
+            default -> null;
+        };
+    }
+
+    private static List<ProcessEntity> resolve(List<OutboxEvent> events, Map<Long, ProcessEntity> processes) {
+        List<ProcessEntity> resolved = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            resolved.add(processes.get(event.processId()));
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,129 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.interceptor.PoolCallSite;
+import com.totrackit.service.AdvisoryLockService;
+import com.totrackit.service.LeaderElection;
+import com.totrackit.service.MaxDurations;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.RunawayProcessService;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Fails active runs that ran past their max duration.
+ *
+ * A producer that crashes never completes its run, which then stays ACTIVE
+ * forever: in the active gauge, in the partial active indexes and in every
+ * ACTIVE-scoped query. With totrackit.max-durations set, every
+ * totrackit.max-duration-scan-interval (default 60s) the runs older than
+ * their name's limit are set to FAILED with a failure_reason, oldest first,
+ * in chunks of totrackit.max-duration-chunk-size (default 500) runs per
+ * statement and at most totrackit.max-duration-chunks-per-pass chunks per
+ * limit. Each chunk commits on its own, so a large backlog never holds a
+ * long transaction.
+ *
+ * Each failed run counts like a run failed through the API
+ * (totrackit_processes_failed_total) and in
+ * totrackit_processes_timed_out_total, and publishes a FAILED lifecycle
+ * event inside its chunk's transaction ({@link RunawayProcessService}), so
+ * process.failed webhooks and subscriptions see it once the chunk commits.
+ * One replica scans at a time.
+ */
+@Singleton
+@PoolCallSite("scanner")
+public class RunawayProcessTask {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunawayProcessTask.class);
+
+    /** Cluster-wide advisory lock key for the max-duration scan ("TTMAXDUR"). */
+    private static final long MAX_DURATION_LOCK_KEY = 0x54544D4158445552L;
+
+    private final RunawayProcessService runawayProcesses;
+    private final MaxDurations maxDurations;
+    private final MetricsService metricsService;
+    private final AdvisoryLockService advisoryLockService;
+    @Nullable
+    private final LeaderElection leaderElection;
+    private final int chunkSize;
+    private final int chunksPerPass;
+
+    @Inject
+    public RunawayProcessTask(RunawayProcessService runawayProcesses,
+                              MaxDurations maxDurations,
+                              MetricsService metricsService,
+                              AdvisoryLockService advisoryLockService,
+                              @Nullable LeaderElection leaderElection,
+                              @Value("${totrackit.max-duration-chunk-size:500}") int chunkSize,
+                              @Value("${totrackit.max-duration-chunks-per-pass:20}") int chunksPerPass) {
+        this.runawayProcesses = runawayProcesses;
+        this.maxDurations = maxDurations;
+        this.metricsService = metricsService;
+        this.advisoryLockService = advisoryLockService;
+        this.leaderElection = leaderElection;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunksPerPass = Math.max(1, chunksPerPass);
+    }
+
+    @Scheduled(fixedDelay = "${totrackit.max-duration-scan-interval:60s}", initialDelay = "30s")
+    public void failRunawayProcesses() {
+        if (maxDurations.isEmpty()) {
+            return;
+        }
+        try {
+            if (leaderElection != null) {
+                if (leaderElection.isLeader()) {
+                    scan(Instant.now());
+                } else {
+                    LOG.debug("Not the leader; skipping this max-duration scan cycle");
+                }
+                return;
+            }
+            boolean ran = advisoryLockService.runExclusive(MAX_DURATION_LOCK_KEY, () -> scan(Instant.now()));
+            if (!ran) {
+                LOG.debug("Max-duration scan lock held by another replica; skipping this cycle");
+            }
+        } catch (Exception e) {
+            LOG.warn("Max-duration scan failed", e);
+        }
+    }
+
+    /**
+     * One pass at {@code now}.
+     *
+     * @return number of runs failed
+     */
+    int scan(Instant now) {
+        long startNanos = System.nanoTime();
+        int failed = 0;
+        for (MaxDurations.Policy policy : maxDurations.policies()) {
+            Instant startedBefore = now.minus(policy.maxDuration());
+            for (int chunk = 0; chunk < chunksPerPass; chunk++) {
+                List<ProcessEntity> expired = runawayProcesses.failExpired(policy.name(), maxDurations.names(),
+                        startedBefore, now, policy.reason(), chunkSize);
+                metricsService.recordDatabaseOperation("update", "processes", true);
+                for (ProcessEntity process : expired) {
+                    metricsService.recordProcessCompleted(process);
+                    metricsService.recordProcessTimedOut(process.getName());
+                }
+                failed += expired.size();
+                if (expired.size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+        if (failed > 0) {
+            LOG.info("Failed {} processes that exceeded their max duration", failed);
+        }
+        metricsService.recordDeadlineScanPass("process_timed_out", failed, System.nanoTime() - startNanos);
+        return failed;
+    }
+}
@@ -0,0 +1,132 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.interceptor.PoolCallSite;
+import com.totrackit.repository.ProcessRepository;
+import com.totrackit.service.AdvisoryLockService;
+import com.totrackit.service.LeaderElection;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.WebhookNotificationService;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports active runs that stopped making progress.
+ *
+ * A run with a stall timeout (its own stall_timeout, or its name's default
+ * from totrackit.stall-timeouts) has a stall instant: its last heartbeat, or
+ * its start, plus the timeout. Every totrackit.stall-scan-interval (default
+ * 60s) the runs past that instant are read from the partial stall index,
+ * oldest first and at most totrackit.notification-batch-size per pass, and
+ * each gets one process.stalled event and a
+ * totrackit_processes_stalled_total increment. A later heartbeat re-arms
+ * the run, so it is reported again if it stalls again.
+ *
+ * Like the deadline scan, the webhook is optional, undelivered events stay
+ * due while its circuit is open, and one replica scans at a time. Stall
+ * events are always posted directly, also when deadline events go through
+ * the outbox.
+ */
+@Singleton
+@PoolCallSite("scanner")
+public class StallDetectionTask {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StallDetectionTask.class);
+
+    /** Cluster-wide advisory lock key for the stall scan ("TTSTALLS"). */
+    private static final long STALL_LOCK_KEY = 0x54545354414C4C53L;
+
+    private final ProcessRepository processRepository;
+    private final MetricsService metricsService;
+    private final AdvisoryLockService advisoryLockService;
+    @Nullable
+    private final WebhookNotificationService notificationService;
+    @Nullable
+    private final LeaderElection leaderElection;
+    @Nullable
+    private final WebhookSubscriptionDispatcher subscriptions;
+    private final int batchSize;
+    private final WebhookDelivery delivery;
+
+    @Inject
+    public StallDetectionTask(ProcessRepository processRepository,
+                              MetricsService metricsService,
+                              AdvisoryLockService advisoryLockService,
+                              @Nullable WebhookNotificationService notificationService,
+                              @Nullable LeaderElection leaderElection,
+                              @Nullable WebhookSubscriptionDispatcher subscriptions,
+                              @Value("${totrackit.notification-batch-size:500}") int batchSize,
+                              @Value("${totrackit.webhook-concurrency:8}") int webhookConcurrency,
+                              @Value("${totrackit.webhook-batch-size:1}") int webhookBatchSize) {
+        this.processRepository = processRepository;
+        this.metricsService = metricsService;
+        this.advisoryLockService = advisoryLockService;
+        this.notificationService = notificationService;
+        this.leaderElection = leaderElection;
+        this.subscriptions = subscriptions;
+        this.batchSize = batchSize;
+        this.delivery = new WebhookDelivery(webhookConcurrency, webhookBatchSize);
+    }
+
+    @Scheduled(fixedDelay = "${totrackit.stall-scan-interval:60s}", initialDelay = "30s")
+    public void detectStalledProcesses() {
+        try {
+            if (leaderElection != null) {
+                if (leaderElection.isLeader()) {
+                    scan();
+                } else {
+                    LOG.debug("Not the leader; skipping this stall scan cycle");
+                }
+                return;
+            }
+            boolean ran = advisoryLockService.runExclusive(STALL_LOCK_KEY, this::scan);
+            if (!ran) {
+                LOG.debug("Stall scan lock held by another replica; skipping this cycle");
+            }
+        } catch (Exception e) {
+            LOG.warn("Stall detection scan failed", e);
+        }
+    }
+
+    private void scan() {
+        boolean webhookActive = notificationService != null && notificationService.isEnabled();
+        if (webhookActive && !notificationService.isAvailable()) {
+            LOG.debug("Webhook circuit open; skipping this cycle's stall delivery");
+            return;
+        }
+        long startNanos = System.nanoTime();
+        Instant now = Instant.now();
+        List<ProcessEntity> stalled = processRepository.findStalledUnnotified(now, batchSize);
+        List<ProcessEntity> processed = stalled.isEmpty() || !webhookActive
+                ? stalled
+                : delivery.deliver(stalled, request -> delivery.batched()
+                        ? notificationService.sendStalledBatch(request)
+                        : notificationService.sendStalled(request.get(0)), "stalled-process");
+        processed.forEach(process -> metricsService.recordProcessStalled(process.getName()));
+        if (!processed.isEmpty()) {
+            processRepository.markStallNotifiedBatch(ids(processed), now);
+            if (subscriptions != null) {
+                subscriptions.routeStalledEvents(processed);
+            }
+            LOG.info("Reported {} stalled processes", processed.size());
+        }
+        metricsService.recordDeadlineScanPass("process_stalled", stalled.size(), System.nanoTime() - startNanos);
+    }
+
+    private static List<Long> ids(List<ProcessEntity> processes) {
+        List<Long> ids = new ArrayList<>(processes.size());
+        for (ProcessEntity process : processes) {
+            ids.add(process.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,120 @@
+package com.totrackit.task;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * One pass of webhook deliveries: items are grouped into requests of up to
+ * totrackit.webhook-batch-size events and sent with at most
+ * totrackit.webhook-concurrency requests in flight, each on its own virtual
+ * thread. A request is all-or-nothing: its items count as delivered only when
+ * it succeeds. After MAX_CONSECUTIVE_DELIVERY_FAILURES failed requests in a
+ * row (in completion order) no further requests are started, so a dead
+ * endpoint cannot pin a pass to the size of the backlog.
+ */
+final class WebhookDelivery {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebhookDelivery.class);
+
+    /** Abort the current pass after this many consecutive failed deliveries. */
+    static final int MAX_CONSECUTIVE_DELIVERY_FAILURES = 5;
+
+    private final int concurrency;
+    private final int batchSize;
+
+    WebhookDelivery(int concurrency, int batchSize) {
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+    }
+
+    /** Whether requests carry arrays of events rather than a single event. */
+    boolean batched() {
+        return batchSize > 1;
+    }
+
+    /**
+     * Delivers the items and returns those that were accepted, in input order.
+     *
+     * @param items events of one type
+     * @param send sends one request; true when the webhook accepted it
+     * @param pass label for log messages
+     */
+    <T> List<T> deliver(List<T> items, Predicate<List<T>> send, String pass) {
+        List<List<T>> requests = new ArrayList<>();
+        int eventsPerRequest = Math.max(1, batchSize);
+        for (int from = 0; from < items.size(); from += eventsPerRequest) {
+            requests.add(items.subList(from, Math.min(from + eventsPerRequest, items.size())));
+        }
+        if (concurrency <= 1) {
+            return deliverSequentially(requests, send, pass);
+        }
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger consecutiveFailures = new AtomicInteger();
+        AtomicBoolean aborted = new AtomicBoolean();
+        Set<T> delivered = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<T> request : requests) {
+                inFlight.acquireUninterruptibly();
+                if (aborted.get()) {
+                    inFlight.release();
+                    break;
+                }
+                executor.execute(() -> {
+                    try {
+                        if (sendQuietly(send, request)) {
+                            consecutiveFailures.set(0);
+                            delivered.addAll(request);
+                        } else if (consecutiveFailures.incrementAndGet() >= MAX_CONSECUTIVE_DELIVERY_FAILURES) {
+                            aborted.set(true);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } // close() waits for the requests still in flight
+        if (aborted.get()) {
+            LOG.warn("Aborted {} pass after {} consecutive delivery failures; remaining events retry later",
+                    pass, MAX_CONSECUTIVE_DELIVERY_FAILURES);
+        }
+        return items.stream().filter(delivered::contains).toList();
+    }
+
+    private <T> List<T> deliverSequentially(List<List<T>> requests, Predicate<List<T>> send, String pass) {
+        List<T> delivered = new ArrayList<>();
+        int consecutiveFailures = 0;
+        for (List<T> request : requests) {
+            if (!sendQuietly(send, request)) {
+                if (++consecutiveFailures >= MAX_CONSECUTIVE_DELIVERY_FAILURES) {
+                    LOG.warn("Aborting {} pass after {} consecutive delivery failures; "
+                            + "remaining events retry later", pass, consecutiveFailures);
+                    break;
+                }
+                continue; // delivery failed; retried later
+            }
+            consecutiveFailures = 0;
+            delivered.addAll(request);
+        }
+        return delivered;
+    }
+
+    private static <T> boolean sendQuietly(Predicate<List<T>> send, List<T> request) {
+        try {
+            return send.test(request);
+        } catch (RuntimeException e) {
+            LOG.warn("Webhook delivery of {} event(s) threw", request.size(), e);
+            return false;
+        }
+    }
+}
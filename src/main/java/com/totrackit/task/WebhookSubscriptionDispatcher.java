@@ -0,0 +1,390 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
+import com.totrackit.model.WebhookSubscription;
+import com.totrackit.repository.ExpectedScheduleRepository.ExpectedRun;
+import com.totrackit.repository.SubscriptionDeadlineRepository;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.WarningLevels;
+import com.totrackit.service.WebhookBreakers;
+import com.totrackit.service.WebhookEndpoint;
+import com.totrackit.service.WebhookNotificationService;
+import com.totrackit.service.WebhookPayloads;
+import com.totrackit.service.WebhookSubscriptionService;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.micronaut.transaction.annotation.TransactionalEventListener;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Delivers events to webhook subscriptions.
+ *
+ * Events are routed through the subscription index as they happen: deadline
+ * events when the deadline scan finds them due on the subscriptions' own
+ * marker ({@link SubscriptionDeadlineRepository}), whatever the operator
+ * webhook's state, lifecycle events once the run's transaction has
+ * committed. Each matching subscription gets the event on
+ * its own bounded queue (totrackit.webhook-subscriptions.queue-capacity)
+ * drained by its own virtual thread, so a slow or dead receiver only backs
+ * up its own queue; once that is full, its new events are dropped and
+ * counted while every other subscription keeps flowing.
+ *
+ * Delivery is best effort, like lifecycle webhooks: failed and dropped events
+ * are counted in totrackit_webhook_subscription_events_total, not retried.
+ * While a receiver's circuit breaker is open its worker leaves the queue
+ * alone, so events wait instead of failing until the receiver is probed.
+ * Deadline-event retries until the receiver accepts remain a feature of the
+ * operator webhook (totrackit.webhook-url).
+ */
+@Singleton
+public class WebhookSubscriptionDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebhookSubscriptionDispatcher.class);
+
+    private static final long POLL_MILLIS = 1_000;
+
+    private final WebhookSubscriptionService subscriptions;
+    private final WebhookPayloads payloads;
+    private final MetricsService metricsService;
+    private final SubscriptionDeadlineRepository deadlineMarkers;
+    private final WarningLevels warningLevels;
+    private final Function<String, WebhookEndpoint> endpoints;
+    private final int queueCapacity;
+    private final int drainLimit;
+    private final int batchSize;
+    private final boolean startWorkers;
+    private final Map<Long, SubscriptionQueue> queues = new ConcurrentHashMap<>();
+
+    @Inject
+    public WebhookSubscriptionDispatcher(WebhookSubscriptionService subscriptions,
+                                         WebhookPayloads payloads,
+                                         MetricsService metricsService,
+                                         SubscriptionDeadlineRepository deadlineMarkers,
+                                         WarningLevels warningLevels,
+                                         WebhookBreakers breakers,
+                                         @Value("${totrackit.webhook-subscriptions.queue-capacity:1000}") int queueCapacity,
+                                         @Value("${totrackit.notification-batch-size:500}") int drainLimit,
+                                         @Value("${totrackit.webhook-batch-size:1}") int batchSize) {
+        this(subscriptions, payloads, metricsService, deadlineMarkers, warningLevels,
+                url -> openEndpoint(url, breakers), queueCapacity, drainLimit, batchSize, true);
+    }
+
+    WebhookSubscriptionDispatcher(WebhookSubscriptionService subscriptions, WebhookPayloads payloads,
+                                  MetricsService metricsService, SubscriptionDeadlineRepository deadlineMarkers,
+                                  WarningLevels warningLevels, Function<String, WebhookEndpoint> endpoints,
+                                  int queueCapacity, int drainLimit, int batchSize, boolean startWorkers) {
+        this.subscriptions = subscriptions;
+        this.payloads = payloads;
+        this.metricsService = metricsService;
+        this.deadlineMarkers = deadlineMarkers;
+        this.warningLevels = warningLevels;
+        this.endpoints = endpoints;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.drainLimit = Math.max(1, drainLimit);
+        this.batchSize = batchSize;
+        this.startWorkers = startWorkers;
+    }
+
+    /**
+     * Takes the deadline events due for subscriptions at {@code now} off
+     * their marker and routes them. The deadline scan calls this every cycle,
+     * under its scan lock or leader lease, before it looks at the operator
+     * webhook, so an operator webhook that fails or is circuit-broken does
+     * not hold subscriptions back. Without subscriptions the markers are left
+     * alone; {@link WebhookSubscriptionService} restarts them at the next
+     * event when the first one is created, so it gets no backlog of old events.
+     *
+     * @return the number of runs taken
+     */
+    public int routeDueDeadlineEvents(Instant now) {
+        if (subscriptions.index().isEmpty()) {
+            return 0;
+        }
+        List<ProcessEntity> due = deadlineMarkers.takeDue(now, warningLevels.sqlArray(), drainLimit);
+        List<ProcessEntity> missed = new ArrayList<>();
+        List<ProcessEntity> warned = new ArrayList<>();
+        for (ProcessEntity process : due) {
+            if (process.getSubscriptionDueAt() == null) {
+                missed.add(process);
+            } else if (process.getDeadlineWarningLevel() > 0) {
+                warned.add(process);
+            }
+        }
+        routeDeadlineEvents(WebhookNotificationService.DEADLINE_WARNING, warned, now);
+        routeDeadlineEvents(WebhookNotificationService.DEADLINE_MISSED, missed, now);
+        return due.size();
+    }
+
+    /**
+     * Routes deadline events for the given runs.
+     *
+     * @param now the scan instant; warnings carry seconds remaining from it
+     */
+    public void routeDeadlineEvents(String event, List<ProcessEntity> processes, Instant now) {
+        if (processes.isEmpty() || subscriptions.index().isEmpty()) {
+            return;
+        }
+        boolean warning = WebhookNotificationService.DEADLINE_WARNING.equals(event);
+        for (ProcessEntity process : processes) {
+            Long secondsRemaining = warning && process.getDeadline() != null
+                    ? process.getDeadline().getEpochSecond() - now.getEpochSecond()
+                    : null;
+            route(new QueuedEvent(event, process, secondsRemaining));
+        }
+    }
+
+    /**
+     * Routes stall events for runs the stall scan has just marked.
+     */
+    public void routeStalledEvents(List<ProcessEntity> processes) {
+        if (processes.isEmpty() || subscriptions.index().isEmpty()) {
+            return;
+        }
+        for (ProcessEntity process : processes) {
+            route(new QueuedEvent(WebhookNotificationService.PROCESS_STALLED, process, null));
+        }
+    }
+
+    /**
+     * Routes missing-run events for expected starts the check has just
+     * marked. There is no run, so only subscriptions without tag filters
+     * can match.
+     */
+    public void routeMissingRuns(List<ExpectedRun> runs) {
+        if (runs.isEmpty() || subscriptions.index().isEmpty()) {
+            return;
+        }
+        for (ExpectedRun run : runs) {
+            QueuedEvent event = new QueuedEvent(WebhookNotificationService.PROCESS_MISSING, null, null, run);
+            for (WebhookSubscription subscription
+                    : subscriptions.index().match(event.type(), run.name(), Set.of())) {
+                offer(subscription, event);
+            }
+        }
+    }
+
+    /**
+     * Routes lifecycle events once the run's transaction has committed.
+     */
+    @TransactionalEventListener
+    public void onLifecycle(ProcessLifecycleEvent event) {
+        String type = switch (event.getType()) {
+            case STARTED -> WebhookNotificationService.PROCESS_CREATED;
+            case COMPLETED -> WebhookNotificationService.PROCESS_COMPLETED;
+            case FAILED -> WebhookNotificationService.PROCESS_FAILED;
+            case DELETED -> null;
+        };
+        if (type != null && !subscriptions.index().isEmpty()) {
+            route(new QueuedEvent(type, event.getProcess(), null));
+        }
+    }
+
+    private void route(QueuedEvent event) {
+        for (WebhookSubscription subscription : subscriptions.match(event.type(), event.process())) {
+            offer(subscription, event);
+        }
+    }
+
+    private void offer(WebhookSubscription subscription, QueuedEvent event) {
+        SubscriptionQueue queue = queues.computeIfAbsent(subscription.id(), id -> open(subscription));
+        if (queue != null) {
+            queue.offer(event);
+        }
+    }
+
+    /**
+     * Stops the queues of subscriptions deleted since they were opened.
+     */
+    @Scheduled(fixedDelay = "${totrackit.webhook-subscriptions.refresh-interval:30s}", initialDelay = "30s")
+    public void closeDeleted() {
+        Set<Long> live = subscriptions.index().ids();
+        queues.entrySet().removeIf(entry -> {
+            if (live.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().stop();
+            return true;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        queues.values().forEach(SubscriptionQueue::stop);
+        queues.clear();
+    }
+
+    /** Drains one subscription's queue on the caller's thread (tests). */
+    int dispatchPending(long subscriptionId, long waitMillis) throws InterruptedException {
+        SubscriptionQueue queue = queues.get(subscriptionId);
+        return queue != null ? queue.dispatchPending(waitMillis) : 0;
+    }
+
+    int queued(long subscriptionId) {
+        SubscriptionQueue queue = queues.get(subscriptionId);
+        return queue != null ? queue.queue.size() : 0;
+    }
+
+    private SubscriptionQueue open(WebhookSubscription subscription) {
+        WebhookEndpoint endpoint = endpoints.apply(subscription.url());
+        if (endpoint == null) {
+            return null;
+        }
+        SubscriptionQueue queue = new SubscriptionQueue(subscription, endpoint);
+        if (startWorkers) {
+            queue.start();
+        }
+        return queue;
+    }
+
+    private static WebhookEndpoint openEndpoint(String url, WebhookBreakers breakers) {
+        try {
+            return new WebhookEndpoint(url, breakers.forUrl(url));
+        } catch (MalformedURLException e) {
+            LOG.warn("Skipping webhook subscription with unusable URL {}", url);
+            return null;
+        }
+    }
+
+    private record QueuedEvent(String type, ProcessEntity process, Long secondsRemaining, ExpectedRun missing) {
+
+        QueuedEvent(String type, ProcessEntity process, Long secondsRemaining) {
+            this(type, process, secondsRemaining, null);
+        }
+
+        String subject() {
+            return missing != null
+                    ? "schedule " + missing.name()
+                    : "process " + process.getName() + "/" + process.getProcessId();
+        }
+    }
+
+    /**
+     * One subscription's queue, endpoint and worker. Requests to one
+     * subscription are sent one at a time, in queue order.
+     */
+    private final class SubscriptionQueue {
+
+        final WebhookSubscription subscription;
+        final WebhookEndpoint endpoint;
+        final BlockingQueue<QueuedEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final WebhookDelivery delivery = new WebhookDelivery(1, batchSize);
+        final AtomicBoolean dropping = new AtomicBoolean();
+        volatile boolean running;
+        Thread worker;
+
+        SubscriptionQueue(WebhookSubscription subscription, WebhookEndpoint endpoint) {
+            this.subscription = subscription;
+            this.endpoint = endpoint;
+        }
+
+        void start() {
+            running = true;
+            worker = Thread.ofVirtual().name("webhook-subscription-" + subscription.id()).start(this::run);
+        }
+
+        void offer(QueuedEvent event) {
+            if (queue.offer(event)) {
+                dropping.set(false);
+                return;
+            }
+            metricsService.recordSubscriptionEvents(subscription.id(), event.type(), "dropped", 1);
+            if (dropping.compareAndSet(false, true)) {
+                LOG.warn("Queue of webhook subscription {} ({}) is full; dropping its new events until it drains",
+                        subscription.id(), subscription.url());
+            }
+        }
+
+        int dispatchPending(long waitMillis) throws InterruptedException {
+            QueuedEvent first = queue.poll(waitMillis, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return 0;
+            }
+            List<QueuedEvent> pending = new ArrayList<>();
+            pending.add(first);
+            queue.drainTo(pending, drainLimit - 1);
+
+            Map<String, List<QueuedEvent>> byType = new LinkedHashMap<>();
+            for (QueuedEvent event : pending) {
+                byType.computeIfAbsent(event.type(), type -> new ArrayList<>()).add(event);
+            }
+            byType.forEach((type, events) -> {
+                List<QueuedEvent> delivered = delivery.deliver(events, this::send,
+                        "subscription " + subscription.id() + " " + type);
+                metricsService.recordSubscriptionEvents(subscription.id(), type, "delivered", delivered.size());
+                metricsService.recordSubscriptionEvents(subscription.id(), type, "failed",
+                        events.size() - delivered.size());
+            });
+            return pending.size();
+        }
+
+        private boolean send(List<QueuedEvent> request) {
+            String type = request.get(0).type();
+            if (!delivery.batched()) {
+                QueuedEvent event = request.get(0);
+                return endpoint.post(payload(event), type, event.subject());
+            }
+            List<Map<String, Object>> body = new ArrayList<>(request.size());
+            request.forEach(event -> body.add(payload(event)));
+            return endpoint.post(body, type, request.size() + " processes");
+        }
+
+        private Map<String, Object> payload(QueuedEvent event) {
+            if (event.missing() != null) {
+                return payloads.missingEvent(event.missing());
+            }
+            if (WebhookNotificationService.PROCESS_STALLED.equals(event.type())) {
+                return payloads.stalledEvent(event.process());
+            }
+            boolean deadline = WebhookNotificationService.DEADLINE_MISSED.equals(event.type())
+                    || WebhookNotificationService.DEADLINE_WARNING.equals(event.type());
+            return deadline
+                    ? payloads.deadlineEvent(event.type(), event.process(), event.secondsRemaining())
+                    : payloads.lifecycleEvent(event.type(), event.process());
+        }
+
+        private void run() {
+            while (running) {
+                try {
+                    if (!endpoint.isAvailable()) {
+                        // Circuit open: leave events queued until the target may be back.
+                        Thread.sleep(POLL_MILLIS);
+                        continue;
+                    }
+                    dispatchPending(POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    LOG.warn("Webhook subscription {} dispatch failed", subscription.id(), e);
+                }
+            }
+        }
+
+        void stop() {
+            running = false;
+            if (worker != null) {
+                worker.interrupt();
+            }
+            endpoint.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.totrackit.util;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Sweep-line over run start (+1) and completion (-1) events, folded into
+ * fixed-width buckets as it goes. Memory is O(buckets) no matter how many
+ * events stream through, so callers can feed rows straight off a cursor.
+ *
+ * Events must arrive in timestamp order. For each bucket the sweep records the
+ * peak concurrency and the time-weighted average concurrency.
+ */
+public class ConcurrencySweep {
+
+    private final long fromMillis;
+    private final long toMillis;
+    private final long bucketMillis;
+    private final int[] max;
+    private final double[] weighted; // sum of level * millis per bucket
+
+    private long cursor;
+    private int level;
+    private boolean finished;
+
+    /**
+     * @param from         start of the window (inclusive)
+     * @param to           end of the window (exclusive)
+     * @param bucket       bucket width; the last bucket may be shorter
+     * @param initialLevel runs already executing at {@code from}
+     */
+    public ConcurrencySweep(Instant from, Instant to, Duration bucket, int initialLevel) {
+        if (!to.isAfter(from) || bucket.isZero() || bucket.isNegative()) {
+            throw new IllegalArgumentException("Sweep needs from < to and a positive bucket width");
+        }
+        this.fromMillis = from.toEpochMilli();
+        this.toMillis = to.toEpochMilli();
+        this.bucketMillis = bucket.toMillis();
+        int buckets = (int) Math.ceilDiv(toMillis - fromMillis, bucketMillis);
+        this.max = new int[buckets];
+        this.weighted = new double[buckets];
+        this.cursor = fromMillis;
+        this.level = Math.max(0, initialLevel);
+    }
+
+    /** A run started at {@code at}. */
+    public void start(Instant at) {
+        advanceTo(at.toEpochMilli());
+        level++;
+        int bucket = bucketOf(cursor);
+        max[bucket] = Math.max(max[bucket], level);
+    }
+
+    /** A run finished at {@code at}. Unmatched completions never push the level below zero. */
+    public void end(Instant at) {
+        advanceTo(at.toEpochMilli());
+        level = Math.max(0, level - 1);
+    }
+
+    /** Integrates the current level up to {@code millis}, carrying it into every bucket it crosses. */
+    private void advanceTo(long millis) {
+        if (finished) {
+            throw new IllegalStateException("Sweep already finished");
+        }
+        long target = Math.min(millis, toMillis);
+        if (target < cursor) {
+            throw new IllegalArgumentException("Events must arrive in timestamp order");
+        }
+        while (cursor < target) {
+            int bucket = bucketOf(cursor);
+            long bucketEnd = Math.min(fromMillis + (bucket + 1) * bucketMillis, toMillis);
+            long step = Math.min(bucketEnd, target) - cursor;
+            // Time passes at this level inside the bucket, so it bounds the bucket's peak from below.
+            // Checked here rather than at the boundary: intervals are half-open, and a run ending
+            // exactly on a bucket edge must not count towards the next bucket.
+            max[bucket] = Math.max(max[bucket], level);
+            weighted[bucket] += (double) level * step;
+            cursor += step;
+        }
+    }
+
+    private int bucketOf(long millis) {
+        return (int) Math.min((millis - fromMillis) / bucketMillis, max.length - 1);
+    }
+
+    /** Closes the sweep at the window end; results are read through the accessors afterwards. */
+    public void finish() {
+        advanceTo(toMillis);
+        finished = true;
+    }
+
+    public int getBucketCount() {
+        return max.length;
+    }
+
+    public Instant getBucketStart(int bucket) {
+        return Instant.ofEpochMilli(fromMillis + bucket * bucketMillis);
+    }
+
+    public int getMax(int bucket) {
+        return max[bucket];
+    }
+
+    /** Time-weighted average concurrency over the bucket's span. */
+    public double getAverage(int bucket) {
+        long start = fromMillis + bucket * bucketMillis;
+        long span = Math.min(start + bucketMillis, toMillis) - start;
+        return weighted[bucket] / span;
+    }
+}
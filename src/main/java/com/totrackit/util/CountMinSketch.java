@@ -0,0 +1,60 @@
+package com.totrackit.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Count-Min sketch (Cormode and Muthukrishnan): fixed {@code depth x width}
+ * counters, so memory does not grow with the number of distinct keys.
+ * Estimates never undercount. With probability {@code 1 - e^-depth} they
+ * overcount by at most {@code e / width} of the total added.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final long[][] table;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("depth and width must be positive");
+        }
+        this.width = width;
+        this.table = new long[depth][width];
+    }
+
+    public void add(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < table.length; row++) {
+            table[row][index(h1, h2, row)]++;
+        }
+    }
+
+    public long estimate(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < table.length; row++) {
+            min = Math.min(min, table[row][index(h1, h2, row)]);
+        }
+        return min;
+    }
+
+    /** Kirsch-Mitzenmacher: row hashes derived from two halves of one 64-bit hash. */
+    private int index(int h1, int h2, int row) {
+        return Math.floorMod(h1 + row * h2, width);
+    }
+
+    /** FNV-1a over the UTF-8 bytes, finished with the SplitMix64 mixer. */
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,132 @@
+package com.totrackit.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hashed timer wheel (Varghese and Lauck) over primitive long ids: a ring of
+ * {@code slots} buckets, each {@code tickMillis} wide. An entry lives in the
+ * bucket of its due tick modulo the ring size; entries further away than one
+ * rotation simply stay in their bucket until the wheel comes round to their
+ * tick. Scheduling and cancelling touch one bucket; advancing touches only
+ * the buckets of the ticks that passed.
+ *
+ * Buckets are parallel {@code long[]} arrays (id, due tick) so large wheels do
+ * not allocate an object per timer. Not thread-safe; callers synchronize.
+ */
+public class HashedTimerWheel {
+
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    private final long tickMillis;
+    private final int mask;
+    private final long[][] ids;
+    private final long[][] dueTicks;
+    private final int[] counts;
+    /** The next tick that has not been processed yet. */
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis  bucket width; timers fire at the first tick boundary at or after their due time
+     * @param slots       ring size, a power of two
+     * @param startMillis wall-clock time the wheel starts at
+     */
+    public HashedTimerWheel(long tickMillis, int slots, long startMillis) {
+        if (tickMillis < 1 || slots < 1 || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("tickMillis must be positive and slots a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = slots - 1;
+        this.ids = new long[slots][];
+        this.dueTicks = new long[slots][];
+        this.counts = new int[slots];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /** Schedules {@code id} at {@code dueMillis}; a due time already passed fires on the next advance. */
+    public void schedule(long id, long dueMillis) {
+        long tick = Math.max(Math.ceilDiv(dueMillis, tickMillis), currentTick);
+        int slot = (int) (tick & mask);
+        int count = counts[slot];
+        if (ids[slot] == null) {
+            ids[slot] = new long[INITIAL_BUCKET_CAPACITY];
+            dueTicks[slot] = new long[INITIAL_BUCKET_CAPACITY];
+        } else if (count == ids[slot].length) {
+            ids[slot] = Arrays.copyOf(ids[slot], count * 2);
+            dueTicks[slot] = Arrays.copyOf(dueTicks[slot], count * 2);
+        }
+        ids[slot][count] = id;
+        dueTicks[slot][count] = tick;
+        counts[slot] = count + 1;
+        size++;
+    }
+
+    /**
+     * Cancels the timer scheduled for {@code id} at {@code dueMillis}.
+     *
+     * @return false when no such pending timer exists (already fired, never
+     *         scheduled, or scheduled after its due time had passed)
+     */
+    public boolean cancel(long id, long dueMillis) {
+        long tick = Math.ceilDiv(dueMillis, tickMillis);
+        if (tick < currentTick) {
+            return false;
+        }
+        int slot = (int) (tick & mask);
+        long[] slotIds = ids[slot];
+        long[] slotTicks = dueTicks[slot];
+        for (int i = 0; i < counts[slot]; i++) {
+            if (slotIds[i] == id && slotTicks[i] == tick) {
+                removeAt(slot, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fires every timer due at or before {@code nowMillis}, in bucket order.
+     * After a long pause each bucket is visited at most once.
+     *
+     * @return number of timers fired
+     */
+    public int advance(long nowMillis, LongConsumer expired) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        if (target < currentTick) {
+            return 0;
+        }
+        long ticks = Math.min(target - currentTick + 1, mask + 1L);
+        int fired = 0;
+        for (long tick = currentTick; tick < currentTick + ticks; tick++) {
+            int slot = (int) (tick & mask);
+            long[] slotIds = ids[slot];
+            long[] slotTicks = dueTicks[slot];
+            int i = 0;
+            while (i < counts[slot]) {
+                if (slotTicks[i] <= target) {
+                    long id = slotIds[i];
+                    removeAt(slot, i); // swaps the last entry into i, so i is not advanced
+                    expired.accept(id);
+                    fired++;
+                } else {
+                    i++;
+                }
+            }
+        }
+        currentTick = target + 1;
+        return fired;
+    }
+
+    private void removeAt(int slot, int index) {
+        int last = --counts[slot];
+        ids[slot][index] = ids[slot][last];
+        dueTicks[slot][index] = dueTicks[slot][last];
+        size--;
+    }
+
+    /** Pending timers. */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,50 @@
+package com.totrackit.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset-pagination cursor: the ordering it was issued under plus the
+ * sort value and name of the last row on a page. Clients pass it back
+ * verbatim to fetch the next page, so deep pages cost the same as the first
+ * instead of scanning past an OFFSET.
+ */
+public final class KeysetCursor {
+
+    private final String ordering;
+    private final long sortValue;
+    private final String name;
+
+    public KeysetCursor(String ordering, long sortValue, String name) {
+        if (ordering.indexOf(':') >= 0) {
+            throw new IllegalArgumentException("ordering must not contain ':'");
+        }
+        this.ordering = ordering;
+        this.sortValue = sortValue;
+        this.name = name;
+    }
+
+    public String getOrdering() { return ordering; }
+    public long getSortValue() { return sortValue; }
+    public String getName() { return name; }
+
+    public String encode() {
+        String raw = ordering + ":" + sortValue + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf(':');
+            int second = raw.indexOf(':', first + 1);
+            return new KeysetCursor(raw.substring(0, first),
+                    Long.parseLong(raw.substring(first + 1, second)), raw.substring(second + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor: " + cursor, e);
+        }
+    }
+}
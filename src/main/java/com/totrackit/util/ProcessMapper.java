@@ -57,6 +57,12 @@ public class ProcessMapper {
             response.setDeadline(entity.getDeadline().getEpochSecond());
         }
         
+        response.setStallTimeout(entity.getStallTimeoutSeconds());
+        if (entity.getLastActivityAt() != null) {
+            response.setLastActivityAt(entity.getLastActivityAt().getEpochSecond());
+        }
+        response.setFailureReason(entity.getFailureReason());
+        
         // Calculate duration
         response.setDuration(calculateDuration(entity));
         
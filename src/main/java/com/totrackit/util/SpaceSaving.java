@@ -0,0 +1,100 @@
+package com.totrackit.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitters summary (Metwally et al.): tracks at most
+ * {@code capacity} items. When a new item arrives at a full summary it evicts
+ * the current minimum and inherits its count as the item's error bound.
+ *
+ * Any item whose true frequency exceeds {@code total / capacity} is
+ * guaranteed to be in the summary. Each reported count overestimates the true
+ * count by at most its {@link Counter#getError() error}.
+ */
+public class SpaceSaving<T> {
+
+    private final int capacity;
+    private final Map<T, Counter<T>> counters = new HashMap<>();
+    private final TreeSet<Counter<T>> byCount = new TreeSet<>(
+            Comparator.<Counter<T>>comparingLong(Counter::getCount).thenComparingLong(c -> c.sequence));
+    private long sequence;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void offer(T item) {
+        total++;
+        Counter<T> counter = counters.get(item);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count++;
+            counter.sequence = sequence++;
+            byCount.add(counter);
+            return;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter<>(item, 1, 0, sequence++);
+        } else {
+            Counter<T> evicted = byCount.pollFirst();
+            counters.remove(evicted.item);
+            counter = new Counter<>(item, evicted.count + 1, evicted.count, sequence++);
+        }
+        counters.put(item, counter);
+        byCount.add(counter);
+    }
+
+    /** Number of items offered so far. */
+    public long getTotal() {
+        return total;
+    }
+
+    /** The {@code limit} highest counters, largest first. */
+    public List<Counter<T>> top(int limit) {
+        List<Counter<T>> result = new ArrayList<>(Math.min(limit, counters.size()));
+        for (Counter<T> counter : byCount.descendingSet()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(counter);
+        }
+        return result;
+    }
+
+    public static final class Counter<T> {
+        private final T item;
+        private long count;
+        private final long error;
+        private long sequence;
+
+        private Counter(T item, long count, long error, long sequence) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+            this.sequence = sequence;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        /** Upper bound of the true frequency. */
+        public long getCount() {
+            return count;
+        }
+
+        /** Maximum overestimation; {@code count - error} is a guaranteed lower bound. */
+        public long getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+-- Transactional outbox for webhook events (totrackit.notification-delivery=outbox).
+-- The deadline scan marks a run and inserts its event here in one statement;
+-- the dispatcher claims due rows with FOR UPDATE SKIP LOCKED, so retries read
+-- this small table instead of rescanning processes.
+--   status: PENDING (waiting or leased), DELIVERED, DEAD (gave up after max attempts)
+--   next_attempt_at: earliest next delivery; pushed out by the claim lease and by backoff
+CREATE TABLE notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    process_id BIGINT NOT NULL REFERENCES processes (id) ON DELETE CASCADE,
+    event_type VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    delivered_at TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT chk_notification_outbox_status CHECK (status IN ('PENDING', 'DELIVERED', 'DEAD'))
+);
+
+-- Claim order for the dispatcher; only pending rows are ever claimed.
+CREATE INDEX idx_notification_outbox_due ON notification_outbox (next_attempt_at)
+    WHERE status = 'PENDING';
+
+-- Retention purge of delivered rows and the dead-letter gauge.
+CREATE INDEX idx_notification_outbox_delivered ON notification_outbox (delivered_at)
+    WHERE status = 'DELIVERED';
+CREATE INDEX idx_notification_outbox_dead ON notification_outbox (id)
+    WHERE status = 'DEAD';
+
+-- Cascading deletes from processes.
+CREATE INDEX idx_notification_outbox_process ON notification_outbox (process_id);
@@ -0,0 +1,11 @@
+-- Lease-based leader election for scheduled work (totrackit.leader-election=lease).
+-- One row per lease; the holder renews expires_at on every heartbeat and any
+-- replica may take the row over once it has expired. All times come from the
+-- database clock, so replicas never compare their own clocks.
+CREATE TABLE leader_leases (
+    name VARCHAR(50) PRIMARY KEY,
+    holder VARCHAR(200) NOT NULL,
+    acquired_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    renewed_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,15 @@
+-- Webhook subscriptions: each row routes matching events to its own URL.
+-- Filters are plain columns, not queried in SQL: every replica loads the
+-- whole (small) table into an in-memory routing index and refreshes it
+-- periodically.
+CREATE TABLE webhook_subscriptions (
+    id BIGSERIAL PRIMARY KEY,
+    url VARCHAR(2000) NOT NULL,
+    -- Exact process name, prefix ending in '*', or NULL for any name.
+    name_pattern VARCHAR(101),
+    -- JSON object of tag key/value pairs a run must all carry.
+    tags TEXT NOT NULL DEFAULT '{}',
+    -- Comma-separated event types, e.g. 'process.deadline_missed,process.failed'.
+    events VARCHAR(200) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
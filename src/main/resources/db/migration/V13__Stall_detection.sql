@@ -0,0 +1,14 @@
+-- Stalled-run detection. A run with a stall timeout (its own, or its name's
+-- default) is stalled once it goes that long without a heartbeat.
+ALTER TABLE processes ADD COLUMN stall_timeout_seconds INTEGER;
+ALTER TABLE processes ADD COLUMN last_activity_at TIMESTAMP WITH TIME ZONE;
+-- last_activity_at + stall_timeout_seconds, moved forward by every heartbeat,
+-- so the scanner compares one indexed column with now() instead of
+-- evaluating each row's own timeout.
+ALTER TABLE processes ADD COLUMN stall_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE processes ADD COLUMN stall_notified_at TIMESTAMP WITH TIME ZONE;
+
+-- Stall scanner: active runs with a stall timeout that have not been
+-- reported as stalled since their last heartbeat.
+CREATE INDEX idx_processes_stall_unnotified ON processes (stall_at)
+    WHERE status = 'ACTIVE' AND stall_at IS NOT NULL AND stall_notified_at IS NULL;
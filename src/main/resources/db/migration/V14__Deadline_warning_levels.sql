@@ -0,0 +1,9 @@
+-- Escalating pre-deadline warnings: how many of the configured warning
+-- levels (totrackit.warning-thresholds) have fired for a run.
+-- deadline_warned_at is now set once the last level has fired, so
+-- idx_processes_deadline_unwarned (V6) still covers exactly the runs with a
+-- warning left to send, whatever the number of levels.
+ALTER TABLE processes ADD COLUMN deadline_warning_level SMALLINT NOT NULL DEFAULT 0;
+
+-- Runs warned under the single threshold have fired their only level.
+UPDATE processes SET deadline_warning_level = 1 WHERE deadline_warned_at IS NOT NULL;
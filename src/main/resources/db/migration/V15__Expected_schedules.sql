@@ -0,0 +1,17 @@
+-- Expected-run schedules: a process name that should start on a cron
+-- schedule. The leader keeps every schedule in memory, ordered by the next
+-- expected start, and only queries processes (via
+-- idx_processes_name_started_at) once an expected start plus its grace has
+-- passed.
+CREATE TABLE expected_schedules (
+    name VARCHAR(100) PRIMARY KEY,
+    -- 5-field (minute first) or 6-field (second first) cron expression.
+    cron VARCHAR(100) NOT NULL,
+    time_zone VARCHAR(64) NOT NULL DEFAULT 'UTC',
+    -- How far a run may start from the expected instant, either way.
+    grace_seconds INTEGER NOT NULL,
+    -- Latest expected start already checked, so a new leader resumes where
+    -- the previous one stopped and never reports a run twice.
+    checked_through TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
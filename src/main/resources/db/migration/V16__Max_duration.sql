@@ -0,0 +1,4 @@
+-- Runaway runs. An active run older than its name's max duration
+-- (totrackit.max-durations) is failed by the server, and the reason is
+-- kept on the run. NULL for runs finished by their producer.
+ALTER TABLE processes ADD COLUMN failure_reason VARCHAR(200);
@@ -0,0 +1,5 @@
+-- Parallel deadline scans (totrackit.deadline-scan=parallel) lease the runs
+-- they claim instead of holding row locks while the webhook is called. A
+-- run leased by one replica is skipped by the others until it is marked,
+-- released or its lease runs out.
+ALTER TABLE processes ADD COLUMN deadline_claimed_until TIMESTAMP WITH TIME ZONE;
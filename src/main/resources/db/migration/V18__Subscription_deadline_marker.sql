@@ -0,0 +1,13 @@
+-- Deadline events for webhook subscriptions are tracked apart from the
+-- operator webhook's markers, so a failing or circuit-broken operator
+-- webhook never holds them back. subscription_due_at is the instant the
+-- run's next event falls due for subscriptions (its next warning level, then
+-- its deadline); it is cleared once the missed event has been routed.
+ALTER TABLE processes ADD COLUMN subscription_due_at TIMESTAMP WITH TIME ZONE;
+
+-- Active runs still owed a missed event pick up at their deadline.
+UPDATE processes SET subscription_due_at = deadline
+    WHERE status = 'ACTIVE' AND deadline IS NOT NULL AND deadline_notified_at IS NULL;
+
+CREATE INDEX idx_processes_subscription_due ON processes (subscription_due_at)
+    WHERE status = 'ACTIVE' AND subscription_due_at IS NOT NULL;
@@ -0,0 +1,18 @@
+-- The instant of an active run's next unfired warning level, so the adaptive
+-- scan scheduler finds the earliest one with an index lookup instead of
+-- computing it for every unwarned run. It is set at insert and moved on by
+-- every statement that records a warning, and cleared once the last level
+-- has fired or the deadline has been notified.
+ALTER TABLE processes ADD COLUMN next_warning_at TIMESTAMP WITH TIME ZONE;
+
+-- The warning levels are configuration, not schema: runs started before
+-- this migration pick up their start instant, which is never later than
+-- their real next level. A scheduler pass that finds nothing to send for
+-- them plans on future instants only, and the next warning recorded for
+-- them sets the real instant.
+UPDATE processes SET next_warning_at = started_at
+    WHERE status = 'ACTIVE' AND deadline IS NOT NULL AND deadline_warned_at IS NULL
+      AND deadline_notified_at IS NULL AND deadline > started_at;
+
+CREATE INDEX idx_processes_next_warning ON processes (next_warning_at)
+    WHERE status = 'ACTIVE' AND next_warning_at IS NOT NULL;
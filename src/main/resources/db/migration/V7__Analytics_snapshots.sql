@@ -0,0 +1,9 @@
+-- Shared precomputed analytics snapshot. The replica holding the snapshot
+-- advisory lock recomputes the dashboard aggregates and upserts them here;
+-- every other replica loads the latest row by primary key instead of
+-- re-running the aggregate queries itself.
+CREATE TABLE analytics_snapshots (
+    snapshot_key VARCHAR(50) PRIMARY KEY,
+    payload BYTEA NOT NULL,
+    generated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,94 @@
+-- Process-name registry: one row per name with running outcome counters,
+-- maintained by trigger in the same transaction as the process write. Name
+-- rollups, their totals and their alternative orderings read this small
+-- table instead of re-aggregating the processes table on every page.
+--
+-- Deliberately no secondary indexes: the counters change on every write to a
+-- name, and keeping them unindexed lets PostgreSQL apply HOT updates. Sorting
+-- a few tens of thousands of registry rows for one page is cheap.
+CREATE TABLE process_names (
+    name VARCHAR(100) PRIMARY KEY,
+    total BIGINT NOT NULL DEFAULT 0,
+    active BIGINT NOT NULL DEFAULT 0,
+    completed BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    completed_on_time BIGINT NOT NULL DEFAULT 0,
+    completed_late BIGINT NOT NULL DEFAULT 0,
+    -- Latest start ever registered; not rolled back when that run is deleted.
+    last_started_at TIMESTAMP WITH TIME ZONE,
+    first_seen_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE OR REPLACE FUNCTION maintain_process_names()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE process_names SET
+            total = total - 1,
+            active = active - CASE WHEN OLD.status = 'ACTIVE' THEN 1 ELSE 0 END,
+            completed = completed - CASE WHEN OLD.status = 'COMPLETED' THEN 1 ELSE 0 END,
+            failed = failed - CASE WHEN OLD.status = 'FAILED' THEN 1 ELSE 0 END,
+            completed_on_time = completed_on_time - CASE WHEN OLD.status = 'COMPLETED'
+                AND OLD.deadline IS NOT NULL AND OLD.completed_at <= OLD.deadline THEN 1 ELSE 0 END,
+            completed_late = completed_late - CASE WHEN OLD.status = 'COMPLETED'
+                AND OLD.deadline IS NOT NULL AND OLD.completed_at > OLD.deadline THEN 1 ELSE 0 END
+        WHERE name = OLD.name;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO process_names AS r (name, total, active, completed, failed,
+                                        completed_on_time, completed_late, last_started_at)
+        VALUES (NEW.name, 1,
+            CASE WHEN NEW.status = 'ACTIVE' THEN 1 ELSE 0 END,
+            CASE WHEN NEW.status = 'COMPLETED' THEN 1 ELSE 0 END,
+            CASE WHEN NEW.status = 'FAILED' THEN 1 ELSE 0 END,
+            CASE WHEN NEW.status = 'COMPLETED' AND NEW.deadline IS NOT NULL
+                AND NEW.completed_at <= NEW.deadline THEN 1 ELSE 0 END,
+            CASE WHEN NEW.status = 'COMPLETED' AND NEW.deadline IS NOT NULL
+                AND NEW.completed_at > NEW.deadline THEN 1 ELSE 0 END,
+            NEW.started_at)
+        ON CONFLICT (name) DO UPDATE SET
+            total = r.total + 1,
+            active = r.active + EXCLUDED.active,
+            completed = r.completed + EXCLUDED.completed,
+            failed = r.failed + EXCLUDED.failed,
+            completed_on_time = r.completed_on_time + EXCLUDED.completed_on_time,
+            completed_late = r.completed_late + EXCLUDED.completed_late,
+            last_started_at = GREATEST(r.last_started_at, EXCLUDED.last_started_at);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER maintain_process_names_insert_delete
+    AFTER INSERT OR DELETE ON processes
+    FOR EACH ROW
+    EXECUTE FUNCTION maintain_process_names();
+
+-- Only outcome-relevant changes touch the registry; scanner bookkeeping
+-- (deadline_notified_at, deadline_warned_at) does not.
+CREATE TRIGGER maintain_process_names_update
+    AFTER UPDATE OF name, status, started_at, completed_at, deadline ON processes
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name
+       OR OLD.status IS DISTINCT FROM NEW.status
+       OR OLD.started_at IS DISTINCT FROM NEW.started_at
+       OR OLD.completed_at IS DISTINCT FROM NEW.completed_at
+       OR OLD.deadline IS DISTINCT FROM NEW.deadline)
+    EXECUTE FUNCTION maintain_process_names();
+
+-- Backfill after the triggers exist: CREATE TRIGGER holds a lock that blocks
+-- concurrent writes until this migration commits, so no run is missed or
+-- counted twice.
+INSERT INTO process_names (name, total, active, completed, failed,
+                           completed_on_time, completed_late, last_started_at, first_seen_at)
+SELECT name,
+    COUNT(*),
+    COUNT(*) FILTER (WHERE status = 'ACTIVE'),
+    COUNT(*) FILTER (WHERE status = 'COMPLETED'),
+    COUNT(*) FILTER (WHERE status = 'FAILED'),
+    COUNT(*) FILTER (WHERE status = 'COMPLETED' AND deadline IS NOT NULL AND completed_at <= deadline),
+    COUNT(*) FILTER (WHERE status = 'COMPLETED' AND deadline IS NOT NULL AND completed_at > deadline),
+    MAX(started_at),
+    MIN(created_at)
+FROM processes
+GROUP BY name;
@@ -0,0 +1,5 @@
+-- Concurrency timeline: completion events per name in time order. Together
+-- with idx_processes_name_started_at (scanned backwards) the start and end
+-- event streams merge in order without a sort.
+CREATE INDEX idx_processes_name_completed_at ON processes (name, completed_at)
+    WHERE completed_at IS NOT NULL;
@@ -0,0 +1,107 @@
+package com.totrackit.config;
+
+import com.totrackit.service.MetricsService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for connection acquire/hold timing of InstrumentedDataSource.
+ */
+@ExtendWith(MockitoExtension.class)
+class InstrumentedDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection pooledConnection;
+
+    private MeterRegistry meterRegistry;
+    private InstrumentedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MetricsService metricsService = new MetricsService(meterRegistry);
+        dataSource = new InstrumentedDataSource(pool, () -> metricsService, () -> null);
+    }
+
+    private Timer timer(String name) {
+        return meterRegistry.find(name).tag("call_site", "other").timer();
+    }
+
+    @Test
+    void testBorrowRecordsAcquireAndCloseRecordsHoldOnce() throws Exception {
+        when(pool.getConnection()).thenReturn(pooledConnection);
+
+        Connection connection = dataSource.getConnection();
+        assertNotNull(timer("totrackit_database_connection_acquire_seconds"));
+        assertEquals(1, timer("totrackit_database_connection_acquire_seconds").count());
+
+        connection.close();
+        connection.close();
+
+        assertEquals(1, timer("totrackit_database_connection_hold_seconds").count());
+        assertTrue(connection.isClosed());
+        verify(pooledConnection).close();
+    }
+
+    @Test
+    void testConnectionCallsAreDelegated() throws Exception {
+        when(pool.getConnection()).thenReturn(pooledConnection);
+        when(pooledConnection.getAutoCommit()).thenReturn(true);
+
+        Connection connection = dataSource.getConnection();
+
+        assertTrue(connection.getAutoCommit());
+        assertTrue(connection.equals(connection));
+    }
+
+    @Test
+    void testUnwrapReachesThePool() throws Exception {
+        assertSame(pool, dataSource.unwrap(DataSource.class));
+        assertTrue(dataSource.isWrapperFor(DataSource.class));
+    }
+
+    @Test
+    void testTimedOutBorrowOnAnExhaustedPoolIsRecorded() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:exhausted-pool");
+        config.setMaximumPoolSize(1);
+        config.setConnectionTimeout(250);
+        MetricsService metricsService = new MetricsService(meterRegistry);
+        try (HikariDataSource hikari = new HikariDataSource(config)) {
+            InstrumentedDataSource exhausted = new InstrumentedDataSource(hikari, () -> metricsService, () -> null);
+            try (Connection held = exhausted.getConnection()) {
+                assertThrows(SQLTransientConnectionException.class, exhausted::getConnection);
+            }
+        }
+
+        Timer acquire = timer("totrackit_database_connection_acquire_seconds");
+        assertEquals(2, acquire.count());
+        assertTrue(acquire.max(TimeUnit.MILLISECONDS) >= 250, "the timed-out wait counts");
+        assertEquals(1, meterRegistry.find("totrackit_database_connection_acquire_failures_total")
+                .tag("call_site", "other").counter().count());
+    }
+}
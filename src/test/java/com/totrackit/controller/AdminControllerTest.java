@@ -0,0 +1,54 @@
+package com.totrackit.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests named query timing and the slow-query endpoint, with a zero
+ * threshold so every named statement counts as slow.
+ */
+@MicronautTest
+@Property(name = "totrackit.slow-query.threshold", value = "0ms")
+class AdminControllerTest {
+
+    @Inject
+    @Client("/")
+    HttpClient client;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void testNamedStatementsAreTimedAndListedAsSlow() {
+        assertThrows(HttpClientResponseException.class, () ->
+                client.toBlocking().exchange(HttpRequest.GET("/processes/admin-slow/run-1"), String.class));
+
+        assertNotNull(meterRegistry.find("totrackit_database_query_seconds")
+                .tag("query", "process_repository.findByNameAndProcessId").timer());
+
+        List<Map<String, Object>> slow = client.toBlocking().retrieve(HttpRequest.GET("/admin/slow-queries"),
+                Argument.listOf(Argument.mapOf(String.class, Object.class)));
+        Map<String, Object> lookup = slow.stream()
+                .filter(entry -> "process_repository.findByNameAndProcessId".equals(entry.get("query")))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(((String) lookup.get("sql")).contains("FROM processes"));
+        assertTrue(lookup.get("bind_types").toString().contains("String x2"));
+        assertTrue(lookup.get("duration_ms") instanceof Number);
+    }
+}
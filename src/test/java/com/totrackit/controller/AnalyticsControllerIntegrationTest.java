@@ -1,16 +1,23 @@
 package com.totrackit.controller;
 
+import com.totrackit.dto.ConcurrencyResponse;
 import com.totrackit.dto.NameRollupEntry;
 import com.totrackit.dto.PagedResult;
 import com.totrackit.dto.SummaryResponse;
+import com.totrackit.dto.TagCombinationEntry;
+import com.totrackit.dto.TagCombinationResponse;
+import com.totrackit.dto.TagImpactEntry;
 import com.totrackit.dto.TagImpactResponse;
 import com.totrackit.entity.ProcessEntity;
 import com.totrackit.model.ProcessStatus;
 import com.totrackit.repository.ProcessRepository;
+import com.totrackit.util.KeysetCursor;
 import io.micronaut.core.type.Argument;
 import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
 import io.micronaut.http.client.HttpClient;
 import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import io.micronaut.test.support.TestPropertyProvider;
 import jakarta.annotation.Nonnull;
@@ -22,7 +29,10 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -67,7 +77,8 @@ class AnalyticsControllerIntegrationTest implements TestPropertyProvider {
                 // let the pool retry instead of failing fast at context start.
                 "datasources.default.initialization-fail-timeout", "60000",
                 "micronaut.data.default.dialect", "POSTGRES",
-                "flyway.datasources.default.enabled", "true"
+                "flyway.datasources.default.enabled", "true",
+                "totrackit.analytics.promoted-tag-keys", "region"
         );
     }
 
@@ -105,6 +116,154 @@ class AnalyticsControllerIntegrationTest implements TestPropertyProvider {
         assertEquals(0, response.getTags().get(1).getProblems());
     }
 
+    @Test
+    void testTagKeyBreakdownGroupsOnlyThatKey() {
+        String name = "analytics-key-breakdown-test";
+        Instant now = Instant.now();
+        seed(name, "kb-de-1", ProcessStatus.ACTIVE, now.minusSeconds(600), null,
+                "[{\"key\":\"country\",\"value\":\"DE\"},{\"key\":\"region\",\"value\":\"eu\"}]");
+        seed(name, "kb-de-2", ProcessStatus.FAILED, null, now.minusSeconds(60),
+                "[{\"key\":\"country\",\"value\":\"DE\"},{\"key\":\"region\",\"value\":\"eu\"}]");
+        seed(name, "kb-us", ProcessStatus.ACTIVE, now.plusSeconds(3600), null,
+                "[{\"key\":\"country\",\"value\":\"US\"},{\"key\":\"region\",\"value\":\"na\"}]");
+        seed(name, "kb-untagged", ProcessStatus.ACTIVE, null, null, "[{\"key\":\"tier\",\"value\":\"gold\"}]");
+
+        // Not promoted: GIN containment pre-filter + jsonpath lookup
+        TagImpactResponse country = client.toBlocking().retrieve(
+                HttpRequest.GET("/analytics/tags/country?name=" + name), TagImpactResponse.class);
+        assertEquals("country", country.getKey());
+        assertFalse(country.getPromoted());
+        assertEquals(3, country.getTotalProcesses());
+        assertEquals(2, country.getTags().size());
+        assertEquals("DE", country.getTags().get(0).getValue());
+        assertEquals("country", country.getTags().get(0).getKey());
+        assertEquals(2, country.getTags().get(0).getProblems());
+        assertEquals(1, country.getTags().get(0).getFailed());
+        assertEquals("US", country.getTags().get(1).getValue());
+
+        // Promoted: expression-index path gives the same shape of answer
+        TagImpactResponse region = client.toBlocking().retrieve(
+                HttpRequest.GET("/analytics/tags/region?name=" + name), TagImpactResponse.class);
+        assertTrue(region.getPromoted());
+        assertEquals(3, region.getTotalProcesses());
+        assertEquals(List.of("eu", "na"), region.getTags().stream().map(TagImpactEntry::getValue).toList());
+        assertEquals(2, region.getTags().get(0).getTotal());
+    }
+
+    @Test
+    void testTagKeyBreakdownRejectsInvalidKey() {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class, () ->
+                client.toBlocking().retrieve(HttpRequest.GET("/analytics/tags/bad'key"), TagImpactResponse.class));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    void testConcurrencyTimeline() {
+        String name = "analytics-concurrency-test";
+        Instant now = Instant.now();
+        seedRun(name, "cc-old", now.minusSeconds(5 * 3600), now.minusSeconds(4 * 3600), ProcessStatus.COMPLETED);
+        seedRun(name, "cc-a", now.minusSeconds(100 * 60), now.minusSeconds(40 * 60), ProcessStatus.COMPLETED);
+        seedRun(name, "cc-b", now.minusSeconds(70 * 60), now.minusSeconds(50 * 60), ProcessStatus.FAILED);
+        seedRun(name, "cc-c", now.minusSeconds(30 * 60), null, ProcessStatus.ACTIVE);
+
+        ConcurrencyResponse response = client.toBlocking().retrieve(
+                HttpRequest.GET("/analytics/concurrency?name=" + name + "&window_hours=2&bucket_minutes=60"),
+                ConcurrencyResponse.class);
+
+        assertEquals(2, response.getPeak());
+        assertEquals(2, response.getBuckets().size());
+        assertEquals(2, response.getBuckets().get(0).getMax());
+        assertEquals(2, response.getBuckets().get(1).getMax());
+        // Bucket 0: A for 40 min + B for 10 min; bucket 1: A 20 + B 10 + C 30 (approximately, clock skew).
+        assertEquals(50.0 / 60, response.getBuckets().get(0).getAvg(), 0.05);
+        assertEquals(1.0, response.getBuckets().get(1).getAvg(), 0.05);
+    }
+
+    @Test
+    void testZeroLengthRunLeavesNoPhantomConcurrency() {
+        String name = "analytics-concurrency-zero-test";
+        Instant instant = Instant.now().minusSeconds(90 * 60);
+        seedRun(name, "cz-0", instant, instant, ProcessStatus.COMPLETED);
+
+        ConcurrencyResponse response = client.toBlocking().retrieve(
+                HttpRequest.GET("/analytics/concurrency?name=" + name + "&window_hours=2&bucket_minutes=60"),
+                ConcurrencyResponse.class);
+
+        assertEquals(0, response.getPeak());
+        response.getBuckets().forEach(bucket -> assertEquals(0.0, bucket.getAvg()));
+    }
+
+    @Test
+    void testConcurrencyRejectsTooManyBuckets() {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class, () ->
+                client.toBlocking().retrieve(
+                        HttpRequest.GET("/analytics/concurrency?name=x&window_hours=720&bucket_minutes=1"),
+                        ConcurrencyResponse.class));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    void testMalformedNamesCursorIsBadRequest() {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class, () ->
+                client.toBlocking().retrieve(HttpRequest.GET("/analytics/names?after=not-a-cursor!"), String.class));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    void testNamesCursorFromAnotherSortIsBadRequest() {
+        String cursor = new KeysetCursor("BUSIEST", 10, "analytics-cursor-sort").encode();
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class, () ->
+                client.toBlocking().retrieve(HttpRequest.GET("/analytics/names?sort=FAILURES&after=" + cursor),
+                        String.class));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    private void seedRun(String name, String id, Instant startedAt, Instant completedAt, ProcessStatus status) {
+        ProcessEntity entity = new ProcessEntity(id, name);
+        entity.setStatus(status);
+        entity.setStartedAt(startedAt);
+        entity.setCompletedAt(completedAt);
+        processRepository.save(entity);
+    }
+
+    @Test
+    void testTagCombinationsFindProblemPairs() {
+        String name = "analytics-combination-test";
+        Instant now = Instant.now();
+        String deX = "[{\"key\":\"country\",\"value\":\"DE\"},{\"key\":\"carrier\",\"value\":\"X\"}]";
+        for (int i = 0; i < 3; i++) {
+            seed(name, "combo-dex-" + i, ProcessStatus.FAILED, null, now.minusSeconds(60), deX);
+        }
+        seed(name, "combo-frx", ProcessStatus.FAILED, null, now.minusSeconds(60),
+                "[{\"key\":\"country\",\"value\":\"FR\"},{\"key\":\"carrier\",\"value\":\"X\"}]");
+        for (int i = 0; i < 2; i++) {
+            seed(name, "combo-dey-" + i, ProcessStatus.ACTIVE, now.plusSeconds(3600), null,
+                    "[{\"key\":\"country\",\"value\":\"DE\"},{\"key\":\"carrier\",\"value\":\"Y\"}]");
+        }
+
+        TagCombinationResponse response = client.toBlocking().retrieve(
+                HttpRequest.GET("/analytics/tag-combinations?name=" + name), TagCombinationResponse.class);
+
+        assertEquals(2, response.getSize());
+        assertEquals(6, response.getScannedProcesses());
+        assertEquals(4, response.getProblemProcesses());
+        assertFalse(response.isTruncated());
+        assertEquals(2, response.getCombinations().size()); // DE+Y never had a problem
+        TagCombinationEntry top = response.getCombinations().get(0);
+        assertEquals("carrier", top.getTags().get(0).getKey());
+        assertEquals("X", top.getTags().get(0).getValue());
+        assertEquals("country", top.getTags().get(1).getKey());
+        assertEquals("DE", top.getTags().get(1).getValue());
+        assertEquals(3, top.getProblems());
+        assertEquals(0, top.getProblemsError());
+        assertEquals(3, top.getTotalEstimate());
+
+        TagCombinationResponse triples = client.toBlocking().retrieve(
+                HttpRequest.GET("/analytics/tag-combinations?size=3&name=" + name), TagCombinationResponse.class);
+        assertEquals(0, triples.getScannedProcesses());
+        assertTrue(triples.getCombinations() == null || triples.getCombinations().isEmpty());
+    }
+
     @Test
     void testTagImpactFilteredByName() {
         Instant now = Instant.now();
@@ -243,5 +402,64 @@ class AnalyticsControllerIntegrationTest implements TestPropertyProvider {
         assertEquals(0, entry.getCompletedOnTime());
         assertNotNull(entry.getLastStartedAt());
         assertTrue(result.getTotal() >= 1);
+        assertTrue(result.getGeneratedAt() >= now.getEpochSecond());
+    }
+
+    @Test
+    void testNamesRollupSortAndKeysetPagination() {
+        String busy = "analytics-keyset-busy";
+        String quiet = "analytics-keyset-quiet";
+        Instant now = Instant.now();
+        for (int i = 0; i < 3; i++) {
+            seed(busy, "kb-" + i, ProcessStatus.FAILED, null, now.minusSeconds(60), null);
+        }
+        seed(quiet, "kq-0", ProcessStatus.FAILED, null, now.minusSeconds(60), null);
+
+        List<String> names = new ArrayList<>();
+        String after = null;
+        long total;
+        do {
+            String uri = "/analytics/names?sort=FAILURES&limit=1" + (after != null ? "&after=" + after : "");
+            PagedResult<NameRollupEntry> page = client.toBlocking().retrieve(
+                    HttpRequest.GET(uri), Argument.of(PagedResult.class, NameRollupEntry.class));
+            page.getData().forEach(entry -> names.add(entry.getName()));
+            total = page.getTotal();
+            after = page.getNextCursor();
+        } while (after != null);
+
+        // Keyset pages never repeat or skip a name, and follow the sort key.
+        assertEquals(total, names.size());
+        assertEquals(names.size(), Set.copyOf(names).size());
+        assertTrue(names.indexOf(busy) >= 0 && names.indexOf(busy) < names.indexOf(quiet));
+    }
+
+    @Test
+    void testRegistryTracksCompletionAndDeletion() {
+        String name = "analytics-registry-test";
+        ProcessEntity run = seed(name, "reg-1", ProcessStatus.ACTIVE, null, null, null);
+        run.setStatus(ProcessStatus.FAILED);
+        run.setCompletedAt(Instant.now());
+        processRepository.update(run);
+
+        NameRollupEntry entry = rollupFor(name, "NAME");
+        assertEquals(1, entry.getTotal());
+        assertEquals(0, entry.getActive());
+        assertEquals(1, entry.getFailed());
+
+        processRepository.delete(run);
+        PagedResult<NameRollupEntry> after = client.toBlocking().retrieve(
+                HttpRequest.GET("/analytics/names?sort=NAME&limit=100"),
+                Argument.of(PagedResult.class, NameRollupEntry.class));
+        assertTrue(after.getData() == null || after.getData().stream().noneMatch(e -> name.equals(e.getName())));
+    }
+
+    private NameRollupEntry rollupFor(String name, String sort) {
+        PagedResult<NameRollupEntry> result = client.toBlocking().retrieve(
+                HttpRequest.GET("/analytics/names?sort=" + sort + "&limit=100"),
+                Argument.of(PagedResult.class, NameRollupEntry.class));
+        return result.getData().stream()
+                .filter(e -> name.equals(e.getName()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("expected a rollup entry for " + name));
     }
 }
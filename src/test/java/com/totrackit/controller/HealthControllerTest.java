@@ -1,5 +1,7 @@
 package com.totrackit.controller;
 
+import com.totrackit.service.CircuitBreaker;
+import com.totrackit.service.WebhookBreakers;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
@@ -24,6 +26,9 @@ class HealthControllerTest {
     @Client("/")
     HttpClient client;
 
+    @Inject
+    WebhookBreakers webhookBreakers;
+
     @Test
     @DisplayName("Health endpoint should return application status")
     void testHealthEndpoint() {
@@ -86,6 +91,43 @@ class HealthControllerTest {
         assertEquals("UP", body.get("status"));
     }
 
+    @Test
+    @DisplayName("Leader endpoint should report the default advisory-lock mode")
+    void testLeaderEndpointWithoutLeaderElection() {
+        HttpRequest<Object> request = HttpRequest.GET("/health/leader");
+        HttpResponse<Map> response = client.toBlocking().exchange(request, Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        Map<String, Object> body = response.body();
+        assertNotNull(body);
+        assertEquals("advisory-lock", body.get("mode"));
+        assertFalse(body.containsKey("leader"));
+    }
+
+    @Test
+    @DisplayName("Webhooks endpoint should report open circuit breakers")
+    @SuppressWarnings("unchecked")
+    void testWebhooksEndpointReportsOpenBreaker() {
+        CircuitBreaker breaker = webhookBreakers.forUrl("http://unreachable.example:9/hook");
+        for (int i = 0; i < 5; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+
+        HttpResponse<Map> response = client.toBlocking().exchange(HttpRequest.GET("/health/webhooks"), Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        Map<String, Object> body = response.body();
+        assertEquals("DEGRADED", body.get("status"));
+        Map<String, Object> target = (Map<String, Object>) ((Map<String, Object>) body.get("targets")).entrySet()
+                .stream()
+                .filter(entry -> entry.getKey().startsWith("http://unreachable.example:9#"))
+                .findFirst().orElseThrow().getValue();
+        assertEquals("OPEN", target.get("state"));
+        assertNotNull(target.get("retryAt"));
+    }
+
     @Test
     @DisplayName("Health endpoint should include database health details")
     void testHealthEndpointDatabaseDetails() {
@@ -0,0 +1,150 @@
+package com.totrackit.controller;
+
+import com.totrackit.dto.WebhookSubscriptionRequest;
+import com.totrackit.dto.WebhookSubscriptionResponse;
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.service.WebhookNotificationService;
+import com.totrackit.service.WebhookSubscriptionService;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the webhook subscription API against a real
+ * PostgreSQL container: create, read, list and delete, validation errors,
+ * and the routing index following changes.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS) // required for TestPropertyProvider
+class WebhookSubscriptionControllerIntegrationTest implements TestPropertyProvider {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Inject
+    @Client("/")
+    HttpClient client;
+
+    @Inject
+    WebhookSubscriptionService subscriptionService;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true"
+        );
+    }
+
+    private WebhookSubscriptionResponse create(WebhookSubscriptionRequest request) {
+        HttpResponse<WebhookSubscriptionResponse> response = client.toBlocking().exchange(
+                HttpRequest.POST("/webhooks/subscriptions", request), WebhookSubscriptionResponse.class);
+        assertEquals(HttpStatus.CREATED, response.getStatus());
+        return response.body();
+    }
+
+    private static ProcessEntity run(String name, String tagsJson) {
+        ProcessEntity entity = new ProcessEntity("run-1", name);
+        entity.setTags(tagsJson);
+        return entity;
+    }
+
+    @Test
+    void testCreateGetListAndDelete() {
+        WebhookSubscriptionResponse created = create(new WebhookSubscriptionRequest(
+                "https://billing.example/hook", "billing-*", Map.of("env", "prod"),
+                List.of(WebhookNotificationService.DEADLINE_MISSED, WebhookNotificationService.PROCESS_FAILED)));
+
+        assertTrue(created.getId() > 0);
+        assertEquals("billing-*", created.getNamePattern());
+        assertEquals(Map.of("env", "prod"), created.getTags());
+        assertNotNull(created.getCreatedAt());
+
+        WebhookSubscriptionResponse fetched = client.toBlocking().retrieve(
+                HttpRequest.GET("/webhooks/subscriptions/" + created.getId()), WebhookSubscriptionResponse.class);
+        assertEquals(created.getUrl(), fetched.getUrl());
+        assertEquals(List.of(WebhookNotificationService.DEADLINE_MISSED, WebhookNotificationService.PROCESS_FAILED),
+                fetched.getEvents());
+
+        List<WebhookSubscriptionResponse> all = client.toBlocking().retrieve(
+                HttpRequest.GET("/webhooks/subscriptions"), Argument.listOf(WebhookSubscriptionResponse.class));
+        assertTrue(all.stream().anyMatch(subscription -> subscription.getId() == created.getId()));
+
+        // The routing index is rebuilt on create.
+        String prodTags = "[{\"key\":\"env\",\"value\":\"prod\"}]";
+        assertTrue(subscriptionService.match(WebhookNotificationService.DEADLINE_MISSED,
+                run("billing-nightly", prodTags)).stream().anyMatch(s -> s.id() == created.getId()));
+        assertTrue(subscriptionService.match(WebhookNotificationService.DEADLINE_MISSED,
+                run("billing-nightly", null)).stream().noneMatch(s -> s.id() == created.getId()));
+
+        HttpResponse<?> deleted = client.toBlocking().exchange(
+                HttpRequest.DELETE("/webhooks/subscriptions/" + created.getId()));
+        assertEquals(HttpStatus.NO_CONTENT, deleted.getStatus());
+        assertTrue(subscriptionService.match(WebhookNotificationService.DEADLINE_MISSED,
+                run("billing-nightly", prodTags)).stream().noneMatch(s -> s.id() == created.getId()));
+
+        HttpClientResponseException missing = assertThrows(HttpClientResponseException.class, () ->
+                client.toBlocking().exchange(HttpRequest.GET("/webhooks/subscriptions/" + created.getId())));
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatus());
+        HttpClientResponseException deleteAgain = assertThrows(HttpClientResponseException.class, () ->
+                client.toBlocking().exchange(HttpRequest.DELETE("/webhooks/subscriptions/" + created.getId())));
+        assertEquals(HttpStatus.NOT_FOUND, deleteAgain.getStatus());
+    }
+
+    @Test
+    void testCatchAllPatternIsStoredAsAnyName() {
+        WebhookSubscriptionResponse created = create(new WebhookSubscriptionRequest(
+                "http://all.example/hook", "*", null, List.of(WebhookNotificationService.PROCESS_COMPLETED)));
+
+        assertNull(created.getNamePattern());
+        assertTrue(created.getTags() == null || created.getTags().isEmpty());
+    }
+
+    @Test
+    void testInvalidSubscriptionsAreRejected() {
+        List<WebhookSubscriptionRequest> invalid = List.of(
+                new WebhookSubscriptionRequest("ftp://example/hook", null, null,
+                        List.of(WebhookNotificationService.DEADLINE_MISSED)),
+                new WebhookSubscriptionRequest("https://example/hook", "bad name", null,
+                        List.of(WebhookNotificationService.DEADLINE_MISSED)),
+                new WebhookSubscriptionRequest("https://example/hook", null, null, List.of("process.exploded")),
+                new WebhookSubscriptionRequest("https://example/hook", null, null, List.of()));
+
+        for (WebhookSubscriptionRequest request : invalid) {
+            HttpClientResponseException e = assertThrows(HttpClientResponseException.class, () ->
+                    client.toBlocking().exchange(HttpRequest.POST("/webhooks/subscriptions", request)));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatus(), request.getUrl() + " " + request.getEvents());
+        }
+    }
+}
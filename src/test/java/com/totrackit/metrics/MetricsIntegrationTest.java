@@ -2,11 +2,13 @@ package com.totrackit.metrics;
 
 import com.totrackit.service.MetricsService;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.http.client.HttpClient;
 import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
@@ -81,6 +83,35 @@ public class MetricsIntegrationTest {
         });
     }
 
+    @Test
+    public void testHttpRequestMetricsAreLabelledWithTheRouteTemplate() {
+        HttpRequest<String> request = HttpRequest.GET("/processes/metrics-route/run-12345");
+        assertThrows(HttpClientResponseException.class, () -> client.toBlocking().exchange(request, String.class));
+
+        assertNotNull(meterRegistry.find("totrackit_http_requests_total")
+                .tag("endpoint", "/processes/{name}/{id}")
+                .tag("method", "GET")
+                .counter());
+        assertTrue(meterRegistry.find("totrackit_http_requests_total").counters().stream()
+                .noneMatch(counter -> counter.getId().getTag("endpoint").contains("run-12345")));
+    }
+
+    @Test
+    public void testConnectionPoolMetricsAreTaggedByCallSite() {
+        HttpRequest<String> request = HttpRequest.GET("/processes/pool-metrics/run-1");
+        assertThrows(HttpClientResponseException.class, () -> client.toBlocking().exchange(request, String.class));
+
+        Timer acquire = meterRegistry.find("totrackit_database_connection_acquire_seconds")
+                .tag("call_site", "process_service").timer();
+        Timer hold = meterRegistry.find("totrackit_database_connection_hold_seconds")
+                .tag("call_site", "process_service").timer();
+        assertNotNull(acquire);
+        assertNotNull(hold);
+        assertTrue(hold.count() > 0);
+        assertTrue(meterRegistry.find("totrackit_database_connections_max").gauge().value() > 0);
+        assertTrue(meterRegistry.find("totrackit_database_connections_total").gauge().value() > 0);
+    }
+
     @Test
     public void testCustomMetricsCanBeCreated() {
         // Test that we can create custom metrics
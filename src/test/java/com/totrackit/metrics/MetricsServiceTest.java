@@ -4,12 +4,14 @@ import com.totrackit.entity.ProcessEntity;
 import com.totrackit.model.ProcessStatus;
 import com.totrackit.service.MetricsService;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -67,6 +69,20 @@ public class MetricsServiceTest {
         assertTrue(meterRegistry.find("totrackit_http_requests_total").counter().count() > 0);
     }
 
+    @Test
+    public void testHttpRequestSeriesAreRegisteredOnceAndReused() {
+        metricsService.recordHttpRequestNanos("GET", "/processes/{name}/{id}", 200, 2_000_000L);
+        metricsService.recordHttpRequestNanos("GET", "/processes/{name}/{id}", 200, 4_000_000L);
+        metricsService.recordHttpRequestNanos("GET", "/processes/{name}/{id}", 404, 1_000_000L);
+
+        Timer timer = meterRegistry.find("totrackit_http_request_duration_seconds")
+                .tags("endpoint", "/processes/{name}/{id}", "method", "GET", "status", "200").timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+        assertEquals(6.0, timer.totalTime(TimeUnit.MILLISECONDS), 1e-9);
+        assertEquals(2, meterRegistry.find("totrackit_http_requests_total").counters().size());
+    }
+
     @Test
     public void testRecordActiveProcessesCount() {
         // Test that we can record active processes gauge
@@ -177,6 +193,17 @@ public class MetricsServiceTest {
                 .tag("process_name", "at-risk-proc").counter().count());
     }
 
+    @Test
+    public void testRecordDeadlineScanPass() {
+        metricsService.recordDeadlineScanPass("deadline_missed", 40, 2_000_000L);
+        metricsService.recordDeadlineScanPass("deadline_missed", 0, 1_000_000L);
+
+        assertEquals(40.0, meterRegistry.find("totrackit_deadline_scan_claimed_total")
+                .tag("event", "deadline_missed").counter().count());
+        assertEquals(2, meterRegistry.find("totrackit_deadline_scan_pass_seconds")
+                .tag("event", "deadline_missed").timer().count());
+    }
+
     @Test
     public void testOverdueGaugePerNameUpdateAndReset() {
         metricsService.updateOverdueProcessCounts(Map.of("proc-a", 3L, "proc-b", 1L));
@@ -194,4 +221,31 @@ public class MetricsServiceTest {
         assertEquals(2.0, meterRegistry.find("totrackit_processes_overdue_current")
                 .tag("process_name", "proc-b").gauge().value());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testProcessNamesBeyondTheCapAreRecordedAsOther() {
+        MetricsService capped = new MetricsService(meterRegistry, 2);
+
+        capped.recordProcessCreated("proc-a");
+        capped.recordProcessCreated("proc-b");
+        capped.recordProcessCreated("proc-c");
+        capped.recordDeadlineMissed("proc-d", 3);
+
+        assertEquals(3, meterRegistry.find("totrackit_processes_created_total").counters().size());
+        assertEquals(1.0, meterRegistry.find("totrackit_processes_created_total")
+                .tag("process_name", "other").counter().count());
+        assertNull(meterRegistry.find("totrackit_processes_created_total").tag("process_name", "proc-c").counter());
+        assertEquals(3.0, meterRegistry.find("totrackit_processes_deadline_missed_total")
+                .tag("process_name", "other").counter().count());
+    }
+
+    @Test
+    public void testDatabaseOperationCountersAreReused() {
+        metricsService.recordDatabaseOperation("create", "processes", true);
+        metricsService.recordDatabaseOperation("create", "processes", true);
+
+        assertEquals(1, meterRegistry.find("totrackit_database_operations_total").counters().size());
+        assertEquals(2.0, meterRegistry.find("totrackit_database_operations_total")
+                .tags("operation", "create", "table", "processes", "success", "true").counter().count());
+    }
+}
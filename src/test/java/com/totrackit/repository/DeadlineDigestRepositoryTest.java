@@ -0,0 +1,123 @@
+package com.totrackit.repository;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ProcessStatus;
+import com.totrackit.repository.DeadlineDigestRepository.DigestGroup;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL-backed tests for the digest-mode grouped scan: grouping by name
+ * and tag value, counts, deadline ranges, sample truncation and the same
+ * due predicates as the per-run scan.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DeadlineDigestRepositoryTest implements TestPropertyProvider {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Inject
+    DeadlineDigestRepository digest;
+
+    @Inject
+    ProcessRepository processRepository;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true",
+                "totrackit.notification-digest.enabled", "true",
+                "totrackit.notification-digest.tag-key", "env",
+                "totrackit.notification-digest.sample-size", "2"
+        );
+    }
+
+    @BeforeEach
+    void clean() {
+        processRepository.deleteAll();
+    }
+
+    private ProcessEntity seed(String name, String id, Instant startedAt, Instant deadline, String env) {
+        ProcessEntity entity = new ProcessEntity(id, name);
+        entity.setStatus(ProcessStatus.ACTIVE);
+        entity.setStartedAt(startedAt);
+        entity.setDeadline(deadline);
+        if (env != null) {
+            entity.setTags("[{\"key\":\"env\",\"value\":\"" + env + "\"}]");
+        }
+        return processRepository.save(entity);
+    }
+
+    @Test
+    void testOverdueRunsAreGroupedByNameAndTagValue() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        ProcessEntity first = seed("etl", "etl-1", now.minusSeconds(900), now.minusSeconds(300), "prod");
+        seed("etl", "etl-2", now.minusSeconds(900), now.minusSeconds(200), "prod");
+        ProcessEntity last = seed("etl", "etl-3", now.minusSeconds(900), now.minusSeconds(100), "prod");
+        seed("etl", "etl-4", now.minusSeconds(900), now.minusSeconds(150), "staging");
+        seed("sync", "sync-1", now.minusSeconds(900), now.minusSeconds(50), null);
+        seed("etl", "etl-on-time", now.minusSeconds(60), now.plusSeconds(3600), "prod");
+        ProcessEntity notified = seed("etl", "etl-notified", now.minusSeconds(900), now.minusSeconds(400), "prod");
+        processRepository.markDeadlineNotifiedBatch(List.of(notified.getId()), now);
+
+        List<DigestGroup> groups = digest.overdueGroups(now);
+
+        assertEquals(3, groups.size());
+        DigestGroup prod = groups.get(0);
+        assertEquals("etl", prod.name());
+        assertEquals("prod", prod.tagValue());
+        assertEquals(3, prod.count());
+        assertEquals(first.getDeadline(), prod.deadlineFrom());
+        assertEquals(last.getDeadline(), prod.deadlineTo());
+        assertEquals(List.of("etl-1", "etl-2"), prod.sampleIds(), "sample truncated, oldest deadline first");
+        assertEquals(3, prod.ids().size());
+        assertEquals("staging", groups.get(1).tagValue());
+        assertEquals("sync", groups.get(2).name());
+        assertNull(groups.get(2).tagValue());
+    }
+
+    @Test
+    void testWarningGroupsUseTheThreshold() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        seed("etl", "at-risk", now.minusSeconds(800), now.plusSeconds(200), "prod");
+        seed("etl", "early", now.minusSeconds(100), now.plusSeconds(900), "prod");
+        seed("etl", "overdue", now.minusSeconds(900), now.minusSeconds(100), "prod");
+
+        List<DigestGroup> groups = digest.warningGroups(now, "{0.75}");
+
+        assertEquals(1, groups.size());
+        assertEquals(1, groups.get(0).count());
+        assertEquals(List.of("at-risk"), groups.get(0).sampleIds());
+    }
+}
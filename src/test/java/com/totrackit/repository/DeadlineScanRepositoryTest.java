@@ -0,0 +1,189 @@
+package com.totrackit.repository;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ProcessStatus;
+import com.totrackit.repository.DeadlineScanRepository.DeadlineScan;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL-backed tests for the single-statement deadline scan: both
+ * events' due runs in one round trip, backlog totals counted only for a
+ * full batch when a recount is requested, and escalation through several
+ * warning levels.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DeadlineScanRepositoryTest implements TestPropertyProvider {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Inject
+    DeadlineScanRepository scanRepository;
+
+    @Inject
+    ProcessRepository processRepository;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true"
+        );
+    }
+
+    @BeforeEach
+    void clean() {
+        processRepository.deleteAll();
+    }
+
+    private ProcessEntity seed(String id, Instant startedAt, Instant deadline) {
+        ProcessEntity entity = new ProcessEntity(id, "scan-test");
+        entity.setStatus(ProcessStatus.ACTIVE);
+        entity.setStartedAt(startedAt);
+        entity.setDeadline(deadline);
+        return processRepository.save(entity);
+    }
+
+    @Test
+    void testReturnsBothEventsDueRunsInOneStatement() {
+        Instant now = Instant.now();
+        seed("late-2", now.minusSeconds(900), now.minusSeconds(100));
+        seed("late-1", now.minusSeconds(900), now.minusSeconds(300));
+        seed("at-risk", now.minusSeconds(800), now.plusSeconds(200));
+        seed("early", now.minusSeconds(100), now.plusSeconds(900));
+        ProcessEntity notified = seed("notified", now.minusSeconds(900), now.minusSeconds(50));
+        processRepository.markDeadlineNotifiedBatch(List.of(notified.getId()), now);
+
+        DeadlineScan scan = scanRepository.scan(now, "{0.75}", 10, true);
+
+        assertEquals(List.of("late-1", "late-2"), scan.overdue().stream().map(ProcessEntity::getProcessId).toList());
+        assertEquals(List.of("at-risk"), scan.approaching().stream().map(ProcessEntity::getProcessId).toList());
+        assertEquals("scan-test", scan.overdue().get(0).getName());
+        assertNull(scan.missedBacklog(), "a batch that is not full is not recounted");
+        assertNull(scan.warningBacklog());
+    }
+
+    @Test
+    void testFullBatchIsCountedOnlyWhenRequested() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            seed("late-" + i, now.minusSeconds(900), now.minusSeconds(100 + i));
+        }
+
+        DeadlineScan counted = scanRepository.scan(now, "{0.75}", 2, true);
+        DeadlineScan carried = scanRepository.scan(now, "{0.75}", 2, false);
+
+        assertEquals(2, counted.overdue().size());
+        assertEquals(5L, counted.missedBacklog());
+        assertNull(counted.warningBacklog());
+        assertNull(carried.missedBacklog());
+    }
+
+    @Test
+    void testEmptyScanAndDisabledWarnings() {
+        Instant now = Instant.now();
+        seed("at-risk", now.minusSeconds(800), now.plusSeconds(200));
+
+        DeadlineScan scan = scanRepository.scan(now, null, 10, true);
+
+        assertTrue(scan.overdue().isEmpty());
+        assertTrue(scan.approaching().isEmpty());
+    }
+
+    @Test
+    void testWarningsEscalateThroughEachLevelOnce() {
+        String levels = "{0.5,0.75,0.9}";
+        Instant now = Instant.now();
+        // Budget 1000s, 600s in: past the first level only.
+        ProcessEntity run = seed("escalating", now.minusSeconds(600), now.plusSeconds(400));
+
+        assertEquals(1, scanRepository.scan(now, levels, 10, false).approaching().size());
+        processRepository.markDeadlineWarnedBatch(List.of(run.getId()), now, levels);
+        ProcessEntity first = processRepository.findById(run.getId()).orElseThrow();
+        assertEquals(1, first.getDeadlineWarningLevel());
+        assertNull(first.getDeadlineWarnedAt(), "levels are left, so the run stays on the warning index");
+        assertTrue(scanRepository.scan(now, levels, 10, false).approaching().isEmpty());
+
+        Instant second = now.plusSeconds(200);
+        assertEquals(1, scanRepository.scan(second, levels, 10, false).approaching().size());
+        processRepository.markDeadlineWarnedBatch(List.of(run.getId()), second, levels);
+        assertEquals(2, processRepository.findById(run.getId()).orElseThrow().getDeadlineWarningLevel());
+
+        Instant last = now.plusSeconds(350);
+        processRepository.markDeadlineWarnedBatch(List.of(run.getId()), last, levels);
+        ProcessEntity done = processRepository.findById(run.getId()).orElseThrow();
+        assertEquals(3, done.getDeadlineWarningLevel());
+        assertNotNull(done.getDeadlineWarnedAt());
+        assertTrue(scanRepository.scan(last, levels, 10, false).approaching().isEmpty());
+    }
+
+    @Test
+    void testNextWarningInstantFollowsTheMarks() {
+        String levels = "{0.5,0.75,0.9}";
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant start = now.minusSeconds(600);
+        ProcessEntity run = seed("escalating", start, start.plusSeconds(1000));
+        run.setNextWarningAt(start.plusSeconds(500));
+        processRepository.update(run);
+        ProcessEntity late = seed("late", now.minusSeconds(900), now.minusSeconds(60));
+        late.setNextWarningAt(now.minusSeconds(225));
+        processRepository.update(late);
+
+        assertEquals(Optional.of(now.minusSeconds(225)), processRepository.findNextWarningInstant(Instant.EPOCH));
+        processRepository.markDeadlineNotifiedBatch(List.of(late.getId()), now);
+        assertEquals(Optional.of(start.plusSeconds(500)), processRepository.findNextWarningInstant(Instant.EPOCH));
+        assertTrue(processRepository.findNextWarningInstant(now).isEmpty(), "past instants are bounded out");
+
+        processRepository.markDeadlineWarnedBatch(List.of(run.getId()), now, levels);
+        assertEquals(Optional.of(start.plusSeconds(750)), processRepository.findNextWarningInstant(now));
+
+        processRepository.markDeadlineWarnedBatch(List.of(run.getId()), start.plusSeconds(950), levels);
+        assertNull(processRepository.findById(run.getId()).orElseThrow().getNextWarningAt());
+        assertTrue(processRepository.findNextWarningInstant(Instant.EPOCH).isEmpty());
+    }
+
+    @Test
+    void testRunPastSeveralLevelsFiresOnceAtTheHighest() {
+        String levels = "{0.5,0.75,0.9}";
+        Instant now = Instant.now();
+        ProcessEntity run = seed("late-start", now.minusSeconds(950), now.plusSeconds(50));
+
+        assertEquals(1, scanRepository.scan(now, levels, 10, false).approaching().size());
+        processRepository.markDeadlineWarnedBatch(List.of(run.getId()), now, levels);
+
+        ProcessEntity marked = processRepository.findById(run.getId()).orElseThrow();
+        assertEquals(3, marked.getDeadlineWarningLevel());
+        assertNotNull(marked.getDeadlineWarnedAt());
+    }
+}
@@ -0,0 +1,160 @@
+package com.totrackit.repository;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ExpectedSchedule;
+import com.totrackit.model.ProcessStatus;
+import com.totrackit.repository.ExpectedScheduleRepository.ExpectedRun;
+import io.micronaut.data.connection.jdbc.advice.DelegatingDataSource;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL-backed tests for expected-run schedules: upserts, the batched
+ * missing-run check with its grace window, checked starts that are never
+ * reported twice, and the index the existence probe reads.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExpectedScheduleRepositoryTest implements TestPropertyProvider {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Inject
+    ExpectedScheduleRepository scheduleRepository;
+
+    @Inject
+    ProcessRepository processRepository;
+
+    @Inject
+    DataSource dataSource;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true"
+        );
+    }
+
+    @BeforeEach
+    void clean() {
+        processRepository.deleteAll();
+        scheduleRepository.findAll().forEach(schedule -> scheduleRepository.delete(schedule.name()));
+    }
+
+    private void seedRun(String name, Instant startedAt) {
+        ProcessEntity entity = new ProcessEntity("run-" + startedAt.getEpochSecond(), name);
+        entity.setStatus(ProcessStatus.COMPLETED);
+        entity.setStartedAt(startedAt);
+        processRepository.save(entity);
+    }
+
+    @Test
+    void testUpsertReplacesTheDefinitionAndKeepsProgress() {
+        Instant expected = Instant.now().truncatedTo(ChronoUnit.SECONDS).minus(1, ChronoUnit.HOURS);
+        scheduleRepository.upsert("import", "0 2 * * *", "UTC", 600);
+        scheduleRepository.markChecked(List.of(new ExpectedRun("import", expected, 600)));
+
+        ExpectedSchedule replaced = scheduleRepository.upsert("import", "0 3 * * *", "Europe/Paris", 300);
+
+        assertEquals("0 3 * * *", replaced.cron());
+        assertEquals("Europe/Paris", replaced.timeZone());
+        assertEquals(300, replaced.graceSeconds());
+        assertEquals(expected, replaced.checkedThrough());
+        assertEquals(1, scheduleRepository.findAll().size());
+    }
+
+    @Test
+    void testOnlyStartsWithoutARunWithinGraceAreMissing() {
+        Instant expected = Instant.now().truncatedTo(ChronoUnit.SECONDS).minus(1, ChronoUnit.HOURS);
+        for (String name : List.of("on-time", "early", "late", "too-late", "never")) {
+            scheduleRepository.upsert(name, "0 * * * *", "UTC", 600);
+        }
+        seedRun("on-time", expected.plusSeconds(5));
+        seedRun("early", expected.minusSeconds(300));
+        seedRun("late", expected.plusSeconds(600));
+        seedRun("too-late", expected.plusSeconds(601));
+        seedRun("unrelated", expected);
+
+        List<ExpectedRun> due = List.of("on-time", "early", "late", "too-late", "never").stream()
+                .map(name -> new ExpectedRun(name, expected, 600))
+                .toList();
+
+        assertEquals(List.of("too-late", "never"),
+                scheduleRepository.findMissing(due).stream().map(ExpectedRun::name).toList());
+    }
+
+    @Test
+    void testCheckedStartsAreNeverReportedAgain() {
+        Instant expected = Instant.now().truncatedTo(ChronoUnit.SECONDS).minus(1, ChronoUnit.HOURS);
+        scheduleRepository.upsert("never", "0 * * * *", "UTC", 600);
+        ExpectedRun run = new ExpectedRun("never", expected, 600);
+
+        assertEquals(1, scheduleRepository.markChecked(List.of(run)));
+
+        assertTrue(scheduleRepository.findMissing(List.of(run)).isEmpty());
+        ExpectedRun earlier = new ExpectedRun("never", expected.minusSeconds(3600), 600);
+        ExpectedRun later = new ExpectedRun("never", expected.plusSeconds(3600), 600);
+        assertEquals(0, scheduleRepository.markChecked(List.of(earlier)), "checked_through only moves forward");
+        assertEquals(List.of(later), scheduleRepository.findMissing(List.of(later)));
+    }
+
+    @Test
+    void testExistenceProbeReadsTheNameStartedAtIndex() throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = DelegatingDataSource.unwrapDataSource(dataSource).getConnection();
+             Statement settings = connection.createStatement()) {
+            settings.execute("SET enable_seqscan = off");
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "EXPLAIN " + ExpectedScheduleRepository.FIND_MISSING)) {
+                statement.setArray(1, connection.createArrayOf("text", new Object[] {"import"}));
+                statement.setArray(2, connection.createArrayOf("bigint",
+                        new Object[] {Instant.now().getEpochSecond()}));
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+            } finally {
+                settings.execute("RESET enable_seqscan");
+            }
+        }
+
+        assertTrue(plan.toString().contains("idx_processes_name_started_at"), plan.toString());
+    }
+}
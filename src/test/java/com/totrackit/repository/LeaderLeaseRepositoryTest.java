@@ -0,0 +1,108 @@
+package com.totrackit.repository;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL-backed tests for the leader lease upsert: one holder at a time,
+ * renewal keeps acquired_at, and an expired or released lease can be taken
+ * over.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LeaderLeaseRepositoryTest implements TestPropertyProvider {
+
+    private static final String LEASE = "test-lease";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Inject
+    LeaderLeaseRepository leases;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true"
+        );
+    }
+
+    @BeforeEach
+    void clean() {
+        leases.release(LEASE, "replica-a");
+        leases.release(LEASE, "replica-b");
+    }
+
+    @Test
+    void testOnlyOneHolderAtATime() {
+        Optional<LeaderLeaseRepository.Lease> first = leases.tryAcquire(LEASE, "replica-a", Duration.ofMinutes(1));
+        Optional<LeaderLeaseRepository.Lease> second = leases.tryAcquire(LEASE, "replica-b", Duration.ofMinutes(1));
+
+        assertTrue(first.isPresent());
+        assertTrue(second.isEmpty());
+        assertEquals("replica-a", leases.find(LEASE).orElseThrow().holder());
+    }
+
+    @Test
+    void testRenewalKeepsAcquiredAtAndExtendsExpiry() throws Exception {
+        LeaderLeaseRepository.Lease acquired =
+                leases.tryAcquire(LEASE, "replica-a", Duration.ofMinutes(1)).orElseThrow();
+        Thread.sleep(20);
+        LeaderLeaseRepository.Lease renewed =
+                leases.tryAcquire(LEASE, "replica-a", Duration.ofMinutes(1)).orElseThrow();
+
+        assertEquals(acquired.acquiredAt(), renewed.acquiredAt());
+        assertTrue(renewed.expiresAt().isAfter(acquired.expiresAt()));
+    }
+
+    @Test
+    void testExpiredLeaseCanBeTakenOver() throws Exception {
+        leases.tryAcquire(LEASE, "replica-a", Duration.ofMillis(10)).orElseThrow();
+        Thread.sleep(50);
+
+        LeaderLeaseRepository.Lease taken =
+                leases.tryAcquire(LEASE, "replica-b", Duration.ofMinutes(1)).orElseThrow();
+
+        assertEquals("replica-b", taken.holder());
+        assertTrue(leases.tryAcquire(LEASE, "replica-a", Duration.ofMinutes(1)).isEmpty());
+    }
+
+    @Test
+    void testReleasedLeaseCanBeTakenOverImmediately() {
+        leases.tryAcquire(LEASE, "replica-a", Duration.ofMinutes(1)).orElseThrow();
+        leases.release(LEASE, "replica-b");
+        assertEquals("replica-a", leases.find(LEASE).orElseThrow().holder(), "only the holder can release");
+
+        leases.release(LEASE, "replica-a");
+
+        assertTrue(leases.tryAcquire(LEASE, "replica-b", Duration.ofMinutes(1)).isPresent());
+    }
+}
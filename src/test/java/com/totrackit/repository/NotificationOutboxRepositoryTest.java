@@ -0,0 +1,171 @@
+package com.totrackit.repository;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ProcessStatus;
+import com.totrackit.repository.NotificationOutboxRepository.OutboxEvent;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL-backed tests for the notification outbox: atomic mark-and-enqueue
+ * from the deadline scan, leased claims, backoff rescheduling, dead-lettering
+ * and retention.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NotificationOutboxRepositoryTest implements TestPropertyProvider {
+
+    private static final String MISSED = "process.deadline_missed";
+    private static final String WARNING = "process.deadline_warning";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Inject
+    NotificationOutboxRepository outbox;
+
+    @Inject
+    ProcessRepository processRepository;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true",
+                "totrackit.notification-delivery", "outbox"
+        );
+    }
+
+    @BeforeEach
+    void clean() {
+        // Outbox rows cascade with their processes.
+        processRepository.deleteAll();
+    }
+
+    private ProcessEntity seed(String id, Instant startedAt, Instant deadline) {
+        ProcessEntity entity = new ProcessEntity(id, "outbox-test");
+        entity.setStatus(ProcessStatus.ACTIVE);
+        entity.setStartedAt(startedAt);
+        entity.setDeadline(deadline);
+        return processRepository.save(entity);
+    }
+
+    @Test
+    void testEnqueueMarksRunsAndQueuesOneEventEach() {
+        Instant now = Instant.now();
+        ProcessEntity overdue = seed("late-1", now.minusSeconds(600), now.minusSeconds(60));
+        seed("on-time", now.minusSeconds(60), now.plusSeconds(3600));
+
+        List<String> names = outbox.enqueueMissedDeadlines(now, MISSED, 100);
+
+        assertEquals(List.of("outbox-test"), names);
+        assertNotNull(processRepository.findById(overdue.getId()).orElseThrow().getDeadlineNotifiedAt());
+        assertEquals(List.of(), outbox.enqueueMissedDeadlines(now, MISSED, 100), "enqueued at most once");
+
+        List<OutboxEvent> claimed = outbox.claimDue(now, now.plusSeconds(120), 10);
+        assertEquals(1, claimed.size());
+        assertEquals(overdue.getId(), claimed.get(0).processId());
+        assertEquals(MISSED, claimed.get(0).eventType());
+        assertEquals(1, claimed.get(0).attempts());
+    }
+
+    @Test
+    void testEnqueueWarningsUsesThreshold() {
+        Instant now = Instant.now();
+        ProcessEntity atRisk = seed("risk-1", now.minusSeconds(800), now.plusSeconds(200));
+        seed("early", now.minusSeconds(100), now.plusSeconds(900));
+
+        assertEquals(1, outbox.enqueueDeadlineWarnings(now, "{0.75}", WARNING, 100).size());
+
+        assertNotNull(processRepository.findById(atRisk.getId()).orElseThrow().getDeadlineWarnedAt());
+        assertEquals(1, outbox.depth().pending());
+    }
+
+    @Test
+    void testClaimLeasesRowsUntilRescheduled() {
+        Instant now = Instant.now();
+        seed("late-2", now.minusSeconds(600), now.minusSeconds(60));
+        outbox.enqueueMissedDeadlines(now, MISSED, 100);
+
+        List<OutboxEvent> first = outbox.claimDue(now, now.plusSeconds(120), 10);
+        assertEquals(1, first.size());
+        assertEquals(List.of(), outbox.claimDue(now.plusSeconds(60), now.plusSeconds(180), 10),
+                "leased rows are not claimed again");
+
+        outbox.reschedule(List.of(first.get(0).id()), now.plusSeconds(10));
+        List<OutboxEvent> retried = outbox.claimDue(now.plusSeconds(10), now.plusSeconds(130), 10);
+        assertEquals(1, retried.size());
+        assertEquals(2, retried.get(0).attempts());
+    }
+
+    @Test
+    void testReleasedRowsAreDueAgainWithoutAnAttempt() {
+        Instant now = Instant.now();
+        seed("late-5", now.minusSeconds(600), now.minusSeconds(60));
+        outbox.enqueueMissedDeadlines(now, MISSED, 100);
+
+        List<OutboxEvent> first = outbox.claimDue(now, now.plusSeconds(120), 10);
+        outbox.release(List.of(first.get(0).id()), now);
+
+        List<OutboxEvent> again = outbox.claimDue(now, now.plusSeconds(120), 10);
+        assertEquals(1, again.size(), "released rows are due at once");
+        assertEquals(1, again.get(0).attempts(), "the unsent claim was not charged");
+    }
+
+    @Test
+    void testDeliveredAndDeadRowsAreNeverClaimed() {
+        Instant now = Instant.now();
+        seed("late-3", now.minusSeconds(600), now.minusSeconds(60));
+        seed("late-4", now.minusSeconds(600), now.minusSeconds(30));
+        outbox.enqueueMissedDeadlines(now, MISSED, 100);
+        List<OutboxEvent> claimed = outbox.claimDue(now, now, 10);
+        assertEquals(2, claimed.size());
+
+        outbox.markDelivered(List.of(claimed.get(0).id()), now);
+        outbox.deadLetter(List.of(claimed.get(1).id()));
+
+        assertEquals(List.of(), outbox.claimDue(now.plusSeconds(3600), now.plusSeconds(3600), 10));
+        NotificationOutboxRepository.Depth depth = outbox.depth();
+        assertEquals(0, depth.pending());
+        assertEquals(1, depth.dead());
+    }
+
+    @Test
+    void testPurgeRemovesOnlyOldDeliveredRows() {
+        Instant now = Instant.now();
+        seed("late-5", now.minusSeconds(600), now.minusSeconds(60));
+        outbox.enqueueMissedDeadlines(now, MISSED, 100);
+        List<OutboxEvent> claimed = outbox.claimDue(now, now, 10);
+        outbox.markDelivered(List.of(claimed.get(0).id()), now.minusSeconds(3600));
+
+        assertEquals(0, outbox.purgeDelivered(now.minusSeconds(7200)));
+        assertEquals(1, outbox.purgeDelivered(now));
+    }
+}
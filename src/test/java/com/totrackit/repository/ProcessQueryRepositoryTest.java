@@ -253,7 +253,7 @@ class ProcessQueryRepositoryTest implements TestPropertyProvider {
         // Already past deadline: handled by the missed pass, not the warning pass
         seed(name, "past-deadline", ProcessStatus.ACTIVE, now.minusSeconds(7200), now.minusSeconds(3600), null, null);
 
-        List<String> due = processRepository.findApproachingUnwarned(Instant.now(), 0.75, 100).stream()
+        List<String> due = processRepository.findApproachingUnwarned(Instant.now(), "{0.75}", 100).stream()
                 .filter(p -> name.equals(p.getName()))
                 .map(ProcessEntity::getProcessId)
                 .toList();
@@ -269,7 +269,7 @@ class ProcessQueryRepositoryTest implements TestPropertyProvider {
             seed(name, "w-" + i, ProcessStatus.ACTIVE, now.minusSeconds(900), now.plusSeconds(100 + i), null, null);
         }
 
-        List<ProcessEntity> batch = processRepository.findApproachingUnwarned(Instant.now(), 0.75, 2);
+        List<ProcessEntity> batch = processRepository.findApproachingUnwarned(Instant.now(), "{0.75}", 2);
         assertTrue(batch.size() <= 2);
     }
 }
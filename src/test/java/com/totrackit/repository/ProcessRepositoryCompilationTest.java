@@ -34,13 +34,13 @@ class ProcessRepositoryCompilationTest {
             repositoryClass.getMethod("findByNameAndProcessId", String.class, String.class);
             repositoryClass.getMethod("existsActiveProcess", String.class, String.class);
             repositoryClass.getMethod("findOverdueUnnotified", Instant.class, int.class);
-            repositoryClass.getMethod("findApproachingUnwarned", Instant.class, double.class, int.class);
+            repositoryClass.getMethod("findApproachingUnwarned", Instant.class, String.class, int.class);
             repositoryClass.getMethod("countOverdueUnnotified", Instant.class);
-            repositoryClass.getMethod("countApproachingUnwarned", Instant.class, double.class);
+            repositoryClass.getMethod("countApproachingUnwarned", Instant.class, String.class);
             repositoryClass.getMethod("markDeadlineNotified", Long.class, Instant.class);
             repositoryClass.getMethod("markDeadlineNotifiedBatch", java.util.List.class, Instant.class);
             repositoryClass.getMethod("markDeadlineWarned", Long.class, Instant.class);
-            repositoryClass.getMethod("markDeadlineWarnedBatch", java.util.List.class, Instant.class);
+            repositoryClass.getMethod("markDeadlineWarnedBatch", java.util.List.class, Instant.class, String.class);
             repositoryClass.getMethod("countByStatus", ProcessStatus.class);
             
             // If we get here, all methods are properly defined
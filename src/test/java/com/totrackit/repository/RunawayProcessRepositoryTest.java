@@ -0,0 +1,132 @@
+package com.totrackit.repository;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ProcessStatus;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL-backed tests for failing runs past their max duration: which
+ * runs each limit covers, chunking oldest first, and the stored reason.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RunawayProcessRepositoryTest implements TestPropertyProvider {
+
+    private static final String REASON = "Exceeded max duration of 6h";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Inject
+    RunawayProcessRepository runawayRepository;
+
+    @Inject
+    ProcessRepository processRepository;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true"
+        );
+    }
+
+    @BeforeEach
+    void clean() {
+        processRepository.deleteAll();
+    }
+
+    private ProcessEntity seed(String processId, String name, ProcessStatus status, Instant startedAt) {
+        ProcessEntity entity = new ProcessEntity(processId, name);
+        entity.setStatus(status);
+        entity.setStartedAt(startedAt);
+        return processRepository.save(entity);
+    }
+
+    private static List<String> ids(List<ProcessEntity> runs) {
+        return runs.stream().map(ProcessEntity::getProcessId).toList();
+    }
+
+    @Test
+    void testNamedLimitFailsOnlyExpiredActiveRunsOfItsName() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant cutoff = now.minus(6, ChronoUnit.HOURS);
+        seed("expired", "etl", ProcessStatus.ACTIVE, cutoff.minusSeconds(1));
+        seed("recent", "etl", ProcessStatus.ACTIVE, cutoff.plusSeconds(1));
+        seed("done", "etl", ProcessStatus.COMPLETED, cutoff.minusSeconds(60));
+        seed("other", "sync", ProcessStatus.ACTIVE, cutoff.minusSeconds(60));
+
+        List<ProcessEntity> failed = runawayRepository.failExpired("etl", List.of("etl"), cutoff, now, REASON, 100);
+
+        assertEquals(List.of("expired"), ids(failed));
+        ProcessEntity stored = processRepository.findByNameAndProcessId("etl", "expired").orElseThrow();
+        assertEquals(ProcessStatus.FAILED, stored.getStatus());
+        assertEquals(now, stored.getCompletedAt());
+        assertEquals(REASON, stored.getFailureReason());
+        assertEquals(ProcessStatus.ACTIVE,
+                processRepository.findByNameAndProcessId("etl", "recent").orElseThrow().getStatus());
+        assertNull(processRepository.findByNameAndProcessId("etl", "done").orElseThrow().getFailureReason());
+    }
+
+    @Test
+    void testDefaultLimitSkipsNamesWithTheirOwn() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant cutoff = now.minus(1, ChronoUnit.DAYS);
+        seed("etl-run", "etl", ProcessStatus.ACTIVE, cutoff.minusSeconds(60));
+        seed("sync-run", "sync", ProcessStatus.ACTIVE, cutoff.minusSeconds(60));
+        seed("report-run", "report", ProcessStatus.ACTIVE, cutoff.minusSeconds(60));
+
+        List<ProcessEntity> failed = runawayRepository.failExpired(null, List.of("etl"), cutoff, now, REASON, 100);
+
+        assertEquals(List.of("report-run", "sync-run"), ids(failed).stream().sorted().toList());
+        assertEquals(ProcessStatus.ACTIVE,
+                processRepository.findByNameAndProcessId("etl", "etl-run").orElseThrow().getStatus());
+    }
+
+    @Test
+    void testChunksTakeTheOldestRunsFirst() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant cutoff = now.minus(6, ChronoUnit.HOURS);
+        for (int i = 1; i <= 5; i++) {
+            seed("run-" + i, "etl", ProcessStatus.ACTIVE, cutoff.minusSeconds(600 - i));
+        }
+
+        List<ProcessEntity> first = runawayRepository.failExpired("etl", List.of("etl"), cutoff, now, REASON, 2);
+        List<ProcessEntity> second = runawayRepository.failExpired("etl", List.of("etl"), cutoff, now, REASON, 2);
+        List<ProcessEntity> third = runawayRepository.failExpired("etl", List.of("etl"), cutoff, now, REASON, 2);
+
+        assertEquals(List.of("run-1", "run-2"), ids(first).stream().sorted().toList());
+        assertEquals(List.of("run-3", "run-4"), ids(second).stream().sorted().toList());
+        assertEquals(List.of("run-5"), ids(third));
+        assertTrue(runawayRepository.failExpired("etl", List.of("etl"), cutoff, now, REASON, 2).isEmpty());
+    }
+}
@@ -0,0 +1,152 @@
+package com.totrackit.repository;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ProcessStatus;
+import io.micronaut.data.connection.jdbc.advice.DelegatingDataSource;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL-backed tests for the stall scan queries: the due predicate,
+ * heartbeat re-arming, marking that leaves re-armed runs alone, and the
+ * partial index the scan reads.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StallQueriesTest implements TestPropertyProvider {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Inject
+    ProcessRepository processRepository;
+
+    @Inject
+    DataSource dataSource;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true"
+        );
+    }
+
+    @BeforeEach
+    void clean() {
+        processRepository.deleteAll();
+    }
+
+    private ProcessEntity seed(String id, Instant lastActivity, Integer timeoutSeconds, ProcessStatus status) {
+        ProcessEntity entity = new ProcessEntity(id, "etl");
+        entity.setStatus(status);
+        entity.setStartedAt(lastActivity);
+        entity.setLastActivityAt(lastActivity);
+        if (timeoutSeconds != null) {
+            entity.setStallTimeoutSeconds(timeoutSeconds);
+            entity.setStallAt(lastActivity.plusSeconds(timeoutSeconds));
+        }
+        return processRepository.save(entity);
+    }
+
+    @Test
+    void testOnlyActiveRunsPastTheirOwnTimeoutAreDue() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        ProcessEntity longest = seed("stalled-long", now.minusSeconds(3600), 600, ProcessStatus.ACTIVE);
+        ProcessEntity shortTimeout = seed("stalled-short", now.minusSeconds(120), 60, ProcessStatus.ACTIVE);
+        seed("alive", now.minusSeconds(120), 600, ProcessStatus.ACTIVE);
+        seed("unwatched", now.minusSeconds(3600), null, ProcessStatus.ACTIVE);
+        seed("finished", now.minusSeconds(3600), 60, ProcessStatus.COMPLETED);
+
+        List<ProcessEntity> stalled = processRepository.findStalledUnnotified(now, 10);
+
+        assertEquals(List.of(longest.getId(), shortTimeout.getId()), stalled.stream().map(ProcessEntity::getId).toList());
+    }
+
+    @Test
+    void testMarkedRunsStayQuietUntilAHeartbeatReArmsThem() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        ProcessEntity run = seed("run-1", now.minusSeconds(900), 600, ProcessStatus.ACTIVE);
+
+        processRepository.markStallNotifiedBatch(List.of(run.getId()), now);
+        assertTrue(processRepository.findStalledUnnotified(now, 10).isEmpty());
+
+        assertEquals(1, processRepository.recordHeartbeat(run.getId(), now, now.plusSeconds(600)));
+        ProcessEntity rearmed = processRepository.findById(run.getId()).orElseThrow();
+        assertNull(rearmed.getStallNotifiedAt());
+        assertEquals(now, rearmed.getLastActivityAt());
+        assertEquals(1, processRepository.findStalledUnnotified(now.plusSeconds(601), 10).size());
+    }
+
+    @Test
+    void testMarkingSkipsRunsReArmedSinceTheScan() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        ProcessEntity run = seed("run-1", now.minusSeconds(900), 600, ProcessStatus.ACTIVE);
+        processRepository.recordHeartbeat(run.getId(), now.plusSeconds(1), now.plusSeconds(601));
+
+        processRepository.markStallNotifiedBatch(List.of(run.getId()), now);
+
+        assertNull(processRepository.findById(run.getId()).orElseThrow().getStallNotifiedAt());
+    }
+
+    @Test
+    void testHeartbeatOnAFinishedRunChangesNothing() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        ProcessEntity run = seed("run-1", now.minusSeconds(900), 600, ProcessStatus.FAILED);
+
+        assertEquals(0, processRepository.recordHeartbeat(run.getId(), now, now.plusSeconds(600)));
+    }
+
+    @Test
+    void testScanReadsThePartialStallIndex() throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = DelegatingDataSource.unwrapDataSource(dataSource).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            try (ResultSet rs = statement.executeQuery(
+                    "EXPLAIN SELECT * FROM processes WHERE status = 'ACTIVE' AND stall_at IS NOT NULL " +
+                    "AND stall_at < now() AND stall_notified_at IS NULL ORDER BY stall_at ASC LIMIT 500")) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            } finally {
+                statement.execute("RESET enable_seqscan");
+            }
+        }
+
+        assertTrue(plan.toString().contains("idx_processes_stall_unnotified"), plan.toString());
+    }
+}
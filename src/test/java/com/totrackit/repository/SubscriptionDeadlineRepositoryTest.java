@@ -0,0 +1,162 @@
+package com.totrackit.repository;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ProcessStatus;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL-backed tests for the subscription deadline marker: due runs are
+ * taken once, the marker steps through the warning levels to the deadline,
+ * it ignores the operator webhook's markers, and starting routing points
+ * markers at the next event rather than at a backlog.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SubscriptionDeadlineRepositoryTest implements TestPropertyProvider {
+
+    private static final String LEVELS = "{0.5,0.75}";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Inject
+    SubscriptionDeadlineRepository markers;
+
+    @Inject
+    ProcessRepository processRepository;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true"
+        );
+    }
+
+    @BeforeEach
+    void clean() {
+        processRepository.deleteAll();
+    }
+
+    private ProcessEntity seed(String id, Instant startedAt, Instant deadline, Instant dueAt) {
+        ProcessEntity entity = new ProcessEntity(id, "subscription-test");
+        entity.setStatus(ProcessStatus.ACTIVE);
+        entity.setStartedAt(startedAt);
+        entity.setDeadline(deadline);
+        entity.setSubscriptionDueAt(dueAt);
+        return processRepository.save(entity);
+    }
+
+    @Test
+    void testMarkerStepsThroughTheLevelsToTheDeadline() {
+        Instant start = Instant.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(1000);
+        Instant deadline = start.plusSeconds(1000);
+        ProcessEntity run = seed("escalating", start, deadline, start.plusSeconds(500));
+
+        List<ProcessEntity> first = markers.takeDue(start.plusSeconds(510), LEVELS, 10);
+        assertEquals(1, first.size());
+        assertEquals(1, first.get(0).getDeadlineWarningLevel());
+        assertEquals(start.plusSeconds(750), first.get(0).getSubscriptionDueAt());
+
+        assertTrue(markers.takeDue(start.plusSeconds(600), LEVELS, 10).isEmpty(), "the level is not taken twice");
+
+        List<ProcessEntity> second = markers.takeDue(start.plusSeconds(760), LEVELS, 10);
+        assertEquals(2, second.get(0).getDeadlineWarningLevel());
+        assertEquals(deadline, second.get(0).getSubscriptionDueAt());
+
+        List<ProcessEntity> missed = markers.takeDue(deadline.plusSeconds(1), LEVELS, 10);
+        assertEquals(run.getId(), missed.get(0).getId());
+        assertNull(missed.get(0).getSubscriptionDueAt(), "a cleared marker means the missed event");
+        assertTrue(markers.takeDue(deadline.plusSeconds(60), LEVELS, 10).isEmpty());
+    }
+
+    @Test
+    void testOperatorMarkersDoNotHoldSubscriptionEventsBack() {
+        Instant now = Instant.now();
+        ProcessEntity overdue = seed("overdue", now.minusSeconds(900), now.minusSeconds(60), now.minusSeconds(60));
+        // The operator webhook has not accepted anything for this run.
+        assertNull(processRepository.findById(overdue.getId()).orElseThrow().getDeadlineNotifiedAt());
+
+        List<ProcessEntity> due = markers.takeDue(now, LEVELS, 10);
+
+        assertEquals(List.of("overdue"), due.stream().map(ProcessEntity::getProcessId).toList());
+        assertNull(due.get(0).getSubscriptionDueAt());
+    }
+
+    @Test
+    void testFinishedRunsAndRunsWithoutMarkerAreSkipped() {
+        Instant now = Instant.now();
+        ProcessEntity completed = seed("completed", now.minusSeconds(900), now.minusSeconds(60),
+                now.minusSeconds(60));
+        completed.setStatus(ProcessStatus.COMPLETED);
+        completed.setCompletedAt(now.minusSeconds(30));
+        processRepository.update(completed);
+        seed("no-deadline", now.minusSeconds(900), null, null);
+
+        assertTrue(markers.takeDue(now, LEVELS, 10).isEmpty());
+    }
+
+    @Test
+    void testRestartPointsMarkersAtTheNextEvent() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant start = now.minusSeconds(600);
+        // Left over from an earlier subscription: warning and missed events long due.
+        ProcessEntity stale = seed("stale", start, now.plusSeconds(400), start.plusSeconds(1));
+        ProcessEntity overdue = seed("overdue", now.minusSeconds(900), now.minusSeconds(60), now.minusSeconds(60));
+        ProcessEntity unmarked = seed("unmarked", start, now.plusSeconds(400), null);
+
+        assertEquals(3, markers.start(now, LEVELS, true));
+
+        assertEquals(start.plusSeconds(750), processRepository.findById(stale.getId()).orElseThrow()
+                .getSubscriptionDueAt());
+        assertEquals(start.plusSeconds(750), processRepository.findById(unmarked.getId()).orElseThrow()
+                .getSubscriptionDueAt());
+        assertNull(processRepository.findById(overdue.getId()).orElseThrow().getSubscriptionDueAt());
+        assertTrue(markers.takeDue(now, LEVELS, 10).isEmpty(), "nothing old is replayed");
+    }
+
+    @Test
+    void testFillOnlySetsMissingMarkers() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant start = now.minusSeconds(600);
+        ProcessEntity due = seed("due", start, now.plusSeconds(400), now.minusSeconds(5));
+        ProcessEntity unmarked = seed("unmarked", start, now.plusSeconds(400), null);
+        seed("overdue", now.minusSeconds(900), now.minusSeconds(60), null);
+
+        assertEquals(1, markers.start(now, LEVELS, false));
+
+        assertEquals(start.plusSeconds(750), processRepository.findById(unmarked.getId()).orElseThrow()
+                .getSubscriptionDueAt());
+        assertEquals(List.of(due.getId()), markers.takeDue(now, LEVELS, 10).stream()
+                .map(ProcessEntity::getId).toList(), "a marker already due is still taken");
+    }
+}
@@ -0,0 +1,226 @@
+package com.totrackit.service;
+
+import com.totrackit.dto.NameRollupEntry;
+import com.totrackit.dto.PagedResult;
+import com.totrackit.dto.SummaryResponse;
+import com.totrackit.dto.TagImpactResponse;
+import com.totrackit.model.NameRollupSort;
+import com.totrackit.repository.AnalyticsSnapshotRepository;
+import com.totrackit.util.KeysetCursor;
+import io.micronaut.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the precomputed analytics snapshot: the lock holder computes
+ * and publishes, other replicas load the shared copy, and stale or disabled
+ * snapshots are never served.
+ */
+@ExtendWith(MockitoExtension.class)
+class AnalyticsSnapshotServiceTest {
+
+    @Mock
+    private AnalyticsService analyticsService;
+
+    @Mock
+    private AnalyticsSnapshotRepository snapshotRepository;
+
+    @Mock
+    private AdvisoryLockService advisoryLockService;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    private final JsonMapper jsonMapper = JsonMapper.createDefault();
+
+    private AnalyticsSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        service = newService(true, Duration.ofMinutes(2));
+    }
+
+    private AnalyticsSnapshotService newService(boolean enabled, Duration maxAge) {
+        return new AnalyticsSnapshotService(analyticsService, snapshotRepository, advisoryLockService,
+                null, jsonMapper, enabled, maxAge);
+    }
+
+    private void stubAggregates() {
+        SummaryResponse summary = new SummaryResponse();
+        summary.setTotal(42);
+        when(analyticsService.getSummary()).thenReturn(summary);
+        when(analyticsService.getTagImpact(null, AnalyticsSnapshotService.DEFAULT_WINDOW_HOURS))
+                .thenReturn(new TagImpactResponse());
+        NameRollupEntry entry = new NameRollupEntry();
+        entry.setName("dataImport");
+        entry.setTotal(42);
+        when(analyticsService.getNameRollups(anyInt(), eq(0)))
+                .thenReturn(new PagedResult<>(List.of(entry), 1, AnalyticsSnapshotService.SNAPSHOT_NAME_ROWS, 0));
+    }
+
+    private void runAsLeader(boolean leader) {
+        when(advisoryLockService.runExclusive(anyLong(), any(Runnable.class))).thenAnswer(invocation -> {
+            if (leader) {
+                ((Runnable) invocation.getArgument(1)).run();
+            }
+            return leader;
+        });
+    }
+
+    @Test
+    void testLeaderComputesPublishesAndServes() throws Exception {
+        stubAggregates();
+        runAsLeader(true);
+
+        service.refresh();
+
+        ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+        verify(snapshotRepository).save(eq("dashboard"), payload.capture(), any(Instant.class));
+        assertTrue(payload.getValue().length > 0);
+
+        AnalyticsSnapshotService.Snapshot snapshot = service.current();
+        assertNotNull(snapshot);
+        SummaryResponse served = jsonMapper.readValue(snapshot.getSummaryJson(), SummaryResponse.class);
+        assertEquals(42, served.getTotal());
+        assertEquals(1, snapshot.namePage(20, 0).getData().size());
+        verify(snapshotRepository, never()).findNewerThan(any(), any());
+    }
+
+    @Test
+    void testLeaseLeaderComputesWithoutRefreshLock() {
+        stubAggregates();
+        when(leaderElection.isLeader()).thenReturn(true);
+        AnalyticsSnapshotService leaseService = new AnalyticsSnapshotService(analyticsService, snapshotRepository,
+                advisoryLockService, leaderElection, jsonMapper, true, Duration.ofMinutes(2));
+
+        leaseService.refresh();
+
+        verify(advisoryLockService, never()).runExclusive(anyLong(), any(Runnable.class));
+        verify(snapshotRepository).save(eq("dashboard"), any(byte[].class), any(Instant.class));
+        assertNotNull(leaseService.current());
+    }
+
+    @Test
+    void testLeaseFollowerOnlyLoadsSharedSnapshot() {
+        when(leaderElection.isLeader()).thenReturn(false);
+        AnalyticsSnapshotService leaseService = new AnalyticsSnapshotService(analyticsService, snapshotRepository,
+                advisoryLockService, leaderElection, jsonMapper, true, Duration.ofMinutes(2));
+        when(snapshotRepository.findNewerThan("dashboard", null)).thenReturn(Optional.empty());
+
+        leaseService.refresh();
+
+        verify(analyticsService, never()).getSummary();
+        verify(snapshotRepository).findNewerThan("dashboard", null);
+    }
+
+    @Test
+    void testFollowerLoadsSharedSnapshot() {
+        stubAggregates();
+        runAsLeader(true);
+        service.refresh();
+        ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+        verify(snapshotRepository).save(eq("dashboard"), payload.capture(), any(Instant.class));
+
+        AnalyticsSnapshotService follower = newService(true, Duration.ofMinutes(2));
+        runAsLeader(false);
+        when(snapshotRepository.findNewerThan("dashboard", null)).thenReturn(Optional.of(
+                new AnalyticsSnapshotRepository.StoredSnapshot(payload.getValue(), Instant.now())));
+
+        follower.refresh();
+
+        assertNotNull(follower.current());
+        assertEquals(1, follower.current().namePage(20, 0).getTotal());
+    }
+
+    @Test
+    void testFollowerWithoutSharedSnapshotServesNothing() {
+        runAsLeader(false);
+        when(snapshotRepository.findNewerThan("dashboard", null)).thenReturn(Optional.empty());
+
+        service.refresh();
+
+        assertNull(service.current());
+    }
+
+    @Test
+    void testStaleSnapshotIsNotServed() {
+        service = newService(true, Duration.ZERO.minusSeconds(1));
+        stubAggregates();
+        runAsLeader(true);
+
+        service.refresh();
+
+        assertNull(service.current());
+    }
+
+    @Test
+    void testDisabledSnapshotIsNotServed() {
+        service = newService(false, Duration.ofMinutes(2));
+        stubAggregates();
+        runAsLeader(true);
+
+        service.refresh();
+
+        assertNull(service.current());
+    }
+
+    @Test
+    void testPagesBeyondSnapshotRowsFallBackToLive() {
+        stubAggregates();
+        NameRollupEntry entry = new NameRollupEntry();
+        entry.setName("dataImport");
+        // More names exist than the snapshot keeps: deep pages are computed live.
+        when(analyticsService.getNameRollups(anyInt(), eq(0)))
+                .thenReturn(new PagedResult<>(List.of(entry), 5000, AnalyticsSnapshotService.SNAPSHOT_NAME_ROWS, 0));
+        runAsLeader(true);
+
+        service.refresh();
+
+        assertNotNull(service.current().namePage(1, 0));
+        assertNull(service.current().namePage(20, 0));
+    }
+
+    @Test
+    void testSnapshotPageCarriesACursorAfterItsLastRowAndTheSnapshotTime() {
+        stubAggregates();
+        NameRollupEntry busiest = new NameRollupEntry();
+        busiest.setName("dataImport");
+        busiest.setTotal(42);
+        NameRollupEntry quieter = new NameRollupEntry();
+        quieter.setName("reports");
+        quieter.setTotal(7);
+        when(analyticsService.getNameRollups(anyInt(), eq(0)))
+                .thenReturn(new PagedResult<>(List.of(busiest, quieter), 2,
+                        AnalyticsSnapshotService.SNAPSHOT_NAME_ROWS, 0));
+        runAsLeader(true);
+
+        service.refresh();
+
+        PagedResult<NameRollupEntry> first = service.current().namePage(1, 0);
+        assertTrue(first.isHasMore());
+        KeysetCursor cursor = KeysetCursor.decode(first.getNextCursor());
+        assertEquals(NameRollupSort.BUSIEST.name(), cursor.getOrdering());
+        assertEquals(42, cursor.getSortValue());
+        assertEquals("dataImport", cursor.getName());
+        assertEquals(service.current().getGeneratedAt().getEpochSecond(), first.getGeneratedAt());
+        assertNull(service.current().namePage(1, 1).getNextCursor(), "the last page has no cursor");
+    }
+}
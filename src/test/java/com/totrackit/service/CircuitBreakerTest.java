@@ -0,0 +1,129 @@
+package com.totrackit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the webhook circuit breaker: opening after consecutive
+ * failures, a single half-open probe, exponential backoff capped at the
+ * maximum, and closing on success. Time is driven by a fake clock.
+ */
+public class CircuitBreakerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+
+    private CircuitBreaker newBreaker() {
+        return new CircuitBreaker(3, Duration.ofSeconds(10), Duration.ofSeconds(30), nanos::get,
+                (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+    }
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = newBreaker();
+        fail(breaker);
+        fail(breaker);
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess(); // resets the streak
+        fail(breaker);
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        fail(breaker);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.isCallPermitted());
+        assertNotNull(breaker.snapshot().retryAt());
+        assertEquals(1, breaker.snapshot().trips());
+    }
+
+    @Test
+    void testHalfOpenLetsOneProbeThroughAndClosesOnSuccess() {
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 3; i++) {
+            fail(breaker);
+        }
+        advance(Duration.ofSeconds(10));
+        assertTrue(breaker.isCallPermitted());
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(), "only one probe at a time");
+        assertFalse(breaker.isCallPermitted());
+
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+        assertNull(breaker.snapshot().retryAt());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    void testFailedProbesDoubleTheOpenPeriodUpToTheCap() {
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 3; i++) {
+            fail(breaker);
+        }
+
+        advance(Duration.ofSeconds(10));
+        fail(breaker); // probe fails: open for 20s
+        advance(Duration.ofSeconds(19));
+        assertFalse(breaker.tryAcquire());
+        advance(Duration.ofSeconds(1));
+        fail(breaker); // open for 40s, capped at 30s
+        advance(Duration.ofSeconds(29));
+        assertFalse(breaker.tryAcquire());
+        advance(Duration.ofSeconds(1));
+        assertTrue(breaker.tryAcquire());
+        assertEquals(3, breaker.snapshot().trips());
+
+        breaker.onSuccess();
+        for (int i = 0; i < 3; i++) {
+            fail(breaker);
+        }
+        advance(Duration.ofSeconds(10));
+        assertTrue(breaker.isCallPermitted(), "a recovered target starts again from the base period");
+    }
+
+    @Test
+    void testTargetIsPerUrlWithoutExposingThePath() {
+        String target = WebhookBreakers.target("https://Hooks.Example.com/a/b?token=x");
+        assertTrue(target.startsWith("https://hooks.example.com#"));
+        assertFalse(target.contains("token"));
+        assertTrue(WebhookBreakers.target("http://localhost:8080/hook").startsWith("http://localhost:8080#"));
+        assertNotEquals(WebhookBreakers.target("http://localhost:8080/billing"),
+                WebhookBreakers.target("http://localhost:8080/reports"), "URLs on one origin get their own breaker");
+    }
+
+    @Test
+    void testOnlyServerErrorsAndThrottlingCountAgainstTheTarget() {
+        assertTrue(WebhookEndpoint.isTargetFailure(500));
+        assertTrue(WebhookEndpoint.isTargetFailure(503));
+        assertTrue(WebhookEndpoint.isTargetFailure(429));
+        assertFalse(WebhookEndpoint.isTargetFailure(400));
+        assertFalse(WebhookEndpoint.isTargetFailure(404));
+        assertFalse(WebhookEndpoint.isTargetFailure(410));
+    }
+}
@@ -0,0 +1,142 @@
+package com.totrackit.service;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ProcessStatus;
+import com.totrackit.repository.ProcessRepository;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL-backed tests for parallel deadline scanning: concurrent claims
+ * see disjoint rows, delivery holds no row lock, and rows the handler does
+ * not return stay claimable.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DeadlineClaimServiceTest implements TestPropertyProvider {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Inject
+    DeadlineClaimService claims;
+
+    @Inject
+    ProcessRepository processRepository;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true",
+                "totrackit.deadline-scan", "parallel"
+        );
+    }
+
+    @BeforeEach
+    void clean() {
+        processRepository.deleteAll();
+    }
+
+    private ProcessEntity seedOverdue(String id, long overdueSeconds) {
+        Instant now = Instant.now();
+        ProcessEntity entity = new ProcessEntity(id, "claim-test");
+        entity.setStatus(ProcessStatus.ACTIVE);
+        entity.setStartedAt(now.minusSeconds(3600));
+        entity.setDeadline(now.minusSeconds(overdueSeconds));
+        return processRepository.save(entity);
+    }
+
+    private static Set<Long> ids(List<ProcessEntity> processes) {
+        Set<Long> ids = new HashSet<>();
+        processes.forEach(process -> ids.add(process.getId()));
+        return ids;
+    }
+
+    @Test
+    void testConcurrentClaimsAreDisjoint() {
+        for (int i = 0; i < 4; i++) {
+            seedOverdue("run-" + i, 600 - i);
+        }
+        Instant now = Instant.now();
+
+        DeadlineClaimService.Claim first = claims.processOverdue(now, 2, claimed -> {
+            // While this transaction holds its two rows, a second "replica" claims.
+            DeadlineClaimService.Claim second = CompletableFuture
+                    .supplyAsync(() -> claims.processOverdue(now, 10, other -> other))
+                    .orTimeout(10, TimeUnit.SECONDS)
+                    .join();
+            assertEquals(2, second.claimed(), "the second claim skips locked rows instead of waiting");
+            Set<Long> overlap = ids(second.processed());
+            overlap.retainAll(ids(claimed));
+            assertTrue(overlap.isEmpty(), "no row is claimed twice");
+            return claimed;
+        });
+
+        assertEquals(2, first.claimed());
+        assertEquals(0, processRepository.countOverdueUnnotified(Instant.now()));
+    }
+
+    @Test
+    void testProducerIsNotBlockedWhileClaimedRunIsDelivered() {
+        ProcessEntity process = seedOverdue("run-completing", 60);
+
+        claims.processOverdue(Instant.now(), 10, claimed -> {
+            // The delivery runs outside the claim's transaction, so completing the run does not wait on it.
+            CompletableFuture.runAsync(() -> {
+                ProcessEntity running = processRepository.findById(process.getId()).orElseThrow();
+                running.setStatus(ProcessStatus.COMPLETED);
+                running.setCompletedAt(Instant.now());
+                processRepository.update(running);
+            }).orTimeout(5, TimeUnit.SECONDS).join();
+            return claimed;
+        });
+
+        assertEquals(ProcessStatus.COMPLETED, processRepository.findById(process.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testUnprocessedRowsAreReleasedForTheNextClaim() {
+        ProcessEntity process = seedOverdue("run-failed", 60);
+        Instant now = Instant.now();
+
+        DeadlineClaimService.Claim failed = claims.processOverdue(now, 10, claimed -> List.of());
+        assertEquals(1, failed.claimed());
+        assertTrue(failed.processed().isEmpty());
+
+        DeadlineClaimService.Claim retried = claims.processOverdue(now, 10, claimed -> claimed);
+        assertEquals(Set.of(process.getId()), ids(retried.processed()));
+        assertNotNull(processRepository.findById(process.getId()).orElseThrow().getDeadlineNotifiedAt());
+    }
+}
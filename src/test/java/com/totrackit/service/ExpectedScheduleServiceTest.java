@@ -0,0 +1,66 @@
+package com.totrackit.service;
+
+import com.totrackit.model.ExpectedSchedule;
+import com.totrackit.repository.ExpectedScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Validation tests for expected-run schedules.
+ */
+@ExtendWith(MockitoExtension.class)
+class ExpectedScheduleServiceTest {
+
+    @Mock
+    private ExpectedScheduleRepository repository;
+
+    private ExpectedScheduleService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ExpectedScheduleService(repository);
+        lenient().when(repository.upsert(anyString(), anyString(), anyString(), anyInt()))
+                .thenAnswer(invocation -> new ExpectedSchedule(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2), invocation.getArgument(3), null, Instant.now()));
+    }
+
+    @Test
+    void testDefaultsToUtcAndTheDefaultGrace() {
+        ExpectedSchedule stored = service.put("nightly-import", " 0 2 * * * ", null, null);
+
+        assertEquals("0 2 * * *", stored.cron());
+        assertEquals("UTC", stored.timeZone());
+        assertEquals(ExpectedScheduleService.DEFAULT_GRACE_SECONDS, stored.graceSeconds());
+    }
+
+    @Test
+    void testAcceptsSixFieldCronAndNamedZones() {
+        ExpectedSchedule stored = service.put("hourly_sync", "30 0 * * * MON-FRI", "Europe/Paris", 120);
+
+        assertEquals("Europe/Paris", stored.timeZone());
+        assertEquals(120, stored.graceSeconds());
+    }
+
+    @Test
+    void testInvalidFieldsAreRejectedBeforeStoring() {
+        assertThrows(IllegalArgumentException.class, () -> service.put("nightly", "every night", null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.put("nightly", "0 25 * * *", null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.put("nightly", "0 2 * * *", "Mars/Olympus", null));
+        assertThrows(IllegalArgumentException.class, () -> service.put("nightly", "0 2 * * *", null, -1));
+        assertThrows(IllegalArgumentException.class, () -> service.put("nightly import", "0 2 * * *", null, null));
+
+        verify(repository, never()).upsert(anyString(), anyString(), anyString(), anyInt());
+    }
+}
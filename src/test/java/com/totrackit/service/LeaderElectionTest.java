@@ -0,0 +1,143 @@
+package com.totrackit.service;
+
+import com.totrackit.repository.LeaderLeaseRepository;
+import com.totrackit.repository.LeaderLeaseRepository.Lease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for lease-based leader election: heartbeat outcomes drive
+ * leadership, transitions are recorded, and an expired or unrenewable lease
+ * stops this replica acting as leader.
+ */
+@ExtendWith(MockitoExtension.class)
+class LeaderElectionTest {
+
+    private static final Duration LEASE = Duration.ofSeconds(30);
+
+    @Mock
+    private LeaderLeaseRepository leases;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private LeaderElection election;
+
+    @BeforeEach
+    void setUp() {
+        election = newElection(LEASE);
+    }
+
+    private LeaderElection newElection(Duration lease) {
+        return new LeaderElection(leases, metricsService, "replica-a", lease, Duration.ofSeconds(10));
+    }
+
+    private static Lease lease(String holder) {
+        Instant now = Instant.now();
+        return new Lease(holder, now, now.plus(LEASE));
+    }
+
+    @Test
+    void testHeartbeatAcquiresLeadership() {
+        Lease held = lease("replica-a");
+        when(leases.tryAcquire("scheduler", "replica-a", LEASE)).thenReturn(Optional.of(held));
+
+        election.heartbeat();
+
+        assertTrue(election.isLeader());
+        verify(metricsService).recordLeaderTransition("acquired");
+        verify(metricsService).updateLeaderLease(true, held.expiresAt());
+    }
+
+    @Test
+    void testFollowerStaysFollower() {
+        when(leases.tryAcquire(anyString(), anyString(), any())).thenReturn(Optional.empty());
+
+        election.heartbeat();
+
+        assertFalse(election.isLeader());
+        verify(metricsService, never()).recordLeaderTransition(any());
+        verify(metricsService).updateLeaderLease(false, null);
+    }
+
+    @Test
+    void testLosingTheLeaseEndsLeadership() {
+        when(leases.tryAcquire(anyString(), anyString(), any()))
+                .thenReturn(Optional.of(lease("replica-a")))
+                .thenReturn(Optional.empty());
+
+        election.heartbeat();
+        election.heartbeat();
+
+        assertFalse(election.isLeader());
+        verify(metricsService).recordLeaderTransition("lost");
+    }
+
+    @Test
+    void testHeartbeatFailureEndsLeadership() {
+        when(leases.tryAcquire(anyString(), anyString(), any()))
+                .thenReturn(Optional.of(lease("replica-a")))
+                .thenThrow(new RuntimeException("connection refused"));
+
+        election.heartbeat();
+        election.heartbeat();
+
+        assertFalse(election.isLeader());
+        verify(metricsService).recordLeaderTransition("lost");
+    }
+
+    @Test
+    void testLeadershipLapsesWithoutRenewal() throws Exception {
+        Duration shortLease = Duration.ofMillis(50);
+        election = newElection(shortLease);
+        when(leases.tryAcquire("scheduler", "replica-a", shortLease)).thenReturn(Optional.of(lease("replica-a")));
+
+        election.heartbeat();
+        assertTrue(election.isLeader());
+
+        Thread.sleep(100);
+        assertFalse(election.isLeader(), "a stalled heartbeat must not keep leadership past the lease");
+    }
+
+    @Test
+    void testReleaseHandsLeaseBack() {
+        when(leases.tryAcquire(anyString(), anyString(), any())).thenReturn(Optional.of(lease("replica-a")));
+        election.heartbeat();
+
+        election.release();
+
+        assertFalse(election.isLeader());
+        verify(leases).release("scheduler", "replica-a");
+    }
+
+    @Test
+    void testReleaseAsFollowerLeavesLeaseAlone() {
+        election.release();
+
+        verify(leases, never()).release(anyString(), eq("replica-a"));
+    }
+
+    @Test
+    void testDefaultInstanceIdIsUnique() {
+        LeaderElection first = new LeaderElection(leases, metricsService, "", LEASE, Duration.ofSeconds(10));
+        LeaderElection second = new LeaderElection(leases, metricsService, "", LEASE, Duration.ofSeconds(10));
+
+        assertFalse(first.getInstanceId().isBlank());
+        assertNotEquals(first.getInstanceId(), second.getInstanceId());
+    }
+}
@@ -0,0 +1,48 @@
+package com.totrackit.service;
+
+import com.totrackit.service.MaxDurations.Policy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parsing and ordering tests for per-name max durations.
+ */
+class MaxDurationsTest {
+
+    @Test
+    void testNamedLimitsComeBeforeTheDefault() {
+        MaxDurations maxDurations = new MaxDurations("*=1d, nightly-export=6h,sync=90m");
+
+        assertEquals(List.of(
+                new Policy("nightly-export", Duration.ofHours(6)),
+                new Policy("sync", Duration.ofMinutes(90)),
+                new Policy(null, Duration.ofDays(1))), maxDurations.policies());
+        assertEquals(List.of("nightly-export", "sync"), maxDurations.names());
+    }
+
+    @Test
+    void testBlankMeansNoLimits() {
+        assertTrue(new MaxDurations("").isEmpty());
+        assertTrue(new MaxDurations("  ").policies().isEmpty());
+    }
+
+    @Test
+    void testReasonNamesTheLimit() {
+        assertEquals("Exceeded max duration of 6h", new Policy("etl", Duration.ofHours(6)).reason());
+        assertEquals("Exceeded max duration of 90m", new Policy("etl", Duration.ofMinutes(90)).reason());
+        assertEquals("Exceeded max duration of 2d", new Policy(null, Duration.ofDays(2)).reason());
+        assertEquals("Exceeded max duration of 45s", new Policy(null, Duration.ofSeconds(45)).reason());
+    }
+
+    @Test
+    void testMalformedEntriesAreRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new MaxDurations("etl=soon"));
+        assertTrue(e.getMessage().contains("max duration"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new MaxDurations("etl"));
+        assertThrows(IllegalArgumentException.class, () -> new MaxDurations("*=0s"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.totrackit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for the process_name series cap: tail names are compared with
+ * the named series once per time window, and only a clearly busier one takes
+ * a series over.
+ */
+class ProcessNameMetersTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+
+    private final AtomicLong clock = new AtomicLong();
+    private MeterRegistry registry;
+    private ProcessNameMeters meters;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        meters = new ProcessNameMeters(registry, 2, WINDOW, clock::get);
+    }
+
+    private void record(String name, int times) {
+        for (int i = 0; i < times; i++) {
+            meters.forName(name).counter(ProcessNameMeters.NameMeter.CREATED).increment();
+        }
+    }
+
+    private void endWindow() {
+        clock.addAndGet(WINDOW.toNanos());
+    }
+
+    @Test
+    void testBusyNameDisplacesTheQuietestTrackedNameAtTheEndOfTheWindow() {
+        record("quiet-a", 1);
+        record("quiet-b", 5);
+        record("busy", 3);
+        assertEquals(Set.of("quiet-a", "quiet-b"), Set.copyOf(meters.names()), "no swap within the window");
+
+        endWindow();
+        record("busy", 1);
+
+        assertEquals(Set.of("quiet-b", "busy"), Set.copyOf(meters.names()));
+        assertNull(registry.find("totrackit_processes_created_total").tag("process_name", "quiet-a").counter());
+        assertEquals(4.0, registry.find("totrackit_processes_created_total")
+                .tag("process_name", ProcessNameMeters.OTHER).counter().count());
+    }
+
+    @Test
+    void testNamesOfSimilarVolumeDoNotTradePlaces() {
+        record("tracked-a", 10);
+        record("tracked-b", 10);
+        record("tail", 18);
+
+        endWindow();
+        record("tail", 1);
+
+        assertEquals(Set.of("tracked-a", "tracked-b"), Set.copyOf(meters.names()),
+                "a tail name must be twice as busy to take a series over");
+    }
+
+    @Test
+    void testOneOffNameNeverTakesASeriesOver() {
+        record("tracked-a", 1);
+        record("tracked-b", 1);
+
+        endWindow();
+        record("one-off", 1);
+        assertEquals(Set.of("tracked-a", "tracked-b"), Set.copyOf(meters.names()));
+    }
+}
@@ -7,6 +7,7 @@ import com.totrackit.repository.ProcessQueryRepository;
 import com.totrackit.repository.ProcessRepository;
 import com.totrackit.service.MetricsService;
 import com.totrackit.util.ProcessMapper;
+import io.micronaut.context.event.ApplicationEventPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -32,13 +33,18 @@ class ProcessServiceBusinessLogicTest {
     
     @Mock
     private MetricsService metricsService;
+
+    @Mock
+    private WebhookSubscriptionService subscriptions;
     
     private ProcessService processService;
     
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        processService = new ProcessService(processRepository, processQueryRepository, processMapper, metricsService);
+        processService = new ProcessService(processRepository, processQueryRepository, processMapper, metricsService,
+                ApplicationEventPublisher.noOp(), new StallTimeouts(""), WarningLevels.of(0.75),
+                subscriptions);
     }
     
     @Test
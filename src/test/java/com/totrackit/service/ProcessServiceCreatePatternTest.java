@@ -3,6 +3,7 @@ package com.totrackit.service;
 import com.totrackit.dto.NewProcessRequest;
 import com.totrackit.dto.ProcessResponse;
 import com.totrackit.entity.ProcessEntity;
+import com.totrackit.exception.ProcessAlreadyCompletedException;
 import com.totrackit.exception.ProcessAlreadyExistsException;
 import com.totrackit.model.ProcessStatus;
 import com.totrackit.model.ProcessTag;
@@ -10,16 +11,22 @@ import com.totrackit.repository.ProcessQueryRepository;
 import com.totrackit.repository.ProcessRepository;
 import com.totrackit.service.MetricsService;
 import com.totrackit.util.ProcessMapper;
+import io.micronaut.context.event.ApplicationEventPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -39,13 +46,18 @@ class ProcessServiceCreatePatternTest {
     
     @Mock
     private MetricsService metricsService;
+
+    @Mock
+    private WebhookSubscriptionService subscriptions;
     
     private ProcessService processService;
     
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        processService = new ProcessService(processRepository, processQueryRepository, processMapper, metricsService);
+        processService = new ProcessService(processRepository, processQueryRepository, processMapper, metricsService,
+                ApplicationEventPublisher.noOp(), new StallTimeouts(""), WarningLevels.of(0.75),
+                subscriptions);
     }
     
     @Test
@@ -163,4 +175,110 @@ class ProcessServiceCreatePatternTest {
         
         verify(processRepository, times(1)).save(any(ProcessEntity.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void createProcess_StallTimeout_RequestOverridesNameDefault() {
+        processService = new ProcessService(processRepository, processQueryRepository, processMapper, metricsService,
+                ApplicationEventPublisher.noOp(), new StallTimeouts("etl=30m,*=2h"), WarningLevels.of(0.75),
+                subscriptions);
+        when(processRepository.save(any(ProcessEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<ProcessEntity> saved = ArgumentCaptor.forClass(ProcessEntity.class);
+
+        processService.createProcess("etl", new NewProcessRequest("run-1"));
+        NewProcessRequest own = new NewProcessRequest("run-2");
+        own.setStallTimeout(90);
+        processService.createProcess("etl", own);
+        processService.createProcess("other", new NewProcessRequest("run-3"));
+
+        verify(processRepository, times(3)).save(saved.capture());
+        ProcessEntity byName = saved.getAllValues().get(0);
+        assertEquals(1800, byName.getStallTimeoutSeconds());
+        assertEquals(byName.getStartedAt(), byName.getLastActivityAt());
+        assertEquals(byName.getStartedAt().plusSeconds(1800), byName.getStallAt());
+        assertEquals(90, saved.getAllValues().get(1).getStallTimeoutSeconds());
+        assertEquals(7200, saved.getAllValues().get(2).getStallTimeoutSeconds());
+    }
+
+    @Test
+    void createProcess_NoStallTimeout_LeavesStallDetectionOff() {
+        when(processRepository.save(any(ProcessEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<ProcessEntity> saved = ArgumentCaptor.forClass(ProcessEntity.class);
+
+        processService.createProcess("etl", new NewProcessRequest("run-1"));
+
+        verify(processRepository).save(saved.capture());
+        assertNull(saved.getValue().getStallTimeoutSeconds());
+        assertNull(saved.getValue().getStallAt());
+    }
+
+    @Test
+    void createProcess_SubscriptionMarker_OnlyWhileSubscriptionsExist() {
+        when(processRepository.save(any(ProcessEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<ProcessEntity> saved = ArgumentCaptor.forClass(ProcessEntity.class);
+        long deadline = Instant.now().plusSeconds(1000).getEpochSecond();
+        NewProcessRequest unsubscribed = new NewProcessRequest("run-1");
+        unsubscribed.setDeadline(deadline);
+        NewProcessRequest subscribed = new NewProcessRequest("run-2");
+        subscribed.setDeadline(deadline);
+
+        processService.createProcess("etl", unsubscribed);
+        when(subscriptions.hasSubscriptions()).thenReturn(true);
+        processService.createProcess("etl", subscribed);
+
+        verify(processRepository, times(2)).save(saved.capture());
+        assertNull(saved.getAllValues().get(0).getSubscriptionDueAt());
+        ProcessEntity marked = saved.getAllValues().get(1);
+        assertNotNull(marked.getSubscriptionDueAt());
+        assertTrue(marked.getSubscriptionDueAt().isBefore(marked.getDeadline()), "the first warning comes first");
+    }
+
+    @Test
+    void heartbeat_MovesStallInstantForward() {
+        ProcessEntity entity = new ProcessEntity("run-1", "etl");
+        entity.setId(7L);
+        entity.setStallTimeoutSeconds(600);
+        entity.setStallNotifiedAt(Instant.now());
+        when(processRepository.findByNameAndProcessId("etl", "run-1")).thenReturn(Optional.of(entity));
+        when(processRepository.recordHeartbeat(eq(7L), any(Instant.class), any(Instant.class))).thenReturn(1);
+        Instant before = Instant.now();
+
+        processService.heartbeat("etl", "run-1");
+
+        ArgumentCaptor<Instant> at = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> stallAt = ArgumentCaptor.forClass(Instant.class);
+        verify(processRepository).recordHeartbeat(eq(7L), at.capture(), stallAt.capture());
+        assertFalse(at.getValue().isBefore(before));
+        assertEquals(at.getValue().plusSeconds(600), stallAt.getValue());
+        assertNull(entity.getStallNotifiedAt(), "stall reporting re-armed");
+    }
+
+    @Test
+    void heartbeat_RunWithoutStallTimeout_OnlyRecordsActivity() {
+        ProcessEntity entity = new ProcessEntity("run-1", "etl");
+        entity.setId(7L);
+        when(processRepository.findByNameAndProcessId("etl", "run-1")).thenReturn(Optional.of(entity));
+        when(processRepository.recordHeartbeat(eq(7L), any(Instant.class), isNull())).thenReturn(1);
+
+        processService.heartbeat("etl", "run-1");
+
+        verify(processRepository).recordHeartbeat(eq(7L), any(Instant.class), isNull());
+        assertNotNull(entity.getLastActivityAt());
+    }
+
+    @Test
+    void heartbeat_CompletedRun_ThrowsProcessAlreadyCompletedException() {
+        ProcessEntity completed = new ProcessEntity("run-1", "etl");
+        completed.setId(7L);
+        completed.setStatus(ProcessStatus.COMPLETED);
+        ProcessEntity racing = new ProcessEntity("run-2", "etl");
+        racing.setId(8L);
+        when(processRepository.findByNameAndProcessId("etl", "run-1")).thenReturn(Optional.of(completed));
+        when(processRepository.findByNameAndProcessId("etl", "run-2")).thenReturn(Optional.of(racing));
+        when(processRepository.recordHeartbeat(anyLong(), any(Instant.class), any())).thenReturn(0);
+
+        assertThrows(ProcessAlreadyCompletedException.class, () -> processService.heartbeat("etl", "run-1"));
+        assertThrows(ProcessAlreadyCompletedException.class, () -> processService.heartbeat("etl", "run-2"),
+                "a completion committed between lookup and update wins");
+        verify(processRepository, never()).recordHeartbeat(eq(7L), any(Instant.class), any());
+    }
+}
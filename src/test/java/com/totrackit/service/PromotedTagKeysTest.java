@@ -0,0 +1,96 @@
+package com.totrackit.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parsing and SQL-naming tests for promoted tag keys. Keys end up inside SQL
+ * literals and index names, so validation is the part that matters.
+ */
+class PromotedTagKeysTest {
+
+    @Test
+    void testParseTrimsAndDeduplicates() {
+        Set<String> keys = PromotedTagKeys.parse(" country, region ,,country");
+
+        assertEquals(List.of("country", "region"), List.copyOf(keys));
+    }
+
+    @Test
+    void testBlankMeansNoPromotedKeys() {
+        assertTrue(PromotedTagKeys.parse("").isEmpty());
+        assertTrue(PromotedTagKeys.parse(null).isEmpty());
+    }
+
+    @Test
+    void testUnsafeKeysAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PromotedTagKeys.parse("country,x') OR 1=1 --"));
+        assertFalse(PromotedTagKeys.isValidKey("a\"b"));
+        assertFalse(PromotedTagKeys.isValidKey("a".repeat(51)));
+        assertTrue(PromotedTagKeys.isValidKey("customer.tier-v2"));
+    }
+
+    @Test
+    void testIndexNamesFitAndStayDistinct() {
+        String longKey = "k".repeat(50);
+
+        assertTrue(PromotedTagKeys.indexName(longKey).length() <= 63);
+        assertNotEquals(PromotedTagKeys.indexName("Tier"), PromotedTagKeys.indexName("tier"));
+        assertNotEquals(PromotedTagKeys.indexName("a.b"), PromotedTagKeys.indexName("a_b"));
+    }
+
+    @Test
+    void testIndexesBuildUnderTheLockWithoutStatementTimeout() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        PreparedStatement lookup = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.prepareStatement(anyString())).thenReturn(lookup);
+        when(lookup.executeQuery()).thenReturn(mock(ResultSet.class));
+        AdvisoryLockService lockService = mock(AdvisoryLockService.class);
+        when(lockService.runExclusive(anyLong(), any(Runnable.class))).thenAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return true;
+        });
+
+        new PromotedTagKeys(dataSource, lockService, "country").onStartup(null);
+
+        InOrder order = inOrder(statement);
+        order.verify(statement).execute("SET statement_timeout = 0");
+        order.verify(statement).execute(startsWith("SET lock_timeout"));
+        order.verify(statement).execute(startsWith("CREATE INDEX CONCURRENTLY IF NOT EXISTS"));
+        order.verify(statement).execute("RESET statement_timeout");
+        order.verify(statement).execute("RESET lock_timeout");
+    }
+
+    @Test
+    void testIndexesAreLeftToTheReplicaHoldingTheLock() {
+        DataSource dataSource = mock(DataSource.class);
+        AdvisoryLockService lockService = mock(AdvisoryLockService.class);
+        when(lockService.runExclusive(anyLong(), any(Runnable.class))).thenReturn(false);
+
+        new PromotedTagKeys(dataSource, lockService, "country").onStartup(null);
+
+        verifyNoInteractions(dataSource);
+    }
+}
@@ -0,0 +1,129 @@
+package com.totrackit.service;
+
+import com.sun.net.httpserver.HttpServer;
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ProcessStatus;
+import com.totrackit.repository.ProcessRepository;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.test.support.TestPropertyProvider;
+import jakarta.annotation.Nonnull;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PostgreSQL-backed test that runs failed for their max duration reach the
+ * transactional lifecycle listeners: the process.failed lifecycle webhook and
+ * a process.failed subscription both receive them once the chunk commits.
+ */
+@MicronautTest(transactional = false)
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RunawayProcessServiceTest implements TestPropertyProvider {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("totrackit_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    private final BlockingQueue<String> webhook = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> subscription = new LinkedBlockingQueue<>();
+    private HttpServer receiver;
+
+    @Inject
+    RunawayProcessService runawayProcesses;
+
+    @Inject
+    WebhookSubscriptionService subscriptions;
+
+    @Inject
+    ProcessRepository processRepository;
+
+    @Override
+    @Nonnull
+    public Map<String, String> getProperties() {
+        if (!postgres.isRunning()) {
+            postgres.start();
+        }
+        try {
+            receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        receiver.createContext("/webhook", exchange -> {
+            webhook.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        receiver.createContext("/subscription", exchange -> {
+            subscription.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        receiver.start();
+        return Map.of(
+                "datasources.default.url", postgres.getJdbcUrl(),
+                "datasources.default.username", postgres.getUsername(),
+                "datasources.default.password", postgres.getPassword(),
+                "datasources.default.driver-class-name", postgres.getDriverClassName(),
+                "datasources.default.initialization-fail-timeout", "60000",
+                "micronaut.data.default.dialect", "POSTGRES",
+                "flyway.datasources.default.enabled", "true",
+                "totrackit.webhook-url", receiverUrl("/webhook"),
+                "totrackit.lifecycle-webhooks.events", WebhookNotificationService.PROCESS_FAILED
+        );
+    }
+
+    private String receiverUrl(String path) {
+        return "http://127.0.0.1:" + receiver.getAddress().getPort() + path;
+    }
+
+    @AfterAll
+    void stopReceiver() {
+        receiver.stop(0);
+    }
+
+    @Test
+    void testFailedRunsReachTheTransactionalListeners() throws InterruptedException {
+        subscriptions.create(receiverUrl("/subscription"), "etl", null,
+                List.of(WebhookNotificationService.PROCESS_FAILED));
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant cutoff = now.minus(6, ChronoUnit.HOURS);
+        ProcessEntity runaway = new ProcessEntity("runaway-1", "etl");
+        runaway.setStatus(ProcessStatus.ACTIVE);
+        runaway.setStartedAt(cutoff.minusSeconds(60));
+        processRepository.save(runaway);
+
+        List<ProcessEntity> failed = runawayProcesses.failExpired("etl", List.of("etl"), cutoff, now,
+                "Exceeded max duration of 6h", 100);
+        assertEquals(1, failed.size());
+
+        String delivered = webhook.poll(10, TimeUnit.SECONDS);
+        assertNotNull(delivered, "the lifecycle webhook receives the committed failure");
+        assertTrue(delivered.contains(WebhookNotificationService.PROCESS_FAILED));
+        assertTrue(delivered.contains("runaway-1"));
+
+        String routed = subscription.poll(10, TimeUnit.SECONDS);
+        assertNotNull(routed, "the subscription receives the committed failure");
+        assertTrue(routed.contains("runaway-1"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.totrackit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for SlowQueryLog thresholds, the bounded ring and SQL shapes.
+ */
+class SlowQueryLogTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private MeterRegistry meterRegistry;
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        slowQueryLog = new SlowQueryLog(new MetricsService(meterRegistry), null, Duration.ofMillis(100), false, 2);
+    }
+
+    @Test
+    void testEveryExecutionIsTimedButOnlySlowOnesAreKept() {
+        slowQueryLog.record("repo.fast", "SELECT 1", new String[0], null, 5 * MILLIS);
+        slowQueryLog.record("repo.slow", "SELECT 2", new String[0], null, 150 * MILLIS);
+
+        assertEquals(1, meterRegistry.find("totrackit_database_query_seconds").tag("query", "repo.fast").timer().count());
+        assertEquals(1.0, meterRegistry.find("totrackit_database_slow_queries_total")
+                .tag("query", "repo.slow").counter().count());
+        List<SlowQueryLog.Entry> recent = slowQueryLog.recent();
+        assertEquals(1, recent.size());
+        assertEquals("repo.slow", recent.get(0).getQuery());
+        assertEquals(150.0, recent.get(0).getDurationMs(), 1e-9);
+    }
+
+    @Test
+    void testRingKeepsTheNewestEntries() {
+        slowQueryLog.record("repo.a", "SELECT 1", new String[0], null, 200 * MILLIS);
+        slowQueryLog.record("repo.b", "SELECT 1", new String[0], null, 200 * MILLIS);
+        slowQueryLog.record("repo.c", "SELECT 1", new String[0], null, 200 * MILLIS);
+
+        assertEquals(List.of("repo.c", "repo.b"),
+                slowQueryLog.recent().stream().map(SlowQueryLog.Entry::getQuery).toList());
+    }
+
+    @Test
+    void testShapeCollapsesWhitespaceAndFoldsExpandedInLists() {
+        assertEquals("SELECT * FROM processes WHERE id IN (?, ...) AND name = ?",
+                SlowQueryLog.shape("SELECT *\n  FROM processes\n WHERE id IN (?, ?, ?,?) AND name = ?"));
+        assertTrue(SlowQueryLog.shape("SELECT " + "x".repeat(3000)).endsWith("..."));
+    }
+
+    @Test
+    void testBindTypesFoldRepeats() {
+        assertEquals(List.of("String x2", "Long x3", "unset", "Timestamp"), SlowQueryLog.describeBindTypes(
+                new String[] {"String", "String", "Long", "Long", "Long", null, "Timestamp"}));
+    }
+}
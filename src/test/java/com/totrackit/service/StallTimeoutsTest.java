@@ -0,0 +1,49 @@
+package com.totrackit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parsing and resolution tests for per-name stall timeouts.
+ */
+class StallTimeoutsTest {
+
+    @Test
+    void testParseAcceptsSuffixesAndIsoDurations() {
+        Map<String, Duration> timeouts = StallTimeouts.parse(" export=90s, sync=30m ,,batch=2h,weekly=1d,etl=PT45M");
+
+        assertEquals(Duration.ofSeconds(90), timeouts.get("export"));
+        assertEquals(Duration.ofMinutes(30), timeouts.get("sync"));
+        assertEquals(Duration.ofHours(2), timeouts.get("batch"));
+        assertEquals(Duration.ofDays(1), timeouts.get("weekly"));
+        assertEquals(Duration.ofMinutes(45), timeouts.get("etl"));
+    }
+
+    @Test
+    void testBlankMeansNoDefaults() {
+        assertTrue(StallTimeouts.parse("").isEmpty());
+        assertTrue(StallTimeouts.parse(null).isEmpty());
+        assertNull(new StallTimeouts("").resolve("etl", null));
+    }
+
+    @Test
+    void testMalformedEntriesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> StallTimeouts.parse("etl"));
+        assertThrows(IllegalArgumentException.class, () -> StallTimeouts.parse("=30m"));
+        assertThrows(IllegalArgumentException.class, () -> StallTimeouts.parse("etl=soon"));
+        assertThrows(IllegalArgumentException.class, () -> StallTimeouts.parse("etl=0s"));
+    }
+
+    @Test
+    void testResolvePrefersTheRunThenTheNameThenTheWildcard() {
+        StallTimeouts timeouts = new StallTimeouts("etl=30m,*=2h");
+
+        assertEquals(60, timeouts.resolve("etl", 60));
+        assertEquals(1800, timeouts.resolve("etl", null));
+        assertEquals(7200, timeouts.resolve("sync", null));
+    }
+}
@@ -0,0 +1,84 @@
+package com.totrackit.service;
+
+import com.totrackit.entity.ProcessEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parsing, crossing and scheduling tests for pre-deadline warning levels.
+ */
+class WarningLevelsTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static ProcessEntity run(int level) {
+        ProcessEntity entity = new ProcessEntity("run-1", "etl");
+        entity.setStartedAt(START);
+        entity.setDeadline(START.plusSeconds(1000));
+        entity.setDeadlineWarningLevel(level);
+        return entity;
+    }
+
+    @Test
+    void testListTakesPrecedenceAndIsSorted() {
+        WarningLevels levels = new WarningLevels(" 0.9, 0.5 ,,0.75", 0.6);
+
+        assertEquals(List.of(0.5, 0.75, 0.9), levels.thresholds());
+        assertEquals("{0.5,0.75,0.9}", levels.sqlArray());
+        assertEquals(0.75, levels.threshold(2));
+    }
+
+    @Test
+    void testSingleThresholdFallbackAndDisabling() {
+        assertEquals(List.of(0.6), new WarningLevels("", 0.6).thresholds());
+        assertFalse(new WarningLevels("", 0.0).enabled());
+        assertFalse(new WarningLevels(null, 1.0).enabled());
+        assertEquals("{}", WarningLevels.of(0.0).sqlArray());
+    }
+
+    @Test
+    void testInvalidThresholdsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WarningLevels.parse("0.5,high"));
+        assertThrows(IllegalArgumentException.class, () -> WarningLevels.parse("0.5,1"));
+        assertThrows(IllegalArgumentException.class, () -> WarningLevels.parse("0"));
+    }
+
+    @Test
+    void testCrossedCountsEveryLevelReached() {
+        WarningLevels levels = WarningLevels.of(0.5, 0.75, 0.9);
+
+        assertEquals(0, levels.crossed(run(0), START.plusSeconds(499)));
+        assertEquals(1, levels.crossed(run(0), START.plusSeconds(500)));
+        assertEquals(3, levels.crossed(run(0), START.plusSeconds(950)));
+    }
+
+    @Test
+    void testPendingInstantsSkipFiredLevels() {
+        WarningLevels levels = WarningLevels.of(0.5, 0.75, 0.9);
+        long start = START.toEpochMilli();
+
+        assertArrayEquals(new long[] {start + 500_000, start + 750_000, start + 900_000},
+                levels.pendingInstants(run(0)));
+        assertArrayEquals(new long[] {start + 900_000}, levels.pendingInstants(run(2)));
+
+        ProcessEntity warned = run(3);
+        warned.setDeadlineWarnedAt(START.plusSeconds(900));
+        assertEquals(0, levels.pendingInstants(warned).length);
+    }
+
+    @Test
+    void testAdvanceNeverLowersALevel() {
+        WarningLevels levels = WarningLevels.of(0.5, 0.75, 0.9);
+        ProcessEntity behind = run(0);
+        ProcessEntity ahead = run(3);
+
+        levels.advance(List.of(behind, ahead), START.plusSeconds(800));
+
+        assertEquals(2, behind.getDeadlineWarningLevel());
+        assertEquals(3, ahead.getDeadlineWarningLevel());
+    }
+}
@@ -0,0 +1,89 @@
+package com.totrackit.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests which receiver answers count against a webhook URL's circuit
+ * breaker, against a local HTTP receiver.
+ */
+class WebhookEndpointTest {
+
+    private static final int THRESHOLD = 3;
+
+    private final AtomicInteger status = new AtomicInteger(200);
+    private HttpServer receiver;
+    private WebhookEndpoint endpoint;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.createContext("/hook", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        receiver.start();
+        breaker = new CircuitBreaker(THRESHOLD, Duration.ofMinutes(1), Duration.ofMinutes(10), System::nanoTime,
+                (from, to) -> { });
+        endpoint = new WebhookEndpoint("http://127.0.0.1:" + receiver.getAddress().getPort() + "/hook", breaker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+        receiver.stop(0);
+    }
+
+    private void postTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            assertFalse(endpoint.post(Map.of("event", "test"), "test", "run " + i));
+        }
+    }
+
+    @Test
+    void testRejectedPayloadsDoNotOpenTheBreaker() {
+        status.set(400);
+
+        postTimes(THRESHOLD + 2);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(endpoint.isAvailable());
+    }
+
+    @Test
+    void testServerErrorsOpenTheBreaker() {
+        status.set(503);
+
+        postTimes(THRESHOLD);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void testThrottlingOpensTheBreaker() {
+        status.set(429);
+
+        postTimes(THRESHOLD);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void testSuccessIsDelivered() {
+        assertTrue(endpoint.post(Map.of("event", "test"), "test", "run"));
+        assertEquals(0, breaker.snapshot().consecutiveFailures());
+    }
+}
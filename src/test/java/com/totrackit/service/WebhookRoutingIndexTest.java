@@ -0,0 +1,117 @@
+package com.totrackit.service;
+
+import com.totrackit.model.WebhookSubscription;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the webhook routing index: exact name, prefix, tag and
+ * catch-all subscriptions, and agreement with the brute-force match over
+ * random subscriptions and events.
+ */
+public class WebhookRoutingIndexTest {
+
+    private static final String MISSED = WebhookNotificationService.DEADLINE_MISSED;
+    private static final String COMPLETED = WebhookNotificationService.PROCESS_COMPLETED;
+
+    private static WebhookSubscription subscription(long id, String namePattern, Map<String, String> tags,
+                                                    String... events) {
+        return new WebhookSubscription(id, "http://hooks.example/" + id, namePattern, tags, Set.of(events),
+                Instant.EPOCH);
+    }
+
+    private static List<Long> ids(List<WebhookSubscription> subscriptions) {
+        return subscriptions.stream().map(WebhookSubscription::id).sorted().toList();
+    }
+
+    private static String prefixOf(String name, int length) {
+        return name.substring(0, Math.min(length, name.length()));
+    }
+
+    @Test
+    void testMatchesByNamePrefixTagAndCatchAll() {
+        WebhookRoutingIndex index = WebhookRoutingIndex.build(List.of(
+                subscription(1, "billing-nightly", Map.of(), MISSED),
+                subscription(2, "billing-*", Map.of(), MISSED),
+                subscription(3, null, Map.of("env", "prod"), MISSED),
+                subscription(4, null, Map.of(), MISSED, COMPLETED),
+                subscription(5, "billing-*", Map.of("env", "prod", "team", "payments"), MISSED),
+                subscription(6, "reports", Map.of(), COMPLETED)));
+        Set<String> prod = Set.of(WebhookSubscription.tagPair("env", "prod"));
+        Set<String> prodPayments = Set.of(WebhookSubscription.tagPair("env", "prod"),
+                WebhookSubscription.tagPair("team", "payments"));
+
+        assertEquals(6, index.size());
+        assertEquals(List.of(1L, 2L, 4L), ids(index.match(MISSED, "billing-nightly", Set.of())));
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(index.match(MISSED, "billing-nightly", prod)));
+        assertEquals(List.of(2L, 3L, 4L, 5L), ids(index.match(MISSED, "billing-weekly", prodPayments)));
+        assertEquals(List.of(4L, 6L), ids(index.match(COMPLETED, "reports", prod)));
+        assertEquals(List.of(4L), ids(index.match(MISSED, "bill", Set.of())));
+        assertTrue(index.match(WebhookNotificationService.PROCESS_FAILED, "reports", prod).isEmpty());
+    }
+
+    @Test
+    void testEmptyIndexMatchesNothing() {
+        assertTrue(WebhookRoutingIndex.EMPTY.isEmpty());
+        assertTrue(WebhookRoutingIndex.EMPTY.match(MISSED, "any", Set.of()).isEmpty());
+    }
+
+    @Test
+    void testAgreesWithBruteForceMatching() {
+        Random random = new Random(42);
+        String[] names = {"billing", "billing-nightly", "billing-weekly", "reports", "reports-eu", "sync", "s"};
+        String[] tagKeys = {"env", "team", "region"};
+        String[] tagValues = {"a", "b", "c"};
+        String[] events = WebhookSubscriptionService.EVENT_TYPES.toArray(new String[0]);
+
+        List<WebhookSubscription> subscriptions = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            String pattern = switch (random.nextInt(3)) {
+                case 0 -> null;
+                case 1 -> names[random.nextInt(names.length)];
+                default -> prefixOf(names[random.nextInt(names.length)], 1 + random.nextInt(3)) + "*";
+            };
+            Map<String, String> tags = new LinkedHashMap<>();
+            for (int t = random.nextInt(3); t > 0; t--) {
+                tags.put(tagKeys[random.nextInt(tagKeys.length)], tagValues[random.nextInt(tagValues.length)]);
+            }
+            Set<String> subscribed = new HashSet<>();
+            for (int e = 1 + random.nextInt(3); e > 0; e--) {
+                subscribed.add(events[random.nextInt(events.length)]);
+            }
+            subscriptions.add(new WebhookSubscription(id, "http://hooks.example/" + id, pattern, tags,
+                    subscribed, Instant.EPOCH));
+        }
+        WebhookRoutingIndex index = WebhookRoutingIndex.build(subscriptions);
+
+        for (int i = 0; i < 2_000; i++) {
+            String event = events[random.nextInt(events.length)];
+            String name = names[random.nextInt(names.length)];
+            Set<String> tagPairs = new HashSet<>();
+            for (String key : tagKeys) {
+                if (random.nextBoolean()) {
+                    tagPairs.add(WebhookSubscription.tagPair(key, tagValues[random.nextInt(tagValues.length)]));
+                }
+            }
+            List<WebhookSubscription> expected = subscriptions.stream()
+                    .filter(subscription -> subscription.matches(event, name, tagPairs))
+                    .sorted(Comparator.comparingLong(WebhookSubscription::id))
+                    .toList();
+            List<WebhookSubscription> actual = new ArrayList<>(index.match(event, name, tagPairs));
+            actual.sort(Comparator.comparingLong(WebhookSubscription::id));
+            assertEquals(expected, actual, () -> event + " " + name + " " + tagPairs);
+        }
+    }
+}
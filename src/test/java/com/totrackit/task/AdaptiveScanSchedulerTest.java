@@ -0,0 +1,141 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
+import com.totrackit.repository.ProcessRepository;
+import com.totrackit.service.WarningLevels;
+import com.totrackit.task.DeadlineNotificationTask.Outcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for adaptive scan scheduling: the next pass is planned at the
+ * earliest pending deadline event, clamped to the min and max interval, and
+ * runs started on this replica bring it forward; past-due events only count
+ * while passes make progress, and followers wait the max interval.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AdaptiveScanSchedulerTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Mock
+    private DeadlineNotificationTask notificationTask;
+
+    @Mock
+    private ProcessRepository processRepository;
+
+    private AdaptiveScanScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new AdaptiveScanScheduler(notificationTask, processRepository, WarningLevels.of(0.75),
+                Duration.ofSeconds(1), Duration.ofMinutes(5));
+        lenient().when(notificationTask.notifyMissedDeadlines()).thenReturn(Outcome.PROGRESSED);
+        lenient().when(processRepository.findNextUnnotifiedDeadline(any(Instant.class))).thenReturn(Optional.empty());
+        lenient().when(processRepository.findNextWarningInstant(any(Instant.class))).thenReturn(Optional.empty());
+    }
+
+    private static ProcessEntity started(Instant startedAt, Instant deadline) {
+        ProcessEntity entity = new ProcessEntity("run-1", "adaptive-test");
+        entity.setId(1L);
+        entity.setStartedAt(startedAt);
+        entity.setDeadline(deadline);
+        return entity;
+    }
+
+    @Test
+    void testIdleSchedulerWaitsTheMaxInterval() {
+        scheduler.scanAndPlan(NOW);
+
+        verify(notificationTask).notifyMissedDeadlines();
+        assertEquals(NOW + 300_000, scheduler.wakeAtMillis());
+    }
+
+    @Test
+    void testNextPassRunsAtTheEarliestDueEvent() {
+        when(processRepository.findNextUnnotifiedDeadline(Instant.EPOCH))
+                .thenReturn(Optional.of(Instant.ofEpochMilli(NOW + 20_000)));
+        when(processRepository.findNextWarningInstant(Instant.EPOCH))
+                .thenReturn(Optional.of(Instant.ofEpochMilli(NOW + 7_500)));
+
+        scheduler.scanAndPlan(NOW);
+
+        assertEquals(NOW + 7_500, scheduler.wakeAtMillis());
+    }
+
+    @Test
+    void testBacklogIsRescannedAfterTheMinInterval() {
+        when(processRepository.findNextUnnotifiedDeadline(Instant.EPOCH))
+                .thenReturn(Optional.of(Instant.ofEpochMilli(NOW - 60_000)));
+
+        scheduler.scanAndPlan(NOW);
+
+        assertEquals(NOW + 1_000, scheduler.wakeAtMillis());
+    }
+
+    @Test
+    void testPassWithoutProgressPlansOnFutureEventsOnly() {
+        when(notificationTask.notifyMissedDeadlines()).thenReturn(Outcome.IDLE);
+        lenient().when(processRepository.findNextUnnotifiedDeadline(Instant.EPOCH))
+                .thenReturn(Optional.of(Instant.ofEpochMilli(NOW - 60_000)));
+
+        scheduler.scanAndPlan(NOW);
+        assertEquals(NOW + 300_000, scheduler.wakeAtMillis(), "the stuck backlog does not spin at the min interval");
+
+        when(processRepository.findNextWarningInstant(Instant.ofEpochMilli(NOW + 300_000)))
+                .thenReturn(Optional.of(Instant.ofEpochMilli(NOW + 330_000)));
+        scheduler.scanAndPlan(NOW + 300_000);
+        assertEquals(NOW + 330_000, scheduler.wakeAtMillis());
+    }
+
+    @Test
+    void testSkippedPassWaitsTheMaxIntervalAndIgnoresStarts() {
+        when(notificationTask.notifyMissedDeadlines()).thenReturn(Outcome.SKIPPED);
+
+        scheduler.scanAndPlan(NOW);
+        Instant start = Instant.ofEpochMilli(NOW);
+        scheduler.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED,
+                started(start, start.plusSeconds(10))));
+
+        assertEquals(NOW + 300_000, scheduler.wakeAtMillis());
+        verify(processRepository, never()).findNextUnnotifiedDeadline(any());
+    }
+
+    @Test
+    void testStartedRunBringsTheNextPassForward() {
+        scheduler.scanAndPlan(NOW);
+        Instant start = Instant.ofEpochMilli(NOW);
+
+        // 100s budget: the warning at +75s comes before the planned +300s pass.
+        scheduler.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED,
+                started(start, start.plusSeconds(100))));
+        assertEquals(NOW + 75_000, scheduler.wakeAtMillis());
+
+        // Later events and finished runs never push it back.
+        scheduler.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED,
+                started(start, start.plusSeconds(200))));
+        scheduler.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.COMPLETED,
+                started(start, start.plusSeconds(1))));
+        assertEquals(NOW + 75_000, scheduler.wakeAtMillis());
+
+        // Never sooner than the min interval after the last pass.
+        scheduler.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED,
+                started(start.minusSeconds(10), start.minusSeconds(5))));
+        assertEquals(NOW + 1_000, scheduler.wakeAtMillis());
+    }
+}
@@ -1,9 +1,18 @@
 package com.totrackit.task;
 
 import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
+import com.totrackit.repository.DeadlineDigestRepository;
+import com.totrackit.repository.DeadlineDigestRepository.DigestGroup;
+import com.totrackit.repository.DeadlineScanRepository;
+import com.totrackit.repository.DeadlineScanRepository.DeadlineScan;
+import com.totrackit.repository.NotificationOutboxRepository;
 import com.totrackit.repository.ProcessRepository;
 import com.totrackit.service.AdvisoryLockService;
+import com.totrackit.service.DeadlineClaimService;
+import com.totrackit.service.LeaderElection;
 import com.totrackit.service.MetricsService;
+import com.totrackit.service.WarningLevels;
 import com.totrackit.service.WebhookNotificationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,14 +20,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.lenient;
@@ -36,10 +54,14 @@ import static org.mockito.Mockito.when;
 public class DeadlineNotificationTaskTest {
 
     private static final int BATCH = 500;
+    private static final Duration RECOUNT_INTERVAL = Duration.ofMinutes(5);
 
     @Mock
     private ProcessRepository processRepository;
 
+    @Mock
+    private DeadlineScanRepository scanRepository;
+
     @Mock
     private MetricsService metricsService;
 
@@ -49,29 +71,72 @@ public class DeadlineNotificationTaskTest {
     @Mock
     private WebhookNotificationService notificationService;
 
+    @Mock
+    private NotificationOutboxRepository outbox;
+
+    @Mock
+    private DeadlineClaimService claims;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Mock
+    private WebhookSubscriptionDispatcher subscriptions;
+
+    @Mock
+    private DeadlineDigestRepository digest;
+
     private DeadlineNotificationTask task;
 
     @BeforeEach
     void setUp() {
         lenient().when(notificationService.isEnabled()).thenReturn(true);
+        lenient().when(notificationService.isAvailable()).thenReturn(true);
         // The scan runs only while holding the advisory lock; execute inline.
         lenient().when(advisoryLockService.runExclusive(anyLong(), any(Runnable.class)))
                 .thenAnswer(invocation -> {
                     ((Runnable) invocation.getArgument(1)).run();
                     return true;
                 });
-        lenient().when(processRepository.findApproachingUnwarned(any(Instant.class), anyDouble(), anyInt()))
+        lenient().when(processRepository.findApproachingUnwarned(any(Instant.class), anyString(), anyInt()))
                 .thenReturn(Collections.emptyList());
         lenient().when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt()))
                 .thenReturn(Collections.emptyList());
         lenient().when(processRepository.countOverdueUnnotified(any(Instant.class))).thenReturn(0L);
-        lenient().when(processRepository.countApproachingUnwarned(any(Instant.class), anyDouble())).thenReturn(0L);
+        lenient().when(processRepository.countApproachingUnwarned(any(Instant.class), anyString())).thenReturn(0L);
+        // The single-statement scan answers from the per-query stubs above.
+        lenient().when(scanRepository.scan(any(Instant.class), any(), anyInt(), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    Instant now = invocation.getArgument(0);
+                    String levels = invocation.getArgument(1);
+                    int batch = invocation.getArgument(2);
+                    boolean recount = invocation.getArgument(3);
+                    List<ProcessEntity> approaching = levels != null
+                            ? processRepository.findApproachingUnwarned(now, levels, batch)
+                            : List.of();
+                    List<ProcessEntity> overdue = processRepository.findOverdueUnnotified(now, batch);
+                    return new DeadlineScan(approaching, overdue,
+                            recount && overdue.size() >= batch ? processRepository.countOverdueUnnotified(now) : null,
+                            recount && approaching.size() >= batch
+                                    ? processRepository.countApproachingUnwarned(now, levels)
+                                    : null);
+                });
         task = newTask(notificationService, 0.75);
     }
 
     private DeadlineNotificationTask newTask(WebhookNotificationService webhook, double threshold) {
-        return new DeadlineNotificationTask(processRepository, metricsService, advisoryLockService,
-                webhook, threshold, BATCH);
+        return newTask(webhook, threshold, 1);
+    }
+
+    private DeadlineNotificationTask newTask(WebhookNotificationService webhook, double threshold, int concurrency) {
+        return newTask(webhook, threshold, concurrency, 1);
+    }
+
+    private DeadlineNotificationTask newTask(WebhookNotificationService webhook, double threshold, int concurrency,
+                                             int webhookBatchSize) {
+        return new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                webhook, null, null, null, null, null, WarningLevels.of(threshold), BATCH, concurrency,
+                webhookBatchSize, "poll", RECOUNT_INTERVAL);
     }
 
     private ProcessEntity overdueProcess(Long id, String processId) {
@@ -97,7 +162,7 @@ public class DeadlineNotificationTaskTest {
         when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(List.of(process));
         when(notificationService.sendDeadlineMissed(process)).thenReturn(true);
 
-        task.notifyMissedDeadlines();
+        assertEquals(DeadlineNotificationTask.Outcome.PROGRESSED, task.notifyMissedDeadlines());
 
         verify(processRepository).markDeadlineNotifiedBatch(eq(List.of(1L)), any(Instant.class));
         verify(metricsService).recordDeadlineMissed("test-process");
@@ -109,7 +174,7 @@ public class DeadlineNotificationTaskTest {
         when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(List.of(process));
         when(notificationService.sendDeadlineMissed(process)).thenReturn(false);
 
-        task.notifyMissedDeadlines();
+        assertEquals(DeadlineNotificationTask.Outcome.IDLE, task.notifyMissedDeadlines());
 
         verify(processRepository, never()).markDeadlineNotifiedBatch(any(), any());
         verify(metricsService, never()).recordDeadlineMissed(any());
@@ -171,26 +236,44 @@ public class DeadlineNotificationTaskTest {
     @Test
     void testWarningFiredForRowsPastThreshold() {
         ProcessEntity atRisk = atRiskProcess(10L, "proc-w1");
-        when(processRepository.findApproachingUnwarned(any(Instant.class), anyDouble(), anyInt()))
+        when(processRepository.findApproachingUnwarned(any(Instant.class), anyString(), anyInt()))
                 .thenReturn(List.of(atRisk));
         when(notificationService.sendDeadlineWarning(eq(atRisk), anyLong())).thenReturn(true);
 
         task.notifyMissedDeadlines();
 
-        verify(processRepository).markDeadlineWarnedBatch(eq(List.of(10L)), any(Instant.class));
+        verify(processRepository).markDeadlineWarnedBatch(eq(List.of(10L)), any(Instant.class), eq("{0.75}"));
         verify(metricsService).recordDeadlineWarning("test-process");
     }
 
+    @Test
+    void testEscalatingWarningCarriesTheLevelReached() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, null, null, null, null, WarningLevels.of(0.5, 0.75, 0.9), BATCH, 1, 1,
+                "poll", RECOUNT_INTERVAL);
+        ProcessEntity atRisk = atRiskProcess(11L, "proc-w2");
+        atRisk.setDeadlineWarningLevel(1);
+        when(processRepository.findApproachingUnwarned(any(Instant.class), anyString(), anyInt()))
+                .thenReturn(List.of(atRisk));
+        when(notificationService.sendDeadlineWarning(eq(atRisk), anyLong())).thenReturn(true);
+
+        task.notifyMissedDeadlines();
+
+        assertEquals(2, atRisk.getDeadlineWarningLevel());
+        verify(processRepository).markDeadlineWarnedBatch(eq(List.of(11L)), any(Instant.class),
+                eq("{0.5,0.75,0.9}"));
+    }
+
     @Test
     void testWarningNotMarkedWhenDeliveryFails() {
         ProcessEntity atRisk = atRiskProcess(12L, "proc-w3");
-        when(processRepository.findApproachingUnwarned(any(Instant.class), anyDouble(), anyInt()))
+        when(processRepository.findApproachingUnwarned(any(Instant.class), anyString(), anyInt()))
                 .thenReturn(List.of(atRisk));
         when(notificationService.sendDeadlineWarning(eq(atRisk), anyLong())).thenReturn(false);
 
         task.notifyMissedDeadlines();
 
-        verify(processRepository, never()).markDeadlineWarnedBatch(any(), any());
+        verify(processRepository, never()).markDeadlineWarnedBatch(any(), any(), any());
         verify(metricsService, never()).recordDeadlineWarning(any());
     }
 
@@ -198,12 +281,12 @@ public class DeadlineNotificationTaskTest {
     void testWarningWithoutWebhookMarksAndRecordsMetric() {
         task = newTask(null, 0.75);
         ProcessEntity atRisk = atRiskProcess(13L, "proc-w4");
-        when(processRepository.findApproachingUnwarned(any(Instant.class), anyDouble(), anyInt()))
+        when(processRepository.findApproachingUnwarned(any(Instant.class), anyString(), anyInt()))
                 .thenReturn(List.of(atRisk));
 
         task.notifyMissedDeadlines();
 
-        verify(processRepository).markDeadlineWarnedBatch(eq(List.of(13L)), any(Instant.class));
+        verify(processRepository).markDeadlineWarnedBatch(eq(List.of(13L)), any(Instant.class), eq("{0.75}"));
         verify(metricsService).recordDeadlineWarning("test-process");
     }
 
@@ -213,17 +296,17 @@ public class DeadlineNotificationTaskTest {
 
         task.notifyMissedDeadlines();
 
-        verify(processRepository, never()).findApproachingUnwarned(any(Instant.class), anyDouble(), anyInt());
+        verify(processRepository, never()).findApproachingUnwarned(any(Instant.class), anyString(), anyInt());
     }
 
     @Test
     void testSkipsCycleWhenLockHeldElsewhere() {
         when(advisoryLockService.runExclusive(anyLong(), any(Runnable.class))).thenReturn(false);
 
-        task.notifyMissedDeadlines();
+        assertEquals(DeadlineNotificationTask.Outcome.SKIPPED, task.notifyMissedDeadlines());
 
         verify(processRepository, never()).findOverdueUnnotified(any(Instant.class), anyInt());
-        verify(processRepository, never()).findApproachingUnwarned(any(Instant.class), anyDouble(), anyInt());
+        verify(processRepository, never()).findApproachingUnwarned(any(Instant.class), anyString(), anyInt());
     }
 
     @Test
@@ -244,13 +327,39 @@ public class DeadlineNotificationTaskTest {
     }
 
     @Test
-    void testBacklogGaugesPublishedEachCycle() {
-        when(processRepository.countOverdueUnnotified(any(Instant.class))).thenReturn(7L);
-        when(processRepository.countApproachingUnwarned(any(Instant.class), anyDouble())).thenReturn(3L);
+    void testBacklogGaugesComeFromThePassWithoutCounting() {
+        List<ProcessEntity> overdue = List.of(overdueProcess(1L, "p1"), overdueProcess(2L, "p2"));
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(overdue);
+        when(processRepository.findApproachingUnwarned(any(Instant.class), anyString(), anyInt()))
+                .thenReturn(List.of(atRiskProcess(3L, "p3")));
+        when(notificationService.sendDeadlineMissed(overdue.get(0))).thenReturn(true);
+        when(notificationService.sendDeadlineMissed(overdue.get(1))).thenReturn(false);
+        when(notificationService.sendDeadlineWarning(any(), anyLong())).thenReturn(false);
 
         task.notifyMissedDeadlines();
 
-        verify(metricsService).updateNotificationBacklog(7L, 3L);
+        // A batch that is not full is the whole backlog: 2 - 1 missed, 1 - 0 warnings.
+        verify(metricsService).updateNotificationBacklog(1L, 1L);
+        verify(processRepository, never()).countOverdueUnnotified(any(Instant.class));
+        verify(processRepository, never()).countApproachingUnwarned(any(Instant.class), anyString());
+    }
+
+    @Test
+    void testFullBatchIsRecountedOncePerIntervalAndCarriedForward() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, null, null, null, null, WarningLevels.of(0.0), 2, 1, 1,
+                "poll", RECOUNT_INTERVAL);
+        List<ProcessEntity> overdue = List.of(overdueProcess(1L, "p1"), overdueProcess(2L, "p2"));
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(overdue);
+        when(notificationService.sendDeadlineMissed(any())).thenReturn(true);
+        when(processRepository.countOverdueUnnotified(any(Instant.class))).thenReturn(10L);
+
+        task.notifyMissedDeadlines();
+        task.notifyMissedDeadlines();
+
+        verify(metricsService).updateNotificationBacklog(8L, 0L);
+        verify(metricsService).updateNotificationBacklog(6L, 0L);
+        verify(processRepository, times(1)).countOverdueUnnotified(any(Instant.class));
     }
 
     @Test
@@ -269,4 +378,363 @@ public class DeadlineNotificationTaskTest {
         verify(processRepository).markDeadlineNotifiedBatch(eq(List.of(2L, 4L, 6L)), any(Instant.class));
         verify(metricsService, atMost(3)).recordDeadlineMissed(any());
     }
+
+    @Test
+    void testConcurrentDeliveryOverlapsRequestsAndMarksInScanOrder() {
+        task = newTask(notificationService, 0.75, 4);
+        List<ProcessEntity> overdue = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            overdue.add(overdueProcess(id, "p" + id));
+        }
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(overdue);
+        // Each send waits until four are in flight at once, which only
+        // completes if delivery really runs in parallel.
+        CountDownLatch inFlight = new CountDownLatch(4);
+        when(notificationService.sendDeadlineMissed(any())).thenAnswer(invocation -> {
+            inFlight.countDown();
+            return inFlight.await(5, TimeUnit.SECONDS);
+        });
+
+        task.notifyMissedDeadlines();
+
+        verify(processRepository).markDeadlineNotifiedBatch(
+                eq(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L)), any(Instant.class));
+        verify(metricsService, times(8)).recordDeadlineMissed("test-process");
+    }
+
+    @Test
+    void testConcurrentDeliveryRespectsLimit() {
+        task = newTask(notificationService, 0.75, 3);
+        List<ProcessEntity> overdue = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            overdue.add(overdueProcess(id, "p" + id));
+        }
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(overdue);
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(notificationService.sendDeadlineMissed(any())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            current.decrementAndGet();
+            return true;
+        });
+
+        task.notifyMissedDeadlines();
+
+        assertTrue(peak.get() <= 3, "at most 3 requests in flight, saw " + peak.get());
+        verify(notificationService, times(20)).sendDeadlineMissed(any());
+    }
+
+    @Test
+    void testConcurrentDeliveryAbortsAfterConsecutiveFailures() {
+        task = newTask(notificationService, 0.75, 2);
+        List<ProcessEntity> overdue = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            overdue.add(overdueProcess(id, "p" + id));
+        }
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(overdue);
+        when(notificationService.sendDeadlineMissed(any())).thenReturn(false);
+
+        task.notifyMissedDeadlines();
+
+        // At most the failures that trip the breaker plus the requests already in flight.
+        verify(notificationService, atMost(6)).sendDeadlineMissed(any());
+        verify(processRepository, never()).markDeadlineNotifiedBatch(any(), any());
+    }
+
+    @Test
+    void testBatchModePostsArraysAndMarksOnlyAcceptedBatches() {
+        task = newTask(notificationService, 0.75, 1, 3);
+        List<ProcessEntity> overdue = new ArrayList<>();
+        for (long id = 1; id <= 7; id++) {
+            overdue.add(overdueProcess(id, "p" + id));
+        }
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(overdue);
+        // Requests of 3 + 3 + 1 events; the second batch is rejected as a whole.
+        when(notificationService.sendDeadlineMissedBatch(any())).thenReturn(true, false, true);
+
+        task.notifyMissedDeadlines();
+
+        verify(notificationService).sendDeadlineMissedBatch(overdue.subList(0, 3));
+        verify(notificationService).sendDeadlineMissedBatch(overdue.subList(3, 6));
+        verify(notificationService).sendDeadlineMissedBatch(overdue.subList(6, 7));
+        verify(notificationService, never()).sendDeadlineMissed(any());
+        verify(processRepository).markDeadlineNotifiedBatch(eq(List.of(1L, 2L, 3L, 7L)), any(Instant.class));
+        verify(metricsService, times(4)).recordDeadlineMissed("test-process");
+    }
+
+    @Test
+    void testBatchModeAppliesToWarnings() {
+        task = newTask(notificationService, 0.75, 4, 100);
+        List<ProcessEntity> approaching = List.of(atRiskProcess(20L, "w1"), atRiskProcess(21L, "w2"));
+        when(processRepository.findApproachingUnwarned(any(Instant.class), anyString(), anyInt()))
+                .thenReturn(approaching);
+        when(notificationService.sendDeadlineWarningBatch(eq(approaching), any(Instant.class))).thenReturn(true);
+
+        task.notifyMissedDeadlines();
+
+        verify(notificationService, never()).sendDeadlineWarning(any(), anyLong());
+        verify(processRepository).markDeadlineWarnedBatch(eq(List.of(20L, 21L)), any(Instant.class), eq("{0.75}"));
+    }
+
+    @Test
+    void testOutboxModeEnqueuesInsteadOfDelivering() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, outbox, null, null, null, null, WarningLevels.of(0.75), BATCH, 1, 1, "poll",
+                RECOUNT_INTERVAL);
+        when(outbox.enqueueMissedDeadlines(any(Instant.class), eq(WebhookNotificationService.DEADLINE_MISSED),
+                eq(BATCH))).thenReturn(List.of("test-process", "test-process"));
+        when(outbox.enqueueDeadlineWarnings(any(Instant.class), eq("{0.75}"),
+                eq(WebhookNotificationService.DEADLINE_WARNING), eq(BATCH))).thenReturn(List.of("test-process"));
+
+        task.notifyMissedDeadlines();
+
+        verify(metricsService, times(2)).recordDeadlineMissed("test-process");
+        verify(metricsService).recordDeadlineWarning("test-process");
+        verify(notificationService, never()).sendDeadlineMissed(any());
+        verify(processRepository, never()).findOverdueUnnotified(any(Instant.class), anyInt());
+        verify(processRepository, never()).markDeadlineNotifiedBatch(any(), any());
+    }
+
+    @Test
+    void testOutboxModeWithoutActiveWebhookMarksDirectly() {
+        when(notificationService.isEnabled()).thenReturn(false);
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, outbox, null, null, null, null, WarningLevels.of(0.75), BATCH, 1, 1, "poll",
+                RECOUNT_INTERVAL);
+        ProcessEntity process = overdueProcess(30L, "proc-30");
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(List.of(process));
+
+        task.notifyMissedDeadlines();
+
+        verify(outbox, never()).enqueueMissedDeadlines(any(), any(), anyInt());
+        verify(processRepository).markDeadlineNotifiedBatch(eq(List.of(30L)), any(Instant.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testParallelModeClaimsRowsWithoutScanLock() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, claims, null, null, null, WarningLevels.of(0.75), BATCH, 1, 1, "poll",
+                RECOUNT_INTERVAL);
+        ProcessEntity delivered = overdueProcess(40L, "proc-40");
+        ProcessEntity failed = overdueProcess(41L, "proc-41");
+        when(notificationService.sendDeadlineMissed(delivered)).thenReturn(true);
+        when(notificationService.sendDeadlineMissed(failed)).thenReturn(false);
+        // The claim service marks whatever the handler returns, inside its transaction.
+        when(claims.processOverdue(any(Instant.class), eq(BATCH), any())).thenAnswer(invocation -> {
+            UnaryOperator<List<ProcessEntity>> handler = invocation.getArgument(2);
+            return new DeadlineClaimService.Claim(2, handler.apply(List.of(delivered, failed)));
+        });
+        when(claims.processApproaching(any(Instant.class), anyString(), eq(BATCH), any()))
+                .thenReturn(new DeadlineClaimService.Claim(0, List.of()));
+
+        task.notifyMissedDeadlines();
+
+        verify(advisoryLockService, never()).runExclusive(anyLong(), any(Runnable.class));
+        verify(processRepository, never()).findOverdueUnnotified(any(Instant.class), anyInt());
+        verify(metricsService, times(1)).recordDeadlineMissed("test-process");
+        verify(metricsService).recordDeadlineScanPass(eq("deadline_missed"), eq(2), anyLong());
+        verify(metricsService).recordDeadlineScanPass(eq("deadline_warning"), eq(0), anyLong());
+    }
+
+    @Test
+    void testLeaseLeaderScansWithoutScanLock() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, null, leaderElection, null, null, WarningLevels.of(0.75), BATCH, 1, 1,
+                "poll", RECOUNT_INTERVAL);
+        when(leaderElection.isLeader()).thenReturn(true);
+        ProcessEntity process = overdueProcess(60L, "proc-60");
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(List.of(process));
+        when(notificationService.sendDeadlineMissed(process)).thenReturn(true);
+
+        task.notifyMissedDeadlines();
+
+        verify(advisoryLockService, never()).runExclusive(anyLong(), any(Runnable.class));
+        verify(processRepository).markDeadlineNotifiedBatch(eq(List.of(60L)), any(Instant.class));
+    }
+
+    @Test
+    void testLeaseLeaderSkipsWheelTickWhileAScanIsRunning() throws InterruptedException {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, null, leaderElection, null, null, WarningLevels.of(0.75), BATCH, 1, 1,
+                "wheel", RECOUNT_INTERVAL);
+        when(leaderElection.isLeader()).thenReturn(true);
+        ProcessEntity process = overdueProcess(62L, "proc-62");
+        when(notificationService.sendDeadlineMissed(process)).thenReturn(true);
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(scanRepository.scan(any(Instant.class), any(), anyInt(), anyBoolean())).thenAnswer(invocation -> {
+            scanning.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return new DeadlineScan(List.of(), List.of(process), null, null);
+        });
+        Instant start = Instant.now();
+        ProcessEntity started = new ProcessEntity("proc-63", "test-process");
+        started.setId(63L);
+        started.setStartedAt(start);
+        started.setDeadline(start.plusSeconds(100));
+        DeadlineWheelTask wheel = new DeadlineWheelTask(task, processRepository, WarningLevels.of(0.75),
+                Duration.ofMinutes(15), 100);
+        wheel.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED, started));
+
+        Thread fixedInterval = new Thread(task::scheduledScan);
+        fixedInterval.start();
+        assertTrue(scanning.await(10, TimeUnit.SECONDS));
+        wheel.tick(start.plusSeconds(101).toEpochMilli());
+        assertEquals(DeadlineNotificationTask.Outcome.SKIPPED, task.notifyMissedDeadlines());
+        release.countDown();
+        fixedInterval.join(TimeUnit.SECONDS.toMillis(10));
+
+        verify(scanRepository, times(1)).scan(any(Instant.class), any(), anyInt(), anyBoolean());
+        verify(notificationService, times(1)).sendDeadlineMissed(process);
+        verify(processRepository).markDeadlineNotifiedBatch(eq(List.of(62L)), any(Instant.class));
+    }
+
+    @Test
+    void testLeaseFollowerSkipsScan() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, null, leaderElection, null, null, WarningLevels.of(0.75), BATCH, 1, 1,
+                "poll", RECOUNT_INTERVAL);
+        when(leaderElection.isLeader()).thenReturn(false);
+
+        assertEquals(DeadlineNotificationTask.Outcome.SKIPPED, task.notifyMissedDeadlines());
+
+        verify(advisoryLockService, never()).runExclusive(anyLong(), any(Runnable.class));
+        verify(processRepository, never()).findOverdueUnnotified(any(Instant.class), anyInt());
+        verify(processRepository, never()).findApproachingUnwarned(any(Instant.class), anyString(), anyInt());
+        verify(metricsService).updateNotificationBacklog(0, 0);
+    }
+
+    @Test
+    void testScanPassMetricsRecordedInExclusiveMode() {
+        ProcessEntity process = overdueProcess(50L, "proc-50");
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(List.of(process));
+        when(notificationService.sendDeadlineMissed(process)).thenReturn(true);
+
+        task.notifyMissedDeadlines();
+
+        verify(metricsService).recordDeadlineScanPass(eq("deadline_missed"), eq(1), anyLong());
+    }
+
+    @Test
+    void testSubscriptionsAreRoutedWhetherOrNotTheWebhookAccepts() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, null, null, subscriptions, null, WarningLevels.of(0.75), BATCH, 1, 1, "poll",
+                RECOUNT_INTERVAL);
+        ProcessEntity failed = overdueProcess(71L, "proc-71");
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(List.of(failed));
+        when(notificationService.sendDeadlineMissed(failed)).thenReturn(false);
+
+        task.notifyMissedDeadlines();
+
+        verify(subscriptions).routeDueDeadlineEvents(any(Instant.class));
+        verify(subscriptions, never()).routeDeadlineEvents(anyString(), any(), any(Instant.class));
+        verify(processRepository, never()).markDeadlineNotifiedBatch(any(), any(Instant.class));
+    }
+
+    @Test
+    void testOpenCircuitStillRoutesSubscriptions() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, null, null, subscriptions, null, WarningLevels.of(0.75), BATCH, 1, 1, "poll",
+                RECOUNT_INTERVAL);
+        when(notificationService.isAvailable()).thenReturn(false);
+
+        task.notifyMissedDeadlines();
+
+        verify(subscriptions).routeDueDeadlineEvents(any(Instant.class));
+        verify(processRepository, never()).findOverdueUnnotified(any(Instant.class), anyInt());
+    }
+
+    @Test
+    void testOpenCircuitSkipsDeliveryWithoutMarking() {
+        when(notificationService.isAvailable()).thenReturn(false);
+
+        task.notifyMissedDeadlines();
+
+        verify(processRepository, never()).findOverdueUnnotified(any(Instant.class), anyInt());
+        verify(processRepository, never()).findApproachingUnwarned(any(Instant.class), anyString(), anyInt());
+        verify(notificationService, never()).sendDeadlineMissed(any());
+        verify(processRepository).countOverdueUnnotified(any(Instant.class));
+    }
+
+    private static DigestGroup digestGroup(String name, Long... ids) {
+        Instant deadline = Instant.now().minusSeconds(60);
+        List<String> sampleIds = new ArrayList<>();
+        for (Long id : ids) {
+            sampleIds.add("proc-" + id);
+        }
+        return new DigestGroup(name, null, ids.length, deadline, deadline, sampleIds, List.of(ids));
+    }
+
+    @Test
+    void testDigestModeSendsOneDigestPerGroupAndMarksDeliveredRuns() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, claims, null, subscriptions, digest, WarningLevels.of(0.75), BATCH, 1, 1,
+                "poll", RECOUNT_INTERVAL);
+        DigestGroup delivered = digestGroup("nightly-etl", 1L, 2L, 3L);
+        DigestGroup failed = digestGroup("hourly-sync", 4L);
+        when(digest.overdueGroups(any(Instant.class))).thenReturn(List.of(delivered, failed));
+        when(notificationService.sendDigest(WebhookNotificationService.DEADLINE_MISSED, delivered, null))
+                .thenReturn(true);
+        when(notificationService.sendDigest(WebhookNotificationService.DEADLINE_MISSED, failed, null))
+                .thenReturn(false);
+
+        task.notifyMissedDeadlines();
+
+        verify(advisoryLockService).runExclusive(anyLong(), any(Runnable.class));
+        verify(claims, never()).processOverdue(any(Instant.class), anyInt(), any());
+        verify(processRepository, never()).findOverdueUnnotified(any(Instant.class), anyInt());
+        verify(notificationService, never()).sendDeadlineMissed(any());
+        verify(processRepository).markDeadlineNotifiedBatch(eq(List.of(1L, 2L, 3L)), any(Instant.class));
+        verify(metricsService).recordDeadlineMissed("nightly-etl", 3);
+        verify(metricsService, never()).recordDeadlineMissed(eq("hourly-sync"), anyLong());
+        verify(metricsService).recordDeadlineScanPass(eq("deadline_missed"), eq(4), anyLong());
+        verify(processRepository, never()).findByIdIn(any());
+    }
+
+    @Test
+    void testDigestModeLeavesSubscriptionsToTheirMarker() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, null, null, subscriptions, digest, WarningLevels.of(0.75), BATCH, 1, 1,
+                "poll", RECOUNT_INTERVAL);
+        DigestGroup group = digestGroup("nightly-etl", 1L, 2L);
+        when(digest.overdueGroups(any(Instant.class))).thenReturn(List.of(group));
+        when(notificationService.sendDigest(WebhookNotificationService.DEADLINE_MISSED, group, null))
+                .thenReturn(true);
+
+        task.notifyMissedDeadlines();
+
+        verify(subscriptions).routeDueDeadlineEvents(any(Instant.class));
+        verify(subscriptions, never()).routeDeadlineEvents(anyString(), any(), any(Instant.class));
+        verify(processRepository, never()).findByIdIn(any());
+    }
+
+    @Test
+    void testDigestModeIsBypassedWithoutWebhook() {
+        when(notificationService.isEnabled()).thenReturn(false);
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, null, null, null, digest, WarningLevels.of(0.75), BATCH, 1, 1, "poll",
+                RECOUNT_INTERVAL);
+        ProcessEntity process = overdueProcess(80L, "proc-80");
+        when(processRepository.findOverdueUnnotified(any(Instant.class), anyInt())).thenReturn(List.of(process));
+
+        task.notifyMissedDeadlines();
+
+        verify(digest, never()).overdueGroups(any(Instant.class));
+        verify(metricsService).recordDeadlineMissed("test-process");
+        verify(processRepository).markDeadlineNotifiedBatch(eq(List.of(80L)), any(Instant.class));
+    }
+
+    @Test
+    void testAdaptiveModeDisablesTheFixedIntervalScan() {
+        task = new DeadlineNotificationTask(processRepository, scanRepository, metricsService, advisoryLockService,
+                notificationService, null, null, null, null, null, WarningLevels.of(0.75), BATCH, 1, 1, "adaptive",
+                RECOUNT_INTERVAL);
+
+        task.scheduledScan();
+
+        verify(advisoryLockService, never()).runExclusive(anyLong(), any(Runnable.class));
+        verify(processRepository, never()).findOverdueUnnotified(any(Instant.class), anyInt());
+    }
 }
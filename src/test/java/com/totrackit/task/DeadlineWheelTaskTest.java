@@ -0,0 +1,134 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
+import com.totrackit.repository.ProcessRepository;
+import com.totrackit.service.WarningLevels;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for wheel-mode deadline scheduling: lifecycle events and the
+ * periodic reload feed the wheel, and a due timer triggers the regular
+ * deadline pass.
+ */
+@ExtendWith(MockitoExtension.class)
+public class DeadlineWheelTaskTest {
+
+    @Mock
+    private DeadlineNotificationTask notificationTask;
+
+    @Mock
+    private ProcessRepository processRepository;
+
+    private DeadlineWheelTask task;
+
+    @BeforeEach
+    void setUp() {
+        task = new DeadlineWheelTask(notificationTask, processRepository, WarningLevels.of(0.75),
+                Duration.ofMinutes(15), 100);
+    }
+
+    /** Run started now with a 100s budget: warning due at +75s, deadline at +100s. */
+    private ProcessEntity run(Long id, Instant startedAt) {
+        ProcessEntity entity = new ProcessEntity("proc-" + id, "wheel-test");
+        entity.setId(id);
+        entity.setStartedAt(startedAt);
+        entity.setDeadline(startedAt.plusSeconds(100));
+        return entity;
+    }
+
+    @Test
+    void testStartedRunFiresAtWarningAndDeadline() {
+        Instant start = Instant.now();
+        task.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED, run(1L, start)));
+        assertEquals(2, task.pending());
+
+        task.tick(start.plusSeconds(74).toEpochMilli());
+        verify(notificationTask, never()).notifyMissedDeadlines();
+
+        task.tick(start.plusSeconds(76).toEpochMilli());
+        verify(notificationTask, times(1)).notifyMissedDeadlines();
+
+        task.tick(start.plusSeconds(101).toEpochMilli());
+        verify(notificationTask, times(2)).notifyMissedDeadlines();
+        assertEquals(0, task.pending());
+    }
+
+    @Test
+    void testStartedRunBeyondTheHorizonIsLeftToTheReload() {
+        ProcessEntity process = run(6L, Instant.now());
+        // Warning at +45 min, deadline at +60 min: both past the 15 minute horizon.
+        process.setDeadline(process.getStartedAt().plus(Duration.ofHours(1)));
+
+        task.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED, process));
+
+        assertEquals(0, task.pending());
+    }
+
+    @Test
+    void testCompletedRunCancelsItsTimers() {
+        Instant start = Instant.now();
+        ProcessEntity process = run(2L, start);
+        task.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED, process));
+        task.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.COMPLETED, process));
+
+        task.tick(start.plusSeconds(200).toEpochMilli());
+
+        assertEquals(0, task.pending());
+        verify(notificationTask, never()).notifyMissedDeadlines();
+    }
+
+    @Test
+    void testRunWithoutDeadlineIsIgnored() {
+        ProcessEntity process = new ProcessEntity("proc-3", "wheel-test");
+        process.setId(3L);
+
+        task.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED, process));
+
+        assertEquals(0, task.pending());
+    }
+
+    @Test
+    void testReloadDoesNotDuplicateKnownTimers() {
+        ProcessEntity process = run(4L, Instant.now());
+        task.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.STARTED, process));
+        when(processRepository.findUpcomingDeadlineEvents(
+                any(Instant.class), any(Instant.class), anyString(), anyInt()))
+                .thenReturn(List.of(process));
+
+        task.reload();
+        task.reload();
+
+        assertEquals(2, task.pending());
+    }
+
+    @Test
+    void testReloadSkipsInstantsAlreadyPast() {
+        // Started 90s ago: the warning instant has passed, only the deadline is scheduled.
+        ProcessEntity process = run(5L, Instant.now().minusSeconds(90));
+        when(processRepository.findUpcomingDeadlineEvents(
+                any(Instant.class), any(Instant.class), anyString(), anyInt()))
+                .thenReturn(List.of(process));
+
+        task.reload();
+
+        assertEquals(1, task.pending());
+    }
+}
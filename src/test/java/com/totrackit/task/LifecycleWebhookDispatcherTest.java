@@ -0,0 +1,129 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
+import com.totrackit.model.ProcessStatus;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.WebhookNotificationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for lifecycle webhook dispatch: subscribed events are queued
+ * and delivered per type, unsubscribed ones are ignored, and a full queue
+ * drops events instead of blocking. The worker thread is not started; tests
+ * drain the queue directly.
+ */
+@ExtendWith(MockitoExtension.class)
+public class LifecycleWebhookDispatcherTest {
+
+    @Mock
+    private WebhookNotificationService notificationService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private LifecycleWebhookDispatcher newDispatcher(String events, int capacity, int batchSize) {
+        return new LifecycleWebhookDispatcher(notificationService, metricsService, events, capacity, 500, 1,
+                batchSize);
+    }
+
+    private ProcessEntity finished(Long id, ProcessStatus status) {
+        ProcessEntity entity = new ProcessEntity("proc-" + id, "lifecycle-test");
+        entity.setId(id);
+        entity.setStatus(status);
+        entity.setStartedAt(Instant.now().minusSeconds(60));
+        entity.setCompletedAt(Instant.now());
+        return entity;
+    }
+
+    private static ProcessLifecycleEvent event(ProcessLifecycleEvent.Type type, ProcessEntity process) {
+        return new ProcessLifecycleEvent(type, process);
+    }
+
+    @Test
+    void testSubscribedEventsAreDeliveredPerType() throws Exception {
+        LifecycleWebhookDispatcher dispatcher =
+                newDispatcher("process.completed, process.failed", 100, 1);
+        ProcessEntity completed = finished(1L, ProcessStatus.COMPLETED);
+        ProcessEntity failed = finished(2L, ProcessStatus.FAILED);
+        when(notificationService.sendLifecycleEvent(WebhookNotificationService.PROCESS_COMPLETED, completed))
+                .thenReturn(true);
+        when(notificationService.sendLifecycleEvent(WebhookNotificationService.PROCESS_FAILED, failed))
+                .thenReturn(false);
+
+        dispatcher.onLifecycle(event(ProcessLifecycleEvent.Type.COMPLETED, completed));
+        dispatcher.onLifecycle(event(ProcessLifecycleEvent.Type.FAILED, failed));
+
+        assertEquals(2, dispatcher.dispatchPending(0));
+        assertEquals(0, dispatcher.queued());
+        verify(metricsService).recordLifecycleWebhooks(WebhookNotificationService.PROCESS_COMPLETED, "delivered", 1);
+        verify(metricsService).recordLifecycleWebhooks(WebhookNotificationService.PROCESS_FAILED, "failed", 1);
+    }
+
+    @Test
+    void testUnsubscribedEventsAreIgnored() throws Exception {
+        LifecycleWebhookDispatcher dispatcher = newDispatcher("process.failed", 100, 1);
+
+        dispatcher.onLifecycle(event(ProcessLifecycleEvent.Type.STARTED, finished(1L, ProcessStatus.ACTIVE)));
+        dispatcher.onLifecycle(event(ProcessLifecycleEvent.Type.COMPLETED, finished(2L, ProcessStatus.COMPLETED)));
+        dispatcher.onLifecycle(event(ProcessLifecycleEvent.Type.DELETED, finished(3L, ProcessStatus.FAILED)));
+
+        assertEquals(0, dispatcher.dispatchPending(0));
+        verify(notificationService, never()).sendLifecycleEvent(anyString(), any());
+    }
+
+    @Test
+    void testFullQueueDropsInsteadOfBlocking() {
+        LifecycleWebhookDispatcher dispatcher = newDispatcher("process.completed", 2, 1);
+
+        for (long id = 1; id <= 5; id++) {
+            dispatcher.onLifecycle(event(ProcessLifecycleEvent.Type.COMPLETED, finished(id, ProcessStatus.COMPLETED)));
+        }
+
+        assertEquals(2, dispatcher.queued());
+        verify(metricsService, times(3))
+                .recordLifecycleWebhooks(WebhookNotificationService.PROCESS_COMPLETED, "dropped", 1);
+    }
+
+    @Test
+    void testBatchedDeliverySendsOneRequestPerType() throws Exception {
+        LifecycleWebhookDispatcher dispatcher = newDispatcher("process.completed", 100, 10);
+        ProcessEntity first = finished(1L, ProcessStatus.COMPLETED);
+        ProcessEntity second = finished(2L, ProcessStatus.COMPLETED);
+        when(notificationService.sendLifecycleBatch(WebhookNotificationService.PROCESS_COMPLETED,
+                List.of(first, second))).thenReturn(true);
+
+        dispatcher.onLifecycle(event(ProcessLifecycleEvent.Type.COMPLETED, first));
+        dispatcher.onLifecycle(event(ProcessLifecycleEvent.Type.COMPLETED, second));
+        dispatcher.dispatchPending(0);
+
+        verify(notificationService, never()).sendLifecycleEvent(anyString(), any());
+        verify(metricsService).recordLifecycleWebhooks(WebhookNotificationService.PROCESS_COMPLETED, "delivered", 2);
+        verify(metricsService, never()).recordLifecycleWebhooks(anyString(), eq("dropped"), anyInt());
+    }
+
+    @Test
+    void testEventListIsValidated() {
+        assertEquals(Set.of("process.created", "process.failed"),
+                LifecycleWebhookDispatcher.parse(" process.created ,process.failed,"));
+        assertThrows(IllegalArgumentException.class, () -> LifecycleWebhookDispatcher.parse("process.deleted"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.totrackit.task;
+
+import com.totrackit.model.ProcessStatus;
+import com.totrackit.repository.ProcessQueryRepository;
+import com.totrackit.repository.ProcessRepository;
+import com.totrackit.service.LeaderElection;
+import com.totrackit.service.MetricsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the periodic gauge refresh: the leader publishes the
+ * counts, followers publish zero so sum() across replicas stays right.
+ */
+@ExtendWith(MockitoExtension.class)
+class MetricsUpdateTaskTest {
+
+    @Mock
+    private ProcessRepository processRepository;
+
+    @Mock
+    private ProcessQueryRepository processQueryRepository;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Test
+    void testLeaderPublishesCounts() {
+        MetricsUpdateTask task = new MetricsUpdateTask(processRepository, processQueryRepository, metricsService,
+                leaderElection);
+        when(leaderElection.isLeader()).thenReturn(true);
+        when(processRepository.countByStatus(ProcessStatus.ACTIVE)).thenReturn(42L);
+        when(processQueryRepository.countOverdueByName(any(Instant.class), anyInt()))
+                .thenReturn(Map.of("nightly-etl", 3L));
+
+        task.updateGaugeMetrics();
+
+        verify(metricsService).recordActiveProcessesCount(42L);
+        verify(metricsService).updateOverdueProcessCounts(Map.of("nightly-etl", 3L));
+    }
+
+    @Test
+    void testFollowerPublishesZeroWithoutQuerying() {
+        MetricsUpdateTask task = new MetricsUpdateTask(processRepository, processQueryRepository, metricsService,
+                leaderElection);
+        when(leaderElection.isLeader()).thenReturn(false);
+
+        task.updateGaugeMetrics();
+
+        verify(metricsService).recordActiveProcessesCount(0);
+        verify(metricsService).updateOverdueProcessCounts(Map.of());
+        verify(processRepository, never()).countByStatus(any());
+    }
+}
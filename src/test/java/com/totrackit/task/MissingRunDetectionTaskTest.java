@@ -0,0 +1,171 @@
+package com.totrackit.task;
+
+import com.totrackit.model.ExpectedSchedule;
+import com.totrackit.repository.ExpectedScheduleRepository;
+import com.totrackit.repository.ExpectedScheduleRepository.ExpectedRun;
+import com.totrackit.service.AdvisoryLockService;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.WebhookNotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for MissingRunDetectionTask queueing, catch-up, delivery and
+ * marking semantics.
+ */
+@ExtendWith(MockitoExtension.class)
+class MissingRunDetectionTaskTest {
+
+    private static final Instant CREATED = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant FIRST_EXPECTED = Instant.parse("2026-01-01T02:00:00Z");
+
+    @Mock
+    private ExpectedScheduleRepository repository;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private AdvisoryLockService advisoryLockService;
+
+    @Mock
+    private WebhookNotificationService notificationService;
+
+    @Mock
+    private WebhookSubscriptionDispatcher subscriptions;
+
+    private MissingRunDetectionTask task;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notificationService.isEnabled()).thenReturn(true);
+        lenient().when(notificationService.isAvailable()).thenReturn(true);
+        task = new MissingRunDetectionTask(repository, metricsService, advisoryLockService, notificationService,
+                null, subscriptions, Duration.ofSeconds(30), 1, 1);
+    }
+
+    private static ExpectedSchedule nightly(String name) {
+        return new ExpectedSchedule(name, "0 2 * * *", "UTC", 600, null, CREATED);
+    }
+
+    @Test
+    void testNothingDueMeansNoQuery() {
+        when(repository.findAll()).thenReturn(List.of(nightly("import"), nightly("export")));
+
+        task.check(Instant.parse("2026-01-01T02:09:59Z"));
+
+        assertEquals(2, task.pending());
+        verify(repository, never()).findMissing(anyList());
+    }
+
+    @Test
+    void testDueSchedulesAreCheckedInOneStatementAndMoveOn() {
+        when(repository.findAll()).thenReturn(List.of(nightly("import"), nightly("export"), nightly("report")));
+        when(repository.findMissing(anyList())).thenReturn(List.of());
+
+        task.check(Instant.parse("2026-01-01T02:10:00Z"));
+        task.check(Instant.parse("2026-01-01T02:10:15Z"));
+
+        Set<ExpectedRun> expected = Set.of(
+                new ExpectedRun("export", FIRST_EXPECTED, 600),
+                new ExpectedRun("import", FIRST_EXPECTED, 600),
+                new ExpectedRun("report", FIRST_EXPECTED, 600));
+        verify(repository, times(1)).findMissing(argThat(runs -> runs.size() == 3 && expected.containsAll(runs)));
+        verify(repository).markChecked(anyList());
+        verify(notificationService, never()).sendMissing(any());
+        assertEquals(3, task.pending());
+    }
+
+    @Test
+    void testMissingRunsAreReportedMarkedAndRouted() {
+        ExpectedRun run = new ExpectedRun("import", FIRST_EXPECTED, 600);
+        when(repository.findAll()).thenReturn(List.of(nightly("import")));
+        when(repository.findMissing(List.of(run))).thenReturn(List.of(run));
+        when(notificationService.sendMissing(run)).thenReturn(true);
+
+        task.check(Instant.parse("2026-01-01T02:10:00Z"));
+
+        verify(repository).markChecked(List.of(run));
+        verify(metricsService).recordProcessMissing("import");
+        verify(subscriptions).routeMissingRuns(List.of(run));
+    }
+
+    @Test
+    void testUndeliveredMissingRunsAreRetriedNextPass() {
+        ExpectedRun run = new ExpectedRun("import", FIRST_EXPECTED, 600);
+        when(repository.findAll()).thenReturn(List.of(nightly("import")));
+        when(repository.findMissing(List.of(run))).thenReturn(List.of(run));
+        when(notificationService.sendMissing(run)).thenReturn(false, true);
+
+        task.check(Instant.parse("2026-01-01T02:10:00Z"));
+        verify(repository).markChecked(List.of());
+        verify(metricsService, never()).recordProcessMissing(any());
+
+        task.check(Instant.parse("2026-01-01T02:10:15Z"));
+        verify(repository).markChecked(List.of(run));
+        verify(metricsService).recordProcessMissing("import");
+    }
+
+    @Test
+    void testOnlyTheLatestExpectedStartIsCheckedAfterDowntime() {
+        ExpectedSchedule schedule = new ExpectedSchedule("import", "0 2 * * *", "UTC", 600,
+                Instant.parse("2026-01-01T02:00:00Z"), CREATED);
+        ExpectedRun latest = new ExpectedRun("import", Instant.parse("2026-01-10T02:00:00Z"), 600);
+        when(repository.findAll()).thenReturn(List.of(schedule));
+        when(repository.findMissing(anyList())).thenReturn(List.of());
+
+        task.check(Instant.parse("2026-01-10T03:00:00Z"));
+
+        verify(repository).findMissing(List.of(latest));
+    }
+
+    @Test
+    void testCronIsEvaluatedInTheScheduleTimeZone() {
+        ExpectedSchedule paris = new ExpectedSchedule("import", "0 2 * * *", "Europe/Paris", 0, null, CREATED);
+        when(repository.findAll()).thenReturn(List.of(paris));
+        when(repository.findMissing(anyList())).thenReturn(List.of());
+
+        task.check(Instant.parse("2026-01-01T01:00:00Z"));
+
+        verify(repository).findMissing(List.of(new ExpectedRun("import", Instant.parse("2026-01-01T01:00:00Z"), 0)));
+    }
+
+    @Test
+    void testReloadDropsDeletedSchedules() {
+        when(repository.findAll()).thenReturn(List.of(nightly("import"))).thenReturn(List.of());
+
+        task.check(Instant.parse("2026-01-01T01:00:00Z"));
+        task.check(Instant.parse("2026-01-01T01:00:30Z"));
+
+        assertEquals(0, task.pending());
+    }
+
+    @Test
+    void testOpenCircuitLeavesStartsDue() {
+        when(repository.findAll()).thenReturn(List.of(nightly("import")));
+        when(notificationService.isAvailable()).thenReturn(false);
+
+        task.check(Instant.parse("2026-01-01T02:10:00Z"));
+
+        verify(repository, never()).findMissing(anyList());
+        assertEquals(1, task.pending());
+    }
+}
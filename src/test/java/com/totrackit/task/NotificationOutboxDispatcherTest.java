@@ -0,0 +1,201 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.repository.NotificationOutboxRepository;
+import com.totrackit.repository.NotificationOutboxRepository.OutboxEvent;
+import com.totrackit.repository.ProcessRepository;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.WebhookNotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for outbox dispatch: claimed events are delivered, failures are
+ * rescheduled with backoff, events a pass never sent are released without an
+ * attempt, and events out of attempts or without a process are dead-lettered.
+ */
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private NotificationOutboxRepository outbox;
+
+    @Mock
+    private ProcessRepository processRepository;
+
+    @Mock
+    private WebhookNotificationService notificationService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private NotificationOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notificationService.isEnabled()).thenReturn(true);
+        lenient().when(notificationService.isAvailable()).thenReturn(true);
+        lenient().when(outbox.depth()).thenReturn(new NotificationOutboxRepository.Depth(0, 0));
+        dispatcher = new NotificationOutboxDispatcher(outbox, processRepository, notificationService, metricsService,
+                500, 1, 1, Duration.ofMinutes(2), MAX_ATTEMPTS, Duration.ofSeconds(10), Duration.ofHours(1),
+                Duration.ofDays(7));
+    }
+
+    private ProcessEntity process(Long id) {
+        ProcessEntity entity = new ProcessEntity("proc-" + id, "outbox-test");
+        entity.setId(id);
+        entity.setStartedAt(Instant.now().minusSeconds(800));
+        entity.setDeadline(Instant.now().plusSeconds(200));
+        return entity;
+    }
+
+    private void claim(List<OutboxEvent> events, ProcessEntity... processes) {
+        when(outbox.claimDue(any(Instant.class), any(Instant.class), anyInt())).thenReturn(events);
+        lenient().when(processRepository.findByIdIn(anyList())).thenReturn(List.of(processes));
+    }
+
+    @Test
+    void testDeliveredEventsAreMarked() {
+        ProcessEntity late = process(1L);
+        ProcessEntity atRisk = process(2L);
+        claim(List.of(new OutboxEvent(10L, 1L, WebhookNotificationService.DEADLINE_MISSED, 1),
+                new OutboxEvent(11L, 2L, WebhookNotificationService.DEADLINE_WARNING, 1)), late, atRisk);
+        when(notificationService.sendDeadlineMissed(late)).thenReturn(true);
+        when(notificationService.sendDeadlineWarning(eq(atRisk), anyLong())).thenReturn(true);
+
+        dispatcher.dispatch();
+
+        verify(outbox).markDelivered(eq(List.of(10L, 11L)), any(Instant.class));
+        verify(outbox, never()).reschedule(argThat(ids -> !ids.isEmpty()), any());
+    }
+
+    @Test
+    void testFailedEventIsRescheduledWithBackoff() {
+        ProcessEntity late = process(1L);
+        claim(List.of(new OutboxEvent(10L, 1L, WebhookNotificationService.DEADLINE_MISSED, 2)), late);
+        when(notificationService.sendDeadlineMissed(late)).thenReturn(false);
+        Instant before = Instant.now();
+
+        dispatcher.dispatch();
+
+        // Second attempt failed: 10s * 2^1.
+        verify(outbox).reschedule(eq(List.of(10L)), argThat(next ->
+                !next.isBefore(before.plusSeconds(20)) && next.isBefore(before.plusSeconds(25))));
+        verify(outbox).markDelivered(eq(List.of()), any(Instant.class));
+    }
+
+    @Test
+    void testEventsAnAbortedPassNeverSentAreReleasedWithoutAnAttempt() {
+        List<OutboxEvent> events = new ArrayList<>();
+        List<ProcessEntity> processes = new ArrayList<>();
+        for (long id = 1; id <= 7; id++) {
+            events.add(new OutboxEvent(10L + id, id, WebhookNotificationService.DEADLINE_MISSED, 1));
+            processes.add(process(id));
+        }
+        claim(events, processes.toArray(new ProcessEntity[0]));
+        when(notificationService.sendDeadlineMissed(any())).thenReturn(false);
+
+        dispatcher.dispatch();
+
+        // The pass aborts after five consecutive failures; only those five were attempted.
+        verify(notificationService, times(5)).sendDeadlineMissed(any());
+        verify(outbox).reschedule(eq(List.of(11L, 12L, 13L, 14L, 15L)), any(Instant.class));
+        verify(outbox).release(eq(List.of(16L, 17L)), any(Instant.class));
+    }
+
+    @Test
+    void testCircuitOpeningMidPassReleasesTheRest() {
+        ProcessEntity first = process(1L);
+        ProcessEntity second = process(2L);
+        claim(List.of(new OutboxEvent(10L, 1L, WebhookNotificationService.DEADLINE_MISSED, 2),
+                new OutboxEvent(11L, 2L, WebhookNotificationService.DEADLINE_MISSED, 2)), first, second);
+        // Available for the claim and the first request, then the breaker opens.
+        when(notificationService.isAvailable()).thenReturn(true).thenReturn(true).thenReturn(false);
+        when(notificationService.sendDeadlineMissed(first)).thenReturn(false);
+
+        dispatcher.dispatch();
+
+        verify(notificationService, never()).sendDeadlineMissed(second);
+        verify(outbox).reschedule(eq(List.of(10L)), any(Instant.class));
+        verify(outbox).release(eq(List.of(11L)), any(Instant.class));
+    }
+
+    @Test
+    void testEventOutOfAttemptsIsDeadLettered() {
+        ProcessEntity late = process(1L);
+        claim(List.of(new OutboxEvent(10L, 1L, WebhookNotificationService.DEADLINE_MISSED, MAX_ATTEMPTS)), late);
+        when(notificationService.sendDeadlineMissed(late)).thenReturn(false);
+
+        dispatcher.dispatch();
+
+        verify(outbox).deadLetter(List.of(10L));
+        verify(outbox, never()).reschedule(any(), any());
+    }
+
+    @Test
+    void testEventWithoutProcessOrUnknownTypeIsDeadLettered() {
+        claim(List.of(new OutboxEvent(10L, 99L, WebhookNotificationService.DEADLINE_MISSED, 1),
+                new OutboxEvent(11L, 1L, "process.unknown", 1)), process(1L));
+
+        dispatcher.dispatch();
+
+        verify(outbox).deadLetter(List.of(10L, 11L));
+        verify(notificationService, never()).sendDeadlineMissed(any());
+    }
+
+    @Test
+    void testDepthGaugesPublishedEachCycle() {
+        claim(List.of());
+        when(outbox.depth()).thenReturn(new NotificationOutboxRepository.Depth(4, 2));
+
+        dispatcher.dispatch();
+
+        verify(metricsService).updateOutboxDepth(4, 2);
+    }
+
+    @Test
+    void testBackoffDoublesUpToCap() {
+        Duration base = Duration.ofSeconds(10);
+        Duration cap = Duration.ofMinutes(1);
+
+        assertEquals(Duration.ofSeconds(10), NotificationOutboxDispatcher.backoffAfter(1, base, cap));
+        assertEquals(Duration.ofSeconds(20), NotificationOutboxDispatcher.backoffAfter(2, base, cap));
+        assertEquals(Duration.ofSeconds(40), NotificationOutboxDispatcher.backoffAfter(3, base, cap));
+        assertEquals(cap, NotificationOutboxDispatcher.backoffAfter(4, base, cap));
+        assertEquals(cap, NotificationOutboxDispatcher.backoffAfter(100, base, cap));
+    }
+
+    @Test
+    void testOpenCircuitSkipsClaiming() {
+        when(notificationService.isAvailable()).thenReturn(false);
+
+        dispatcher.dispatch();
+
+        // Claiming would count an attempt against every event without sending it.
+        verify(outbox, never()).claimDue(any(), any(), anyInt());
+        verify(metricsService).updateOutboxDepth(0, 0);
+    }
+}
@@ -0,0 +1,117 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.model.ProcessStatus;
+import com.totrackit.service.AdvisoryLockService;
+import com.totrackit.service.MaxDurations;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.RunawayProcessService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RunawayProcessTask chunking, limits and per-run side effects.
+ */
+@ExtendWith(MockitoExtension.class)
+class RunawayProcessTaskTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-02T00:00:00Z");
+
+    @Mock
+    private RunawayProcessService runawayProcesses;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private AdvisoryLockService advisoryLockService;
+
+    private RunawayProcessTask task(String maxDurations, int chunkSize, int chunksPerPass) {
+        return new RunawayProcessTask(runawayProcesses, new MaxDurations(maxDurations), metricsService,
+                advisoryLockService, null, chunkSize, chunksPerPass);
+    }
+
+    private static List<ProcessEntity> failed(String name, int count) {
+        List<ProcessEntity> runs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ProcessEntity run = new ProcessEntity("run-" + i, name);
+            run.setId((long) i + 1);
+            run.setStatus(ProcessStatus.FAILED);
+            run.setCompletedAt(NOW);
+            runs.add(run);
+        }
+        return runs;
+    }
+
+    @Test
+    void testEachLimitIsAppliedFromItsOwnCutoff() {
+        when(runawayProcesses.failExpired(any(), any(), any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        task("etl=6h,*=1d", 100, 5).scan(NOW);
+
+        verify(runawayProcesses).failExpired(eq("etl"), eq(List.of("etl")), eq(Instant.parse("2026-01-01T18:00:00Z")),
+                eq(NOW), eq("Exceeded max duration of 6h"), eq(100));
+        verify(runawayProcesses).failExpired(isNull(), eq(List.of("etl")), eq(Instant.parse("2026-01-01T00:00:00Z")),
+                eq(NOW), eq("Exceeded max duration of 1d"), eq(100));
+    }
+
+    @Test
+    void testFullChunksAreFollowedUntilAShortOne() {
+        when(runawayProcesses.failExpired(eq("etl"), any(), any(), any(), any(), eq(2)))
+                .thenReturn(failed("etl", 2))
+                .thenReturn(failed("etl", 2))
+                .thenReturn(failed("etl", 1));
+
+        assertEquals(5, task("etl=6h", 2, 10).scan(NOW));
+
+        verify(runawayProcesses, times(3)).failExpired(eq("etl"), any(), any(), any(), any(), eq(2));
+    }
+
+    @Test
+    void testChunksPerPassBoundsEachLimit() {
+        when(runawayProcesses.failExpired(eq("etl"), any(), any(), any(), any(), eq(2))).thenReturn(failed("etl", 2));
+
+        assertEquals(6, task("etl=6h", 2, 3).scan(NOW));
+
+        verify(runawayProcesses, times(3)).failExpired(eq("etl"), any(), any(), any(), any(), eq(2));
+    }
+
+    @Test
+    void testEveryFailedRunIsCounted() {
+        List<ProcessEntity> runs = failed("etl", 2);
+        when(runawayProcesses.failExpired(eq("etl"), any(), any(), any(), any(), anyInt())).thenReturn(runs);
+
+        task("etl=6h", 100, 5).scan(NOW);
+
+        for (ProcessEntity run : runs) {
+            verify(metricsService).recordProcessCompleted(run);
+        }
+        verify(metricsService, times(2)).recordProcessTimedOut("etl");
+        verify(metricsService).recordDeadlineScanPass(eq("process_timed_out"), eq(2), anyLong());
+    }
+
+    @Test
+    void testNoLimitsMeansNoScan() {
+        task("", 100, 5).failRunawayProcesses();
+
+        verify(advisoryLockService, never()).runExclusive(anyLong(), any());
+        verify(runawayProcesses, never()).failExpired(any(), any(), any(), any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,126 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.repository.ProcessRepository;
+import com.totrackit.service.AdvisoryLockService;
+import com.totrackit.service.LeaderElection;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.WebhookNotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StallDetectionTask delivery, marking, metrics and
+ * coordination semantics.
+ */
+@ExtendWith(MockitoExtension.class)
+class StallDetectionTaskTest {
+
+    private static final int BATCH = 500;
+
+    @Mock
+    private ProcessRepository processRepository;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private AdvisoryLockService advisoryLockService;
+
+    @Mock
+    private WebhookNotificationService notificationService;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Mock
+    private WebhookSubscriptionDispatcher subscriptions;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notificationService.isEnabled()).thenReturn(true);
+        lenient().when(notificationService.isAvailable()).thenReturn(true);
+        lenient().when(advisoryLockService.runExclusive(anyLong(), any(Runnable.class)))
+                .thenAnswer(invocation -> {
+                    ((Runnable) invocation.getArgument(1)).run();
+                    return true;
+                });
+    }
+
+    private StallDetectionTask newTask(WebhookNotificationService webhook, LeaderElection leader) {
+        return new StallDetectionTask(processRepository, metricsService, advisoryLockService, webhook, leader,
+                subscriptions, BATCH, 1, 1);
+    }
+
+    private ProcessEntity stalledProcess(Long id, String processId) {
+        ProcessEntity entity = new ProcessEntity(processId, "etl");
+        entity.setId(id);
+        entity.setStallTimeoutSeconds(600);
+        entity.setLastActivityAt(Instant.now().minusSeconds(900));
+        entity.setStallAt(Instant.now().minusSeconds(300));
+        return entity;
+    }
+
+    @Test
+    void testDeliveredStallsAreMarkedCountedAndRouted() {
+        ProcessEntity delivered = stalledProcess(1L, "run-1");
+        ProcessEntity rejected = stalledProcess(2L, "run-2");
+        when(processRepository.findStalledUnnotified(any(Instant.class), eq(BATCH)))
+                .thenReturn(List.of(delivered, rejected));
+        when(notificationService.sendStalled(delivered)).thenReturn(true);
+        when(notificationService.sendStalled(rejected)).thenReturn(false);
+
+        newTask(notificationService, null).detectStalledProcesses();
+
+        verify(processRepository).markStallNotifiedBatch(eq(List.of(1L)), any(Instant.class));
+        verify(metricsService).recordProcessStalled("etl");
+        verify(subscriptions).routeStalledEvents(List.of(delivered));
+    }
+
+    @Test
+    void testWithoutWebhookStallsAreStillMarkedAndCounted() {
+        ProcessEntity stalled = stalledProcess(1L, "run-1");
+        when(processRepository.findStalledUnnotified(any(Instant.class), anyInt())).thenReturn(List.of(stalled));
+
+        newTask(null, null).detectStalledProcesses();
+
+        verify(processRepository).markStallNotifiedBatch(eq(List.of(1L)), any(Instant.class));
+        verify(metricsService).recordProcessStalled("etl");
+    }
+
+    @Test
+    void testOpenCircuitLeavesStallsDue() {
+        when(notificationService.isAvailable()).thenReturn(false);
+
+        newTask(notificationService, null).detectStalledProcesses();
+
+        verify(processRepository, never()).findStalledUnnotified(any(Instant.class), anyInt());
+        verify(processRepository, never()).markStallNotifiedBatch(anyList(), any(Instant.class));
+    }
+
+    @Test
+    void testOnlyTheLeaderScansWithLeaderElection() {
+        when(leaderElection.isLeader()).thenReturn(false);
+
+        newTask(notificationService, leaderElection).detectStalledProcesses();
+
+        verify(processRepository, never()).findStalledUnnotified(any(Instant.class), anyInt());
+        verify(advisoryLockService, never()).runExclusive(anyLong(), any(Runnable.class));
+    }
+}
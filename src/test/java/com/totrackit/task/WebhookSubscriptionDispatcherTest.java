@@ -0,0 +1,218 @@
+package com.totrackit.task;
+
+import com.totrackit.entity.ProcessEntity;
+import com.totrackit.event.ProcessLifecycleEvent;
+import com.totrackit.model.ProcessStatus;
+import com.totrackit.model.WebhookSubscription;
+import com.totrackit.repository.SubscriptionDeadlineRepository;
+import com.totrackit.service.MetricsService;
+import com.totrackit.service.WarningLevels;
+import com.totrackit.service.WebhookEndpoint;
+import com.totrackit.service.WebhookNotificationService;
+import com.totrackit.service.WebhookPayloads;
+import com.totrackit.service.WebhookRoutingIndex;
+import com.totrackit.service.WebhookSubscriptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for webhook subscription dispatch: events reach only matching
+ * subscriptions, each subscription has its own queue so one that is full
+ * or failing does not affect the others, and deleted subscriptions' queues
+ * are closed. Worker threads are not started; tests drain queues directly.
+ */
+@ExtendWith(MockitoExtension.class)
+public class WebhookSubscriptionDispatcherTest {
+
+    private static final String BILLING_URL = "http://billing.example/hook";
+    private static final String ALL_URL = "http://all.example/hook";
+
+    @Mock
+    private WebhookSubscriptionService subscriptionService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private SubscriptionDeadlineRepository deadlineMarkers;
+
+    @Mock
+    private WebhookEndpoint billingEndpoint;
+
+    @Mock
+    private WebhookEndpoint allEndpoint;
+
+    private WebhookRoutingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        useSubscriptions(
+                subscription(1L, BILLING_URL, "billing-*", WebhookNotificationService.DEADLINE_MISSED),
+                subscription(2L, ALL_URL, null, WebhookNotificationService.DEADLINE_MISSED,
+                        WebhookNotificationService.PROCESS_COMPLETED));
+        lenient().when(subscriptionService.index()).thenAnswer(invocation -> index);
+        lenient().when(subscriptionService.match(anyString(), any(ProcessEntity.class))).thenAnswer(invocation ->
+                index.match(invocation.getArgument(0), ((ProcessEntity) invocation.getArgument(1)).getName(),
+                        Set.of()));
+    }
+
+    private void useSubscriptions(WebhookSubscription... subscriptions) {
+        index = WebhookRoutingIndex.build(List.of(subscriptions));
+    }
+
+    private WebhookSubscriptionDispatcher newDispatcher(int capacity) {
+        Map<String, WebhookEndpoint> endpoints = Map.of(BILLING_URL, billingEndpoint, ALL_URL, allEndpoint);
+        return new WebhookSubscriptionDispatcher(subscriptionService, new WebhookPayloads(""), metricsService,
+                deadlineMarkers, WarningLevels.of(0.5, 0.75), endpoints::get, capacity, 500, 1, false);
+    }
+
+    private static WebhookSubscription subscription(long id, String url, String namePattern, String... events) {
+        return new WebhookSubscription(id, url, namePattern, Map.of(), Set.of(events), Instant.now());
+    }
+
+    private static ProcessEntity process(Long id, String name) {
+        ProcessEntity entity = new ProcessEntity("proc-" + id, name);
+        entity.setId(id);
+        entity.setStatus(ProcessStatus.ACTIVE);
+        entity.setStartedAt(Instant.now().minusSeconds(600));
+        entity.setDeadline(Instant.now().minusSeconds(60));
+        return entity;
+    }
+
+    @Test
+    void testEventsReachOnlyMatchingSubscriptions() throws Exception {
+        WebhookSubscriptionDispatcher dispatcher = newDispatcher(100);
+        ProcessEntity billing = process(1L, "billing-nightly");
+        ProcessEntity other = process(2L, "reports");
+        when(billingEndpoint.post(any(), eq(WebhookNotificationService.DEADLINE_MISSED), anyString()))
+                .thenReturn(true);
+        when(allEndpoint.post(any(), eq(WebhookNotificationService.DEADLINE_MISSED), anyString()))
+                .thenReturn(true);
+
+        dispatcher.routeDeadlineEvents(WebhookNotificationService.DEADLINE_MISSED, List.of(billing, other),
+                Instant.now());
+
+        assertEquals(1, dispatcher.queued(1L));
+        assertEquals(2, dispatcher.queued(2L));
+        assertEquals(1, dispatcher.dispatchPending(1L, 0));
+        assertEquals(2, dispatcher.dispatchPending(2L, 0));
+        verify(billingEndpoint).post(argThat(payload -> "proc-1".equals(((Map<?, ?>) payload).get("id"))),
+                eq(WebhookNotificationService.DEADLINE_MISSED), anyString());
+        verify(metricsService).recordSubscriptionEvents(1L, WebhookNotificationService.DEADLINE_MISSED,
+                "delivered", 1);
+        verify(metricsService).recordSubscriptionEvents(2L, WebhookNotificationService.DEADLINE_MISSED,
+                "delivered", 2);
+    }
+
+    @Test
+    void testDueMarkersRouteMissedEventsAndCrossedWarnings() throws Exception {
+        useSubscriptions(subscription(2L, ALL_URL, null, WebhookNotificationService.DEADLINE_MISSED,
+                WebhookNotificationService.DEADLINE_WARNING));
+        WebhookSubscriptionDispatcher dispatcher = newDispatcher(100);
+        ProcessEntity missed = process(1L, "reports");
+        ProcessEntity warned = process(2L, "reports");
+        warned.setDeadline(Instant.now().plusSeconds(300));
+        warned.setSubscriptionDueAt(warned.getDeadline());
+        warned.setDeadlineWarningLevel(2);
+        ProcessEntity notYet = process(3L, "reports");
+        notYet.setDeadline(Instant.now().plusSeconds(300));
+        notYet.setSubscriptionDueAt(notYet.getDeadline());
+        when(deadlineMarkers.takeDue(any(Instant.class), eq("{0.5,0.75}"), eq(500)))
+                .thenReturn(List.of(missed, warned, notYet));
+        when(allEndpoint.post(any(), anyString(), anyString())).thenReturn(true);
+
+        assertEquals(3, dispatcher.routeDueDeadlineEvents(Instant.now()));
+
+        assertEquals(2, dispatcher.dispatchPending(2L, 0));
+        verify(allEndpoint).post(argThat(payload -> "proc-1".equals(((Map<?, ?>) payload).get("id"))),
+                eq(WebhookNotificationService.DEADLINE_MISSED), anyString());
+        verify(allEndpoint).post(argThat(payload -> "proc-2".equals(((Map<?, ?>) payload).get("id"))
+                        && Integer.valueOf(2).equals(((Map<?, ?>) payload).get("warning_level"))),
+                eq(WebhookNotificationService.DEADLINE_WARNING), anyString());
+    }
+
+    @Test
+    void testMarkersAreLeftAloneWithoutSubscriptions() {
+        useSubscriptions();
+        WebhookSubscriptionDispatcher dispatcher = newDispatcher(100);
+
+        assertEquals(0, dispatcher.routeDueDeadlineEvents(Instant.now()));
+
+        verify(deadlineMarkers, never()).takeDue(any(Instant.class), anyString(), anyInt());
+    }
+
+    @Test
+    void testLifecycleEventsFollowSubscribedTypes() throws Exception {
+        WebhookSubscriptionDispatcher dispatcher = newDispatcher(100);
+        ProcessEntity completed = process(3L, "billing-nightly");
+        completed.setStatus(ProcessStatus.COMPLETED);
+        when(allEndpoint.post(any(), eq(WebhookNotificationService.PROCESS_COMPLETED), anyString()))
+                .thenReturn(true);
+
+        dispatcher.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.COMPLETED, completed));
+        dispatcher.onLifecycle(new ProcessLifecycleEvent(ProcessLifecycleEvent.Type.DELETED, completed));
+
+        assertEquals(0, dispatcher.queued(1L));
+        assertEquals(1, dispatcher.dispatchPending(2L, 0));
+        verify(allEndpoint).post(argThat(payload -> "COMPLETED".equals(((Map<?, ?>) payload).get("status"))),
+                eq(WebhookNotificationService.PROCESS_COMPLETED), anyString());
+    }
+
+    @Test
+    void testFullQueueDropsOnlyThatSubscriptionsEvents() throws Exception {
+        WebhookSubscriptionDispatcher dispatcher = newDispatcher(1);
+        when(billingEndpoint.post(any(), anyString(), anyString())).thenReturn(false);
+        when(allEndpoint.post(any(), anyString(), anyString())).thenReturn(true);
+
+        dispatcher.routeDeadlineEvents(WebhookNotificationService.DEADLINE_MISSED,
+                List.of(process(4L, "billing-a")), Instant.now());
+        assertEquals(1, dispatcher.dispatchPending(2L, 0));
+        // Subscription 1 never drains: its second event is dropped, subscription 2 still gets it.
+        dispatcher.routeDeadlineEvents(WebhookNotificationService.DEADLINE_MISSED,
+                List.of(process(5L, "billing-b")), Instant.now());
+        assertEquals(1, dispatcher.dispatchPending(2L, 0));
+
+        verify(metricsService).recordSubscriptionEvents(1L, WebhookNotificationService.DEADLINE_MISSED,
+                "dropped", 1);
+        verify(metricsService, never()).recordSubscriptionEvents(eq(2L), anyString(), eq("dropped"),
+                anyInt());
+
+        assertEquals(1, dispatcher.dispatchPending(1L, 0));
+        verify(metricsService).recordSubscriptionEvents(1L, WebhookNotificationService.DEADLINE_MISSED,
+                "failed", 1);
+    }
+
+    @Test
+    void testDeletedSubscriptionQueuesAreClosed() {
+        WebhookSubscriptionDispatcher dispatcher = newDispatcher(100);
+        dispatcher.routeDeadlineEvents(WebhookNotificationService.DEADLINE_MISSED,
+                List.of(process(6L, "billing-a")), Instant.now());
+
+        useSubscriptions(subscription(2L, ALL_URL, null, WebhookNotificationService.DEADLINE_MISSED));
+        dispatcher.closeDeleted();
+
+        verify(billingEndpoint).close();
+        verify(allEndpoint, never()).close();
+        assertEquals(0, dispatcher.queued(1L));
+        assertEquals(1, dispatcher.queued(2L));
+    }
+}
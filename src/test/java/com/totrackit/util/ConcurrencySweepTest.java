@@ -0,0 +1,80 @@
+package com.totrackit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bucket arithmetic for the concurrency sweep-line.
+ */
+class ConcurrencySweepTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static Instant at(int minutes) {
+        return T0.plus(Duration.ofMinutes(minutes));
+    }
+
+    @Test
+    void testMaxAndTimeWeightedAverage() {
+        // One run already executing at T0 that ends at 2:00; another runs 0:30-1:30.
+        ConcurrencySweep sweep = new ConcurrencySweep(T0, at(240), Duration.ofHours(1), 1);
+        sweep.start(at(30));
+        sweep.end(at(90));
+        sweep.end(at(120));
+        sweep.finish();
+
+        assertEquals(4, sweep.getBucketCount());
+        assertEquals(2, sweep.getMax(0));
+        assertEquals(1.5, sweep.getAverage(0), 1e-9);
+        assertEquals(2, sweep.getMax(1));
+        assertEquals(1.5, sweep.getAverage(1), 1e-9);
+        // The initial run ends exactly on the 2:00 edge: it does not leak into bucket 2.
+        assertEquals(0, sweep.getMax(2));
+        assertEquals(0.0, sweep.getAverage(2), 1e-9);
+        assertEquals(at(120), sweep.getBucketStart(2));
+    }
+
+    @Test
+    void testOpenRunCarriesThroughLaterBuckets() {
+        ConcurrencySweep sweep = new ConcurrencySweep(T0, at(180), Duration.ofHours(1), 0);
+        sweep.start(at(150));
+        sweep.finish();
+
+        assertEquals(0, sweep.getMax(0));
+        assertEquals(0, sweep.getMax(1));
+        assertEquals(1, sweep.getMax(2));
+        assertEquals(0.5, sweep.getAverage(2), 1e-9);
+    }
+
+    @Test
+    void testShortLastBucketAveragesOverItsOwnSpan() {
+        ConcurrencySweep sweep = new ConcurrencySweep(T0, at(90), Duration.ofHours(1), 1);
+        sweep.finish();
+
+        assertEquals(2, sweep.getBucketCount());
+        assertEquals(1.0, sweep.getAverage(1), 1e-9);
+    }
+
+    @Test
+    void testUnmatchedCompletionNeverGoesNegative() {
+        ConcurrencySweep sweep = new ConcurrencySweep(T0, at(60), Duration.ofMinutes(30), 0);
+        sweep.end(at(10));
+        sweep.start(at(20));
+        sweep.finish();
+
+        assertEquals(1, sweep.getMax(0));
+        assertEquals(1.0, sweep.getAverage(1), 1e-9);
+    }
+
+    @Test
+    void testOutOfOrderEventsAreRejected() {
+        ConcurrencySweep sweep = new ConcurrencySweep(T0, at(60), Duration.ofMinutes(30), 0);
+        sweep.start(at(40));
+
+        assertThrows(IllegalArgumentException.class, () -> sweep.start(at(10)));
+    }
+}
@@ -0,0 +1,38 @@
+package com.totrackit.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Estimation bounds of the Count-Min sketch.
+ */
+class CountMinSketchTest {
+
+    @Test
+    void testNeverUndercountsAndStaysCloseForFrequentKeys() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("key-" + (i % 500));
+        }
+        for (int i = 0; i < 300; i++) {
+            sketch.add("frequent");
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(sketch.estimate("key-" + i) >= 20);
+        }
+        long estimate = sketch.estimate("frequent");
+        assertTrue(estimate >= 300);
+        // e / width * total ~= 27 with high probability
+        assertTrue(estimate <= 300 + 60, "estimate " + estimate);
+    }
+
+    @Test
+    void testUnseenKeyEstimateIsSmall() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        sketch.add("a");
+
+        assertEquals(0, sketch.estimate("never-added"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.totrackit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scheduling, cancellation and rotation behaviour of the hashed timer wheel.
+ */
+class HashedTimerWheelTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    private static List<Long> advance(HashedTimerWheel wheel, long nowMillis) {
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(nowMillis, fired::add);
+        return fired;
+    }
+
+    @Test
+    void testFiresAtFirstTickAfterDueTime() {
+        HashedTimerWheel wheel = new HashedTimerWheel(1000, 8, T0);
+        wheel.schedule(1L, T0 + 2_500);
+        wheel.schedule(2L, T0 + 1_000);
+
+        assertEquals(List.of(), advance(wheel, T0 + 500));
+        assertEquals(List.of(2L), advance(wheel, T0 + 1_000));
+        assertEquals(List.of(), advance(wheel, T0 + 2_999));
+        assertEquals(List.of(1L), advance(wheel, T0 + 3_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testTimersBeyondOneRotationWaitForTheirRound() {
+        HashedTimerWheel wheel = new HashedTimerWheel(1000, 4, T0);
+        wheel.schedule(7L, T0 + 9_000); // two rotations of a 4-slot wheel, then one more tick
+
+        for (long t = T0; t < T0 + 9_000; t += 1_000) {
+            assertEquals(List.of(), advance(wheel, t));
+        }
+        assertEquals(List.of(7L), advance(wheel, T0 + 9_000));
+    }
+
+    @Test
+    void testCancelRemovesOnlyTheMatchingTimer() {
+        HashedTimerWheel wheel = new HashedTimerWheel(1000, 8, T0);
+        wheel.schedule(1L, T0 + 3_000);
+        wheel.schedule(1L, T0 + 5_000); // same id, other instant (warning vs deadline)
+        wheel.schedule(2L, T0 + 3_000);
+
+        assertTrue(wheel.cancel(1L, T0 + 3_000));
+        assertFalse(wheel.cancel(1L, T0 + 4_000));
+        assertEquals(2, wheel.size());
+        assertEquals(List.of(2L), advance(wheel, T0 + 3_000));
+        assertEquals(List.of(1L), advance(wheel, T0 + 5_000));
+    }
+
+    @Test
+    void testPastDueTimerFiresOnNextAdvance() {
+        HashedTimerWheel wheel = new HashedTimerWheel(1000, 8, T0 + 10_000);
+        wheel.schedule(3L, T0);
+
+        assertEquals(List.of(3L), advance(wheel, T0 + 10_000));
+    }
+
+    @Test
+    void testLongPauseCatchesUpInOnePass() {
+        HashedTimerWheel wheel = new HashedTimerWheel(1000, 4, T0);
+        for (long id = 0; id < 20; id++) {
+            wheel.schedule(id, T0 + id * 1_000);
+        }
+        wheel.schedule(99L, T0 + 60_000);
+
+        List<Long> fired = advance(wheel, T0 + 30_000);
+
+        assertEquals(20, fired.size());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(99L), advance(wheel, T0 + 60_000));
+    }
+
+    @Test
+    void testBucketsGrowUnderLoad() {
+        HashedTimerWheel wheel = new HashedTimerWheel(1000, 2, T0);
+        for (long id = 0; id < 1_000; id++) {
+            wheel.schedule(id, T0 + 1_000);
+        }
+
+        assertEquals(1_000, advance(wheel, T0 + 1_000).size());
+    }
+}
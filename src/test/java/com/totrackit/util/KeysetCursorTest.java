@@ -0,0 +1,35 @@
+package com.totrackit.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip and validation tests for the opaque keyset cursor.
+ */
+class KeysetCursorTest {
+
+    @Test
+    void testRoundTrip() {
+        KeysetCursor cursor = KeysetCursor.decode(
+                new KeysetCursor("RECENT", 1_700_000_000_123456L, "dataImport").encode());
+
+        assertEquals("RECENT", cursor.getOrdering());
+        assertEquals(1_700_000_000_123456L, cursor.getSortValue());
+        assertEquals("dataImport", cursor.getName());
+    }
+
+    @Test
+    void testNegativeSortValueAndSeparatorInName() {
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor("NAME", -1, "a:b").encode());
+
+        assertEquals(-1, cursor.getSortValue());
+        assertEquals("a:b", cursor.getName());
+    }
+
+    @Test
+    void testGarbageIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(""));
+    }
+}
@@ -0,0 +1,46 @@
+package com.totrackit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guarantees of the Space-Saving summary under eviction pressure.
+ */
+class SpaceSavingTest {
+
+    @Test
+    void testExactWhileUnderCapacity() {
+        SpaceSaving<String> summary = new SpaceSaving<>(10);
+        for (String item : List.of("a", "b", "a", "c", "a", "b")) {
+            summary.offer(item);
+        }
+
+        List<SpaceSaving.Counter<String>> top = summary.top(2);
+        assertEquals("a", top.get(0).getItem());
+        assertEquals(3, top.get(0).getCount());
+        assertEquals(0, top.get(0).getError());
+        assertEquals("b", top.get(1).getItem());
+        assertEquals(6, summary.getTotal());
+    }
+
+    @Test
+    void testHeavyHittersSurviveLongTailWithBoundedError() {
+        SpaceSaving<String> summary = new SpaceSaving<>(20);
+        for (int i = 0; i < 5_000; i++) {
+            summary.offer("tail-" + i);
+            if (i % 10 == 0) {
+                summary.offer("heavy");
+            }
+        }
+
+        SpaceSaving.Counter<String> first = summary.top(1).get(0);
+        assertEquals("heavy", first.getItem());
+        // The true count (500) lies within [count - error, count].
+        assertTrue(first.getCount() >= 500);
+        assertTrue(first.getCount() - first.getError() <= 500);
+        assertEquals(20, summary.top(100).size());
+    }
+}
@@ -14,10 +14,33 @@ CREATE TABLE IF NOT EXISTS processes (
     namespace_id BIGINT,
     deadline_notified_at TIMESTAMP,
     deadline_warned_at TIMESTAMP,
+    deadline_warning_level SMALLINT NOT NULL DEFAULT 0,
+    stall_timeout_seconds INTEGER,
+    last_activity_at TIMESTAMP,
+    stall_at TIMESTAMP,
+    stall_notified_at TIMESTAMP,
+    failure_reason VARCHAR(200),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP(),
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP()
 );
 
 -- Add check constraint for valid status values
 ALTER TABLE processes ADD CONSTRAINT IF NOT EXISTS chk_processes_status
-    CHECK (status IN ('ACTIVE', 'COMPLETED', 'FAILED'));
\ No newline at end of file
+    CHECK (status IN ('ACTIVE', 'COMPLETED', 'FAILED'));
+CREATE TABLE IF NOT EXISTS webhook_subscriptions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    url VARCHAR(2000) NOT NULL,
+    name_pattern VARCHAR(101),
+    tags CLOB NOT NULL DEFAULT '{}',
+    events VARCHAR(200) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP()
+);
+
+CREATE TABLE IF NOT EXISTS expected_schedules (
+    name VARCHAR(100) PRIMARY KEY,
+    cron VARCHAR(100) NOT NULL,
+    time_zone VARCHAR(64) NOT NULL DEFAULT 'UTC',
+    grace_seconds INTEGER NOT NULL,
+    checked_through TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP()
+);